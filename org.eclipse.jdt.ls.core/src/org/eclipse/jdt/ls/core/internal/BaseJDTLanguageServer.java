@@ -26,7 +26,6 @@ import org.eclipse.lsp4j.RegistrationParams;
 import org.eclipse.lsp4j.Unregistration;
 import org.eclipse.lsp4j.UnregistrationParams;
 import org.eclipse.lsp4j.jsonrpc.CancelChecker;
-import org.eclipse.lsp4j.jsonrpc.CompletableFutures;
 
 public class BaseJDTLanguageServer {
 	/**
@@ -84,7 +83,15 @@ public class BaseJDTLanguageServer {
 	}
 
 	protected <R> CompletableFuture<R> computeAsync(Function<IProgressMonitor, R> code) {
-		return CompletableFutures.computeAsync(cc -> code.apply(toMonitor(cc)));
+		return computeAsync(RequestPriority.BACKGROUND, code);
+	}
+
+	/**
+	 * Runs the code asynchronously on the {@link RequestScheduler} pool of the
+	 * given priority class.
+	 */
+	protected <R> CompletableFuture<R> computeAsync(RequestPriority priority, Function<IProgressMonitor, R> code) {
+		return JavaLanguageServerPlugin.getRequestScheduler().computeAsync(priority, cc -> code.apply(toMonitor(cc)));
 	}
 
 	protected IProgressMonitor toMonitor(CancelChecker checker) {
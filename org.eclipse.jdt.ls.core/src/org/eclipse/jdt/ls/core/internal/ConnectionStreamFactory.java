@@ -16,18 +16,21 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.net.Socket;
+import java.net.InetSocketAddress;
 import java.net.StandardProtocolFamily;
 import java.net.UnixDomainSocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.SocketChannel;
 import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 import java.util.stream.Stream;
 
 import org.eclipse.core.runtime.Platform;
@@ -58,9 +61,9 @@ public class ConnectionStreamFactory {
 		}
 
 		private void initializeConnection() throws IOException {
-			Socket socket = new Socket(host, port);
-			fInputStream = socket.getInputStream();
-			fOutputStream = socket.getOutputStream();
+			SocketChannel channel = SocketChannel.open(new InetSocketAddress(host, port));
+			fInputStream = new ChannelInputStream(channel);
+			fOutputStream = new ChannelOutputStream(channel);
 		}
 
 		@Override
@@ -145,102 +148,199 @@ public class ConnectionStreamFactory {
 
 	}
 
-	public class NamedPipeInputStream extends InputStream {
+	/**
+	 * Reads a channel through a direct buffer. Large reads, such as the
+	 * content of the messages, go straight from the channel to the
+	 * destination array.
+	 */
+	public static class ChannelInputStream extends InputStream {
 
-		private ReadableByteChannel unixChannel;
-		private AsynchronousFileChannel winChannel;
-		private ByteBuffer buffer = ByteBuffer.allocate(1024);
-		private int readyBytes = 0;
+		private static final int BUFFER_SIZE = 64 * 1024;
 
-		public NamedPipeInputStream(ReadableByteChannel channel) {
-			this.unixChannel = channel;
+		private final ReadableByteChannel unixChannel;
+		private final AsynchronousFileChannel winChannel;
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+		public ChannelInputStream(ReadableByteChannel channel) {
+			this(channel, null);
 		}
 
-		public NamedPipeInputStream(AsynchronousFileChannel channel) {
-			this.winChannel = channel;
+		public ChannelInputStream(AsynchronousFileChannel channel) {
+			this(null, channel);
+		}
+
+		private ChannelInputStream(ReadableByteChannel unixChannel, AsynchronousFileChannel winChannel) {
+			this.unixChannel = unixChannel;
+			this.winChannel = winChannel;
+			buffer.limit(0);
 		}
 
 		@Override
 		public int read() throws IOException {
-			if (buffer.position() < readyBytes) {
-				return buffer.get() & 0xFF;
+			if (!buffer.hasRemaining() && fill() < 0) {
+				return -1; // EOF
 			}
-			try {
-				buffer.clear();
-				if (winChannel != null) {
-					readyBytes = winChannel.read(buffer, 0).get();
-				} else {
-					readyBytes = unixChannel.read(buffer);
+			return buffer.get() & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			Objects.checkFromIndexSize(off, len, b.length);
+			if (len == 0) {
+				return 0;
+			}
+			if (!buffer.hasRemaining()) {
+				if (len >= BUFFER_SIZE) {
+					return readChannel(ByteBuffer.wrap(b, off, len));
 				}
-				if (readyBytes == -1) {
-					return -1; // EOF
+				if (fill() < 0) {
+					return -1;
 				}
-				buffer.flip();
-				return buffer.get() & 0xFF;
-			} catch (InterruptedException | ExecutionException e) {
-				throw new IOException(e);
 			}
+			int n = Math.min(len, buffer.remaining());
+			buffer.get(b, off, n);
+			return n;
+		}
+
+		@Override
+		public int available() throws IOException {
+			return buffer.remaining();
+		}
+
+		private int fill() throws IOException {
+			buffer.clear();
+			int n = readChannel(buffer);
+			buffer.flip();
+			return n;
+		}
+
+		private int readChannel(ByteBuffer destination) throws IOException {
+			int n;
+			do {
+				if (winChannel != null) {
+					try {
+						n = winChannel.read(destination, 0).get();
+					} catch (InterruptedException | ExecutionException e) {
+						throw new IOException(e);
+					}
+				} else {
+					n = unixChannel.read(destination);
+				}
+			} while (n == 0);
+			return n;
 		}
 	}
 
-	public class NamedPipeOutputStream extends OutputStream {
+	/**
+	 * Writes to a channel. The header of a message, written by lsp4j just
+	 * before its content, is held back so that both are written together,
+	 * with a gathering write when the channel supports it.
+	 */
+	public static class ChannelOutputStream extends OutputStream {
+
+		private static final byte[] HEADER_START = "Content-Length:".getBytes(StandardCharsets.US_ASCII);
+		private static final byte[] HEADER_END = "\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
 
-		private WritableByteChannel unixChannel;
-		private AsynchronousFileChannel winChannel;
-		private ByteBuffer buffer = ByteBuffer.allocate(1);
+		private final WritableByteChannel unixChannel;
+		private final AsynchronousFileChannel winChannel;
+		private final ByteBuffer header = ByteBuffer.allocateDirect(256);
+		private boolean pendingHeader;
 
-		public NamedPipeOutputStream(WritableByteChannel channel) {
-			this.unixChannel = channel;
+		public ChannelOutputStream(WritableByteChannel channel) {
+			this(channel, null);
 		}
 
-		public NamedPipeOutputStream(AsynchronousFileChannel channel) {
-			this.winChannel = channel;
+		public ChannelOutputStream(AsynchronousFileChannel channel) {
+			this(null, channel);
+		}
+
+		private ChannelOutputStream(WritableByteChannel unixChannel, AsynchronousFileChannel winChannel) {
+			this.unixChannel = unixChannel;
+			this.winChannel = winChannel;
 		}
 
 		@Override
 		public void write(int b) throws IOException {
-			buffer.clear();
-			buffer.put((byte) b);
-			buffer.position(0);
-			if (winChannel != null) {
-				Future<Integer> result = winChannel.write(buffer, 0);
-				try {
-					result.get();
-				} catch (Exception e) {
-					throw new IOException(e);
-				}
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			Objects.checkFromIndexSize(off, len, b.length);
+			if (!pendingHeader && len <= header.capacity() && isHeader(b, off, len)) {
+				header.clear();
+				header.put(b, off, len);
+				header.flip();
+				pendingHeader = true;
+				return;
+			}
+			ByteBuffer content = ByteBuffer.wrap(b, off, len);
+			if (pendingHeader) {
+				pendingHeader = false;
+				writeFully(header, content);
 			} else {
-				unixChannel.write(buffer);
+				writeFully(content);
 			}
 		}
 
 		@Override
-		public void write(byte[] b) throws IOException {
-			final int BUFFER_SIZE = 1024;
-			int blocks = b.length / BUFFER_SIZE;
-			int writeBytes = 0;
-			for (int i = 0; i <= blocks; i++) {
-				int offset = i * BUFFER_SIZE;
-				int length = Math.min(b.length - writeBytes, BUFFER_SIZE);
-				if (length <= 0) {
-					break;
+		public void flush() throws IOException {
+			if (pendingHeader) {
+				pendingHeader = false;
+				writeFully(header);
+			}
+		}
+
+		private static boolean isHeader(byte[] b, int off, int len) {
+			return len >= HEADER_START.length + HEADER_END.length && Arrays.equals(b, off, off + HEADER_START.length, HEADER_START, 0, HEADER_START.length) && Arrays.equals(b, off + len - HEADER_END.length, off + len, HEADER_END, 0, HEADER_END.length);
+		}
+
+		private void writeFully(ByteBuffer... buffers) throws IOException {
+			ByteBuffer last = buffers[buffers.length - 1];
+			if (unixChannel instanceof GatheringByteChannel channel) {
+				while (last.hasRemaining()) {
+					channel.write(buffers);
 				}
-				writeBytes += length;
-				ByteBuffer buffer = ByteBuffer.wrap(b, offset, length);
-				if (winChannel != null) {
-					Future<Integer> result = winChannel.write(buffer, 0);
-					try {
-						result.get();
-					} catch (Exception e) {
-						throw new IOException(e);
+				return;
+			}
+			for (ByteBuffer buffer : buffers) {
+				while (buffer.hasRemaining()) {
+					if (winChannel != null) {
+						try {
+							winChannel.write(buffer, 0).get();
+						} catch (InterruptedException | ExecutionException e) {
+							throw new IOException(e);
+						}
+					} else {
+						unixChannel.write(buffer);
 					}
-				} else {
-					unixChannel.write(buffer);
 				}
 			}
 		}
 	}
 
+	public class NamedPipeInputStream extends ChannelInputStream {
+
+		public NamedPipeInputStream(ReadableByteChannel channel) {
+			super(channel);
+		}
+
+		public NamedPipeInputStream(AsynchronousFileChannel channel) {
+			super(channel);
+		}
+	}
+
+	public class NamedPipeOutputStream extends ChannelOutputStream {
+
+		public NamedPipeOutputStream(WritableByteChannel channel) {
+			super(channel);
+		}
+
+		public NamedPipeOutputStream(AsynchronousFileChannel channel) {
+			super(channel);
+		}
+	}
+
 	private StreamProvider provider;
 	private LanguageServerApplication application;
 
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal;
+
+/**
+ * A thread-safe exponentially weighted moving average. Older samples decay,
+ * so the average keeps following the current load.
+ *
+ * @see <a href=
+ *      "https://en.wikipedia.org/wiki/Moving_average#Exponential_moving_average">Definition
+ *      from Wikipedia</a>.
+ */
+public class ExponentialMovingAverage {
+
+	private final double alpha;
+	private double value;
+	private long samples;
+
+	/**
+	 * @param alpha
+	 *            the weight of a new sample, in (0, 1]
+	 * @param initValue
+	 *            the initial value of the average
+	 */
+	public ExponentialMovingAverage(double alpha, long initValue) {
+		if (alpha <= 0 || alpha > 1) {
+			throw new IllegalArgumentException("alpha must be in (0, 1]: " + alpha);
+		}
+		this.alpha = alpha;
+		this.value = initValue;
+	}
+
+	/**
+	 * Update the average with a new sample. The first sample replaces the
+	 * initial value.
+	 *
+	 * @param sample
+	 *            the new sample
+	 * @return The <code>ExponentialMovingAverage</code> instance
+	 */
+	public synchronized ExponentialMovingAverage update(long sample) {
+		if (samples == 0) {
+			value = sample;
+		} else {
+			value += alpha * (sample - value);
+		}
+		samples++;
+		return this;
+	}
+
+	public synchronized long getValue() {
+		return Math.round(value);
+	}
+
+	public synchronized long getSamples() {
+		return samples;
+	}
+}
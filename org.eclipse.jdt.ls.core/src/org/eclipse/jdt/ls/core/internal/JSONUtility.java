@@ -13,25 +13,33 @@
  *******************************************************************************/
 package org.eclipse.jdt.ls.core.internal;
 
-import java.util.HashMap;
+import java.util.Collections;
 
 import org.eclipse.lsp4j.jsonrpc.json.MessageJsonHandler;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
 
 /**
  * JSONUtility
+ * <p>
+ * The {@link Gson} instances are shared, they are thread-safe, and the
+ * adapters they create for the model classes are cached per class.
  */
 public class JSONUtility {
 
+	private static final Converter GSON = new Converter(new Gson());
+	private static final Converter LSP4J_GSON = new Converter(new MessageJsonHandler(Collections.emptyMap()).getGson());
+
 	/**
 	 * Converts given JSON objects to given Model objects.
 	 *
 	 * @throws IllegalArgumentException if clazz is null
 	 */
 	public static <T> T toModel(Object object, Class<T> clazz){
-		return toModel(new Gson(), object, clazz);
+		return GSON.toModel(object, clazz);
 	}
 
 	/**
@@ -42,25 +50,54 @@ public class JSONUtility {
 	 *             if clazz is null
 	 */
 	public static <T> T toLsp4jModel(Object object, Class<T> clazz) {
-		return toModel(new MessageJsonHandler(new HashMap<>()).getGson(), object, clazz);
+		return LSP4J_GSON.toModel(object, clazz);
 	}
 
-	private static <T> T toModel(Gson gson, Object object, Class<T> clazz) {
-		if(object == null){
-			return null;
-		}
-		if(clazz == null ){
-			throw new IllegalArgumentException("Class can not be null");
-		}
-		if (object instanceof JsonElement json) {
-			return gson.fromJson(json, clazz);
+	private static final class Converter {
+
+		private final Gson gson;
+		private final ClassValue<TypeAdapter<?>> adapters = new ClassValue<>() {
+			@Override
+			protected TypeAdapter<?> computeValue(Class<?> type) {
+				return gson.getAdapter(type);
+			}
+		};
+
+		Converter(Gson gson) {
+			this.gson = gson;
 		}
-		if (clazz.isInstance(object)) {
-			return clazz.cast(object);
+
+		<T> T toModel(Object object, Class<T> clazz) {
+			if(object == null){
+				return null;
+			}
+			if(clazz == null ){
+				throw new IllegalArgumentException("Class can not be null");
+			}
+			if (object instanceof JsonElement json) {
+				return fromJsonTree(json, clazz);
+			}
+			if (clazz.isInstance(object)) {
+				return clazz.cast(object);
+			}
+			if (object instanceof String json) {
+				return gson.fromJson(json, clazz);
+			}
+			// e.g. the maps and lists decoded from a JSON element as an Object,
+			// converted through a tree rather than a string
+			try {
+				return fromJsonTree(gson.toJsonTree(object), clazz);
+			} catch (JsonParseException | IllegalStateException e) {
+				return null;
+			}
 		}
-		if (object instanceof String json) {
-			return gson.fromJson(json, clazz);
+
+		@SuppressWarnings("unchecked")
+		private <T> T fromJsonTree(JsonElement json, Class<T> clazz) {
+			if (clazz.isPrimitive()) {
+				return (T) gson.fromJson(json, clazz);
+			}
+			return clazz.cast(adapters.get(clazz).fromJsonTree(json));
 		}
-		return null;
 	}
 }
@@ -14,7 +14,10 @@
 package org.eclipse.jdt.ls.core.internal;
 
 import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -78,6 +81,11 @@ public class JavaClientConnection {
 
 	private final LogHandler logHandler;
 	final JavaLanguageClient client;
+	/**
+	 * Hash codes of the last diagnostics published for each document with
+	 * diagnostics. Guarded by itself, which also orders the notifications.
+	 */
+	private final Map<String, Integer> publishedDiagnostics = new HashMap<>();
 
 	public JavaClientConnection(JavaLanguageClient client) {
 		this.client = client;
@@ -174,7 +182,32 @@ public class JavaClientConnection {
 	}
 
 	public void publishDiagnostics(PublishDiagnosticsParams diagnostics){
-		client.publishDiagnostics(diagnostics);
+		synchronized (publishedDiagnostics) {
+			if (diagnostics.getDiagnostics() == null || diagnostics.getDiagnostics().isEmpty()) {
+				// cleared, closed or deleted documents are forgotten
+				publishedDiagnostics.remove(diagnostics.getUri());
+			} else {
+				publishedDiagnostics.put(diagnostics.getUri(), Objects.hashCode(diagnostics.getDiagnostics()));
+			}
+			client.publishDiagnostics(diagnostics);
+		}
+	}
+
+	/**
+	 * Publishes the given diagnostics unless they are the last ones published
+	 * for their document, compared by hash code.
+	 *
+	 * @return <code>true</code> if the diagnostics were published
+	 */
+	public boolean publishDiagnosticsIfChanged(PublishDiagnosticsParams diagnostics) {
+		synchronized (publishedDiagnostics) {
+			Integer hash = publishedDiagnostics.get(diagnostics.getUri());
+			if (hash != null && hash.intValue() == Objects.hashCode(diagnostics.getDiagnostics())) {
+				return false;
+			}
+			publishDiagnostics(diagnostics);
+			return true;
+		}
 	}
 
 
@@ -23,7 +23,6 @@ import java.nio.channels.AsynchronousSocketChannel;
 import java.nio.channels.Channels;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.function.Function;
 
 import org.apache.commons.lang3.StringUtils;
@@ -47,10 +46,15 @@ import org.eclipse.jdt.internal.core.search.indexing.IndexManager;
 import org.eclipse.jdt.internal.corext.util.TypeFilter;
 import org.eclipse.jdt.ls.core.contentassist.ICompletionContributionService;
 import org.eclipse.jdt.ls.core.internal.JavaClientConnection.JavaLanguageClient;
+import org.eclipse.jdt.ls.core.internal.contentassist.ChainTypeGraph;
 import org.eclipse.jdt.ls.core.internal.corext.template.java.JavaContextTypeRegistry;
 import org.eclipse.jdt.ls.core.internal.corext.template.java.JavaLanguageServerTemplateStore;
+import org.eclipse.jdt.ls.core.internal.handlers.CodeLensReferenceCounter;
 import org.eclipse.jdt.ls.core.internal.handlers.CompletionContributionService;
+import org.eclipse.jdt.ls.core.internal.handlers.CompletionSessions;
+import org.eclipse.jdt.ls.core.internal.handlers.DocumentSymbolCache;
 import org.eclipse.jdt.ls.core.internal.handlers.JDTLanguageServer;
+import org.eclipse.jdt.ls.core.internal.handlers.WorkspaceSymbolIndex;
 import org.eclipse.jdt.ls.core.internal.managers.ContentProviderManager;
 import org.eclipse.jdt.ls.core.internal.managers.DigestStore;
 import org.eclipse.jdt.ls.core.internal.managers.ISourceDownloader;
@@ -126,7 +130,14 @@ public class JavaLanguageServerPlugin extends Plugin {
 	private DiagnosticsState nonProjectDiagnosticsState;
 
 	private ExecutorService executorService;
+	private RequestScheduler requestScheduler;
+	private WorkspaceSymbolIndex workspaceSymbolIndex;
+	private DocumentSymbolCache documentSymbolCache;
+	private ChainTypeGraph chainTypeGraph;
+	private CodeLensReferenceCounter codeLensReferenceCounter;
 	private CompletionContributionService completionContributionService;
+	private CompletionSessions completionSessions;
+	private MessageTracer messageTracer;
 
 	public static LanguageServerApplication getLanguageServer() {
 		return pluginInstance == null ? null : pluginInstance.languageServer;
@@ -320,6 +331,11 @@ public class JavaLanguageServerPlugin extends Plugin {
 		telemetryManager.onLanguageServerStart(System.currentTimeMillis(), firstTimeInitialization);
 		Launcher<JavaLanguageClient> launcher;
 		ExecutorService executorService = getExecutorService();
+		if (MessageTracer.isEnabled()) {
+			messageTracer = new MessageTracer();
+			messageTracer.startLogging();
+			ServerMetrics.register("messages", messageTracer::getMetrics);
+		}
 		if (JDTEnvironmentUtils.isSyntaxServer()) {
 			protocol = new SyntaxLanguageServer(contentProviderManager, projectsManager, preferenceManager);
 		} else {
@@ -335,6 +351,11 @@ public class JavaLanguageServerPlugin extends Plugin {
 				InputStream in = Channels.newInputStream(socketChannel);
 				OutputStream out = Channels.newOutputStream(socketChannel);
 				Function<MessageConsumer, MessageConsumer> messageConsumer = it -> it;
+				if (messageTracer != null) {
+					in = messageTracer.countInput(in);
+					out = messageTracer.countOutput(out);
+					messageConsumer = messageTracer;
+				}
 				launcher = Launcher.createIoLauncher(protocol, JavaLanguageClient.class, in, out, executorService, messageConsumer);
 			} catch (InterruptedException | ExecutionException e) {
 				throw new RuntimeException("Error when opening a socket channel at " + host + ":" + port + ".", e);
@@ -349,6 +370,12 @@ public class JavaLanguageServerPlugin extends Plugin {
 			} else {
 				wrapper = new ParentProcessWatcher(this.languageServer);
 			}
+			if (messageTracer != null) {
+				in = messageTracer.countInput(in);
+				out = messageTracer.countOutput(out);
+				// traces the consumers of lsp4j, before any other wrapper
+				wrapper = messageTracer.andThen(wrapper);
+			}
 			launcher = Launcher.createLauncher(protocol, JavaLanguageClient.class, in, out, executorService, wrapper);
 		}
 		protocol.connectClient(launcher.getRemoteProxy());
@@ -365,6 +392,37 @@ public class JavaLanguageServerPlugin extends Plugin {
 		JavaLanguageServerPlugin.pluginInstance = null;
 		JavaLanguageServerPlugin.context = null;
 		ResourcesPlugin.getWorkspace().removeSaveParticipant(IConstants.PLUGIN_ID);
+		if (requestScheduler != null) {
+			requestScheduler.shutdown();
+			requestScheduler = null;
+		}
+		if (messageTracer != null) {
+			messageTracer.stopLogging();
+			messageTracer = null;
+		}
+		if (digestStore != null) {
+			digestStore.close();
+		}
+		if (workspaceSymbolIndex != null) {
+			workspaceSymbolIndex.removeElementChangeListener();
+			workspaceSymbolIndex = null;
+		}
+		if (codeLensReferenceCounter != null) {
+			codeLensReferenceCounter.removeElementChangeListener();
+			codeLensReferenceCounter = null;
+		}
+		if (documentSymbolCache != null) {
+			documentSymbolCache.removeElementChangeListener();
+			documentSymbolCache = null;
+		}
+		if (chainTypeGraph != null) {
+			chainTypeGraph.removeElementChangeListener();
+			chainTypeGraph = null;
+		}
+		if (completionSessions != null) {
+			completionSessions.removeElementChangeListener();
+			completionSessions = null;
+		}
 		projectsManager = null;
 		contentProviderManager = null;
 		languageServer = null;
@@ -558,11 +616,66 @@ public class JavaLanguageServerPlugin extends Plugin {
 
 	public synchronized static ExecutorService getExecutorService() {
 		if (pluginInstance.executorService == null || pluginInstance.executorService.isShutdown()) {
-			pluginInstance.executorService = Executors.newCachedThreadPool();
+			MessageExecutor executor = MessageExecutor.create();
+			pluginInstance.executorService = executor;
+			ServerMetrics.register("executor", executor::getMetrics);
 		}
 		return pluginInstance.executorService;
 	}
 
+	public synchronized static RequestScheduler getRequestScheduler() {
+		if (pluginInstance.requestScheduler == null) {
+			pluginInstance.requestScheduler = new RequestScheduler();
+			ServerMetrics.register("requests", pluginInstance.requestScheduler::getMetrics);
+		}
+		return pluginInstance.requestScheduler;
+	}
+
+	public synchronized static WorkspaceSymbolIndex getWorkspaceSymbolIndex() {
+		if (pluginInstance.workspaceSymbolIndex == null) {
+			pluginInstance.workspaceSymbolIndex = new WorkspaceSymbolIndex();
+			pluginInstance.workspaceSymbolIndex.addElementChangeListener();
+			ServerMetrics.register("workspaceSymbols", pluginInstance.workspaceSymbolIndex::getMetrics);
+		}
+		return pluginInstance.workspaceSymbolIndex;
+	}
+
+	public synchronized static CodeLensReferenceCounter getCodeLensReferenceCounter() {
+		if (pluginInstance.codeLensReferenceCounter == null) {
+			pluginInstance.codeLensReferenceCounter = new CodeLensReferenceCounter();
+			pluginInstance.codeLensReferenceCounter.addElementChangeListener();
+			ServerMetrics.register("codeLensReferences", pluginInstance.codeLensReferenceCounter::getMetrics);
+		}
+		return pluginInstance.codeLensReferenceCounter;
+	}
+
+	public synchronized static DocumentSymbolCache getDocumentSymbolCache() {
+		if (pluginInstance.documentSymbolCache == null) {
+			pluginInstance.documentSymbolCache = new DocumentSymbolCache();
+			pluginInstance.documentSymbolCache.addElementChangeListener();
+			ServerMetrics.register("documentSymbols", pluginInstance.documentSymbolCache::getMetrics);
+		}
+		return pluginInstance.documentSymbolCache;
+	}
+
+	public synchronized static ChainTypeGraph getChainTypeGraph() {
+		if (pluginInstance.chainTypeGraph == null) {
+			pluginInstance.chainTypeGraph = new ChainTypeGraph();
+			pluginInstance.chainTypeGraph.addElementChangeListener();
+			ServerMetrics.register("chainTypeGraph", pluginInstance.chainTypeGraph::getMetrics);
+		}
+		return pluginInstance.chainTypeGraph;
+	}
+
+	public synchronized static CompletionSessions getCompletionSessions() {
+		if (pluginInstance.completionSessions == null) {
+			pluginInstance.completionSessions = new CompletionSessions();
+			pluginInstance.completionSessions.addElementChangeListener();
+			ServerMetrics.register("completionSessions", pluginInstance.completionSessions::getMetrics);
+		}
+		return pluginInstance.completionSessions;
+	}
+
 	public synchronized static ICompletionContributionService getCompletionContributionService() {
 		if (pluginInstance.completionContributionService == null) {
 			pluginInstance.completionContributionService = new CompletionContributionService();
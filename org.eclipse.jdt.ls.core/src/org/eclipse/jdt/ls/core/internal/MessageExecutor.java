@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The executor of the JSON-RPC launcher, which runs the message reader loop,
+ * and of the short tasks of the handlers, such as the javadoc computations
+ * with a timeout or the completion contributors.
+ * <p>
+ * The messages aren't dispatched on this executor: the reader loop handles
+ * the notifications itself, and the requests are handed to the
+ * {@link RequestScheduler}. Its tasks are mostly waited for with a time
+ * limit, so they are only run by the submitting thread, which ignores that
+ * limit, when the executor is saturated.
+ * <p>
+ * The <code>jdt.ls.executor</code> system property selects the kind of
+ * executor:
+ * <ul>
+ * <li><code>bounded</code>, the default: at most
+ * <code>jdt.ls.executor.maxThreads</code> threads. The other tasks wait for a
+ * thread, and that wait counts against their time limit. At most
+ * <code>jdt.ls.executor.queueSize</code> tasks wait, further tasks are run
+ * by the submitting thread, which slows a burst down instead of starting a
+ * thread per task.</li>
+ * <li><code>cached</code>: an unbounded number of platform threads, reused
+ * while idle, like
+ * {@link java.util.concurrent.Executors#newCachedThreadPool()}.</li>
+ * <li><code>virtual</code>: one virtual thread per task, when the runtime
+ * supports them, <code>bounded</code> otherwise.</li>
+ * </ul>
+ */
+public class MessageExecutor extends ThreadPoolExecutor {
+
+	public static final String EXECUTOR_PROPERTY = "jdt.ls.executor";
+	public static final String BOUNDED = "bounded";
+	public static final String VIRTUAL = "virtual";
+	public static final String CACHED = "cached";
+
+	private static final String THREAD_PREFIX = "JDTLS Message-";
+
+	private final String kind;
+	private final LongAdder callerRuns = new LongAdder();
+
+	private MessageExecutor(String kind, int coreThreads, int maxThreads, BlockingQueue<Runnable> queue, ThreadFactory threadFactory) {
+		super(coreThreads, maxThreads, 60L, TimeUnit.SECONDS, queue, threadFactory);
+		this.kind = kind;
+		if (BOUNDED.equals(kind)) {
+			allowCoreThreadTimeOut(true);
+			setRejectedExecutionHandler(new CallerRuns());
+		}
+	}
+
+	/**
+	 * Creates the executor selected by the system properties.
+	 */
+	public static MessageExecutor create() {
+		int maxThreads = Math.max(2, Integer.getInteger("jdt.ls.executor.maxThreads", Math.max(16, 4 * Runtime.getRuntime().availableProcessors())));
+		int queueSize = Math.max(1, Integer.getInteger("jdt.ls.executor.queueSize", 16 * maxThreads));
+		return create(System.getProperty(EXECUTOR_PROPERTY, BOUNDED), maxThreads, queueSize);
+	}
+
+	/**
+	 * Creates an executor.
+	 *
+	 * @param kind
+	 *            {@link #BOUNDED}, {@link #CACHED} or {@link #VIRTUAL}, an
+	 *            unknown kind defaults to {@link #BOUNDED}
+	 * @param maxThreads
+	 *            the maximum number of threads of a bounded executor, the
+	 *            message reader loop permanently occupies one of them
+	 * @param queueSize
+	 *            the maximum number of tasks waiting for a thread of a
+	 *            bounded executor
+	 */
+	public static MessageExecutor create(String kind, int maxThreads, int queueSize) {
+		if (VIRTUAL.equals(kind)) {
+			ThreadFactory virtualThreadFactory = RequestScheduler.createVirtualThreadFactory(THREAD_PREFIX + "virtual-");
+			if (virtualThreadFactory != null) {
+				return new MessageExecutor(VIRTUAL, 0, Integer.MAX_VALUE, new SynchronousQueue<>(), virtualThreadFactory);
+			}
+		} else if (CACHED.equals(kind)) {
+			return new MessageExecutor(CACHED, 0, Integer.MAX_VALUE, new SynchronousQueue<>(), new MessageThreadFactory());
+		} else if (!BOUNDED.equals(kind)) {
+			JavaLanguageServerPlugin.logInfo("Unknown " + EXECUTOR_PROPERTY + " '" + kind + "', using a bounded executor");
+		}
+		return new MessageExecutor(BOUNDED, maxThreads, maxThreads, new LinkedBlockingQueue<>(queueSize), new MessageThreadFactory());
+	}
+
+	/**
+	 * @return {@link #BOUNDED}, {@link #CACHED} or {@link #VIRTUAL}
+	 */
+	public String getKind() {
+		return kind;
+	}
+
+	/**
+	 * @return the kind, active threads, queue depth and the number of tasks
+	 *         run by their submitting thread
+	 */
+	public Map<String, Object> getMetrics() {
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		metrics.put("kind", kind);
+		metrics.put("maxThreads", getMaximumPoolSize());
+		metrics.put("poolSize", getPoolSize());
+		metrics.put("active", getActiveCount());
+		metrics.put("queued", getQueue().size());
+		metrics.put("completed", getCompletedTaskCount());
+		metrics.put("largestPoolSize", getLargestPoolSize());
+		metrics.put("callerRuns", callerRuns.sum());
+		return metrics;
+	}
+
+	/**
+	 * Runs the tasks of a saturated executor on the submitting thread, and
+	 * rejects them once the executor is shut down.
+	 */
+	private final class CallerRuns implements RejectedExecutionHandler {
+
+		@Override
+		public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+			if (executor.isShutdown()) {
+				throw new RejectedExecutionException("Task " + r + " rejected from " + executor);
+			}
+			callerRuns.increment();
+			r.run();
+		}
+	}
+
+	private static final class MessageThreadFactory implements ThreadFactory {
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, THREAD_PREFIX + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,322 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.eclipse.lsp4j.jsonrpc.MessageConsumer;
+import org.eclipse.lsp4j.jsonrpc.json.StreamMessageConsumer;
+import org.eclipse.lsp4j.jsonrpc.messages.CancelParams;
+import org.eclipse.lsp4j.jsonrpc.messages.Message;
+import org.eclipse.lsp4j.jsonrpc.messages.NotificationMessage;
+import org.eclipse.lsp4j.jsonrpc.messages.RequestMessage;
+import org.eclipse.lsp4j.jsonrpc.messages.ResponseMessage;
+
+/**
+ * Records the latencies and payload sizes of the JSON-RPC messages, per
+ * method, into {@link Histogram}s exposed as the <code>messages</code> server
+ * metrics.
+ * <p>
+ * For each method, the times are in microseconds:
+ * <ul>
+ * <li><code>dispatch</code>: time spent by the message reader thread to
+ * handle the message, i.e. the whole execution of a notification</li>
+ * <li><code>queue</code> and <code>execution</code>: time spent by a request
+ * waiting for a {@link RequestScheduler} thread, and running on it</li>
+ * <li><code>latency</code>: time between the reception of a request and the
+ * start of the write of its response</li>
+ * <li><code>serialization</code>: time spent serializing and writing the
+ * response, or the message sent by the server</li>
+ * </ul>
+ * and the sizes are in bytes: <code>payloadBytes</code> for the message
+ * itself, <code>responseBytes</code> for the response of a request.
+ * <p>
+ * The requests cancelled by the client, or left without a response for
+ * {@link #PENDING_REQUEST_TIMEOUT}, aren't traced any further.
+ * <p>
+ * Tracing is on unless <code>-Djdt.ls.tracing=false</code>, and
+ * <code>-Djdt.ls.tracing.logInterval=&lt;seconds&gt;</code> periodically
+ * logs the metrics.
+ */
+public final class MessageTracer implements Function<MessageConsumer, MessageConsumer> {
+
+	public static final String TRACING_PROPERTY = "jdt.ls.tracing";
+
+	private static final ThreadLocal<MethodStats> CURRENT = new ThreadLocal<>();
+	private static final ThreadLocal<long[]> WRITTEN = ThreadLocal.withInitial(() -> new long[1]);
+	private static final String CANCEL_REQUEST = "$/cancelRequest";
+	static final long PENDING_REQUEST_TIMEOUT = TimeUnit.MINUTES.toNanos(10);
+
+	private final Map<String, MethodStats> methods = new ConcurrentHashMap<>();
+	private final Map<String, PendingRequest> pendingRequests = new ConcurrentHashMap<>();
+	private volatile long read;
+	private long readAtLastMessage;
+	private long lastEviction = System.nanoTime();
+	private ScheduledExecutorService logger;
+
+	/**
+	 * @return whether the messages should be traced
+	 */
+	public static boolean isEnabled() {
+		return !"false".equals(System.getProperty(TRACING_PROPERTY));
+	}
+
+	/**
+	 * @return the statistics of the message being dispatched by the current
+	 *         thread, if any
+	 */
+	static MethodStats current() {
+		return CURRENT.get();
+	}
+
+	@Override
+	public MessageConsumer apply(MessageConsumer consumer) {
+		if (consumer instanceof StreamMessageConsumer) {
+			return message -> traceOutgoing(consumer, message);
+		}
+		return message -> traceIncoming(consumer, message);
+	}
+
+	private void traceIncoming(MessageConsumer consumer, Message message) {
+		long start = System.nanoTime();
+		long size = read - readAtLastMessage;
+		readAtLastMessage = read;
+		MethodStats stats;
+		if (message instanceof RequestMessage request) {
+			stats = getStats(request.getMethod());
+			evictPendingRequests(start);
+			pendingRequests.put(request.getId(), new PendingRequest(stats, start));
+		} else if (message instanceof NotificationMessage notification) {
+			stats = getStats(notification.getMethod());
+			if (CANCEL_REQUEST.equals(notification.getMethod()) && notification.getParams() instanceof CancelParams cancel && cancel.getId() != null) {
+				pendingRequests.remove(cancel.getId());
+			}
+		} else {
+			// a response to a request of the server
+			consumer.consume(message);
+			return;
+		}
+		if (size > 0) {
+			stats.payloadBytes.record(size);
+		}
+		CURRENT.set(stats);
+		try {
+			consumer.consume(message);
+		} finally {
+			CURRENT.remove();
+			stats.dispatch.record(toMicros(System.nanoTime() - start));
+		}
+	}
+
+	/**
+	 * Drops the requests left without a response for
+	 * {@link #PENDING_REQUEST_TIMEOUT}, at most once per timeout. Only called
+	 * by the message reader thread.
+	 */
+	private void evictPendingRequests(long now) {
+		if (now - lastEviction < PENDING_REQUEST_TIMEOUT) {
+			return;
+		}
+		lastEviction = now;
+		pendingRequests.values().removeIf(request -> now - request.received > PENDING_REQUEST_TIMEOUT);
+	}
+
+	private void traceOutgoing(MessageConsumer consumer, Message message) {
+		long start = System.nanoTime();
+		MethodStats stats = null;
+		boolean response = false;
+		if (message instanceof ResponseMessage responseMessage) {
+			PendingRequest request = responseMessage.getId() == null ? null : pendingRequests.remove(responseMessage.getId());
+			if (request != null) {
+				stats = request.stats;
+				response = true;
+				stats.latency.record(toMicros(start - request.received));
+			}
+		} else if (message instanceof RequestMessage request) {
+			stats = getStats(request.getMethod());
+		} else if (message instanceof NotificationMessage notification) {
+			stats = getStats(notification.getMethod());
+		}
+		long[] written = WRITTEN.get();
+		long before = written[0];
+		try {
+			consumer.consume(message);
+		} finally {
+			if (stats != null) {
+				stats.serialization.record(toMicros(System.nanoTime() - start));
+				long size = written[0] - before;
+				if (size > 0) {
+					(response ? stats.responseBytes : stats.payloadBytes).record(size);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Wraps the input stream of the connection to measure the size of the
+	 * received messages.
+	 */
+	public InputStream countInput(InputStream input) {
+		return new FilterInputStream(input) {
+			@Override
+			public int read() throws IOException {
+				int b = super.read();
+				if (b >= 0) {
+					read++;
+				}
+				return b;
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				int n = super.read(b, off, len);
+				if (n > 0) {
+					read += n;
+				}
+				return n;
+			}
+		};
+	}
+
+	/**
+	 * Wraps the output stream of the connection to measure the size of the
+	 * sent messages. Whole arrays are written as such, for the streams that
+	 * only write them efficiently.
+	 */
+	public OutputStream countOutput(OutputStream output) {
+		return new FilterOutputStream(output) {
+			@Override
+			public void write(int b) throws IOException {
+				out.write(b);
+				WRITTEN.get()[0]++;
+			}
+
+			@Override
+			public void write(byte[] b) throws IOException {
+				out.write(b);
+				WRITTEN.get()[0] += b.length;
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				if (off == 0 && len == b.length) {
+					out.write(b);
+				} else {
+					out.write(b, off, len);
+				}
+				WRITTEN.get()[0] += len;
+			}
+		};
+	}
+
+	/**
+	 * Logs the metrics every <code>jdt.ls.tracing.logInterval</code> seconds,
+	 * if set.
+	 */
+	public void startLogging() {
+		long interval = Long.getLong("jdt.ls.tracing.logInterval", 0);
+		if (interval <= 0 || logger != null) {
+			return;
+		}
+		logger = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "JDTLS Message Tracer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		logger.scheduleWithFixedDelay(() -> JavaLanguageServerPlugin.logInfo("JSON-RPC messages: " + getMetrics()), interval, interval, TimeUnit.SECONDS);
+	}
+
+	public void stopLogging() {
+		if (logger != null) {
+			logger.shutdownNow();
+			logger = null;
+		}
+	}
+
+	/**
+	 * @return the histograms of each method, sorted by method
+	 */
+	public Map<String, Object> getMetrics() {
+		Map<String, Object> metrics = new TreeMap<>();
+		methods.forEach((method, stats) -> metrics.put(method, stats.toMap()));
+		return metrics;
+	}
+
+	private MethodStats getStats(String method) {
+		return methods.computeIfAbsent(method == null ? "unknown" : method, m -> new MethodStats());
+	}
+
+	private static long toMicros(long nanos) {
+		return TimeUnit.NANOSECONDS.toMicros(nanos);
+	}
+
+	/**
+	 * The histograms of a method.
+	 */
+	static final class MethodStats {
+		private final Histogram dispatch = new Histogram();
+		private final Histogram queue = new Histogram();
+		private final Histogram execution = new Histogram();
+		private final Histogram latency = new Histogram();
+		private final Histogram serialization = new Histogram();
+		private final Histogram payloadBytes = new Histogram();
+		private final Histogram responseBytes = new Histogram();
+
+		void queued(long nanos) {
+			queue.record(toMicros(nanos));
+		}
+
+		void executed(long nanos) {
+			execution.record(toMicros(nanos));
+		}
+
+		private Map<String, Object> toMap() {
+			Map<String, Object> map = new TreeMap<>();
+			put(map, "dispatch", dispatch);
+			put(map, "queue", queue);
+			put(map, "execution", execution);
+			put(map, "latency", latency);
+			put(map, "serialization", serialization);
+			put(map, "payloadBytes", payloadBytes);
+			put(map, "responseBytes", responseBytes);
+			return map;
+		}
+
+		private static void put(Map<String, Object> map, String name, Histogram histogram) {
+			if (histogram.getCount() > 0) {
+				map.put(name, histogram.toMap());
+			}
+		}
+	}
+
+	private static final class PendingRequest {
+		private final MethodStats stats;
+		private final long received;
+
+		private PendingRequest(MethodStats stats, long received) {
+			this.stats = stats;
+			this.received = received;
+		}
+	}
+}
@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal;
+
+/**
+ * Priority classes of the requests handled by the {@link RequestScheduler}.
+ * Each class is executed on its own pool, so that long running requests of a
+ * lower class never delay requests of a higher class.
+ */
+public enum RequestPriority {
+
+	/**
+	 * Keystroke-driven requests, such as hover or signature help.
+	 */
+	INTERACTIVE("interactive", 2, 1),
+
+	/**
+	 * Requests not directly driven by typing, such as code actions or
+	 * document symbols. This is the default class.
+	 */
+	BACKGROUND("background", 2, 2),
+
+	/**
+	 * Requests searching the whole workspace, such as references, workspace
+	 * symbols or code lens resolution.
+	 */
+	BULK("bulk", 2, 4);
+
+	private final String id;
+	private final int minThreads;
+	private final int cpuDivisor;
+
+	private RequestPriority(String id, int minThreads, int cpuDivisor) {
+		this.id = id;
+		this.minThreads = minThreads;
+		this.cpuDivisor = cpuDivisor;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * @return the default concurrency limit of this class, which can be
+	 *         overridden with the <code>jdt.ls.requests.&lt;id&gt;.maxThreads</code>
+	 *         system property
+	 */
+	int getDefaultMaxThreads() {
+		return Math.max(minThreads, Runtime.getRuntime().availableProcessors() / cpuDivisor);
+	}
+}
@@ -0,0 +1,210 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal;
+
+import java.lang.reflect.Method;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+import org.eclipse.lsp4j.jsonrpc.CompletableFutures;
+
+/**
+ * Executes the language server requests on dedicated pools, one per
+ * {@link RequestPriority}, instead of the shared common fork-join pool.
+ * <p>
+ * The concurrency limit of each class can be configured with the
+ * <code>jdt.ls.requests.&lt;class&gt;.maxThreads</code> system properties, and
+ * <code>-Djdt.ls.requests.virtualThreads=true</code> runs the requests on
+ * virtual threads when the runtime supports them.
+ * <p>
+ * A request waiting for other work to complete, e.g. for the document life
+ * cycle jobs, doesn't hold the slot of its class while waiting, see
+ * {@link #managedBlock(Runnable)}.
+ */
+public class RequestScheduler {
+
+	public static final String VIRTUAL_THREADS_PROPERTY = "jdt.ls.requests.virtualThreads";
+
+	// the pool running the request of the current thread
+	private static final ThreadLocal<ThreadPoolExecutor> CURRENT_EXECUTOR = new ThreadLocal<>();
+
+	private final Map<RequestPriority, ThreadPoolExecutor> executors = new EnumMap<>(RequestPriority.class);
+	private final Map<RequestPriority, Integer> maxThreads = new EnumMap<>(RequestPriority.class);
+	private final boolean virtualThreads;
+
+	public RequestScheduler() {
+		this(Boolean.getBoolean(VIRTUAL_THREADS_PROPERTY));
+	}
+
+	public RequestScheduler(boolean useVirtualThreads) {
+		ThreadFactory virtualThreadFactory = useVirtualThreads ? createVirtualThreadFactory("JDTLS Request (virtual)-") : null;
+		this.virtualThreads = virtualThreadFactory != null;
+		for (RequestPriority priority : RequestPriority.values()) {
+			int limit = Math.max(1, Integer.getInteger("jdt.ls.requests." + priority.getId() + ".maxThreads", priority.getDefaultMaxThreads()));
+			ThreadFactory threadFactory = virtualThreadFactory != null ? virtualThreadFactory : new RequestThreadFactory(priority);
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(limit, limit, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+			executor.allowCoreThreadTimeOut(true);
+			executors.put(priority, executor);
+			maxThreads.put(priority, limit);
+		}
+	}
+
+	/**
+	 * Runs the given code asynchronously on the pool of the given priority
+	 * class.
+	 *
+	 * @see CompletableFutures#computeAsync(java.util.concurrent.Executor, Function)
+	 */
+	public <R> CompletableFuture<R> computeAsync(RequestPriority priority, Function<CancelChecker, R> code) {
+		ThreadPoolExecutor executor = executors.get(priority);
+		// attribute the queue and execution times to the message being dispatched
+		MessageTracer.MethodStats stats = MessageTracer.current();
+		long submitted = System.nanoTime();
+		return CompletableFutures.computeAsync(executor, cc -> {
+			long start = System.nanoTime();
+			if (stats != null) {
+				stats.queued(start - submitted);
+			}
+			CURRENT_EXECUTOR.set(executor);
+			try {
+				return code.apply(cc);
+			} finally {
+				CURRENT_EXECUTOR.remove();
+				if (stats != null) {
+					stats.executed(System.nanoTime() - start);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Runs the given wait without holding the slot of the request running on
+	 * the current thread: its pool is grown by one thread during the wait, so
+	 * that the queued requests of the same class keep running. The wait is
+	 * simply run when the current thread doesn't run a request.
+	 *
+	 * @param wait
+	 *            the blocking wait
+	 */
+	public static void managedBlock(Runnable wait) {
+		ThreadPoolExecutor executor = CURRENT_EXECUTOR.get();
+		if (executor == null) {
+			wait.run();
+			return;
+		}
+		resize(executor, 1);
+		try {
+			wait.run();
+		} finally {
+			resize(executor, -1);
+		}
+	}
+
+	private static void resize(ThreadPoolExecutor executor, int delta) {
+		synchronized (executor) {
+			int size = executor.getMaximumPoolSize() + delta;
+			// the core size must never exceed the maximum size
+			if (delta > 0) {
+				executor.setMaximumPoolSize(size);
+				executor.setCorePoolSize(size);
+			} else {
+				executor.setCorePoolSize(size);
+				executor.setMaximumPoolSize(size);
+			}
+		}
+	}
+
+	public boolean isUsingVirtualThreads() {
+		return virtualThreads;
+	}
+
+	/**
+	 * @return the number of requests of the given class waiting for a thread
+	 */
+	public int getQueueDepth(RequestPriority priority) {
+		return executors.get(priority).getQueue().size();
+	}
+
+	/**
+	 * @return the concurrency limit, requests waiting outside of their slot,
+	 *         active threads, queue depth and number of completed requests of
+	 *         each priority class
+	 */
+	public Map<String, Object> getMetrics() {
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		metrics.put("virtualThreads", virtualThreads);
+		executors.forEach((priority, executor) -> {
+			Map<String, Object> pool = new LinkedHashMap<>();
+			int limit = maxThreads.get(priority);
+			pool.put("maxThreads", limit);
+			pool.put("blocked", executor.getMaximumPoolSize() - limit);
+			pool.put("active", executor.getActiveCount());
+			pool.put("queued", executor.getQueue().size());
+			pool.put("completed", executor.getCompletedTaskCount());
+			pool.put("largestPoolSize", executor.getLargestPoolSize());
+			metrics.put(priority.getId(), pool);
+		});
+		return metrics;
+	}
+
+	public void shutdown() {
+		executors.values().forEach(ThreadPoolExecutor::shutdownNow);
+	}
+
+	/**
+	 * Creates a virtual thread factory through reflection, since virtual
+	 * threads are only available from Java 21 on.
+	 *
+	 * @param prefix
+	 *            the prefix of the thread names
+	 * @return the factory, or <code>null</code> if virtual threads aren't
+	 *         supported by the current runtime
+	 */
+	static ThreadFactory createVirtualThreadFactory(String prefix) {
+		try {
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			Method name = builderClass.getMethod("name", String.class, long.class);
+			builder = name.invoke(builder, prefix, 1L);
+			return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			JavaLanguageServerPlugin.logInfo("Virtual threads are not supported by the current runtime, using platform threads");
+			return null;
+		}
+	}
+
+	private static final class RequestThreadFactory implements ThreadFactory {
+		private final String prefix;
+		private final AtomicInteger count = new AtomicInteger();
+
+		private RequestThreadFactory(RequestPriority priority) {
+			this.prefix = "JDTLS Request (" + priority.getId() + ")-";
+		}
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, prefix + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+/**
+ * Registry of the runtime metrics exposed through the
+ * <code>java/serverMetrics</code> request.
+ * <p>
+ * Components register a named source, which is only invoked when a snapshot
+ * is requested.
+ */
+public final class ServerMetrics {
+
+	private static final Map<String, Supplier<?>> sources = new ConcurrentSkipListMap<>();
+
+	private ServerMetrics() {
+		// no instances
+	}
+
+	/**
+	 * Registers a metrics source, replacing any source previously registered
+	 * under the same name.
+	 *
+	 * @param name
+	 *            the name of the source
+	 * @param source
+	 *            supplies the current metrics, should be cheap and thread-safe
+	 */
+	public static void register(String name, Supplier<?> source) {
+		sources.put(name, source);
+	}
+
+	public static void unregister(String name) {
+		sources.remove(name);
+	}
+
+	/**
+	 * @return the current value of all the registered sources, keyed by name
+	 */
+	public static Map<String, Object> snapshot() {
+		Map<String, Object> result = new LinkedHashMap<>();
+		sources.forEach((name, source) -> {
+			try {
+				result.put(name, source.get());
+			} catch (Exception e) {
+				JavaLanguageServerPlugin.logException("Failed to collect metrics for " + name, e);
+			}
+		});
+		return result;
+	}
+}
@@ -25,11 +25,13 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.jdt.core.CompletionContext;
 import org.eclipse.jdt.core.CompletionProposal;
@@ -74,6 +76,8 @@ public class ChainCompletionProposalComputer {
 
 	private static final char[] KEYWORD_NEW = "new".toCharArray();
 
+	private static final long CANCELLATION_CHECK_INTERVAL = 50;
+
 	private List<ChainElement> entrypoints;
 
 	private String[] excludedTypes;
@@ -93,20 +97,30 @@ public class ChainCompletionProposalComputer {
 	}
 
 	public List<CompletionItem> computeCompletionProposals() {
+		return computeCompletionProposals(new NullProgressMonitor());
+	}
+
+	/**
+	 * @param monitor
+	 *            the monitor of the completion request, the search stops once
+	 *            it is canceled
+	 */
+	public List<CompletionItem> computeCompletionProposals(IProgressMonitor monitor) {
 		if (!shouldPerformCompletionOnExpectedType()) {
 			return Collections.emptyList();
 		}
-		return executeCallChainSearch();
+		return executeCallChainSearch(monitor);
 	}
 
-	private List<CompletionItem> executeCallChainSearch() {
+	private List<CompletionItem> executeCallChainSearch(IProgressMonitor monitor) {
 		final int maxChains = Integer.parseInt(JavaManipulation.getPreference("recommenders.chain.max_chains", cu.getJavaProject()));
 		final int minDepth = Integer.parseInt(JavaManipulation.getPreference("recommenders.chain.min_chain_length", cu.getJavaProject()));
 		final int maxDepth = Integer.parseInt(JavaManipulation.getPreference("recommenders.chain.max_chain_length", cu.getJavaProject()));
 
-		excludedTypes = JavaManipulation.getPreference("recommenders.chain.ignore_types", cu.getJavaProject()).split("\\|");
+		final List<String> ignoredTypes = Arrays.asList(JavaManipulation.getPreference("recommenders.chain.ignore_types", cu.getJavaProject()).split("\\|"));
+		excludedTypes = new String[ignoredTypes.size()];
 		for (int i = 0; i < excludedTypes.length; ++i) {
-			excludedTypes[i] = "L" + excludedTypes[i].replace('.', '/');
+			excludedTypes[i] = "L" + ignoredTypes.get(i).replace('.', '/');
 		}
 
 		final IType invocationType = cu.findPrimaryType();
@@ -118,7 +132,11 @@ public class ChainCompletionProposalComputer {
 		try {
 			CompletableFuture<Void> mainChains = CompletableFuture.runAsync(() -> {
 				if (findEntrypoints(expectedTypes, cu.getJavaProject())) {
-					mainFinder.startChainSearch(entrypoints, maxChains, minDepth, maxDepth);
+					// skip the entry points from which no chain reaches the expected types
+					List<ChainElement> reachingEntrypoints = JavaLanguageServerPlugin.getChainTypeGraph().filterEntrypoints(cu.getJavaProject(), entrypoints, expectedTypes, ignoredTypes, maxDepth);
+					if (!reachingEntrypoints.isEmpty()) {
+						mainFinder.startChainSearch(reachingEntrypoints, maxChains, minDepth, maxDepth);
+					}
 				}
 			}, executor);
 
@@ -135,11 +153,23 @@ public class ChainCompletionProposalComputer {
 			CompletableFuture<Void> future = CompletableFuture.allOf(mainChains, contextChains);
 
 			long timeout = Long.parseLong(JavaManipulation.getPreference("recommenders.chain.timeout", cu.getJavaProject()));
-			future.get(timeout, TimeUnit.SECONDS);
+			long timeLimit = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeout);
+			while (true) {
+				try {
+					future.get(Math.min(CANCELLATION_CHECK_INTERVAL, Math.max(0, timeLimit - System.currentTimeMillis())), TimeUnit.MILLISECONDS);
+					break;
+				} catch (TimeoutException e) {
+					if (monitor.isCanceled() || timeLimit <= System.currentTimeMillis()) {
+						throw e;
+					}
+				}
+			}
 		} catch (final Exception e) {
 			mainFinder.cancel();
 			contextFinder.cancel();
 			executor.shutdownNow();
+		} finally {
+			executor.shutdown();
 		}
 		List<Chain> found = new ArrayList<>();
 		found.addAll(mainFinder.getChains());
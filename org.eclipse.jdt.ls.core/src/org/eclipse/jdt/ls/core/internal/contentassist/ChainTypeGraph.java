@@ -0,0 +1,587 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.contentassist;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IField;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeParameter;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.Signature;
+import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
+import org.eclipse.jdt.internal.ui.text.ChainElement;
+import org.eclipse.jdt.internal.ui.text.ChainFinder;
+import org.eclipse.jdt.internal.ui.text.ChainType;
+
+/**
+ * Graph of the types reachable through the fields and the methods of the
+ * types, used by the chain completion to discard the entry points from which
+ * no chain reaches the expected type before searching the chains.
+ * <p>
+ * The nodes are the types of a project, identified by their fully qualified
+ * name, and the edges go from a type to the types of its fields and to the
+ * erasures of the return types of its methods. A node is built from the Java
+ * model the first time a search reaches it, and kept until the Java element
+ * deltas change its compilation unit or its library, while the changes of the
+ * classpath discard the graph of the project.
+ * <p>
+ * The graph over-approximates the chains searched by {@link ChainFinder}: the
+ * members of the super types are edges of a type whatever their visibility,
+ * and the types which can't be resolved are assumed to reach every type, so
+ * that discarding an entry point never loses a chain.
+ */
+public class ChainTypeGraph implements IElementChangedListener {
+
+	/**
+	 * The maximum number of types visited to filter the entry points of a
+	 * completion, overridden by the
+	 * <code>jdt.ls.completion.chainGraphBudget</code> system property. Beyond,
+	 * all the entry points are kept.
+	 */
+	private static final int BUDGET = Integer.getInteger("jdt.ls.completion.chainGraphBudget", 5000);
+
+	private final Map<String, ProjectGraph> graphs = new ConcurrentHashMap<>();
+
+	private final LongAdder searches = new LongAdder();
+	private final LongAdder pruned = new LongAdder();
+	private final LongAdder kept = new LongAdder();
+	private final LongAdder overBudget = new LongAdder();
+
+	public void addElementChangeListener() {
+		JavaCore.addElementChangedListener(this, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+	}
+
+	public void removeElementChangeListener() {
+		JavaCore.removeElementChangedListener(this);
+	}
+
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		if (!graphs.isEmpty()) {
+			processDelta(event.getDelta());
+		}
+	}
+
+	private void processDelta(IJavaElementDelta delta) {
+		IJavaElement element = delta.getElement();
+		switch (element.getElementType()) {
+			case IJavaElement.JAVA_MODEL:
+				processDeltaChildren(delta);
+				break;
+			case IJavaElement.JAVA_PROJECT:
+				if (delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & (IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED | IJavaElementDelta.F_OPENED | IJavaElementDelta.F_CLOSED)) != 0) {
+					graphs.remove(element.getElementName());
+				} else {
+					processDeltaChildren(delta);
+				}
+				break;
+			case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+				if (delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & (IJavaElementDelta.F_ADDED_TO_CLASSPATH | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH | IJavaElementDelta.F_REORDER)) != 0) {
+					graphs.remove(element.getJavaProject().getElementName());
+				} else if ((delta.getFlags() & IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED) != 0) {
+					invalidate(element, false);
+				} else {
+					processDeltaChildren(delta);
+				}
+				break;
+			case IJavaElement.PACKAGE_FRAGMENT:
+				processDeltaChildren(delta);
+				break;
+			case IJavaElement.COMPILATION_UNIT:
+				// opening a document doesn't change its types
+				if (delta.getKind() != IJavaElementDelta.CHANGED || delta.getFlags() != IJavaElementDelta.F_PRIMARY_WORKING_COPY) {
+					invalidate(element, true);
+				}
+				break;
+			default:
+				break;
+		}
+	}
+
+	private void processDeltaChildren(IJavaElementDelta delta) {
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			processDelta(child);
+		}
+	}
+
+	private void invalidate(IJavaElement element, boolean unit) {
+		IJavaProject project = element.getJavaProject();
+		ProjectGraph graph = project == null ? null : graphs.get(project.getElementName());
+		if (graph != null) {
+			(unit ? graph.dirtyUnits : graph.dirtyRoots).add(element.getHandleIdentifier());
+		}
+	}
+
+	/**
+	 * Filters the entry points of a chain search.
+	 *
+	 * @param project
+	 *            the project of the completion
+	 * @param entrypoints
+	 *            the entry points of the chains
+	 * @param expectedTypes
+	 *            the types expected at the end of the chains
+	 * @param excludedTypes
+	 *            the fully qualified names of the types whose members don't
+	 *            extend the chains
+	 * @param maxDepth
+	 *            the maximum number of elements of a chain
+	 * @return the entry points from which a chain of at most
+	 *         <code>maxDepth</code> elements may reach one of the expected
+	 *         types, all of them if the graph can't tell
+	 */
+	public List<ChainElement> filterEntrypoints(IJavaProject project, List<ChainElement> entrypoints, List<ChainType> expectedTypes, Collection<String> excludedTypes, int maxDepth) {
+		if (entrypoints.isEmpty() || expectedTypes.isEmpty() || maxDepth < 1) {
+			return entrypoints;
+		}
+		List<IType> targets = new ArrayList<>(expectedTypes.size());
+		for (ChainType expectedType : expectedTypes) {
+			if (expectedType.getType() == null) {
+				return entrypoints;
+			}
+			targets.add(expectedType.getType());
+		}
+		searches.increment();
+		ProjectGraph graph = graphs.computeIfAbsent(project.getElementName(), name -> new ProjectGraph(project));
+		boolean[] reaching = graph.reaches(entrypoints, targets, new HashSet<>(excludedTypes), maxDepth - 1);
+		if (reaching == null) {
+			overBudget.increment();
+			return entrypoints;
+		}
+		List<ChainElement> result = new ArrayList<>(entrypoints.size());
+		for (int i = 0; i < reaching.length; i++) {
+			if (reaching[i]) {
+				result.add(entrypoints.get(i));
+			}
+		}
+		pruned.add(entrypoints.size() - result.size());
+		kept.add(result.size());
+		return result;
+	}
+
+	public Map<String, Object> getMetrics() {
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		int types = 0;
+		for (ProjectGraph graph : graphs.values()) {
+			types += graph.size();
+		}
+		metrics.put("projects", graphs.size());
+		metrics.put("types", types);
+		metrics.put("searches", searches.sum());
+		metrics.put("prunedEntrypoints", pruned.sum());
+		metrics.put("keptEntrypoints", kept.sum());
+		metrics.put("overBudget", overBudget.sum());
+		return metrics;
+	}
+
+	/**
+	 * The graph of the types of a project, in parallel arrays indexed by the
+	 * type ids.
+	 */
+	private static final class ProjectGraph {
+
+		private static final int INITIAL_CAPACITY = 256;
+		private static final int MAX_TYPES = 50000;
+
+		private static final byte UNBUILT = 0;
+		private static final byte BUILT = 1;
+		// the type doesn't exist or can't be read, assumed to reach every type
+		private static final byte UNKNOWN = 2;
+
+		// the id of the types which can't be resolved
+		private static final int UNRESOLVED = 0;
+		private static final int NONE = -1;
+		private static final String OBJECT = "java.lang.Object";
+
+		private final IJavaProject project;
+		private final Map<String, Integer> ids = new HashMap<>();
+		private String[] names = new String[INITIAL_CAPACITY];
+		private byte[] states = new byte[INITIAL_CAPACITY];
+		private int[][] members = new int[INITIAL_CAPACITY][];
+		private int[][] supertypes = new int[INITIAL_CAPACITY][];
+		// the handle identifier of the compilation unit or the library of the type
+		private String[] origins = new String[INITIAL_CAPACITY];
+		private volatile int size;
+
+		private final Set<String> dirtyUnits = ConcurrentHashMap.newKeySet();
+		private final Set<String> dirtyRoots = ConcurrentHashMap.newKeySet();
+
+		private ProjectGraph(IJavaProject project) {
+			this.project = project;
+			clear();
+		}
+
+		int size() {
+			return size;
+		}
+
+		/**
+		 * @return whether each entry point may reach one of the targets with at
+		 *         most <code>maxEdges</code> members, or <code>null</code> if
+		 *         the search exceeds the budget or is interrupted
+		 */
+		synchronized boolean[] reaches(List<ChainElement> entrypoints, List<IType> targets, Set<String> excludedTypes, int maxEdges) {
+			refresh();
+			BitSet expected = new BitSet();
+			for (IType target : targets) {
+				expected.set(intern(target.getFullyQualifiedName('.')));
+			}
+			Search search = new Search();
+			int[] sources = new int[entrypoints.size()];
+			for (int i = 0; i < sources.length; i++) {
+				IType returnType = entrypoints.get(i).getReturnType();
+				sources[i] = returnType == null ? NONE : search.visit(intern(returnType.getFullyQualifiedName('.')), 0);
+			}
+			// breadth first, the types at the end of a chain aren't expanded
+			boolean[] ends = new boolean[16];
+			for (int i = 0; i < search.count; i++) {
+				if (search.count > BUDGET || Thread.currentThread().isInterrupted()) {
+					return null;
+				}
+				if (ends.length < search.count) {
+					ends = Arrays.copyOf(ends, Math.max(ends.length * 2, search.count));
+				}
+				int[] closure = getClosure(search.nodes[i]);
+				ends[i] = isEnd(closure, expected);
+				if (ends[i] || search.levels[i] == maxEdges) {
+					continue;
+				}
+				int[] expansion = expand(closure, excludedTypes);
+				int[] successors = new int[expansion.length];
+				for (int j = 0; j < expansion.length; j++) {
+					successors[j] = search.visit(expansion[j], search.levels[i] + 1);
+				}
+				search.successors[i] = successors;
+			}
+			// number of members from each visited type to a target
+			int[] distances = new int[search.count];
+			for (int i = 0; i < distances.length; i++) {
+				distances[i] = ends[i] ? 0 : Integer.MAX_VALUE;
+			}
+			for (int distance = 1; distance <= maxEdges; distance++) {
+				for (int i = 0; i < distances.length; i++) {
+					if (distances[i] == Integer.MAX_VALUE && search.successors[i] != null) {
+						for (int successor : search.successors[i]) {
+							if (distances[successor] == distance - 1) {
+								distances[i] = distance;
+								break;
+							}
+						}
+					}
+				}
+			}
+			boolean[] reaching = new boolean[sources.length];
+			for (int i = 0; i < sources.length; i++) {
+				reaching[i] = sources[i] == NONE || distances[sources[i]] <= maxEdges;
+			}
+			return reaching;
+		}
+
+		private boolean isEnd(int[] closure, BitSet expected) {
+			for (int type : closure) {
+				if (states[type] == UNKNOWN || expected.get(type)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * @return the ids of the types of the members of the given type and of
+		 *         its super types
+		 */
+		private int[] expand(int[] closure, Set<String> excludedTypes) {
+			BitSet result = new BitSet();
+			for (int type : closure) {
+				if (!excludedTypes.contains(names[type])) {
+					for (int member : members[type]) {
+						result.set(member);
+					}
+				}
+			}
+			return result.stream().toArray();
+		}
+
+		/**
+		 * @return the ids of the given type and of all its super types
+		 */
+		private int[] getClosure(int type) {
+			BitSet visited = new BitSet();
+			int[] closure = new int[8];
+			int count = 0;
+			closure[count++] = type;
+			visited.set(type);
+			for (int i = 0; i < count; i++) {
+				build(closure[i]);
+				for (int supertype : supertypes[closure[i]]) {
+					if (!visited.get(supertype)) {
+						visited.set(supertype);
+						if (count == closure.length) {
+							closure = Arrays.copyOf(closure, count * 2);
+						}
+						closure[count++] = supertype;
+					}
+				}
+			}
+			return Arrays.copyOf(closure, count);
+		}
+
+		private void build(int id) {
+			if (states[id] != UNBUILT) {
+				return;
+			}
+			states[id] = UNKNOWN;
+			members[id] = new int[0];
+			supertypes[id] = new int[0];
+			try {
+				IType type = project.findType(names[id]);
+				if (type == null || !type.exists()) {
+					return;
+				}
+				BitSet superIds = new BitSet();
+				String superclass = type.getSuperclassTypeSignature();
+				if (superclass != null) {
+					add(superIds, resolve(superclass, type, null));
+				} else if (type.isEnum()) {
+					superIds.set(intern("java.lang.Enum"));
+				} else if (type.isRecord()) {
+					superIds.set(intern("java.lang.Record"));
+				} else if (!OBJECT.equals(names[id])) {
+					superIds.set(intern(OBJECT));
+				}
+				if (type.isAnnotation()) {
+					superIds.set(intern("java.lang.annotation.Annotation"));
+				}
+				for (String superinterface : type.getSuperInterfaceTypeSignatures()) {
+					add(superIds, resolve(superinterface, type, null));
+				}
+				BitSet memberIds = new BitSet();
+				for (IField field : type.getFields()) {
+					add(memberIds, resolve(field.getTypeSignature(), type, null));
+				}
+				for (IMethod method : type.getMethods()) {
+					if (!method.isConstructor()) {
+						add(memberIds, resolve(method.getReturnType(), type, method));
+					}
+				}
+				ICompilationUnit unit = type.getCompilationUnit();
+				IJavaElement root = type.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT);
+				origins[id] = unit != null ? unit.getHandleIdentifier() : root != null ? root.getHandleIdentifier() : null;
+				supertypes[id] = superIds.stream().toArray();
+				members[id] = memberIds.stream().toArray();
+				states[id] = BUILT;
+			} catch (JavaModelException e) {
+				// unknown
+			}
+		}
+
+		private static void add(BitSet ids, int id) {
+			if (id != NONE) {
+				ids.set(id);
+			}
+		}
+
+		/**
+		 * @return the id of the erasure of the given type, {@link #NONE} for a
+		 *         primitive type or <code>void</code>
+		 */
+		private int resolve(String signature, IType type, IMethod method) throws JavaModelException {
+			String element = Signature.getTypeErasure(Signature.getElementType(signature));
+			switch (Signature.getTypeSignatureKind(element)) {
+				case Signature.BASE_TYPE_SIGNATURE:
+					return NONE;
+				case Signature.TYPE_VARIABLE_SIGNATURE:
+					return resolveTypeVariable(Signature.toString(element), type, method);
+				case Signature.CLASS_TYPE_SIGNATURE:
+					if (element.charAt(0) == Signature.C_UNRESOLVED) {
+						// the type variables of the source types are unresolved names
+						String simpleName = Signature.toString(element);
+						if (simpleName.indexOf('.') < 0 && findTypeParameter(simpleName, type, method) != null) {
+							return resolveTypeVariable(simpleName, type, method);
+						}
+					}
+					String name = JavaModelUtil.getResolvedTypeName(element, type);
+					return name == null ? UNRESOLVED : intern(name);
+				default:
+					return UNRESOLVED;
+			}
+		}
+
+		/**
+		 * @return the id of the erasure of the type variable, i.e. of its first
+		 *         bound
+		 */
+		private int resolveTypeVariable(String name, IType type, IMethod method) throws JavaModelException {
+			ITypeParameter parameter = findTypeParameter(name, type, method);
+			if (parameter == null) {
+				return UNRESOLVED;
+			}
+			String[] bounds = parameter.getBoundsSignatures();
+			if (bounds.length == 0) {
+				return intern(OBJECT);
+			}
+			String bound = Signature.getTypeErasure(bounds[0]);
+			if (Signature.getTypeSignatureKind(bound) != Signature.CLASS_TYPE_SIGNATURE) {
+				return UNRESOLVED;
+			}
+			IMember member = parameter.getDeclaringMember();
+			IType declaringType = member instanceof IType memberType ? memberType : member.getDeclaringType();
+			String boundName = JavaModelUtil.getResolvedTypeName(bound, declaringType);
+			return boundName == null ? UNRESOLVED : intern(boundName);
+		}
+
+		private static ITypeParameter findTypeParameter(String name, IType type, IMethod method) {
+			if (method != null) {
+				ITypeParameter parameter = method.getTypeParameter(name);
+				if (parameter.exists()) {
+					return parameter;
+				}
+			}
+			for (IType current = type; current != null; current = current.getDeclaringType()) {
+				ITypeParameter parameter = current.getTypeParameter(name);
+				if (parameter.exists()) {
+					return parameter;
+				}
+			}
+			return null;
+		}
+
+		private int intern(String name) {
+			Integer id = ids.get(name);
+			if (id != null) {
+				return id;
+			}
+			if (size == names.length) {
+				int capacity = size * 2;
+				names = Arrays.copyOf(names, capacity);
+				states = Arrays.copyOf(states, capacity);
+				members = Arrays.copyOf(members, capacity);
+				supertypes = Arrays.copyOf(supertypes, capacity);
+				origins = Arrays.copyOf(origins, capacity);
+			}
+			names[size] = name;
+			states[size] = UNBUILT;
+			ids.put(name, size);
+			return size++;
+		}
+
+		/**
+		 * Resets the types of the changed compilation units and libraries, and
+		 * the unknown types, which may have been added.
+		 */
+		private void refresh() {
+			if (size > MAX_TYPES) {
+				clear();
+			}
+			if (dirtyUnits.isEmpty() && dirtyRoots.isEmpty()) {
+				return;
+			}
+			Set<String> units = drain(dirtyUnits);
+			Set<String> roots = drain(dirtyRoots);
+			for (int i = UNRESOLVED + 1; i < size; i++) {
+				if (states[i] == UNKNOWN || (origins[i] != null && (units.contains(origins[i]) || startsWithAny(origins[i], roots)))) {
+					states[i] = UNBUILT;
+					members[i] = null;
+					supertypes[i] = null;
+					origins[i] = null;
+				}
+			}
+		}
+
+		private static Set<String> drain(Set<String> dirty) {
+			Set<String> result = new HashSet<>();
+			for (Iterator<String> iterator = dirty.iterator(); iterator.hasNext();) {
+				result.add(iterator.next());
+				iterator.remove();
+			}
+			return result;
+		}
+
+		private static boolean startsWithAny(String origin, Set<String> roots) {
+			for (String root : roots) {
+				if (origin.startsWith(root)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private void clear() {
+			ids.clear();
+			Arrays.fill(names, null);
+			Arrays.fill(members, null);
+			Arrays.fill(supertypes, null);
+			Arrays.fill(origins, null);
+			size = 0;
+			intern("");
+			states[UNRESOLVED] = UNKNOWN;
+			members[UNRESOLVED] = new int[0];
+			supertypes[UNRESOLVED] = new int[0];
+		}
+	}
+
+	/**
+	 * The types visited by a search, in the order of their visit.
+	 */
+	private static final class Search {
+		private int[] nodes = new int[16];
+		private int[] levels = new int[16];
+		private int[][] successors = new int[16][];
+		private int count;
+		// the index of the visit of each type id, plus one
+		private int[] indexes = new int[16];
+
+		/**
+		 * @return the index of the visit of the type
+		 */
+		int visit(int node, int level) {
+			if (node >= indexes.length) {
+				indexes = Arrays.copyOf(indexes, Math.max(indexes.length * 2, node + 1));
+			}
+			if (indexes[node] > 0) {
+				return indexes[node] - 1;
+			}
+			if (count == nodes.length) {
+				nodes = Arrays.copyOf(nodes, count * 2);
+				levels = Arrays.copyOf(levels, count * 2);
+				successors = Arrays.copyOf(successors, count * 2);
+			}
+			nodes[count] = node;
+			levels[count] = level;
+			indexes[node] = count + 1;
+			return count++;
+		}
+	}
+}
@@ -67,6 +67,9 @@ import com.google.common.collect.ImmutableSet;
 public final class CompletionProposalRequestor extends CompletionRequestor {
 
 	private List<CompletionProposal> proposals = new ArrayList<>();
+	// The proposals of the completion engine, before they are filtered, and their relevance
+	private List<CompletionProposal> engineProposals = new ArrayList<>();
+	private List<Integer> engineRelevances = new ArrayList<>();
 	// Cache to store all the types that has been collapsed, due to off mode of argument guessing.
 	private Map<String, Integer> collapsedTypes = new HashMap<>();
 	private final ICompilationUnit unit;
@@ -75,6 +78,7 @@ public final class CompletionProposalRequestor extends CompletionRequestor {
 	private CompletionResponse response;
 	private boolean fIsTestCodeExcluded;
 	private CompletionContext context;
+	private char[] token;
 	private boolean isComplete = true;
 	private PreferenceManager preferenceManager;
 	private CompletionProposalReplacementProvider proposalProvider;
@@ -226,6 +230,9 @@ public final class CompletionProposalRequestor extends CompletionRequestor {
 
 	@Override
 	public void accept(CompletionProposal proposal) {
+		engineProposals.add(proposal);
+		engineRelevances.add(proposal.getRelevance());
+
 		if (isFiltered(proposal)) {
 			return;
 		}
@@ -592,6 +599,34 @@ public final class CompletionProposalRequestor extends CompletionRequestor {
 		return proposals;
 	}
 
+	/**
+	 * @return the proposals received from the completion engine, including the
+	 *         filtered ones
+	 */
+	public List<CompletionProposal> getEngineProposals() {
+		return engineProposals;
+	}
+
+	/**
+	 * @return the relevance of the engine proposal at the given index, as
+	 *         computed by the completion engine
+	 */
+	public int getEngineRelevance(int index) {
+		return engineRelevances.get(index);
+	}
+
+	/**
+	 * Overrides the token of the context, when the proposals computed for a
+	 * shorter token are accepted again.
+	 */
+	public void setToken(char[] token) {
+		this.token = token;
+	}
+
+	private char[] getToken() {
+		return token != null ? token : context.getToken();
+	}
+
 	/**
 	 * copied from
 	 * org.eclipse.jdt.ui.text.java.CompletionProposalCollector.isFiltered(CompletionProposal)
@@ -695,11 +730,12 @@ public final class CompletionProposalRequestor extends CompletionRequestor {
 			return true;
 		}
 
-		if (this.context.getToken() == null || proposal.getCompletion() == null) {
+		char[] token = getToken();
+		if (token == null || proposal.getCompletion() == null) {
 			return true;
 		}
 
-		if (this.context.getToken().length == 0 || proposal.getCompletion().length == 0) {
+		if (token.length == 0 || proposal.getCompletion().length == 0) {
 			return true;
 		}
 
@@ -728,10 +764,10 @@ public final class CompletionProposalRequestor extends CompletionRequestor {
 
 		// Workaround for https://github.com/eclipse-jdtls/eclipse.jdt.ls/issues/2925
 		if (proposal.getKind() == CompletionProposal.PACKAGE_REF || proposal.getKind() == CompletionProposal.MODULE_REF) {
-			return Character.isUpperCase(this.context.getToken()[0]) == Character.isUpperCase(firstCharOfCompletion);
+			return Character.isUpperCase(token[0]) == Character.isUpperCase(firstCharOfCompletion);
 		}
 
-		return this.context.getToken()[0] == firstCharOfCompletion;
+		return token[0] == firstCharOfCompletion;
 	}
 
 	/**
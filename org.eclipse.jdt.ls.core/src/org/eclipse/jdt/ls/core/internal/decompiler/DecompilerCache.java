@@ -0,0 +1,390 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.decompiler;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.jdt.ls.core.internal.DecompilerResult;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+
+/**
+ * Two-tier cache of the decompiled sources.
+ * <p>
+ * The heap tier is an LRU map keyed by the class file handle (or URI), bounded
+ * by the total length of the cached sources. The disk tier is content
+ * addressed: entries are keyed by a digest of the decompiler, its version and
+ * the bytes of the class file and of its nested classes, so that they can be
+ * shared by all the workspaces, and all the language server instances, of a
+ * machine. Entries are written to a unique temporary file and atomically moved
+ * in place, so that readers never see a partial entry, and concurrent writers
+ * of the same entry produce the same content.
+ */
+public class DecompilerCache {
+
+	/**
+	 * System property overriding the location of the disk tier, by default
+	 * <code>jdtls/decompiled</code> in the user cache directory. An empty
+	 * value disables it.
+	 */
+	public static final String CACHE_LOCATION_PROPERTY = "jdt.ls.decompiler.cacheLocation";
+	/**
+	 * System property bounding the heap tier, in megabytes.
+	 */
+	public static final String MEMORY_LIMIT_PROPERTY = "jdt.ls.decompiler.memoryCacheSize";
+	/**
+	 * System property for the number of days the unused disk entries are kept.
+	 */
+	public static final String MAX_AGE_PROPERTY = "jdt.ls.decompiler.cacheMaxAge";
+
+	private static final int MAGIC = 0x4A444443; // JDDC
+	private static final int FORMAT_VERSION = 1;
+	private static final String ENTRY_EXTENSION = ".gz";
+	private static final long TOUCH_INTERVAL = TimeUnit.DAYS.toMillis(1);
+
+	private final Map<String, DecompilerResult> memory = new LinkedHashMap<>(16, .75F, true);
+	private final long memoryLimit;
+	private long memoryWeight;
+	private final Path directory;
+	private final long maxAge;
+	private final AtomicBoolean pruned = new AtomicBoolean();
+
+	private final AtomicLong memoryHits = new AtomicLong();
+	private final AtomicLong diskHits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong diskWrites = new AtomicLong();
+	private final AtomicLong diskErrors = new AtomicLong();
+
+	public DecompilerCache() {
+		this(getDefaultLocation(), Integer.getInteger(MEMORY_LIMIT_PROPERTY, 32) * 1024L * 1024L, TimeUnit.DAYS.toMillis(Integer.getInteger(MAX_AGE_PROPERTY, 30)));
+	}
+
+	/**
+	 * @param directory
+	 *            the location of the disk tier, <code>null</code> to disable
+	 *            it
+	 * @param memoryLimit
+	 *            the approximate size of the heap tier, in bytes
+	 * @param maxAge
+	 *            the time the unused disk entries are kept, in milliseconds
+	 */
+	public DecompilerCache(Path directory, long memoryLimit, long maxAge) {
+		this.directory = directory;
+		this.memoryLimit = memoryLimit;
+		this.maxAge = maxAge;
+	}
+
+	private static Path getDefaultLocation() {
+		String location = System.getProperty(CACHE_LOCATION_PROPERTY);
+		if (location == null) {
+			String cacheHome = System.getenv("XDG_CACHE_HOME");
+			Path cache = cacheHome == null || cacheHome.isBlank() ? Paths.get(System.getProperty("user.home"), ".cache") : Paths.get(cacheHome);
+			return cache.resolve("jdtls").resolve("decompiled");
+		}
+		return location.isBlank() ? null : Paths.get(location);
+	}
+
+	/**
+	 * Computes the disk key of a decompiled class file.
+	 *
+	 * @param type
+	 *            the decompiler
+	 * @param version
+	 *            the version of the decompiler, any change of the output must
+	 *            change it
+	 * @param bytecode
+	 *            the class file bytes
+	 * @return the key, or <code>null</code> if there are no bytes
+	 */
+	public static String digest(DecompilerType type, String version, byte[] bytecode) {
+		return bytecode == null ? null : digest(type, version, List.of(bytecode));
+	}
+
+	/**
+	 * Computes the disk key of a decompiled class file, whose source depends on
+	 * its nested classes.
+	 *
+	 * @param bytecodes
+	 *            the class file bytes, followed by the ones of its nested
+	 *            classes
+	 * @return the key, or <code>null</code> if some bytes are missing
+	 */
+	public static String digest(DecompilerType type, String version, List<byte[]> bytecodes) {
+		if (bytecodes == null || bytecodes.isEmpty()) {
+			return null;
+		}
+		try {
+			MessageDigest md = MessageDigest.getInstance("SHA-256");
+			md.update(type.name().getBytes(StandardCharsets.UTF_8));
+			md.update((byte) 0);
+			md.update(String.valueOf(version).getBytes(StandardCharsets.UTF_8));
+			md.update((byte) 0);
+			for (byte[] bytecode : bytecodes) {
+				if (bytecode == null) {
+					return null;
+				}
+				md.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytecode.length).array());
+				md.update(bytecode);
+			}
+			return HexFormat.of().formatHex(md.digest());
+		} catch (NoSuchAlgorithmException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return the result cached in the heap tier, or <code>null</code>
+	 */
+	public DecompilerResult get(String key) {
+		DecompilerResult result;
+		synchronized (memory) {
+			result = memory.get(key);
+		}
+		if (result != null) {
+			memoryHits.incrementAndGet();
+		}
+		return result;
+	}
+
+	/**
+	 * Caches a result in the heap tier, evicting the least recently used
+	 * results over the limit.
+	 */
+	public void put(String key, DecompilerResult result) {
+		long weight = weigh(result);
+		if (weight > memoryLimit) {
+			return;
+		}
+		synchronized (memory) {
+			DecompilerResult previous = memory.put(key, result);
+			if (previous != null) {
+				memoryWeight -= weigh(previous);
+			}
+			memoryWeight += weight;
+			var iterator = memory.values().iterator();
+			while (memoryWeight > memoryLimit && iterator.hasNext()) {
+				memoryWeight -= weigh(iterator.next());
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * @return the result persisted in the disk tier, or <code>null</code>
+	 */
+	public DecompilerResult load(String digest) {
+		Path entry = getEntry(digest);
+		if (entry == null) {
+			misses.incrementAndGet();
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(new GZIPInputStream(new BufferedInputStream(Files.newInputStream(entry))))) {
+			if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+				throw new IOException("Unknown decompiler cache entry format");
+			}
+			byte[] content = new byte[in.readInt()];
+			in.readFully(content);
+			int[] originalLineMappings = readInts(in);
+			int[] decompiledLineMappings = readInts(in);
+			touch(entry);
+			diskHits.incrementAndGet();
+			return new DecompilerResult(new String(content, StandardCharsets.UTF_8), originalLineMappings, decompiledLineMappings);
+		} catch (NoSuchFileException e) {
+			// not cached
+		} catch (IOException | RuntimeException e) {
+			diskErrors.incrementAndGet();
+			JavaLanguageServerPlugin.logException("Discarding the corrupted decompiler cache entry " + entry, e);
+			deleteQuietly(entry);
+		}
+		misses.incrementAndGet();
+		return null;
+	}
+
+	/**
+	 * Persists a result in the disk tier.
+	 */
+	public void store(String digest, DecompilerResult result) {
+		Path entry = getEntry(digest);
+		if (entry == null || result.getContent() == null) {
+			return;
+		}
+		Path temp = null;
+		try {
+			Files.createDirectories(entry.getParent());
+			temp = Files.createTempFile(entry.getParent(), digest, ".tmp");
+			try (OutputStream stream = Files.newOutputStream(temp); DataOutputStream out = new DataOutputStream(new GZIPOutputStream(new BufferedOutputStream(stream)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				byte[] content = result.getContent().getBytes(StandardCharsets.UTF_8);
+				out.writeInt(content.length);
+				out.write(content);
+				writeInts(out, result.getOriginalLineMappings());
+				writeInts(out, result.getDecompiledLineMappings());
+			}
+			try {
+				Files.move(temp, entry, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING);
+			}
+			temp = null;
+			diskWrites.incrementAndGet();
+		} catch (IOException e) {
+			diskErrors.incrementAndGet();
+			JavaLanguageServerPlugin.logException("Failed to write the decompiler cache entry " + entry, e);
+		} finally {
+			if (temp != null) {
+				deleteQuietly(temp);
+			}
+		}
+		if (pruned.compareAndSet(false, true)) {
+			CompletableFuture.runAsync(this::prune);
+		}
+	}
+
+	public void clear() {
+		synchronized (memory) {
+			memory.clear();
+			memoryWeight = 0;
+		}
+	}
+
+	public Map<String, Object> getMetrics() {
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		synchronized (memory) {
+			metrics.put("memoryEntries", memory.size());
+			metrics.put("memoryBytes", memoryWeight);
+		}
+		metrics.put("memoryLimit", memoryLimit);
+		metrics.put("memoryHits", memoryHits.get());
+		metrics.put("diskHits", diskHits.get());
+		metrics.put("misses", misses.get());
+		metrics.put("diskWrites", diskWrites.get());
+		metrics.put("diskErrors", diskErrors.get());
+		metrics.put("location", directory == null ? null : directory.toString());
+		return metrics;
+	}
+
+	/**
+	 * Deletes the disk entries which haven't been used for longer than the
+	 * maximum age, along with the temporary files left by crashed writers.
+	 */
+	void prune() {
+		if (directory == null || !Files.isDirectory(directory)) {
+			return;
+		}
+		long limit = System.currentTimeMillis() - maxAge;
+		try (DirectoryStream<Path> buckets = Files.newDirectoryStream(directory, Files::isDirectory)) {
+			for (Path bucket : buckets) {
+				try (DirectoryStream<Path> entries = Files.newDirectoryStream(bucket)) {
+					for (Path entry : entries) {
+						if (Files.getLastModifiedTime(entry).toMillis() < limit) {
+							deleteQuietly(entry);
+						}
+					}
+				}
+			}
+		} catch (IOException e) {
+			JavaLanguageServerPlugin.logException("Failed to prune the decompiler cache", e);
+		}
+	}
+
+	private Path getEntry(String digest) {
+		if (directory == null || digest == null || digest.length() < 2) {
+			return null;
+		}
+		return directory.resolve(digest.substring(0, 2)).resolve(digest + ENTRY_EXTENSION);
+	}
+
+	/**
+	 * Refreshes the modification time of the used entries, so that they are
+	 * kept by {@link #prune()}.
+	 */
+	private static void touch(Path entry) {
+		try {
+			long now = System.currentTimeMillis();
+			if (now - Files.getLastModifiedTime(entry).toMillis() > TOUCH_INTERVAL) {
+				Files.setLastModifiedTime(entry, FileTime.fromMillis(now));
+			}
+		} catch (IOException e) {
+			// read-only shared cache
+		}
+	}
+
+	private static void deleteQuietly(Path path) {
+		try {
+			Files.deleteIfExists(path);
+		} catch (IOException e) {
+			// ignore
+		}
+	}
+
+	private static long weigh(DecompilerResult result) {
+		long weight = 2L * (result.getContent() == null ? 0 : result.getContent().length());
+		if (result.getOriginalLineMappings() != null) {
+			weight += 4L * result.getOriginalLineMappings().length;
+		}
+		if (result.getDecompiledLineMappings() != null) {
+			weight += 4L * result.getDecompiledLineMappings().length;
+		}
+		return weight;
+	}
+
+	private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+		if (values == null) {
+			out.writeInt(-1);
+			return;
+		}
+		out.writeInt(values.length);
+		for (int value : values) {
+			out.writeInt(value);
+		}
+	}
+
+	private static int[] readInts(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		int[] values = new int[length];
+		for (int i = 0; i < length; i++) {
+			values[i] = in.readInt();
+		}
+		return values;
+	}
+}
@@ -13,54 +13,46 @@
 
 package org.eclipse.jdt.ls.core.internal.decompiler;
 
+import java.io.IOException;
 import java.net.URI;
-import java.util.Collections;
-import java.util.EnumMap;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.core.IClassFile;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IOrdinaryClassFile;
+import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.ls.core.internal.DecompilerResult;
 import org.eclipse.jdt.ls.core.internal.IDecompiler;
+import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+import org.eclipse.jdt.ls.core.internal.ServerMetrics;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.FrameworkUtil;
+import org.osgi.framework.Version;
 
 public abstract class DecompilerImpl implements IDecompiler {
-	private static Map<DecompilerType, Map<String, DecompilerResult>> decompilerCache = 
-			Collections.synchronizedMap(new EnumMap<>(DecompilerType.class));
-	private static final int CACHE_SIZE = 100;
-
-	private static Map<String, DecompilerResult> getLRUCache(int maxEntries) {
-		Map<String, DecompilerResult> map = new LinkedHashMap<>(maxEntries + 1, .75F, true) {
-			@Override
-			public boolean removeEldestEntry(Map.Entry eldest) {
-				return size() > maxEntries;
-			}
-		};
-		return Collections.synchronizedMap(map);
-	}
+	private static DecompilerCache decompilerCache;
 
-	private static Map<String, DecompilerResult> getCache(DecompilerType type) {
-		return decompilerCache.computeIfAbsent(type, key -> {
-			return getLRUCache(CACHE_SIZE);
-		});
+	static synchronized DecompilerCache getCache() {
+		if (decompilerCache == null) {
+			decompilerCache = new DecompilerCache();
+			ServerMetrics.register("decompiler", decompilerCache::getMetrics);
+		}
+		return decompilerCache;
 	}
 
 	@Override
 	public String getContent(URI uri, IProgressMonitor monitor) throws CoreException {
-		Map<String, DecompilerResult> cache = getCache(getDecompilerType());
-		String cacheKey = uri.toString();
-		DecompilerResult result = cache.computeIfAbsent(cacheKey, (key) -> {
-			try {
-				return decompileContent(uri, monitor);
-			} catch (CoreException e) {
-				JavaLanguageServerPlugin.logException("Failed to decompile with " + getDecompilerType().name(), e);
-			}
-
-			return null;
-		});
-
+		DecompilerResult result = getCachedResult(uri.toString(), () -> readBytecodes(uri), () -> decompileContent(uri, monitor));
 		return result == null ? null : result.getContent();
 	}
 
@@ -72,20 +64,135 @@ public abstract class DecompilerImpl implements IDecompiler {
 
 	@Override
 	public DecompilerResult getDecompiledSource(IClassFile classFile, IProgressMonitor monitor) throws CoreException {
-		Map<String, DecompilerResult> cache = getCache(getDecompilerType());
-		String cacheKey = classFile.getHandleIdentifier();
-		return cache.computeIfAbsent(cacheKey, (key) -> {
+		return getCachedResult(classFile.getHandleIdentifier(), () -> readClassFileBytecodes(classFile), () -> decompileContent(classFile, monitor));
+	}
+
+	/**
+	 * Looks the result up in the heap tier, then in the disk tier, and only
+	 * decompiles the class file when both miss.
+	 */
+	private DecompilerResult getCachedResult(String key, BytecodeReader reader, Decompilation decompilation) {
+		DecompilerCache cache = getCache();
+		String cacheKey = getDecompilerType().name() + ':' + key;
+		DecompilerResult result = cache.get(cacheKey);
+		if (result != null) {
+			return result;
+		}
+		String digest = null;
+		try {
+			digest = DecompilerCache.digest(getDecompilerType(), getDecompilerVersion(), reader.read());
+		} catch (CoreException | IOException e) {
+			// let the decompiler report it
+		}
+		if (digest != null) {
+			result = cache.load(digest);
+		}
+		if (result == null) {
 			try {
-				return decompileContent(classFile, monitor);
+				result = decompilation.decompile();
 			} catch (CoreException e) {
 				JavaLanguageServerPlugin.logException("Failed to decompile with " + getDecompilerType().name(), e);
 			}
+			if (result != null && digest != null) {
+				cache.store(digest, result);
+			}
+		}
+		if (result != null) {
+			cache.put(cacheKey, result);
+		}
+		return result;
+	}
 
+	private static List<byte[]> readBytecodes(URI uri) throws CoreException, IOException {
+		IClassFile classFile = JDTUtils.resolveClassFile(uri);
+		if (classFile != null) {
+			return readClassFileBytecodes(classFile);
+		}
+		if (!"file".equals(uri.getScheme())) {
 			return null;
-		});
+		}
+		Path path = Paths.get(uri);
+		List<byte[]> bytecodes = new ArrayList<>();
+		bytecodes.add(Files.readAllBytes(path));
+		List<Path> nestedClasses = new ArrayList<>();
+		try (DirectoryStream<Path> siblings = Files.newDirectoryStream(path.getParent(), getNestedClassPrefix(path.getFileName().toString()) + "*.class")) {
+			siblings.forEach(nestedClasses::add);
+		}
+		nestedClasses.sort(Comparator.comparing(Path::getFileName));
+		for (Path nestedClass : nestedClasses) {
+			bytecodes.add(Files.readAllBytes(nestedClass));
+		}
+		return bytecodes;
+	}
+
+	/**
+	 * Reads the bytes of the class file, followed by the ones of its nested
+	 * classes, which the decompilers inline in its source.
+	 */
+	private static List<byte[]> readClassFileBytecodes(IClassFile classFile) throws CoreException {
+		List<byte[]> bytecodes = new ArrayList<>();
+		bytecodes.add(classFile.getBytes());
+		IJavaElement parent = classFile.getParent();
+		if (classFile instanceof IOrdinaryClassFile && parent instanceof IPackageFragment fragment) {
+			String prefix = getNestedClassPrefix(classFile.getElementName());
+			IOrdinaryClassFile[] siblings = fragment.getOrdinaryClassFiles();
+			Arrays.sort(siblings, Comparator.comparing(IJavaElement::getElementName));
+			for (IOrdinaryClassFile sibling : siblings) {
+				if (sibling.getElementName().startsWith(prefix)) {
+					bytecodes.add(sibling.getBytes());
+				}
+			}
+		}
+		return bytecodes;
+	}
+
+	/**
+	 * @return the prefix of the names of the nested classes of the given class
+	 *         file, e.g. <code>Outer$</code> for <code>Outer.class</code>
+	 */
+	private static String getNestedClassPrefix(String classFileName) {
+		int index = classFileName.lastIndexOf(".class");
+		return (index == -1 ? classFileName : classFileName.substring(0, index)) + '$';
+	}
+
+	/**
+	 * Returns the version of the decompiler, part of the key of the results
+	 * shared on disk. Any change of the decompiled output must change it.
+	 */
+	protected String getDecompilerVersion() {
+		return getBundleVersion(getClass());
+	}
+
+	/**
+	 * Returns the version of the bundle of the given class. The development
+	 * builds, whose qualifier isn't expanded, share their version whatever
+	 * their code, so the time the bundle was installed or updated is appended
+	 * to it.
+	 */
+	protected static String getBundleVersion(Class<?> clazz) {
+		Bundle bundle = FrameworkUtil.getBundle(clazz);
+		if (bundle == null) {
+			return "unknown";
+		}
+		Version version = bundle.getVersion();
+		String qualifier = version.getQualifier();
+		if ("qualifier".equals(qualifier) || qualifier.endsWith("SNAPSHOT")) {
+			return version.toString() + '@' + bundle.getLastModified();
+		}
+		return version.toString();
 	}
 
 	protected abstract DecompilerResult decompileContent(URI uri, IProgressMonitor monitor) throws CoreException;
 	protected abstract DecompilerResult decompileContent(IClassFile classFile, IProgressMonitor monitor) throws CoreException;
 	protected abstract DecompilerType getDecompilerType();
+
+	@FunctionalInterface
+	private interface BytecodeReader {
+		List<byte[]> read() throws CoreException, IOException;
+	}
+
+	@FunctionalInterface
+	private interface Decompilation {
+		DecompilerResult decompile() throws CoreException;
+	}
 }
@@ -44,6 +44,10 @@ import org.jetbrains.java.decompiler.main.extern.IFernflowerLogger.Severity;
 
 public class FernFlowerDecompiler extends DecompilerImpl {
 	public static final String DECOMPILER_HEADER = "// Source code is decompiled from a .class file using FernFlower decompiler.\n";
+	/**
+	 * The version of the embedded java-decompiler-engine, see pom.xml.
+	 */
+	private static final String ENGINE_VERSION = "231.9011.34";
 
 	public static boolean isDecompiledContents(String contents) {
 		return contents != null && contents.startsWith(DECOMPILER_HEADER);
@@ -64,6 +68,12 @@ public class FernFlowerDecompiler extends DecompilerImpl {
 		return DecompilerType.FERNFLOWER;
 	}
 
+	@Override
+	protected String getDecompilerVersion() {
+		// the decompiled output depends on the engine, the options and the header
+		return super.getDecompilerVersion() + '/' + ENGINE_VERSION + (Boolean.getBoolean("jdt.ls.debug") ? "/debug" : "");
+	}
+
 	private DecompilerResult getContent(BytecodeProvider provider, IProgressMonitor monitor) throws CoreException {
 		Map<String, Object> decompilerOptions = new HashMap<>();
 		decompilerOptions.put(IFernflowerPreferences.HIDE_DEFAULT_CONSTRUCTOR, "0");
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.ls.core.internal.ExponentialMovingAverage;
+
+/**
+ * Debounce policy keeping an exponentially weighted moving average of the
+ * processing cost per document size bucket. The delay for a document is the
+ * average cost of its bucket, scaled by {@link #COST_FACTOR} and clamped to
+ * [minDelay, maxDelay]. Small documents therefore get short delays, while
+ * large documents back off according to their own cost.
+ */
+public class AdaptiveDebouncePolicy implements DebouncePolicy {
+
+	/**
+	 * Upper bounds (exclusive, in characters) of the document size buckets.
+	 * Larger documents fall into an extra, unbounded bucket.
+	 */
+	static final int[] BUCKET_BOUNDS = { 10_000, 50_000, 200_000 };
+
+	/**
+	 * The weight of a new sample.
+	 */
+	private static final double ALPHA = 0.3;
+
+	private static final double COST_FACTOR = 1.5;
+
+	private final long minDelay;
+	private final long maxDelay;
+	private final ExponentialMovingAverage[] averages;
+	private volatile long lastDelay;
+
+	/**
+	 * @param initValue
+	 *            the initial cost of every bucket, in ms
+	 * @param minDelay
+	 *            the minimum delay, in ms
+	 * @param maxDelay
+	 *            the maximum delay, in ms
+	 */
+	public AdaptiveDebouncePolicy(long initValue, long minDelay, long maxDelay) {
+		this.minDelay = minDelay;
+		this.maxDelay = maxDelay;
+		this.averages = new ExponentialMovingAverage[BUCKET_BOUNDS.length + 1];
+		for (int i = 0; i < averages.length; i++) {
+			averages[i] = new ExponentialMovingAverage(ALPHA, initValue);
+		}
+		this.lastDelay = computeDelay(averages[0]);
+	}
+
+	@Override
+	public long getDelay(int documentLength) {
+		long delay = computeDelay(averages[getBucket(documentLength)]);
+		lastDelay = delay;
+		return delay;
+	}
+
+	@Override
+	public void update(int documentLength, long elapsedTime) {
+		averages[getBucket(documentLength)].update(elapsedTime);
+	}
+
+	@Override
+	public Map<String, Object> getMetrics() {
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		metrics.put("lastDelay", lastDelay);
+		List<Map<String, Object>> buckets = new ArrayList<>(averages.length);
+		for (int i = 0; i < averages.length; i++) {
+			Map<String, Object> bucket = new LinkedHashMap<>();
+			bucket.put("maxLength", i < BUCKET_BOUNDS.length ? BUCKET_BOUNDS[i] : null);
+			bucket.put("averageCost", averages[i].getValue());
+			bucket.put("samples", averages[i].getSamples());
+			bucket.put("delay", computeDelay(averages[i]));
+			buckets.add(bucket);
+		}
+		metrics.put("buckets", buckets);
+		return metrics;
+	}
+
+	private long computeDelay(ExponentialMovingAverage average) {
+		return Math.min(Math.max(minDelay, Math.round(COST_FACTOR * average.getValue())), maxDelay);
+	}
+
+	static int getBucket(int documentLength) {
+		for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+			if (documentLength < BUCKET_BOUNDS[i]) {
+				return i;
+			}
+		}
+		return BUCKET_BOUNDS.length;
+	}
+}
@@ -16,8 +16,11 @@ package org.eclipse.jdt.ls.core.internal.handlers;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -62,7 +65,6 @@ import org.eclipse.jdt.ls.core.internal.DocumentAdapter;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.JobHelpers;
-import org.eclipse.jdt.ls.core.internal.MovingAverage;
 import org.eclipse.jdt.ls.core.internal.ProjectUtils;
 import org.eclipse.jdt.ls.core.internal.contentassist.CompletionProposalUtils;
 import org.eclipse.jdt.ls.core.internal.corrections.DiagnosticsHelper;
@@ -114,10 +116,10 @@ public abstract class BaseDocumentLifeCycleHandler {
 	private Set<ICompilationUnit> toValidate = ConcurrentHashMap.newKeySet();
 	private Map<String, Integer> documentVersions = new HashMap<>();
 	private Map<String, Integer> lastSyncedDocumentLengths = new ConcurrentHashMap<>();
-	private MovingAverage movingAverageForValidation = new MovingAverage(DOCUMENT_LIFECYCLE_MAX_DEBOUNCE);
-	private MovingAverage movingAverageForDiagnostics = new MovingAverage(PUBLISH_DIAGNOSTICS_MIN_DEBOUNCE);
+	private DebouncePolicy validationDebounce = new AdaptiveDebouncePolicy(DOCUMENT_LIFECYCLE_MAX_DEBOUNCE, 0, DOCUMENT_LIFECYCLE_MAX_DEBOUNCE);
+	private DebouncePolicy diagnosticsDebounce = new AdaptiveDebouncePolicy(PUBLISH_DIAGNOSTICS_MIN_DEBOUNCE, PUBLISH_DIAGNOSTICS_MIN_DEBOUNCE, PUBLISH_DIAGNOSTICS_MAX_DEBOUNCE);
 	protected final PreferenceManager preferenceManager;
-	private Object reconcileLock = new Object();
+	private final ReconcileScheduler reconcileScheduler = new ReconcileScheduler();
 
 	public BaseDocumentLifeCycleHandler(PreferenceManager preferenceManager, boolean delayValidation) {
 		this.preferenceManager = preferenceManager;
@@ -127,13 +129,7 @@ public abstract class BaseDocumentLifeCycleHandler {
 				@Override
 				protected IStatus run(IProgressMonitor monitor) {
 					try {
-						long startTime = System.nanoTime();
-						IStatus status = performValidation(monitor);
-						if (status.getSeverity() != IStatus.CANCEL) {
-							long elapsedTime = System.nanoTime() - startTime;
-							movingAverageForValidation.update(elapsedTime / 1_000_000);
-						}
-						return status;
+						return performValidation(monitor);
 					} catch (JavaModelException e) {
 						return e.getStatus();
 					}
@@ -158,7 +154,7 @@ public abstract class BaseDocumentLifeCycleHandler {
 	public abstract ICompilationUnit resolveCompilationUnit(String uri);
 
 	protected void triggerValidation(ICompilationUnit cu) throws JavaModelException {
-		triggerValidation(cu, getDocumentLifecycleDelay());
+		triggerValidation(cu, validationDebounce.getDelay(getDocumentLength(cu)));
 	}
 
 	protected void triggerValidation(ICompilationUnit cu, long delay) throws JavaModelException {
@@ -181,19 +177,60 @@ public abstract class BaseDocumentLifeCycleHandler {
 		}
 	}
 
-	private long getDocumentLifecycleDelay() {
-		return Math.min(DOCUMENT_LIFECYCLE_MAX_DEBOUNCE, Math.round(1.5 * movingAverageForValidation.value));
+	/**
+	 * @return the delay time of the publish diagnostics job for the given
+	 *         units. The value ranges in ({@link #PUBLISH_DIAGNOSTICS_MIN_DEBOUNCE},
+	 *         {@link #PUBLISH_DIAGNOSTICS_MAX_DEBOUNCE}) ms.
+	 */
+	private long getPublishDiagnosticsDelay(Collection<ICompilationUnit> units) {
+		int length = 0;
+		for (ICompilationUnit unit : units) {
+			length = Math.max(length, getDocumentLength(unit));
+		}
+		return diagnosticsDebounce.getDelay(length);
+	}
+
+	/**
+	 * @return the length of the unit's buffer, or 0 if the unit isn't open.
+	 */
+	private static int getDocumentLength(ICompilationUnit unit) {
+		if (unit.isOpen()) {
+			try {
+				IBuffer buffer = unit.getBuffer();
+				if (buffer != null) {
+					return buffer.getLength();
+				}
+			} catch (JavaModelException e) {
+				// ignore
+			}
+		}
+		return 0;
+	}
+
+	public void setValidationDebouncePolicy(DebouncePolicy policy) {
+		this.validationDebounce = Objects.requireNonNull(policy);
+	}
+
+	public void setDiagnosticsDebouncePolicy(DebouncePolicy policy) {
+		this.diagnosticsDebounce = Objects.requireNonNull(policy);
 	}
 
 	/**
-	 * @return the delay time of the publish diagnostics job. The value ranges in
-	 * ({@link #PUBLISH_DIAGNOSTICS_MIN_DEBOUNCE}, {@link #PUBLISH_DIAGNOSTICS_MAX_DEBOUNCE}) ms.
+	 * Stops the threads reconciling the documents, and discards the queued
+	 * reconciles.
 	 */
-	private long getPublishDiagnosticsDelay() {
-		return Math.min(
-			Math.max(PUBLISH_DIAGNOSTICS_MIN_DEBOUNCE, Math.round(1.5 * movingAverageForDiagnostics.value)),
-			PUBLISH_DIAGNOSTICS_MAX_DEBOUNCE
-		);
+	public void shutdown() {
+		reconcileScheduler.shutdown();
+	}
+
+	/**
+	 * @return the state of the adaptive debounce policies
+	 */
+	public Map<String, Object> getDebounceMetrics() {
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		metrics.put("validation", validationDebounce.getMetrics());
+		metrics.put("publishDiagnostics", diagnosticsDebounce.getMetrics());
+		return metrics;
 	}
 
 	private IStatus performValidation(IProgressMonitor monitor) throws JavaModelException {
@@ -212,16 +249,15 @@ public abstract class BaseDocumentLifeCycleHandler {
 			return Status.CANCEL_STATUS;
 		}
 		// first reconcile all units with content changes
-		SubMonitor progress = SubMonitor.convert(monitor, cusToReconcile.size() + 1);
-		synchronized(reconcileLock) {
-			for (ICompilationUnit cu : cusToReconcile) {
-				if (monitor.isCanceled()) {
-					return Status.CANCEL_STATUS;
-				}
-				cu.makeConsistent(progress);
-				toValidate.add(cu);
-				//cu.reconcile(ICompilationUnit.NO_AST, false, null, progress.newChild(1));
-			}
+		boolean completed = reconcileScheduler.runAll(cusToReconcile, (cu, progress) -> {
+			long startTime = System.nanoTime();
+			cu.makeConsistent(progress);
+			validationDebounce.update(getDocumentLength(cu), (System.nanoTime() - startTime) / 1_000_000);
+			toValidate.add(cu);
+			//cu.reconcile(ICompilationUnit.NO_AST, false, null, progress);
+		}, monitor);
+		if (!completed) {
+			return Status.CANCEL_STATUS;
 		}
 
 		JavaLanguageServerPlugin.logInfo("Reconciled " + cusToReconcile.size() + ". Took " + (System.currentTimeMillis() - start) + " ms");
@@ -238,7 +274,7 @@ public abstract class BaseDocumentLifeCycleHandler {
 			if (monitor.isCanceled()) {
 				return Status.CANCEL_STATUS;
 			}
-			publishDiagnosticsJob.schedule(getPublishDiagnosticsDelay());
+			publishDiagnosticsJob.schedule(getPublishDiagnosticsDelay(cusToReconcile));
 		} else {
 			return publishDiagnostics(new NullProgressMonitor());
 		}
@@ -258,7 +294,7 @@ public abstract class BaseDocumentLifeCycleHandler {
 			if (monitor.isCanceled()) {
 				return Status.CANCEL_STATUS;
 			}
-			publishDiagnosticsJob.schedule(getPublishDiagnosticsDelay());
+			publishDiagnosticsJob.schedule(getPublishDiagnosticsDelay(Collections.singleton(unit)));
 			return Status.OK_STATUS;
 		}
 
@@ -278,22 +314,32 @@ public abstract class BaseDocumentLifeCycleHandler {
 		if (validateCopy.isEmpty()) {
 			return Status.OK_STATUS;
 		}
-		SubMonitor progress = SubMonitor.convert(monitor, validateCopy.size() + 1);
 		if (monitor.isCanceled()) {
 			return Status.CANCEL_STATUS;
 		}
-		for (ICompilationUnit rootToValidate : validateCopy) {
-			if (monitor.isCanceled()) {
-				return Status.CANCEL_STATUS;
-			}
-			publishDiagnostics(rootToValidate, progress.newChild(1));
+		boolean completed = reconcileScheduler.runAll(validateCopy, (rootToValidate, progress) -> {
+			long startTime = System.nanoTime();
+			reconcile(rootToValidate, progress);
+			diagnosticsDebounce.update(getDocumentLength(rootToValidate), (System.nanoTime() - startTime) / 1_000_000);
 			toValidate.remove(rootToValidate);
+		}, monitor);
+		if (!completed) {
+			return Status.CANCEL_STATUS;
 		}
 		JavaLanguageServerPlugin.logInfo("Validated " + validateCopy.size() + ". Took " + (System.currentTimeMillis() - start) + " ms");
 		return Status.OK_STATUS;
 	}
 
 	private void publishDiagnostics(ICompilationUnit unit, IProgressMonitor monitor) throws JavaModelException {
+		reconcileScheduler.run(unit, this::reconcile, monitor);
+	}
+
+	/**
+	 * Reconciles the unit and reports its problems. Must only be called through
+	 * the {@link #reconcileScheduler}, which guarantees that a given unit is
+	 * never reconciled concurrently.
+	 */
+	private void reconcile(ICompilationUnit unit, IProgressMonitor monitor) throws JavaModelException {
 		final BaseDiagnosticsHandler handler = createDiagnosticsHandler(unit);
 		WorkingCopyOwner wcOwner = new WorkingCopyOwner() {
 
@@ -322,9 +368,7 @@ public abstract class BaseDocumentLifeCycleHandler {
 
 		};
 		int flags = ICompilationUnit.FORCE_PROBLEM_DETECTION | ICompilationUnit.ENABLE_BINDINGS_RECOVERY | ICompilationUnit.ENABLE_STATEMENTS_RECOVERY;
-		synchronized(reconcileLock) {
-			unit.reconcile(ICompilationUnit.NO_AST, flags, wcOwner, monitor);
-		}
+		unit.reconcile(ICompilationUnit.NO_AST, flags, wcOwner, monitor);
 	}
 
 	public void didClose(DidCloseTextDocumentParams params) {
@@ -747,13 +791,7 @@ public abstract class BaseDocumentLifeCycleHandler {
 		@Override
 		public IStatus run(IProgressMonitor monitor) {
 			try {
-				long startTime = System.nanoTime();
-				IStatus status = publishDiagnostics(monitor);
-				if (status.getSeverity() != IStatus.CANCEL) {
-					long elapsedTime = System.nanoTime() - startTime;
-					movingAverageForDiagnostics.update(elapsedTime / 1_000_000);
-				}
-				return status;
+				return publishDiagnostics(monitor);
 			} catch (JavaModelException e) {
 				return e.getStatus();
 			}
@@ -22,7 +22,6 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
@@ -44,6 +43,7 @@ import org.eclipse.jdt.ls.core.internal.ChangeUtil;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaCodeActionKind;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+import org.eclipse.jdt.ls.core.internal.ServerMetrics;
 import org.eclipse.jdt.ls.core.internal.corrections.DiagnosticsHelper;
 import org.eclipse.jdt.ls.core.internal.corrections.InnovationContext;
 import org.eclipse.jdt.ls.core.internal.corrections.ProposalKindWrapper;
@@ -76,10 +76,22 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 
 public class CodeActionHandler {
+	/**
+	 * Estimated sizes, in bytes, of the AST retained by the proposals of a
+	 * response per character of its source, and of a proposal, excluding its
+	 * name.
+	 */
+	private static final long AST_WEIGHT_PER_CHAR = 8;
+	private static final long PROPOSAL_WEIGHT = 1024;
+
 	public static final ResponseStore<Either<ChangeCorrectionProposalCore, CodeActionProposal>> codeActionStore
-		= new ResponseStore<>(ForkJoinPool.commonPool().getParallelism());
+		= new ResponseStore<>(Integer.getInteger("jdt.ls.codeAction.responseCacheSize", 16) * 1024L * 1024L, ResponseCache.DEFAULT_TTL, CodeActionHandler::weigh);
 	public static final String COMMAND_ID_APPLY_EDIT = "java.apply.workspaceEdit";
 
+	static {
+		ServerMetrics.register("codeActionResponses", codeActionStore::getMetrics);
+	}
+
 	private QuickFixProcessor quickFixProcessor;
 	private RefactorProcessor refactorProcessor;
 	private QuickAssistProcessor quickAssistProcessor;
@@ -227,11 +239,11 @@ public class CodeActionHandler {
 		}
 
 		codeActions.sort(new CodeActionComparator());
-		populateDataFields(codeActions);
+		populateDataFields(codeActions, astRoot);
 		return codeActions;
 	}
 
-	private void populateDataFields(List<Either<Command, CodeAction>> codeActions) {
+	private void populateDataFields(List<Either<Command, CodeAction>> codeActions, CompilationUnit astRoot) {
 		ResponseStore.ResponseItem<Either<ChangeCorrectionProposalCore, CodeActionProposal>> response = codeActionStore.createResponse();
 		List<Either<ChangeCorrectionProposalCore, CodeActionProposal>> proposals = new ArrayList<>();
 		codeActions.forEach(action -> {
@@ -262,10 +274,30 @@ public class CodeActionHandler {
 
 		if (!proposals.isEmpty()) {
 			response.setProposals(proposals);
+			if (proposals.stream().anyMatch(Either::isLeft)) {
+				// the correction proposals keep the AST of their context
+				response.setRetainedSize(AST_WEIGHT_PER_CHAR * astRoot.getLength());
+			}
 			codeActionStore.store(response);
 		}
 	}
 
+	/**
+	 * Estimates the retained size of a response, dominated by the AST of its
+	 * correction proposals.
+	 */
+	private static long weigh(ResponseStore.ResponseItem<Either<ChangeCorrectionProposalCore, CodeActionProposal>> response) {
+		long weight = response.getRetainedSize();
+		List<Either<ChangeCorrectionProposalCore, CodeActionProposal>> proposals = response.getProposals();
+		if (proposals != null) {
+			for (Either<ChangeCorrectionProposalCore, CodeActionProposal> proposal : proposals) {
+				String name = proposal.isLeft() ? proposal.getLeft().getName() : null;
+				weight += PROPOSAL_WEIGHT + 2L * (name == null ? 0 : name.length());
+			}
+		}
+		return weight;
+	}
+
 	private Optional<Either<Command, CodeAction>> getCodeActionFromProposal(String uri, ProposalKindWrapper pk, CodeActionContext context) throws CoreException {
 		ChangeCorrectionProposalCore proposal = pk.getProposal();
 		String name = proposal.getName();
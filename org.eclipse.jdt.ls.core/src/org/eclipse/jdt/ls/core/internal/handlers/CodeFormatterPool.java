@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.core.ToolFactory;
+import org.eclipse.jdt.core.formatter.CodeFormatter;
+import org.eclipse.jdt.ls.core.internal.ServerMetrics;
+import org.eclipse.text.edits.TextEdit;
+
+/**
+ * The code formatters configured for the recent formatting options, so that
+ * a formatting request doesn't create a formatter, which merges and parses
+ * all the options, every time.
+ * <p>
+ * The formatters are keyed by their options, i.e. the options of the project
+ * merged with the options of the request. A formatter isn't thread safe, it
+ * is taken from the pool for the formatting of a source, and a few idle
+ * formatters are kept per options for the concurrent requests.
+ */
+final class CodeFormatterPool {
+
+	/**
+	 * The maximum number of options whose formatters are kept, overridden by
+	 * the <code>jdt.ls.formatter.poolSize</code> system property.
+	 */
+	private static final int MAX_OPTIONS = Integer.getInteger("jdt.ls.formatter.poolSize", 8);
+
+	private static final int MAX_IDLE_FORMATTERS = 2;
+
+	private static final Map<Map<String, String>, Deque<CodeFormatter>> POOL = new LinkedHashMap<>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Map<String, String>, Deque<CodeFormatter>> eldest) {
+			return size() > MAX_OPTIONS;
+		}
+	};
+
+	private static final LongAdder created = new LongAdder();
+	private static final LongAdder reused = new LongAdder();
+
+	static {
+		ServerMetrics.register("codeFormatters", CodeFormatterPool::getMetrics);
+	}
+
+	private CodeFormatterPool() {
+		// no instances
+	}
+
+	/**
+	 * Formats the source with a formatter configured with the given options.
+	 *
+	 * @see CodeFormatter#format(int, String, int, int, int, String)
+	 */
+	static TextEdit format(Map<String, String> options, int kind, String source, int offset, int length, int indentationLevel, String lineDelimiter) {
+		CodeFormatter formatter = acquire(options);
+		try {
+			return formatter.format(kind, source, offset, length, indentationLevel, lineDelimiter);
+		} finally {
+			release(options, formatter);
+		}
+	}
+
+	private static CodeFormatter acquire(Map<String, String> options) {
+		synchronized (POOL) {
+			Deque<CodeFormatter> idle = POOL.get(options);
+			CodeFormatter formatter = idle == null ? null : idle.poll();
+			if (formatter != null) {
+				reused.increment();
+				return formatter;
+			}
+		}
+		created.increment();
+		return ToolFactory.createCodeFormatter(options);
+	}
+
+	private static void release(Map<String, String> options, CodeFormatter formatter) {
+		synchronized (POOL) {
+			Deque<CodeFormatter> idle = POOL.get(options);
+			if (idle == null) {
+				idle = new ArrayDeque<>(MAX_IDLE_FORMATTERS);
+				// the caller may reuse its map
+				POOL.put(new HashMap<>(options), idle);
+			}
+			if (idle.size() < MAX_IDLE_FORMATTERS) {
+				idle.push(formatter);
+			}
+		}
+	}
+
+	static void clear() {
+		synchronized (POOL) {
+			POOL.clear();
+		}
+	}
+
+	static Map<String, Object> getMetrics() {
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		synchronized (POOL) {
+			metrics.put("options", POOL.size());
+			metrics.put("idle", POOL.values().stream().mapToInt(Deque::size).sum());
+		}
+		metrics.put("created", created.sum());
+		metrics.put("reused", reused.sum());
+		return metrics;
+	}
+}
@@ -19,27 +19,17 @@ import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 
-import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.core.Flags;
 import org.eclipse.jdt.core.IClassFile;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaElement;
-import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.ISourceRange;
 import org.eclipse.jdt.core.ISourceReference;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.ITypeRoot;
-import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
-import org.eclipse.jdt.core.search.IJavaSearchConstants;
-import org.eclipse.jdt.core.search.IJavaSearchScope;
-import org.eclipse.jdt.core.search.SearchEngine;
-import org.eclipse.jdt.core.search.SearchMatch;
-import org.eclipse.jdt.core.search.SearchParticipant;
-import org.eclipse.jdt.core.search.SearchPattern;
-import org.eclipse.jdt.core.search.SearchRequestor;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JSONUtility;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
@@ -94,14 +84,14 @@ public class CodeLensHandler {
 		try {
 			ITypeRoot typeRoot = JDTUtils.resolveTypeRoot(uri);
 			if (typeRoot != null) {
-				IJavaElement element = JDTUtils.findElementAtSelection(typeRoot, position.getLine(), position.getCharacter(), this.preferenceManager, monitor);
 				if (REFERENCES_TYPE.equals(type)) {
 					try {
-						locations = findReferences(element, monitor);
+						locations = findReferences(typeRoot, position, monitor);
 					} catch (CoreException e) {
 						JavaLanguageServerPlugin.logException(e.getMessage(), e);
 					}
 				} else if (IMPLEMENTATION_TYPE.equals(type)) {
+					IJavaElement element = JDTUtils.findElementAtSelection(typeRoot, position.getLine(), position.getCharacter(), this.preferenceManager, monitor);
 					if (element instanceof IType typeElement) {
 						try {
 							IDocument document = JsonRpcHelpers.toDocument(typeRoot.getBuffer());
@@ -136,34 +126,33 @@ public class CodeLensHandler {
 		return searcher.findImplementations(monitor);
 	}
 
-	private List<Location> findReferences(IJavaElement element, IProgressMonitor monitor)
-			throws JavaModelException, CoreException {
-		if (element == null) {
-			return Collections.emptyList();
+	/**
+	 * Finds the references of the lens element at the given position. The
+	 * references of all the lens elements of the document are searched at
+	 * once, and cached until the workspace changes.
+	 */
+	private List<Location> findReferences(ITypeRoot typeRoot, Position position, IProgressMonitor monitor) throws CoreException {
+		List<IJavaElement> elements = new ArrayList<>();
+		collectLensElements(typeRoot.getChildren(), elements, monitor);
+		elements.removeIf(JDTUtils::isUnnamedClass);
+		int offset = JsonRpcHelpers.toOffset(typeRoot, position.getLine(), position.getCharacter());
+		IJavaElement element = null;
+		for (IJavaElement candidate : elements) {
+			ISourceRange range = ((ISourceReference) candidate).getNameRange();
+			if (range != null && range.getOffset() == offset) {
+				element = candidate;
+				break;
+			}
 		}
-		SearchPattern pattern = SearchPattern.createPattern(element, IJavaSearchConstants.REFERENCES);
-		final List<Location> result = new ArrayList<>();
-		SearchEngine engine = new SearchEngine();
-		engine.search(pattern, new SearchParticipant[] { SearchEngine.getDefaultSearchParticipant() }, createSearchScope(), new SearchRequestor() {
-
-			@Override
-			public void acceptSearchMatch(SearchMatch match) throws CoreException {
-				if (match.getAccuracy() == SearchMatch.A_INACCURATE) {
-					return;
-				}
-				Object o = match.getElement();
-				if (o instanceof IJavaElement element) {
-					ICompilationUnit compilationUnit = (ICompilationUnit) element.getAncestor(IJavaElement.COMPILATION_UNIT);
-					if (compilationUnit == null) {
-						return;
-					}
-					Location location = JDTUtils.toLocation(compilationUnit, match.getOffset(), match.getLength());
-					result.add(location);
-				}
+		if (element == null) {
+			// the lens was computed on another version of the document
+			element = JDTUtils.findElementAtSelection(typeRoot, position.getLine(), position.getCharacter(), this.preferenceManager, monitor);
+			if (element == null) {
+				return Collections.emptyList();
 			}
-		}, monitor);
-
-		return result;
+		}
+		CodeLensReferenceCounter counter = JavaLanguageServerPlugin.getCodeLensReferenceCounter();
+		return counter.getReferences(element, elements, typeRoot.getHandleIdentifier(), monitor).toLocations();
 	}
 
 	public List<CodeLens> getCodeLensSymbols(String uri, IProgressMonitor monitor) {
@@ -200,25 +189,12 @@ public class CodeLensHandler {
 	private void collectCodeLenses(ITypeRoot typeRoot, IJavaElement[] elements, Collection<CodeLens> lenses,
 			IProgressMonitor monitor)
 			throws JavaModelException {
-		for (IJavaElement element : elements) {
+		List<IJavaElement> lensElements = new ArrayList<>();
+		collectLensElements(elements, lensElements, monitor);
+		for (IJavaElement element : lensElements) {
 			if (monitor.isCanceled()) {
 				return;
 			}
-			if (element.getElementType() == IJavaElement.TYPE) {
-				collectCodeLenses(typeRoot, ((IType) element).getChildren(), lenses, monitor);
-			} else if (element.getElementType() == IJavaElement.METHOD) {
-				if (JDTUtils.isHiddenGeneratedElement(element)) {
-					continue;
-				}
-				//ignore element if method range overlaps the type range, happens for generated bytcode, i.e. with lombok
-				IJavaElement parentType = element.getAncestor(IJavaElement.TYPE);
-				if (parentType != null && !JDTUtils.isUnnamedClass(parentType) && overlaps(((ISourceReference) parentType).getNameRange(), ((ISourceReference) element).getNameRange())) {
-					continue;
-				}
-			} else {//neither a type nor a method, we bail
-				continue;
-			}
-
 			if (preferenceManager.getPreferences().isReferencesCodeLensEnabled()) {
 				if (!JDTUtils.isUnnamedClass(element)) {
 					CodeLens lens = getCodeLens(REFERENCES_TYPE, element, typeRoot);
@@ -238,6 +214,32 @@ public class CodeLensHandler {
 		}
 	}
 
+	/**
+	 * Collects the types and methods which can have lenses, members first.
+	 */
+	private void collectLensElements(IJavaElement[] elements, List<IJavaElement> lensElements, IProgressMonitor monitor) throws JavaModelException {
+		for (IJavaElement element : elements) {
+			if (monitor.isCanceled()) {
+				return;
+			}
+			if (element.getElementType() == IJavaElement.TYPE) {
+				collectLensElements(((IType) element).getChildren(), lensElements, monitor);
+			} else if (element.getElementType() == IJavaElement.METHOD) {
+				if (JDTUtils.isHiddenGeneratedElement(element)) {
+					continue;
+				}
+				//ignore element if method range overlaps the type range, happens for generated bytcode, i.e. with lombok
+				IJavaElement parentType = element.getAncestor(IJavaElement.TYPE);
+				if (parentType != null && !JDTUtils.isUnnamedClass(parentType) && overlaps(((ISourceReference) parentType).getNameRange(), ((ISourceReference) element).getNameRange())) {
+					continue;
+				}
+			} else {//neither a type nor a method, we bail
+				continue;
+			}
+			lensElements.add(element);
+		}
+	}
+
 	private boolean overlaps(ISourceRange typeRange, ISourceRange methodRange) {
 		if (typeRange == null || methodRange == null) {
 			return false;
@@ -258,9 +260,4 @@ public class CodeLensHandler {
 		lens.setData(Arrays.asList(uri, range.getStart(), type));
 		return lens;
 	}
-
-	private IJavaSearchScope createSearchScope() throws JavaModelException {
-		IJavaProject[] projects = JavaCore.create(ResourcesPlugin.getWorkspace().getRoot()).getJavaProjects();
-		return SearchEngine.createJavaSearchScope(projects, IJavaSearchScope.SOURCES);
-	}
 }
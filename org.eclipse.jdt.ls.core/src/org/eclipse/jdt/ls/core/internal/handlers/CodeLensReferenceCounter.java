@@ -0,0 +1,444 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.MethodReferenceMatch;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchMatch;
+import org.eclipse.jdt.core.search.SearchParticipant;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.search.SearchRequestor;
+import org.eclipse.jdt.core.search.TypeReferenceMatch;
+import org.eclipse.jdt.ls.core.internal.JDTUtils;
+import org.eclipse.lsp4j.Location;
+
+/**
+ * Counts the references shown by the reference code lenses.
+ * <p>
+ * The first lens resolved in a document triggers the search of the references
+ * of every lens element of the document. The elements are combined into as few
+ * <code>OR</code> patterns as possible, so that a document is usually searched
+ * in a couple of passes instead of one search per member. The matches are only
+ * recorded as offsets, the locations being built for the lens being resolved
+ * only.
+ * <p>
+ * The results are kept until a Java element delta affects the contents of the
+ * workspace, since any change can add or remove references.
+ */
+public class CodeLensReferenceCounter implements IElementChangedListener {
+
+	/**
+	 * The maximum number of cached elements, overridden by the
+	 * <code>jdt.ls.codeLens.referenceCacheSize</code> system property.
+	 */
+	private static final int MAX_ENTRIES = Integer.getInteger("jdt.ls.codeLens.referenceCacheSize", 10000);
+
+	private final Map<String, References> cache = new ConcurrentHashMap<>();
+	private final Map<String, CompletableFuture<Map<String, References>>> pendingBatches = new ConcurrentHashMap<>();
+	private long generation;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder batches = new LongAdder();
+	private final LongAdder searches = new LongAdder();
+	private final LongAdder invalidations = new LongAdder();
+
+	public void addElementChangeListener() {
+		JavaCore.addElementChangedListener(this, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+	}
+
+	public void removeElementChangeListener() {
+		JavaCore.removeElementChangedListener(this);
+	}
+
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		if (!cache.isEmpty() && affectsReferences(event.getDelta())) {
+			invalidate();
+		}
+	}
+
+	private boolean affectsReferences(IJavaElementDelta delta) {
+		IJavaElement element = delta.getElement();
+		switch (element.getElementType()) {
+			case IJavaElement.JAVA_MODEL:
+				return affectsReferences(delta.getAffectedChildren());
+			case IJavaElement.JAVA_PROJECT:
+			case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+			case IJavaElement.PACKAGE_FRAGMENT:
+				if (delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & ~IJavaElementDelta.F_CHILDREN) != 0) {
+					return true;
+				}
+				return affectsReferences(delta.getAffectedChildren());
+			case IJavaElement.COMPILATION_UNIT:
+				// opening a document doesn't change its contents, while discarding its working copy can
+				return delta.getKind() != IJavaElementDelta.CHANGED || delta.getFlags() != IJavaElementDelta.F_PRIMARY_WORKING_COPY || !((ICompilationUnit) element).isWorkingCopy();
+			default:
+				return true;
+		}
+	}
+
+	private boolean affectsReferences(IJavaElementDelta[] deltas) {
+		for (IJavaElementDelta delta : deltas) {
+			if (affectsReferences(delta)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Discards the cached references.
+	 */
+	public synchronized void invalidate() {
+		generation++;
+		cache.clear();
+		invalidations.increment();
+	}
+
+	/**
+	 * Returns the references of an element, searching the references of the
+	 * other elements of the batch at the same time when they aren't cached
+	 * already.
+	 *
+	 * @param element
+	 *            the element to find the references of
+	 * @param batch
+	 *            the elements whose references are likely to be requested
+	 *            next, usually the lens elements of the same document
+	 * @param batchKey
+	 *            the key identifying the batch, concurrent requests of the
+	 *            same batch wait for a single search
+	 * @param monitor
+	 *            the progress monitor
+	 * @return the references of the element
+	 */
+	public References getReferences(IJavaElement element, Collection<? extends IJavaElement> batch, String batchKey, IProgressMonitor monitor) throws CoreException {
+		String handle = element.getHandleIdentifier();
+		References references = cache.get(handle);
+		if (references != null) {
+			hits.increment();
+			return references;
+		}
+		misses.increment();
+		CompletableFuture<Map<String, References>> future = new CompletableFuture<>();
+		CompletableFuture<Map<String, References>> pending = pendingBatches.putIfAbsent(batchKey, future);
+		if (pending != null) {
+			try {
+				references = pending.join().get(handle);
+			} catch (CompletionException | CancellationException e) {
+				// the request which started the batch failed or was cancelled
+			}
+			return references != null ? references : search(Collections.singletonList(element), monitor).get(handle);
+		}
+		try {
+			List<IJavaElement> elements = new ArrayList<>(batch.size() + 1);
+			elements.add(element);
+			for (IJavaElement other : batch) {
+				if (!other.equals(element) && !cache.containsKey(other.getHandleIdentifier())) {
+					elements.add(other);
+				}
+			}
+			Map<String, References> result = search(elements, monitor);
+			future.complete(result);
+			return result.get(handle);
+		} catch (CoreException | RuntimeException e) {
+			future.completeExceptionally(e);
+			throw e;
+		} finally {
+			pendingBatches.remove(batchKey, future);
+		}
+	}
+
+	private Map<String, References> search(List<IJavaElement> elements, IProgressMonitor monitor) throws CoreException {
+		long searchGeneration;
+		synchronized (this) {
+			searchGeneration = generation;
+		}
+		batches.increment();
+		IJavaSearchScope scope = createSearchScope();
+		Map<IJavaElement, Matches> matches = new LinkedHashMap<>();
+		for (IJavaElement element : elements) {
+			matches.put(element, new Matches());
+		}
+		for (List<IJavaElement> pass : partition(elements)) {
+			if (!search(pass, matches, scope, monitor)) {
+				// some matches couldn't be attributed, search the elements one by one
+				for (IJavaElement element : pass) {
+					matches.get(element).clear();
+					search(Collections.singletonList(element), matches, scope, monitor);
+				}
+			}
+		}
+		Map<String, References> result = new HashMap<>();
+		for (Map.Entry<IJavaElement, Matches> entry : matches.entrySet()) {
+			result.put(entry.getKey().getHandleIdentifier(), entry.getValue().toReferences());
+		}
+		synchronized (this) {
+			if (generation == searchGeneration) {
+				if (cache.size() + result.size() > MAX_ENTRIES) {
+					cache.clear();
+				}
+				cache.putAll(result);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Searches the references of elements which can't be mistaken for one
+	 * another.
+	 *
+	 * @return <code>false</code> if some matches couldn't be attributed to
+	 *         their element
+	 */
+	private boolean search(List<IJavaElement> pass, Map<IJavaElement, Matches> matches, IJavaSearchScope scope, IProgressMonitor monitor) throws CoreException {
+		SearchPattern pattern = null;
+		for (IJavaElement element : pass) {
+			SearchPattern elementPattern = SearchPattern.createPattern(element, IJavaSearchConstants.REFERENCES);
+			if (elementPattern != null) {
+				pattern = pattern == null ? elementPattern : SearchPattern.createOrPattern(pattern, elementPattern);
+			}
+		}
+		if (pattern == null) {
+			return true;
+		}
+		searches.increment();
+		PassRequestor requestor = new PassRequestor(pass, matches);
+		new SearchEngine().search(pattern, new SearchParticipant[] { SearchEngine.getDefaultSearchParticipant() }, scope, requestor, monitor);
+		return !requestor.unattributed;
+	}
+
+	/**
+	 * Splits the elements into passes where each match can be attributed to
+	 * its element: a pass contains at most one type, one constructor, and
+	 * methods of distinct names.
+	 */
+	static List<List<IJavaElement>> partition(List<IJavaElement> elements) throws JavaModelException {
+		List<List<IJavaElement>> passes = new ArrayList<>();
+		next: for (IJavaElement element : elements) {
+			for (List<IJavaElement> pass : passes) {
+				if (!conflicts(element, pass)) {
+					pass.add(element);
+					continue next;
+				}
+			}
+			List<IJavaElement> pass = new ArrayList<>();
+			pass.add(element);
+			passes.add(pass);
+		}
+		return passes;
+	}
+
+	private static boolean conflicts(IJavaElement element, List<IJavaElement> pass) throws JavaModelException {
+		for (IJavaElement other : pass) {
+			if (element.getElementType() != other.getElementType()) {
+				continue;
+			}
+			if (!(element instanceof IMethod method) || element.getElementName().equals(other.getElementName()) || (method.isConstructor() && ((IMethod) other).isConstructor())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static IJavaSearchScope createSearchScope() throws JavaModelException {
+		IJavaProject[] projects = JavaCore.create(ResourcesPlugin.getWorkspace().getRoot()).getJavaProjects();
+		return SearchEngine.createJavaSearchScope(projects, IJavaSearchScope.SOURCES);
+	}
+
+	public Map<String, Object> getMetrics() {
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		metrics.put("elements", cache.size());
+		metrics.put("hits", hits.sum());
+		metrics.put("misses", misses.sum());
+		metrics.put("batches", batches.sum());
+		metrics.put("searches", searches.sum());
+		metrics.put("invalidations", invalidations.sum());
+		return metrics;
+	}
+
+	/**
+	 * Attributes the matches of a pass to the elements of the pass.
+	 */
+	private static final class PassRequestor extends SearchRequestor {
+
+		private final Map<IJavaElement, Matches> matches;
+		private IJavaElement type;
+		private IJavaElement constructor;
+		private final Map<String, IJavaElement> methods = new HashMap<>();
+		private boolean unattributed;
+		private ICompilationUnit lastUnit;
+		private String lastSource;
+
+		PassRequestor(List<IJavaElement> pass, Map<IJavaElement, Matches> matches) throws JavaModelException {
+			this.matches = matches;
+			for (IJavaElement element : pass) {
+				if (element instanceof IMethod method) {
+					if (method.isConstructor()) {
+						constructor = method;
+					} else {
+						methods.put(method.getElementName(), method);
+					}
+				} else {
+					type = element;
+				}
+			}
+		}
+
+		@Override
+		public void acceptSearchMatch(SearchMatch match) throws CoreException {
+			if (match.getAccuracy() == SearchMatch.A_INACCURATE || !(match.getElement() instanceof IJavaElement element)) {
+				return;
+			}
+			ICompilationUnit unit = (ICompilationUnit) element.getAncestor(IJavaElement.COMPILATION_UNIT);
+			if (unit == null) {
+				return;
+			}
+			IJavaElement target = null;
+			if (match instanceof TypeReferenceMatch) {
+				target = type;
+			} else if (match instanceof MethodReferenceMatch methodMatch) {
+				if (methodMatch.isConstructor()) {
+					target = constructor;
+				} else if (methods.size() == 1) {
+					target = methods.values().iterator().next();
+				} else {
+					target = findMethod(unit, match.getOffset(), match.getLength());
+				}
+			}
+			if (target == null) {
+				unattributed = true;
+			} else {
+				matches.get(target).add(unit, match.getOffset(), match.getLength());
+			}
+		}
+
+		/**
+		 * @return the method whose name is the first identifier of the match,
+		 *         e.g. <code>foo</code> for <code>foo(bar())</code>
+		 */
+		private IJavaElement findMethod(ICompilationUnit unit, int offset, int length) throws JavaModelException {
+			if (!unit.equals(lastUnit)) {
+				lastUnit = unit;
+				lastSource = unit.getSource();
+			}
+			String source = lastSource;
+			if (source == null) {
+				return null;
+			}
+			int end = Math.min(offset + length, source.length());
+			int i = offset;
+			while (i < end) {
+				if (Character.isJavaIdentifierStart(source.charAt(i))) {
+					int start = i;
+					while (i < end && Character.isJavaIdentifierPart(source.charAt(i))) {
+						i++;
+					}
+					IJavaElement method = methods.get(source.substring(start, i));
+					if (method != null) {
+						return method;
+					}
+				} else {
+					i++;
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * The matches of an element, recorded as offsets.
+	 */
+	private static final class Matches {
+		private ICompilationUnit[] units = new ICompilationUnit[4];
+		private int[] ranges = new int[8];
+		private int size;
+
+		void add(ICompilationUnit unit, int offset, int length) {
+			if (size == units.length) {
+				units = Arrays.copyOf(units, size * 2);
+				ranges = Arrays.copyOf(ranges, size * 4);
+			}
+			units[size] = unit;
+			ranges[size * 2] = offset;
+			ranges[size * 2 + 1] = length;
+			size++;
+		}
+
+		void clear() {
+			Arrays.fill(units, 0, size, null);
+			size = 0;
+		}
+
+		References toReferences() {
+			return new References(Arrays.copyOf(units, size), Arrays.copyOf(ranges, size * 2));
+		}
+	}
+
+	/**
+	 * The references of an element.
+	 */
+	public static final class References {
+		private final ICompilationUnit[] units;
+		private final int[] ranges;
+
+		References(ICompilationUnit[] units, int[] ranges) {
+			this.units = units;
+			this.ranges = ranges;
+		}
+
+		public int size() {
+			return units.length;
+		}
+
+		/**
+		 * @return the locations of the references
+		 */
+		public List<Location> toLocations() throws JavaModelException {
+			List<Location> locations = new ArrayList<>(units.length);
+			for (int i = 0; i < units.length; i++) {
+				locations.add(JDTUtils.toLocation(units[i], ranges[i * 2], ranges[i * 2 + 1]));
+			}
+			return locations;
+		}
+	}
+}
@@ -267,13 +267,13 @@ public class CompletionHandler{
 		if (offset >-1 && !monitor.isCanceled()) {
 			IBuffer buffer = unit.getBuffer();
 			if (buffer != null && buffer.getLength() >= offset) {
+				// the engine and the contributors share the same deadline
+				final long timeLimit = System.currentTimeMillis() + Long.getLong("completion.timeout", 5000);
 				IProgressMonitor subMonitor = new ProgressMonitorWrapper(monitor) {
-					private long timeLimit;
-					private final long TIMEOUT = Long.getLong("completion.timeout", 5000);
 
 					@Override
 					public void beginTask(String name, int totalWork) {
-						timeLimit = System.currentTimeMillis() + TIMEOUT;
+						// the progress isn't reported
 					}
 
 					@Override
@@ -282,22 +282,37 @@ public class CompletionHandler{
 					}
 
 				};
+				String uri = params.getTextDocument().getUri();
+				String source = buffer.getContents();
+				CompletionSessions sessions = JavaLanguageServerPlugin.getCompletionSessions();
 				try {
-					if (isIndexEngineEnabled()) {
-						unit.codeComplete(offset, collector, subMonitor);
+					CompletionSession session = completionForConstructor ? null : sessions.get(uri, source, offset);
+					if (session != null) {
+						// neither snippets, javadoc nor chains matched the start of the identifier
+						session.replay(collector, source, offset);
+						proposals.addAll(collector.getCompletionItems());
 					} else {
-						ModelBasedCompletionEngine.codeComplete(unit, offset, collector, DefaultWorkingCopyOwner.PRIMARY, subMonitor);
-					}
-					proposals.addAll(collector.getCompletionItems());
-					if (isSnippetStringSupported() && !UNSUPPORTED_RESOURCES.contains(unit.getResource().getName())) {
-						proposals.addAll(SnippetCompletionProposal.getSnippets(unit, collector, subMonitor));
-					}
-					proposals.addAll(new JavadocCompletionProposal().getProposals(unit, offset, collector, subMonitor));
-					if (manager.getPreferences().isChainCompletionEnabled() && params.getContext().getTriggerKind() != CompletionTriggerKind.TriggerCharacter) {
-						ChainCompletionProposalComputer chain = new ChainCompletionProposalComputer(unit, collector, this.isSnippetStringSupported());
-						proposals.addAll(chain.computeCompletionProposals());
+						if (isIndexEngineEnabled()) {
+							unit.codeComplete(offset, collector, subMonitor);
+						} else {
+							ModelBasedCompletionEngine.codeComplete(unit, offset, collector, DefaultWorkingCopyOwner.PRIMARY, subMonitor);
+						}
+						proposals.addAll(collector.getCompletionItems());
+						int engineItems = proposals.size();
+						if (isSnippetStringSupported() && !UNSUPPORTED_RESOURCES.contains(unit.getResource().getName())) {
+							proposals.addAll(SnippetCompletionProposal.getSnippets(unit, collector, subMonitor));
+						}
+						proposals.addAll(new JavadocCompletionProposal().getProposals(unit, offset, collector, subMonitor));
+						if (manager.getPreferences().isChainCompletionEnabled() && params.getContext().getTriggerKind() != CompletionTriggerKind.TriggerCharacter) {
+							ChainCompletionProposalComputer chain = new ChainCompletionProposalComputer(unit, collector, this.isSnippetStringSupported());
+							proposals.addAll(chain.computeCompletionProposals(subMonitor));
+						}
+						// the snippets, javadoc and chains depend on the context of the token, which can't be replayed
+						boolean reusable = !completionForConstructor && proposals.size() == engineItems && !monitor.isCanceled();
+						sessions.update(uri, unit, source, offset, reusable ? collector : null);
 					}
 				} catch (OperationCanceledException e) {
+					sessions.update(uri, unit, source, offset, null);
 					monitor.setCanceled(true);
 				}
 			}
@@ -327,6 +342,7 @@ public class CompletionHandler{
 		}
 		proposals.sort(PROPOSAL_COMPARATOR);
 		CompletionList list = new CompletionList(proposals);
+		// the contributors which missed the deadline are computed again by the next request
 		list.setIsIncomplete(!collector.isComplete() || completionForConstructor);
 		if (this.manager.getClientPreferences().isCompletionListItemDefaultsSupport()){
 			list.setItemDefaults(collector.getCompletionItemDefaults());
@@ -12,11 +12,21 @@
  *******************************************************************************/
 package org.eclipse.jdt.ls.core.internal.handlers;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
+
+import org.eclipse.jdt.core.CompletionProposal;
+import org.eclipse.jdt.ls.core.internal.ServerMetrics;
+import org.eclipse.lsp4j.CompletionItem;
 
 /**
  * Cache of {@link CompletionResponse}s.
+ * <p>
+ * Each response retains the completion context of its request, including its
+ * AST, so the cache is cleared whenever a new completion is computed and only
+ * holds the responses of the latest request. The estimated retained size of
+ * the responses, configured in megabytes by the
+ * <code>jdt.ls.completion.responseCacheSize</code> system property, and the
+ * expiry after {@link ResponseCache#DEFAULT_TTL} further bound it.
  *
  * @author Fred Bricon
  */
@@ -26,7 +36,21 @@ public final class CompletionResponses {
 		//Don't instantiate
 	}
 
-	private static final Map<Long, CompletionResponse> COMPLETIONS = new ConcurrentHashMap<>();
+	/**
+	 * Estimated sizes, in bytes, of the completion context retained by a
+	 * response, of a proposal and of a completion item, excluding their
+	 * strings.
+	 */
+	private static final long RESPONSE_WEIGHT = 8 * 1024;
+	private static final long PROPOSAL_WEIGHT = 256;
+	private static final long ITEM_WEIGHT = 512;
+
+	private static final ResponseCache<CompletionResponse> COMPLETIONS = new ResponseCache<>(Integer.getInteger("jdt.ls.completion.responseCacheSize", 64) * 1024L * 1024L, ResponseCache.DEFAULT_TTL,
+			CompletionResponses::weigh);
+
+	static {
+		ServerMetrics.register("completionResponses", COMPLETIONS::getMetrics);
+	}
 
 	public static CompletionResponse get(Long id) {
 		return COMPLETIONS.get(id);
@@ -47,4 +71,49 @@ public final class CompletionResponses {
 	public static void clear() {
 		COMPLETIONS.clear();
 	}
+
+	/**
+	 * Estimates the retained size of a response, dominated by its proposals
+	 * graph and its completion items.
+	 */
+	static long weigh(CompletionResponse response) {
+		long weight = RESPONSE_WEIGHT;
+		List<CompletionProposal> proposals = response.getProposals();
+		if (proposals != null) {
+			for (CompletionProposal proposal : proposals) {
+				weight += weigh(proposal);
+			}
+		}
+		List<CompletionItem> items = response.getItems();
+		if (items != null) {
+			for (CompletionItem item : items) {
+				if (item != null) {
+					weight += ITEM_WEIGHT + 2L * (length(item.getLabel()) + length(item.getFilterText()) + length(item.getInsertText()));
+				}
+			}
+		}
+		return weight;
+	}
+
+	private static long weigh(CompletionProposal proposal) {
+		if (proposal == null) {
+			return 0;
+		}
+		long weight = PROPOSAL_WEIGHT + 2L * (length(proposal.getCompletion()) + length(proposal.getName()) + length(proposal.getSignature()) + length(proposal.getDeclarationSignature()));
+		CompletionProposal[] requiredProposals = proposal.getRequiredProposals();
+		if (requiredProposals != null) {
+			for (CompletionProposal required : requiredProposals) {
+				weight += weigh(required);
+			}
+		}
+		return weight;
+	}
+
+	private static int length(char[] chars) {
+		return chars == null ? 0 : chars.length;
+	}
+
+	private static int length(String string) {
+		return string == null ? 0 : string.length();
+	}
 }
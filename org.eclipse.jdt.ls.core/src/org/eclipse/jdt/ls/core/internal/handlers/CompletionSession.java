@@ -0,0 +1,306 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.core.CompletionContext;
+import org.eclipse.jdt.core.CompletionProposal;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.internal.codeassist.InternalCompletionProposal;
+import org.eclipse.jdt.internal.codeassist.RelevanceConstants;
+import org.eclipse.jdt.internal.corext.template.java.SignatureUtil;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+import org.eclipse.jdt.ls.core.internal.contentassist.CompletionProposalRequestor;
+
+/**
+ * The proposals computed by the completion engine for the identifier being
+ * typed, kept so that the completions requested while the identifier is
+ * extended are filtered and ranked again rather than recomputed.
+ * <p>
+ * A session is reused when the document only differs by the identifier
+ * characters inserted at the completion offset, so that the token start, the
+ * structure of the document and the expected types are unchanged. The
+ * relevance of a proposal is its relevance computed by the engine, where the
+ * part depending on how the proposal matches the token is computed again for
+ * the longer token, as the engine does.
+ * <p>
+ * The proposals of the engine are never changed: each request gets copies of
+ * the matching proposals, with their own ranges and relevance, since the
+ * proposals of the previous requests are still resolved.
+ *
+ * @see CompletionSessions
+ */
+final class CompletionSession {
+
+	/**
+	 * How long a session is reused, in seconds, overridden by the
+	 * <code>jdt.ls.completion.sessionTtl</code> system property.
+	 */
+	private static final long TTL = TimeUnit.SECONDS.toNanos(Integer.getInteger("jdt.ls.completion.sessionTtl", 30));
+
+	private static final int NO_MATCH = Integer.MIN_VALUE;
+
+	/**
+	 * The fields of the proposals of the engine, copied for each request, or
+	 * <code>null</code> if they can't be copied.
+	 */
+	private static final Field[] PROPOSAL_FIELDS = getProposalFields();
+
+	private final ICompilationUnit unit;
+	private final String source;
+	private final int offset;
+	private final char[] token;
+	private final CompletionContext context;
+	private final List<CompletionProposal> proposals;
+	private final int[] relevances;
+	// whether the engine filters the proposal by matching its name and the token, otherwise the proposal is never filtered
+	private final boolean[] matched;
+	private final boolean camelCaseMatch;
+	private final boolean subwordMatch;
+	private final long created = System.nanoTime();
+
+	private CompletionSession(ICompilationUnit unit, String source, int offset, CompletionProposalRequestor collector) {
+		this.unit = unit;
+		this.source = source;
+		this.offset = offset;
+		this.context = collector.getContext();
+		this.token = context.getToken();
+		this.proposals = List.copyOf(collector.getEngineProposals());
+		IJavaProject project = unit.getJavaProject();
+		this.camelCaseMatch = JavaCore.ENABLED.equals(project.getOption(JavaCore.CODEASSIST_CAMEL_CASE_MATCH, true));
+		this.subwordMatch = JavaCore.ENABLED.equals(project.getOption(JavaCore.CODEASSIST_SUBWORD_MATCH, true));
+		this.relevances = new int[proposals.size()];
+		this.matched = new boolean[proposals.size()];
+		for (int i = 0; i < relevances.length; i++) {
+			// remove the part depending on the token, computed again for the longer tokens
+			CompletionProposal proposal = proposals.get(i);
+			int match = computeRelevanceForCaseMatching(token, getMatchName(proposal));
+			matched[i] = isMatchedByName(proposal) && match != NO_MATCH;
+			relevances[i] = collector.getEngineRelevance(i) - (matched[i] ? match : 0);
+		}
+	}
+
+	/**
+	 * @return the session of the proposals of the completion engine, or
+	 *         <code>null</code> if they can't be replayed for longer tokens
+	 */
+	static CompletionSession create(ICompilationUnit unit, String source, int offset, CompletionProposalRequestor collector) {
+		return isReusable(collector, offset) ? new CompletionSession(unit, source, offset, collector) : null;
+	}
+
+	ICompilationUnit getUnit() {
+		return unit;
+	}
+
+	private static boolean isReusable(CompletionProposalRequestor collector, int offset) {
+		CompletionContext context = collector.getContext();
+		if (context == null || context.getToken() == null || context.getToken().length == 0) {
+			// the engine doesn't propose everything for an empty token
+			return false;
+		}
+		if (context.getTokenStart() + context.getToken().length != offset || context.getTokenEnd() != offset - 1) {
+			return false;
+		}
+		if (PROPOSAL_FIELDS == null) {
+			return false;
+		}
+		for (CompletionProposal proposal : collector.getEngineProposals()) {
+			switch (proposal.getKind()) {
+				case CompletionProposal.POTENTIAL_METHOD_DECLARATION:
+				case CompletionProposal.VARIABLE_DECLARATION:
+					// derived from the token
+					return false;
+				default:
+					if (!isCopyable(proposal)) {
+						return false;
+					}
+					break;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isCopyable(CompletionProposal proposal) {
+		if (proposal.getClass() != InternalCompletionProposal.class) {
+			return false;
+		}
+		CompletionProposal[] requiredProposals = proposal.getRequiredProposals();
+		if (requiredProposals != null) {
+			for (CompletionProposal required : requiredProposals) {
+				if (!isCopyable(required)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return whether the session isn't expired and the document only differs
+	 *         from its contents when the session was created by the identifier
+	 *         characters inserted at the completion offset of the session
+	 */
+	boolean isContinuedBy(String newSource, int newOffset) {
+		int inserted = newOffset - offset;
+		if (System.nanoTime() - created > TTL || inserted <= 0 || newSource.length() != source.length() + inserted) {
+			return false;
+		}
+		for (int i = offset; i < newOffset; i++) {
+			if (!Character.isJavaIdentifierPart(newSource.charAt(i))) {
+				return false;
+			}
+		}
+		return newSource.regionMatches(0, source, 0, offset) && newSource.regionMatches(newOffset, source, offset, source.length() - offset);
+	}
+
+	/**
+	 * Passes copies of the proposals matching the token ending at the given
+	 * offset to the collector, with their ranges and relevance updated.
+	 */
+	void replay(CompletionProposalRequestor collector, String newSource, int newOffset) {
+		char[] newToken = CharOperation.concat(token, newSource.substring(offset, newOffset).toCharArray());
+		collector.acceptContext(context);
+		collector.setToken(newToken);
+		int delta = newOffset - offset;
+		for (int i = 0; i < proposals.size(); i++) {
+			CompletionProposal proposal = proposals.get(i);
+			int relevance = relevances[i];
+			if (matched[i]) {
+				int match = computeRelevanceForCaseMatching(newToken, getMatchName(proposal));
+				if (match == NO_MATCH) {
+					continue;
+				}
+				relevance += match;
+			}
+			CompletionProposal copy = copy(proposal, delta);
+			copy.setRelevance(relevance);
+			collector.accept(copy);
+		}
+	}
+
+	/**
+	 * @return a copy of the proposal and of its required proposals, with the
+	 *         ranges after the completion offset shifted by the given delta
+	 */
+	private CompletionProposal copy(CompletionProposal proposal, int delta) {
+		CompletionProposal copy = CompletionProposal.create(proposal.getKind(), proposal.getCompletionLocation());
+		try {
+			for (Field field : PROPOSAL_FIELDS) {
+				field.set(copy, field.get(proposal));
+			}
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+		int replaceStart = proposal.getReplaceStart();
+		int replaceEnd = proposal.getReplaceEnd();
+		copy.setReplaceRange(replaceStart > offset ? replaceStart + delta : replaceStart, replaceEnd >= offset ? replaceEnd + delta : replaceEnd);
+		int tokenStart = proposal.getTokenStart();
+		int tokenEnd = proposal.getTokenEnd();
+		copy.setTokenRange(tokenStart > offset ? tokenStart + delta : tokenStart, tokenEnd >= offset ? tokenEnd + delta : tokenEnd);
+		CompletionProposal[] requiredProposals = proposal.getRequiredProposals();
+		if (requiredProposals != null) {
+			CompletionProposal[] requiredCopies = new CompletionProposal[requiredProposals.length];
+			for (int i = 0; i < requiredProposals.length; i++) {
+				requiredCopies[i] = copy(requiredProposals[i], delta);
+			}
+			copy.setRequiredProposals(requiredCopies);
+		}
+		return copy;
+	}
+
+	private static Field[] getProposalFields() {
+		List<Field> fields = new ArrayList<>();
+		try {
+			for (Class<?> clazz = InternalCompletionProposal.class; clazz != Object.class; clazz = clazz.getSuperclass()) {
+				for (Field field : clazz.getDeclaredFields()) {
+					if (!Modifier.isStatic(field.getModifiers())) {
+						field.setAccessible(true);
+						fields.add(field);
+					}
+				}
+			}
+		} catch (RuntimeException e) {
+			JavaLanguageServerPlugin.logException("Cannot copy the completion proposals", e);
+			return null;
+		}
+		return fields.toArray(new Field[fields.size()]);
+	}
+
+	/**
+	 * @return whether the completion engine only proposes the proposal when
+	 *         its name matches the token
+	 */
+	private static boolean isMatchedByName(CompletionProposal proposal) {
+		switch (proposal.getKind()) {
+			case CompletionProposal.FIELD_REF:
+			case CompletionProposal.LOCAL_VARIABLE_REF:
+			case CompletionProposal.METHOD_REF:
+			case CompletionProposal.TYPE_REF:
+			case CompletionProposal.KEYWORD:
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * @return the name matched against the token by the completion engine
+	 */
+	private static char[] getMatchName(CompletionProposal proposal) {
+		switch (proposal.getKind()) {
+			case CompletionProposal.TYPE_REF:
+			case CompletionProposal.JAVADOC_TYPE_REF:
+				return SignatureUtil.getSimpleTypeName(proposal).toCharArray();
+			case CompletionProposal.KEYWORD:
+			case CompletionProposal.PACKAGE_REF:
+				return proposal.getCompletion();
+			default:
+				return proposal.getName() != null ? proposal.getName() : proposal.getCompletion();
+		}
+	}
+
+	/**
+	 * @return the relevance for the match of the name and the token, as
+	 *         computed by the completion engine, or {@link #NO_MATCH} when the
+	 *         engine wouldn't propose the name for the token. The substring
+	 *         matches are kept, with no relevance, since some engine paths
+	 *         still propose them.
+	 */
+	private int computeRelevanceForCaseMatching(char[] token, char[] name) {
+		if (name == null || name.length == 0) {
+			return 0;
+		}
+		if (CharOperation.equals(token, name, true)) {
+			return RelevanceConstants.R_EXACT_NAME + RelevanceConstants.R_CASE;
+		} else if (CharOperation.equals(token, name, false)) {
+			return RelevanceConstants.R_EXACT_NAME;
+		} else if (CharOperation.prefixEquals(token, name, false)) {
+			return CharOperation.prefixEquals(token, name, true) ? RelevanceConstants.R_CASE : 0;
+		} else if (camelCaseMatch && CharOperation.camelCaseMatch(token, name)) {
+			return RelevanceConstants.R_CAMEL_CASE;
+		} else if (subwordMatch && CharOperation.subWordMatch(token, name)) {
+			return RelevanceConstants.R_SUBWORD;
+		} else if (CharOperation.substringMatch(token, name)) {
+			return 0;
+		}
+		return NO_MATCH;
+	}
+}
@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.ls.core.internal.contentassist.CompletionProposalRequestor;
+
+/**
+ * The {@link CompletionSession}s of the documents, at most one per document.
+ * <p>
+ * The Java element deltas of the other compilation units, and the changes of
+ * the classpath, discard the sessions, since the engine would propose other
+ * types or members.
+ */
+public class CompletionSessions implements IElementChangedListener {
+
+	private static final int MAX_SESSIONS = 8;
+
+	private final Map<String, CompletionSession> sessions = new LinkedHashMap<>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CompletionSession> eldest) {
+			return size() > MAX_SESSIONS;
+		}
+	};
+
+	private final LongAdder reused = new LongAdder();
+	private final LongAdder computed = new LongAdder();
+	private final LongAdder invalidations = new LongAdder();
+
+	public void addElementChangeListener() {
+		JavaCore.addElementChangedListener(this, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+	}
+
+	public void removeElementChangeListener() {
+		JavaCore.removeElementChangedListener(this);
+	}
+
+	/**
+	 * Keeps the proposals of the completion engine for the next requests of
+	 * the document.
+	 *
+	 * @param uri
+	 *            the uri of the document
+	 * @param unit
+	 *            the compilation unit of the document
+	 * @param source
+	 *            the contents of the document when the completion was requested
+	 * @param offset
+	 *            the completion offset
+	 * @param collector
+	 *            the collector which received the proposals of the completion
+	 *            engine, or <code>null</code> to discard the session of the
+	 *            document
+	 */
+	void update(String uri, ICompilationUnit unit, String source, int offset, CompletionProposalRequestor collector) {
+		computed.increment();
+		CompletionSession session = collector != null ? CompletionSession.create(unit, source, offset, collector) : null;
+		synchronized (sessions) {
+			if (session == null) {
+				sessions.remove(uri);
+			} else {
+				sessions.put(uri, session);
+			}
+		}
+	}
+
+	/**
+	 * @return the session of the document if the document only differs from
+	 *         its contents when the session was created by the identifier
+	 *         characters inserted at the completion offset of the session, or
+	 *         <code>null</code>
+	 */
+	CompletionSession get(String uri, String source, int offset) {
+		CompletionSession session;
+		synchronized (sessions) {
+			session = sessions.get(uri);
+		}
+		if (session == null || !session.isContinuedBy(source, offset)) {
+			return null;
+		}
+		reused.increment();
+		return session;
+	}
+
+	public void clear() {
+		synchronized (sessions) {
+			sessions.clear();
+		}
+	}
+
+	public Map<String, Object> getMetrics() {
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		synchronized (sessions) {
+			metrics.put("sessions", sessions.size());
+		}
+		metrics.put("reused", reused.sum());
+		metrics.put("computed", computed.sum());
+		metrics.put("invalidations", invalidations.sum());
+		return metrics;
+	}
+
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		synchronized (sessions) {
+			if (sessions.isEmpty()) {
+				return;
+			}
+		}
+		Set<IJavaElement> changed = new HashSet<>();
+		boolean all = !collectChangedUnits(event.getDelta(), changed);
+		if (!all && changed.isEmpty()) {
+			return;
+		}
+		synchronized (sessions) {
+			// a session survives the changes of its own unit, checked when it's reused
+			if (sessions.values().removeIf(session -> all || changed.size() > 1 || !changed.contains(session.getUnit()))) {
+				invalidations.increment();
+			}
+		}
+	}
+
+	/**
+	 * Collects the compilation units changed by the delta.
+	 *
+	 * @return <code>false</code> if the delta changes more than compilation
+	 *         units, e.g. the classpath, so that all the sessions are discarded
+	 */
+	private static boolean collectChangedUnits(IJavaElementDelta delta, Set<IJavaElement> changed) {
+		IJavaElement element = delta.getElement();
+		switch (element.getElementType()) {
+			case IJavaElement.JAVA_MODEL:
+				return collectChangedChildren(delta, changed);
+			case IJavaElement.JAVA_PROJECT:
+			case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+			case IJavaElement.PACKAGE_FRAGMENT:
+				if (delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & ~IJavaElementDelta.F_CHILDREN) != 0) {
+					return false;
+				}
+				return collectChangedChildren(delta, changed);
+			case IJavaElement.COMPILATION_UNIT:
+				// opening a document doesn't change its contents, while discarding its working copy can
+				if (delta.getKind() != IJavaElementDelta.CHANGED || delta.getFlags() != IJavaElementDelta.F_PRIMARY_WORKING_COPY || !((ICompilationUnit) element).isWorkingCopy()) {
+					changed.add(element);
+				}
+				return true;
+			default:
+				// the class files
+				return false;
+		}
+	}
+
+	private static boolean collectChangedChildren(IJavaElementDelta delta, Set<IJavaElement> changed) {
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			if (!collectChangedUnits(child, changed)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,45 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import java.util.Map;
+
+/**
+ * Computes the debounce delay of the document lifecycle jobs from the
+ * measured cost of the work they perform.
+ */
+public interface DebouncePolicy {
+
+	/**
+	 * @param documentLength
+	 *            the length of the document to be processed
+	 * @return the delay in ms before processing a document of the given length
+	 */
+	long getDelay(int documentLength);
+
+	/**
+	 * Records the time taken to process a document.
+	 *
+	 * @param documentLength
+	 *            the length of the processed document
+	 * @param elapsedTime
+	 *            the processing time in ms
+	 */
+	void update(int documentLength, long elapsedTime);
+
+	/**
+	 * @return the current state of the policy, exposed through
+	 *         <code>java/serverMetrics</code>
+	 */
+	Map<String, Object> getMetrics();
+}
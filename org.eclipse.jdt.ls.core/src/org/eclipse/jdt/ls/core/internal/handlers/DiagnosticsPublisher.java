@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.ls.core.internal.JavaClientConnection;
+import org.eclipse.lsp4j.PublishDiagnosticsParams;
+
+/**
+ * Publishes the diagnostics computed from the build markers in batches, off
+ * the resource change thread.
+ * <p>
+ * Pending diagnostics are kept per document, a newer update replacing the
+ * pending one. They are sent by a job, at most
+ * <code>jdt.ls.diagnostics.publishBatchSize</code> notifications every
+ * <code>jdt.ls.diagnostics.publishDelay</code> milliseconds, and skipped when
+ * the client already received the same diagnostics. Batches are taken and
+ * sent under a single lock, so that the job and {@link #flush()} never send
+ * an older batch of a document after a newer one.
+ */
+public class DiagnosticsPublisher {
+
+	public static final String PUBLISH_JOBS = "org.eclipse.jdt.ls.core.internal.handlers.DiagnosticsPublisher";
+
+	private static final long DELAY = Long.getLong("jdt.ls.diagnostics.publishDelay", 50);
+	private static final int BATCH_SIZE = Integer.getInteger("jdt.ls.diagnostics.publishBatchSize", 200);
+
+	private final JavaClientConnection connection;
+	private final long delay;
+	private final int batchSize;
+	private final Map<String, Pending> pending = new LinkedHashMap<>();
+	private final Object sendLock = new Object();
+	private final Job publishJob;
+
+	private final LongAdder queued = new LongAdder();
+	private final LongAdder coalesced = new LongAdder();
+	private final LongAdder unchanged = new LongAdder();
+	private final LongAdder published = new LongAdder();
+	private final LongAdder batches = new LongAdder();
+
+	public DiagnosticsPublisher(JavaClientConnection connection) {
+		this(connection, DELAY, BATCH_SIZE);
+	}
+
+	DiagnosticsPublisher(JavaClientConnection connection, long delay, int batchSize) {
+		this.connection = connection;
+		this.delay = delay;
+		this.batchSize = batchSize;
+		this.publishJob = new Job("Publish build diagnostics") {
+
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				if (publish(batchSize)) {
+					schedule(delay);
+				}
+				return Status.OK_STATUS;
+			}
+
+			@Override
+			public boolean belongsTo(Object family) {
+				return PUBLISH_JOBS.equals(family);
+			}
+		};
+		publishJob.setSystem(true);
+	}
+
+	/**
+	 * Queues the diagnostics of a document.
+	 *
+	 * @param diagnostics
+	 *            the diagnostics
+	 * @param unit
+	 *            the compilation unit of the document, if any, whose
+	 *            diagnostics are dropped if it is opened before they are sent
+	 */
+	public void publish(PublishDiagnosticsParams diagnostics, ICompilationUnit unit) {
+		queued.increment();
+		synchronized (pending) {
+			if (pending.put(diagnostics.getUri(), new Pending(diagnostics, unit)) != null) {
+				coalesced.increment();
+			}
+		}
+		publishJob.schedule(delay);
+	}
+
+	/**
+	 * Sends all the pending diagnostics from the calling thread.
+	 */
+	public void flush() {
+		publish(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Drops the pending diagnostics.
+	 */
+	public void dispose() {
+		publishJob.cancel();
+		synchronized (pending) {
+			pending.clear();
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if there are diagnostics left to send
+	 */
+	private boolean publish(int maxSize) {
+		synchronized (sendLock) {
+			List<Pending> batch;
+			boolean remaining;
+			synchronized (pending) {
+				batch = new ArrayList<>(Math.min(maxSize, pending.size()));
+				for (Iterator<Pending> iterator = pending.values().iterator(); iterator.hasNext() && batch.size() < maxSize;) {
+					batch.add(iterator.next());
+					iterator.remove();
+				}
+				remaining = !pending.isEmpty();
+			}
+			if (batch.isEmpty()) {
+				return remaining;
+			}
+			batches.increment();
+			for (Pending diagnostics : batch) {
+				if (diagnostics.unit != null && diagnostics.unit.isWorkingCopy()) {
+					// the document life cycle handler publishes the diagnostics of the opened documents
+					continue;
+				}
+				if (connection.publishDiagnosticsIfChanged(diagnostics.params)) {
+					published.increment();
+				} else {
+					unchanged.increment();
+				}
+			}
+			return remaining;
+		}
+	}
+
+	public Map<String, Object> getMetrics() {
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		synchronized (pending) {
+			metrics.put("pending", pending.size());
+		}
+		metrics.put("queued", queued.sum());
+		metrics.put("coalesced", coalesced.sum());
+		metrics.put("unchanged", unchanged.sum());
+		metrics.put("published", published.sum());
+		metrics.put("batches", batches.sum());
+		return metrics;
+	}
+
+	private static final class Pending {
+		private final PublishDiagnosticsParams params;
+		private final ICompilationUnit unit;
+
+		Pending(PublishDiagnosticsParams params, ICompilationUnit unit) {
+			this.params = params;
+			this.unit = unit;
+		}
+	}
+}
@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IBuffer;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
+import org.eclipse.lsp4j.DocumentSymbol;
+import org.eclipse.lsp4j.SymbolInformation;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+
+/**
+ * Caches the document symbols of the documents, which clients request after
+ * nearly every edit, and again for the breadcrumbs or the outline while the
+ * document doesn't change.
+ * <p>
+ * The symbols of a document are kept as long as its version, i.e. the
+ * modification stamp of its document or of its file, is unchanged. The Java
+ * element deltas discard the symbols of the changed compilation units, and
+ * the changes of the classpath or of the source attachments discard the
+ * symbols of all the documents, class files included.
+ */
+public class DocumentSymbolCache implements IElementChangedListener {
+
+	/**
+	 * The maximum number of cached documents, overridden by the
+	 * <code>jdt.ls.documentSymbols.cacheSize</code> system property.
+	 */
+	private static final int MAX_ENTRIES = Integer.getInteger("jdt.ls.documentSymbols.cacheSize", 100);
+
+	private final Map<String, Entry> cache = new LinkedHashMap<>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+			return size() > MAX_ENTRIES;
+		}
+	};
+	private long generation;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder invalidations = new LongAdder();
+
+	public void addElementChangeListener() {
+		JavaCore.addElementChangedListener(this, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+	}
+
+	public void removeElementChangeListener() {
+		JavaCore.removeElementChangedListener(this);
+	}
+
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		synchronized (this) {
+			if (cache.isEmpty()) {
+				return;
+			}
+		}
+		processDelta(event.getDelta());
+	}
+
+	private void processDelta(IJavaElementDelta delta) {
+		IJavaElement element = delta.getElement();
+		switch (element.getElementType()) {
+			case IJavaElement.JAVA_MODEL:
+				processDeltaChildren(delta);
+				break;
+			case IJavaElement.JAVA_PROJECT:
+			case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+			case IJavaElement.PACKAGE_FRAGMENT:
+				if (delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & ~IJavaElementDelta.F_CHILDREN) != 0) {
+					invalidate();
+				} else {
+					processDeltaChildren(delta);
+				}
+				break;
+			case IJavaElement.COMPILATION_UNIT:
+				// opening a document doesn't change its contents, while discarding its working copy can
+				if (delta.getKind() != IJavaElementDelta.CHANGED || delta.getFlags() != IJavaElementDelta.F_PRIMARY_WORKING_COPY || !((ICompilationUnit) element).isWorkingCopy()) {
+					invalidate((ICompilationUnit) element);
+				}
+				break;
+			default:
+				break;
+		}
+	}
+
+	private void processDeltaChildren(IJavaElementDelta delta) {
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			processDelta(child);
+		}
+	}
+
+	/**
+	 * Discards the symbols of all the documents.
+	 */
+	public synchronized void invalidate() {
+		generation++;
+		cache.clear();
+		invalidations.increment();
+	}
+
+	private synchronized void invalidate(ICompilationUnit unit) {
+		generation++;
+		if (cache.remove(unit.getHandleIdentifier()) != null) {
+			invalidations.increment();
+		}
+	}
+
+	/**
+	 * @param unit
+	 *            the document
+	 * @param hierarchical
+	 *            whether the symbols are {@link DocumentSymbol}s rather than
+	 *            {@link SymbolInformation}s
+	 * @param tagSupported
+	 *            whether the deprecation is reported as a tag
+	 * @return the cached symbols of the current version of the document, or
+	 *         <code>null</code>
+	 */
+	public List<Either<SymbolInformation, DocumentSymbol>> get(ITypeRoot unit, boolean hierarchical, boolean tagSupported) {
+		long version = getVersion(unit);
+		synchronized (this) {
+			Entry entry = cache.get(unit.getHandleIdentifier());
+			if (entry != null && entry.version == version && entry.hierarchical == hierarchical && entry.tagSupported == tagSupported) {
+				hits.increment();
+				return entry.symbols;
+			}
+			misses.increment();
+			return null;
+		}
+	}
+
+	/**
+	 * @return the generation of the cache, to pass to
+	 *         {@link #put(ITypeRoot, boolean, boolean, long, List)} once the
+	 *         symbols are computed
+	 */
+	public synchronized long getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * Caches the symbols of a document, unless the cache was invalidated while
+	 * they were computed.
+	 *
+	 * @return the unmodifiable copy of the symbols, cached or not, so that
+	 *         all the requests get the same kind of list
+	 */
+	public List<Either<SymbolInformation, DocumentSymbol>> put(ITypeRoot unit, boolean hierarchical, boolean tagSupported, long generation, List<Either<SymbolInformation, DocumentSymbol>> symbols) {
+		List<Either<SymbolInformation, DocumentSymbol>> copy = List.copyOf(symbols);
+		long version = getVersion(unit);
+		synchronized (this) {
+			if (this.generation == generation) {
+				cache.put(unit.getHandleIdentifier(), new Entry(version, hierarchical, tagSupported, copy));
+			}
+		}
+		return copy;
+	}
+
+	/**
+	 * @return the modification stamp of the document of the unit, or of its
+	 *         file, 0 for a class file
+	 */
+	private static long getVersion(ITypeRoot unit) {
+		if (!(unit instanceof ICompilationUnit)) {
+			return 0;
+		}
+		try {
+			IBuffer buffer = unit.isOpen() ? unit.getBuffer() : null;
+			IDocument document = buffer instanceof org.eclipse.jdt.ls.core.internal.DocumentAdapter adapter ? adapter.getDocument() : null;
+			if (document instanceof IDocumentExtension4 extension) {
+				return extension.getModificationStamp();
+			}
+		} catch (JavaModelException e) {
+			// fall back on the file
+		}
+		IResource resource = unit.getResource();
+		return resource == null ? IResource.NULL_STAMP : resource.getModificationStamp();
+	}
+
+	public Map<String, Object> getMetrics() {
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		synchronized (this) {
+			metrics.put("documents", cache.size());
+		}
+		metrics.put("hits", hits.sum());
+		metrics.put("misses", misses.sum());
+		metrics.put("invalidations", invalidations.sum());
+		return metrics;
+	}
+
+	private static final class Entry {
+		private final long version;
+		private final boolean hierarchical;
+		private final boolean tagSupported;
+		private final List<Either<SymbolInformation, DocumentSymbol>> symbols;
+
+		private Entry(long version, boolean hierarchical, boolean tagSupported, List<Either<SymbolInformation, DocumentSymbol>> symbols) {
+			this.version = version;
+			this.hierarchical = hierarchical;
+			this.tagSupported = tagSupported;
+			this.symbols = symbols;
+		}
+	}
+}
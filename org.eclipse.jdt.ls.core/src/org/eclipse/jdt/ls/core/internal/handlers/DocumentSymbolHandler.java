@@ -97,7 +97,11 @@ public class DocumentSymbolHandler {
 
 	private PreferenceManager preferenceManager;
 
-	private static IScanner fScanner;
+	/**
+	 * The scanner finding the package declaration of a class file, one per
+	 * thread since the scanners aren't thread safe.
+	 */
+	private static final ThreadLocal<IScanner> SCANNER = ThreadLocal.withInitial(() -> ToolFactory.createScanner(true, false, false, true));
 
 	public DocumentSymbolHandler(PreferenceManager preferenceManager) {
 		this.preferenceManager = preferenceManager;
@@ -110,13 +114,25 @@ public class DocumentSymbolHandler {
 			return Collections.emptyList();
 		}
 
-		if (preferenceManager.getClientPreferences().isHierarchicalDocumentSymbolSupported()) {
+		boolean hierarchical = preferenceManager.getClientPreferences().isHierarchicalDocumentSymbolSupported();
+		boolean tagSupported = preferenceManager.getClientPreferences().isSymbolTagSupported();
+		DocumentSymbolCache cache = JavaLanguageServerPlugin.getDocumentSymbolCache();
+		List<Either<SymbolInformation, DocumentSymbol>> result = cache.get(unit, hierarchical, tagSupported);
+		if (result != null) {
+			return result;
+		}
+		long generation = cache.getGeneration();
+		if (hierarchical) {
 			List<DocumentSymbol> symbols = this.getHierarchicalOutline(unit, monitor);
-			return symbols.stream().map(Either::<SymbolInformation, DocumentSymbol>forRight).collect(toList());
+			result = symbols.stream().map(Either::<SymbolInformation, DocumentSymbol>forRight).collect(toList());
 		} else {
 			SymbolInformation[] elements = this.getOutline(unit, monitor);
-			return Arrays.asList(elements).stream().map(Either::<SymbolInformation, DocumentSymbol>forLeft).collect(toList());
+			result = Arrays.asList(elements).stream().map(Either::<SymbolInformation, DocumentSymbol>forLeft).collect(toList());
+		}
+		if (!monitor.isCanceled()) {
+			result = cache.put(unit, hierarchical, tagSupported, generation, result);
 		}
+		return result;
 	}
 
 	private SymbolInformation[] getOutline(ITypeRoot unit, IProgressMonitor monitor) {
@@ -387,10 +403,7 @@ public class DocumentSymbolHandler {
 	}
 
 	private static IScanner getScanner() {
-		if (fScanner == null) {
-			fScanner = ToolFactory.createScanner(true, false, false, true);
-		}
-		return fScanner;
+		return SCANNER.get();
 	}
 
 	private int getNextToken(IScanner scanner) {
@@ -25,14 +25,20 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
-import org.eclipse.jdt.core.ToolFactory;
 import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
 import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.FieldDeclaration;
+import org.eclipse.jdt.core.dom.Initializer;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.NodeFinder;
 import org.eclipse.jdt.core.formatter.CodeFormatter;
 import org.eclipse.jdt.core.formatter.DefaultCodeFormatterConstants;
+import org.eclipse.jdt.core.formatter.IndentManipulation;
 import org.eclipse.jdt.core.manipulation.CoreASTProvider;
 import org.eclipse.jdt.internal.compiler.env.IModule;
+import org.eclipse.jdt.internal.corext.dom.IASTSharedValues;
 import org.eclipse.jdt.internal.corext.refactoring.util.TextEditUtil;
 import org.eclipse.jdt.internal.formatter.DefaultCodeFormatterOptions;
 import org.eclipse.jdt.internal.ui.preferences.formatter.ProfileVersionerCore;
@@ -108,12 +114,135 @@ public class FormatterHandler {
 			return Collections.emptyList();
 		}
 
-		CodeFormatter formatter = ToolFactory.createCodeFormatter(getOptions(options, cu));
-
 		String lineDelimiter = TextUtilities.getDefaultLineDelimiter(document);
 		String sourceToFormat = document.get();
 		int kind = getFormattingKind(cu, includeComments);
-		TextEdit format = formatter.format(kind, sourceToFormat, region.getOffset(), region.getLength(), 0, lineDelimiter);
+		TextEdit format = CodeFormatterPool.format(getOptions(options, cu), kind, sourceToFormat, region.getOffset(), region.getLength(), 0, lineDelimiter);
+		return convertEdits(format, document, monitor);
+	}
+
+	/**
+	 * Formats the region typed in, within the method, field or initializer
+	 * enclosing it rather than within the whole document, so that the
+	 * formatting doesn't depend on the size of the document.
+	 */
+	private List<org.eclipse.lsp4j.TextEdit> formatOnType(ICompilationUnit cu, IDocument document, IRegion region, FormattingOptions options, IProgressMonitor monitor) {
+		if (monitor.isCanceled()) {
+			return Collections.emptyList();
+		}
+		Map<String, String> formatterOptions = getOptions(options, cu);
+		String lineDelimiter = TextUtilities.getDefaultLineDelimiter(document);
+		String sourceToFormat = document.get();
+		int kind = getFormattingKind(cu, false);
+		TextEdit format = null;
+		if ((kind & CodeFormatter.K_MODULE_INFO) == 0) {
+			format = formatEnclosingMember(sourceToFormat, region, formatterOptions, lineDelimiter, monitor);
+		}
+		if (format == null) {
+			format = CodeFormatterPool.format(formatterOptions, kind, sourceToFormat, region.getOffset(), region.getLength(), 0, lineDelimiter);
+		}
+		return convertEdits(format, document, monitor);
+	}
+
+	/**
+	 * @return the edits formatting the region within the member of a type
+	 *         enclosing it, or <code>null</code> if there isn't such a member or
+	 *         it can't be formatted on its own
+	 */
+	private static TextEdit formatEnclosingMember(String source, IRegion region, Map<String, String> options, String lineDelimiter, IProgressMonitor monitor) {
+		if (DefaultCodeFormatterConstants.TRUE.equals(options.get(DefaultCodeFormatterConstants.FORMATTER_ALIGN_TYPE_MEMBERS_ON_COLUMNS))) {
+			// the alignment depends on the other members
+			return null;
+		}
+		String disablingTag = options.get(DefaultCodeFormatterConstants.FORMATTER_DISABLING_TAG);
+		if (DefaultCodeFormatterConstants.TRUE.equals(options.get(DefaultCodeFormatterConstants.FORMATTER_USE_ON_OFF_TAGS)) && disablingTag != null && !disablingTag.isEmpty() && source.contains(disablingTag)) {
+			// the member may be in a region where the formatter is off
+			return null;
+		}
+		// only the body of the member enclosing the focal position is parsed
+		ASTParser parser = ASTParser.newParser(IASTSharedValues.SHARED_AST_LEVEL);
+		parser.setSource(source.toCharArray());
+		parser.setCompilerOptions(options);
+		parser.setFocalPosition(region.getOffset());
+		CompilationUnit astRoot = (CompilationUnit) parser.createAST(monitor);
+		ASTNode member = NodeFinder.perform(astRoot, region.getOffset(), region.getLength());
+		while (member != null && !(member instanceof MethodDeclaration || member instanceof FieldDeclaration || member instanceof Initializer)) {
+			member = member.getParent();
+		}
+		if (member == null || !(member.getParent() instanceof AbstractTypeDeclaration type)) {
+			return null;
+		}
+		int memberEnd = member.getStartPosition() + member.getLength();
+		int start = getLineStart(source, member.getStartPosition());
+		int end = getLineEnd(source, memberEnd);
+		if (region.getOffset() < start || region.getOffset() + region.getLength() > end) {
+			return null;
+		}
+		// the lines of the member must not hold other parts of the type
+		String trailing = source.substring(memberEnd, end).strip();
+		if (!source.substring(start, member.getStartPosition()).isBlank() || !(trailing.isEmpty() || trailing.startsWith("//"))) {
+			return null;
+		}
+		// the formatter indents the lines of a region relative to the enclosing lines left as is, here the type header
+		int headerStart = getLineStart(source, type.getName().getStartPosition());
+		String header = source.substring(headerStart, getLineEnd(source, headerStart));
+		int indentationLevel = IndentManipulation.measureIndentUnits(header, getTabWidth(options), getIndentWidth(options));
+		if (isBodyIndented(type, options)) {
+			indentationLevel++;
+		}
+		TextEdit format = CodeFormatterPool.format(options, CodeFormatter.K_CLASS_BODY_DECLARATIONS, source.substring(start, end), region.getOffset() - start, region.getLength(), indentationLevel, lineDelimiter);
+		if (format != null) {
+			format.moveTree(start);
+		}
+		return format;
+	}
+
+	private static boolean isBodyIndented(AbstractTypeDeclaration type, Map<String, String> options) {
+		String option = switch (type.getNodeType()) {
+			case ASTNode.ENUM_DECLARATION -> DefaultCodeFormatterConstants.FORMATTER_INDENT_BODY_DECLARATIONS_COMPARE_TO_ENUM_DECLARATION_HEADER;
+			case ASTNode.ANNOTATION_TYPE_DECLARATION -> DefaultCodeFormatterConstants.FORMATTER_INDENT_BODY_DECLARATIONS_COMPARE_TO_ANNOTATION_DECLARATION_HEADER;
+			case ASTNode.RECORD_DECLARATION -> DefaultCodeFormatterConstants.FORMATTER_INDENT_BODY_DECLARATIONS_COMPARE_TO_RECORD_HEADER;
+			default -> DefaultCodeFormatterConstants.FORMATTER_INDENT_BODY_DECLARATIONS_COMPARE_TO_TYPE_HEADER;
+		};
+		return !DefaultCodeFormatterConstants.FALSE.equals(options.get(option));
+	}
+
+	private static int getTabWidth(Map<String, String> options) {
+		return getIntOption(options, DefaultCodeFormatterConstants.FORMATTER_TAB_SIZE);
+	}
+
+	private static int getIndentWidth(Map<String, String> options) {
+		if (JavaCore.SPACE.equals(options.get(DefaultCodeFormatterConstants.FORMATTER_TAB_CHAR))) {
+			return getIntOption(options, DefaultCodeFormatterConstants.FORMATTER_INDENTATION_SIZE);
+		}
+		return getTabWidth(options);
+	}
+
+	private static int getIntOption(Map<String, String> options, String key) {
+		try {
+			return Integer.parseInt(options.get(key));
+		} catch (NumberFormatException e) {
+			return 4;
+		}
+	}
+
+	private static int getLineStart(String source, int offset) {
+		int start = offset;
+		while (start > 0 && source.charAt(start - 1) != '\n' && source.charAt(start - 1) != '\r') {
+			start--;
+		}
+		return start;
+	}
+
+	private static int getLineEnd(String source, int offset) {
+		int end = offset;
+		while (end < source.length() && source.charAt(end) != '\n' && source.charAt(end) != '\r') {
+			end++;
+		}
+		return end;
+	}
+
+	private static List<org.eclipse.lsp4j.TextEdit> convertEdits(TextEdit format, IDocument document, IProgressMonitor monitor) {
 		if (format == null || format.getChildren().length == 0 || monitor.isCanceled()) {
 			// nothing to return
 			return Collections.<org.eclipse.lsp4j.TextEdit>emptyList();
@@ -229,7 +358,7 @@ public class FormatterHandler {
 		if (region == null) {
 			return Collections.emptyList();
 		}
-		return format(cu, document, region, options, false, monitor);
+		return formatOnType(cu, document, region, options, monitor);
 	}
 
 	private IRegion getRegion(ICompilationUnit cu, IDocument document, Position position, String trigger) {
@@ -338,13 +467,12 @@ public class FormatterHandler {
 		IDocument document = new Document();
 		document.set(content);
 		Map<String, String> formatOptions = (options == null) ? getCombinedDefaultFormatterSettings() : ProfileVersionerCore.updateAndComplete(options, version);
-		CodeFormatter formatter = ToolFactory.createCodeFormatter(formatOptions);
 		IRegion region = new Region(0, document.getLength());
 		int kind = CodeFormatter.K_COMPILATION_UNIT;
 		if (preferenceManager.getPreferences().isJavaFormatComments()) {
 			kind = kind | CodeFormatter.F_INCLUDE_COMMENTS;
 		}
-		TextEdit edit = formatter.format(kind, content, region.getOffset(), region.getLength(), 0, TextUtilities.getDefaultLineDelimiter(document));
+		TextEdit edit = CodeFormatterPool.format(formatOptions, kind, content, region.getOffset(), region.getLength(), 0, TextUtilities.getDefaultLineDelimiter(document));
 		if (edit != null) {
 			try {
 				edit.apply(document);
@@ -62,6 +62,7 @@ import org.eclipse.lsp4j.TextDocumentSyncKind;
 import org.eclipse.lsp4j.TextDocumentSyncOptions;
 import org.eclipse.lsp4j.WorkspaceFoldersOptions;
 import org.eclipse.lsp4j.WorkspaceServerCapabilities;
+import org.eclipse.lsp4j.WorkspaceSymbolOptions;
 import org.eclipse.m2e.core.internal.IMavenConstants;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleException;
@@ -161,7 +162,13 @@ final public class InitHandler extends BaseInitHandler {
 			}
 		}
 		if (!preferenceManager.getClientPreferences().isWorkspaceSymbolDynamicRegistered()) {
-			capabilities.setWorkspaceSymbolProvider(Boolean.TRUE);
+			if (preferenceManager.getClientPreferences().isWorkspaceSymbolResolveSupported()) {
+				WorkspaceSymbolOptions workspaceSymbolOptions = new WorkspaceSymbolOptions();
+				workspaceSymbolOptions.setResolveProvider(Boolean.TRUE);
+				capabilities.setWorkspaceSymbolProvider(workspaceSymbolOptions);
+			} else {
+				capabilities.setWorkspaceSymbolProvider(Boolean.TRUE);
+			}
 		}
 		if (!preferenceManager.getClientPreferences().isClientDocumentSymbolProviderRegistered() && !preferenceManager.getClientPreferences().isDocumentSymbolDynamicRegistered()) {
 			capabilities.setDocumentSymbolProvider(Boolean.TRUE);
@@ -223,8 +230,8 @@ final public class InitHandler extends BaseInitHandler {
 		capabilities.setWorkspace(wsCapabilities);
 
 		SemanticTokensWithRegistrationOptions semanticTokensOptions = new SemanticTokensWithRegistrationOptions();
-		semanticTokensOptions.setFull(new SemanticTokensServerFull(false));
-		semanticTokensOptions.setRange(false);
+		semanticTokensOptions.setFull(new SemanticTokensServerFull(true));
+		semanticTokensOptions.setRange(true);
 		semanticTokensOptions.setDocumentSelector(List.of(new DocumentFilter("java", "file", null), new DocumentFilter("java", "jdt", null)));
 		semanticTokensOptions.setLegend(SemanticTokensHandler.legend());
 		capabilities.setSemanticTokensProvider(semanticTokensOptions);
@@ -19,7 +19,6 @@ import java.util.Objects;
 
 import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IType;
-import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTVisitor;
@@ -27,6 +26,7 @@ import org.eclipse.jdt.core.dom.BooleanLiteral;
 import org.eclipse.jdt.core.dom.CastExpression;
 import org.eclipse.jdt.core.dom.CharacterLiteral;
 import org.eclipse.jdt.core.dom.ClassInstanceCreation;
+import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.ConstructorInvocation;
 import org.eclipse.jdt.core.dom.EnumConstantDeclaration;
 import org.eclipse.jdt.core.dom.Expression;
@@ -50,17 +50,26 @@ class InlayHintVisitor extends ASTVisitor {
 	private List<InlayHint> hints;
 	private int startOffset;
 	private int endOffset;
-	private ITypeRoot typeRoot;
+	private CompilationUnit root;
 	private PreferenceManager preferenceManager;
 
-	InlayHintVisitor(int startOffset, int endOffset, ITypeRoot typeRoot, PreferenceManager preferenceManager) {
+	InlayHintVisitor(int startOffset, int endOffset, CompilationUnit root, PreferenceManager preferenceManager) {
 		this.startOffset = startOffset;
 		this.endOffset = endOffset;
-		this.typeRoot = typeRoot;
+		this.root = root;
 		this.hints = new ArrayList<>();
 		this.preferenceManager = preferenceManager;
 	}
 
+	/**
+	 * Only descend into the nodes overlapping the range, the nodes without
+	 * position may contain positioned nodes of a recovered AST.
+	 */
+	@Override
+	public boolean preVisit2(ASTNode node) {
+		return node.getStartPosition() < 0 || !isOutOfRange(node);
+	}
+
 	@Override
 	public boolean visit(EnumConstantDeclaration node) {
 		if (isOutOfRange(node) || isGenerated(node)) {
@@ -177,25 +186,26 @@ class InlayHintVisitor extends ASTVisitor {
 			return;
 		}
 
-		try {
-			int paramNum = Math.min(parameterNames.length, arguments.size());
-			for (int i = 0; i < paramNum; i++) {
-				Expression arg = arguments.get(i);
-				if (!acceptArgument(arg, parameterNames[i])) {
-					continue;
-				}
-
-				String label = parameterNames[i] + ":";
-				if (i == parameterNames.length - 1 && methodBinding.isVarargs()) {
-					label = "..." + label;
-				}
-
-				int[] lineAndColumn = JsonRpcHelpers.toLine(typeRoot.getBuffer(), arg.getStartPosition());
-				InlayHint hint = new InlayHint(new Position(lineAndColumn[0], lineAndColumn[1]), Either.forLeft(label));
-				hints.add(hint);
+		int paramNum = Math.min(parameterNames.length, arguments.size());
+		for (int i = 0; i < paramNum; i++) {
+			Expression arg = arguments.get(i);
+			if (!acceptArgument(arg, parameterNames[i])) {
+				continue;
 			}
-		} catch (JavaModelException e) {
-			JavaLanguageServerPlugin.logException(e.getMessage(), e);
+
+			String label = parameterNames[i] + ":";
+			if (i == parameterNames.length - 1 && methodBinding.isVarargs()) {
+				label = "..." + label;
+			}
+
+			// the line table of the AST avoids building a document of the buffer for each hint
+			int line = root.getLineNumber(arg.getStartPosition()) - 1;
+			int column = root.getColumnNumber(arg.getStartPosition());
+			if (line < 0 || column < 0) {
+				continue;
+			}
+			InlayHint hint = new InlayHint(new Position(line, column), Either.forLeft(label));
+			hints.add(hint);
 		}
 	}
 
@@ -13,8 +13,13 @@
 
 package org.eclipse.jdt.ls.core.internal.handlers;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.core.IBuffer;
@@ -26,11 +31,34 @@ import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.JobHelpers;
 import org.eclipse.jdt.ls.core.internal.preferences.PreferenceManager;
+import org.eclipse.jdt.ls.core.internal.preferences.Preferences;
+import org.eclipse.jface.text.IDocument;
 import org.eclipse.lsp4j.InlayHint;
 import org.eclipse.lsp4j.InlayHintParams;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
 
 public class InlayHintsHandler {
 
+	/**
+	 * The maximum number of documents whose hints are cached.
+	 */
+	private static final int MAX_CACHED_DOCUMENTS = 32;
+
+	/**
+	 * The maximum number of ranges cached per document.
+	 */
+	private static final int MAX_CACHED_RANGES = 16;
+
+	private static final Map<String, CachedHints> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CachedHints> eldest) {
+			return size() > MAX_CACHED_DOCUMENTS;
+		}
+	};
+
 	private final PreferenceManager preferenceManager;
 
 	public InlayHintsHandler(PreferenceManager preferenceManager) {
@@ -61,6 +89,14 @@ public class InlayHintsHandler {
 			return Collections.emptyList();
 		}
 
+		// the hints of a range only change with the AST or the preferences
+		Preferences preferences = preferenceManager.getPreferences();
+		Range range = params.getRange();
+		List<InlayHint> cached = getCachedHints(uri, root, preferences, range);
+		if (cached != null) {
+			return new ArrayList<>(cached);
+		}
+
 		IBuffer buffer;
 		try {
 			buffer = typeRoot.getBuffer();
@@ -69,16 +105,85 @@ public class InlayHintsHandler {
 			return Collections.emptyList();
 		}
 
-		int startLine = params.getRange().getStart().getLine();
-		int startCharacter = params.getRange().getStart().getCharacter();
-		int startOffset = JsonRpcHelpers.toOffset(buffer, startLine, startCharacter);
+		IDocument document = JsonRpcHelpers.toDocument(buffer);
+		if (document == null) {
+			return Collections.emptyList();
+		}
+
+		int startLine = range.getStart().getLine();
+		int startCharacter = range.getStart().getCharacter();
+		int startOffset = JsonRpcHelpers.toOffset(document, startLine, startCharacter);
 
-		int endLine = params.getRange().getEnd().getLine();
-		int endCharacter = params.getRange().getEnd().getCharacter();
-		int endOffset = JsonRpcHelpers.toOffset(buffer, endLine, endCharacter);
+		int endLine = range.getEnd().getLine();
+		int endCharacter = range.getEnd().getCharacter();
+		int endOffset = JsonRpcHelpers.toOffset(document, endLine, endCharacter);
 
-		InlayHintVisitor inlayHintVisitor = new InlayHintVisitor(startOffset, endOffset, typeRoot, preferenceManager);
+		InlayHintVisitor inlayHintVisitor = new InlayHintVisitor(startOffset, endOffset, root, preferenceManager);
 		root.accept(inlayHintVisitor);
-		return inlayHintVisitor.getInlayHints();
+		List<InlayHint> hints = inlayHintVisitor.getInlayHints();
+		if (!monitor.isCanceled()) {
+			cacheHints(uri, root, preferences, range, hints);
+		}
+		return hints;
+	}
+
+	private static List<InlayHint> getCachedHints(String uri, CompilationUnit root, Preferences preferences, Range range) {
+		synchronized (CACHE) {
+			CachedHints cachedHints = CACHE.get(uri);
+			if (cachedHints == null || !cachedHints.isValid(root, preferences)) {
+				return null;
+			}
+			return cachedHints.ranges.get(range);
+		}
+	}
+
+	private static void cacheHints(String uri, CompilationUnit root, Preferences preferences, Range range, List<InlayHint> hints) {
+		synchronized (CACHE) {
+			CachedHints cachedHints = CACHE.get(uri);
+			if (cachedHints == null || !cachedHints.isValid(root, preferences)) {
+				cachedHints = new CachedHints(root, preferences);
+				CACHE.put(uri, cachedHints);
+			}
+			Range key = new Range(new Position(range.getStart().getLine(), range.getStart().getCharacter()), new Position(range.getEnd().getLine(), range.getEnd().getCharacter()));
+			cachedHints.ranges.put(key, new ArrayList<>(hints));
+		}
+	}
+
+	/**
+	 * Discards the cached hints.
+	 */
+	public static void clearCache() {
+		synchronized (CACHE) {
+			CACHE.clear();
+		}
+	}
+
+	/**
+	 * The hints computed for the ranges of an AST. The AST is weakly
+	 * referenced, the cached hints are discarded along with it.
+	 */
+	private static final class CachedHints {
+		private final WeakReference<CompilationUnit> root;
+		private final InlayHintsParameterMode parameterMode;
+		private final List<String> exclusionList;
+		private final Map<Range, List<InlayHint>> ranges = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Range, List<InlayHint>> eldest) {
+				return size() > MAX_CACHED_RANGES;
+			}
+		};
+
+		private CachedHints(CompilationUnit root, Preferences preferences) {
+			this.root = new WeakReference<>(root);
+			this.parameterMode = preferences.getInlayHintsParameterMode();
+			List<String> exclusionList = preferences.getInlayHintsExclusionList();
+			this.exclusionList = exclusionList == null ? null : new ArrayList<>(exclusionList);
+		}
+
+		private boolean isValid(CompilationUnit root, Preferences preferences) {
+			return this.root.get() == root && Objects.equals(parameterMode, preferences.getInlayHintsParameterMode()) && Objects.equals(exclusionList, preferences.getInlayHintsExclusionList());
+		}
 	}
 }
@@ -51,8 +51,12 @@ import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.JobHelpers;
 import org.eclipse.jdt.ls.core.internal.LanguageServerApplication;
 import org.eclipse.jdt.ls.core.internal.LanguageServerWorkingCopyOwner;
+import org.eclipse.jdt.ls.core.internal.RequestPriority;
+import org.eclipse.jdt.ls.core.internal.RequestScheduler;
+import org.eclipse.jdt.ls.core.internal.ServerMetrics;
 import org.eclipse.jdt.ls.core.internal.ServiceStatus;
 import org.eclipse.jdt.ls.core.internal.codemanipulation.GenerateGetterSetterOperation.AccessorField;
+import org.eclipse.jdt.ls.core.internal.handlers.BaseDocumentLifeCycleHandler.DocumentMonitor;
 import org.eclipse.jdt.ls.core.internal.handlers.CodeActionHandler.CodeActionData;
 import org.eclipse.jdt.ls.core.internal.handlers.ExtractInterfaceHandler.CheckExtractInterfaceResponse;
 import org.eclipse.jdt.ls.core.internal.handlers.FindLinksHandler.FindLinksParams;
@@ -140,7 +144,10 @@ import org.eclipse.lsp4j.RenameParams;
 import org.eclipse.lsp4j.SelectionRange;
 import org.eclipse.lsp4j.SelectionRangeParams;
 import org.eclipse.lsp4j.SemanticTokens;
+import org.eclipse.lsp4j.SemanticTokensDelta;
+import org.eclipse.lsp4j.SemanticTokensDeltaParams;
 import org.eclipse.lsp4j.SemanticTokensParams;
+import org.eclipse.lsp4j.SemanticTokensRangeParams;
 import org.eclipse.lsp4j.SetTraceParams;
 import org.eclipse.lsp4j.SignatureHelp;
 import org.eclipse.lsp4j.SignatureHelpParams;
@@ -155,10 +162,10 @@ import org.eclipse.lsp4j.TypeHierarchySupertypesParams;
 import org.eclipse.lsp4j.WillSaveTextDocumentParams;
 import org.eclipse.lsp4j.WorkspaceEdit;
 import org.eclipse.lsp4j.WorkspaceSymbol;
+import org.eclipse.lsp4j.WorkspaceSymbolOptions;
 import org.eclipse.lsp4j.WorkspaceSymbolParams;
 import org.eclipse.lsp4j.extended.ProjectBuildParams;
 import org.eclipse.lsp4j.extended.ProjectConfigurationsUpdateParam;
-import org.eclipse.lsp4j.jsonrpc.CompletableFutures;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.eclipse.lsp4j.jsonrpc.messages.Either3;
 import org.eclipse.lsp4j.jsonrpc.services.JsonDelegate;
@@ -194,6 +201,7 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	private ServiceStatus status;
 	private TelemetryManager telemetryManager;
 	private Object codeActionLock = new Object();
+	private final SupersedableRequests supersedableRequests = new SupersedableRequests();
 
 	private Job shutdownJob = new Job("Shutdown...") {
 
@@ -209,6 +217,9 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 					classpathUpdateHandler.removeElementChangeListener();
 					classpathUpdateHandler = null;
 				}
+				if (documentLifeCycleHandler != null) {
+					documentLifeCycleHandler.shutdown();
+				}
 				ResourcesPlugin.getWorkspace().save(true, monitor);
 			} catch (CoreException e) {
 				logException(e.getMessage(), e);
@@ -252,6 +263,7 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 		pm.setConnection(client);
 		WorkingCopyOwner.setPrimaryBufferProvider(this.workingCopyOwner);
 		this.documentLifeCycleHandler = new DocumentLifeCycleHandler(this.client, preferenceManager, pm, true);
+		ServerMetrics.register("debounce", this.documentLifeCycleHandler::getDebounceMetrics);
 		this.workspaceEventHandler = new WorkspaceEventsHandler(pm, this.client, this.documentLifeCycleHandler);
 		this.telemetryManager.setLanguageClient(client);
 		this.telemetryManager.setPreferenceManager(preferenceManager);
@@ -305,6 +317,7 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 				try {
 					workspaceDiagnosticsHandler = new WorkspaceDiagnosticsHandler(JDTLanguageServer.this.client, pm, preferenceManager.getClientPreferences(), documentLifeCycleHandler);
 					workspaceDiagnosticsHandler.addResourceChangeListener();
+					ServerMetrics.register("diagnostics", workspaceDiagnosticsHandler::getPublisherMetrics);
 					classpathUpdateHandler = new ClasspathUpdateHandler(JDTLanguageServer.this.client);
 					classpathUpdateHandler.addElementChangeListener();
 					SourceAttachUpdateHandler attachListener = new SourceAttachUpdateHandler(client);
@@ -353,7 +366,12 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	 */
 	private void registerCapabilities() {
 		if (preferenceManager.getClientPreferences().isWorkspaceSymbolDynamicRegistered()) {
-			registerCapability(Preferences.WORKSPACE_SYMBOL_ID, Preferences.WORKSPACE_SYMBOL);
+			WorkspaceSymbolOptions workspaceSymbolOptions = null;
+			if (preferenceManager.getClientPreferences().isWorkspaceSymbolResolveSupported()) {
+				workspaceSymbolOptions = new WorkspaceSymbolOptions();
+				workspaceSymbolOptions.setResolveProvider(Boolean.TRUE);
+			}
+			registerCapability(Preferences.WORKSPACE_SYMBOL_ID, Preferences.WORKSPACE_SYMBOL, workspaceSymbolOptions);
 		}
 		if (!preferenceManager.getClientPreferences().isClientDocumentSymbolProviderRegistered() && preferenceManager.getClientPreferences().isDocumentSymbolDynamicRegistered()) {
 			registerCapability(Preferences.DOCUMENT_SYMBOL_ID, Preferences.DOCUMENT_SYMBOL);
@@ -536,11 +554,23 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	@Override
 	public CompletableFuture<Either<List<? extends SymbolInformation>, List<? extends WorkspaceSymbol>>> symbol(WorkspaceSymbolParams params) {
 		debugTrace(">> workspace/symbol");
-		return computeAsync((monitor) -> {
+		return computeAsync(RequestPriority.BULK, (monitor) -> {
+			if (preferenceManager.getClientPreferences().isWorkspaceSymbolResolveSupported()) {
+				return Either.forRight(WorkspaceSymbolHandler.searchWorkspaceSymbols(params.getQuery(), monitor));
+			}
 			return Either.forLeft(WorkspaceSymbolHandler.search(params.getQuery(), monitor));
 		});
 	}
 
+	/* (non-Javadoc)
+	 * @see org.eclipse.lsp4j.services.WorkspaceService#resolveWorkspaceSymbol(org.eclipse.lsp4j.WorkspaceSymbol)
+	 */
+	@Override
+	public CompletableFuture<WorkspaceSymbol> resolveWorkspaceSymbol(WorkspaceSymbol workspaceSymbol) {
+		debugTrace(">> workspaceSymbol/resolve");
+		return computeAsync(RequestPriority.INTERACTIVE, (monitor) -> WorkspaceSymbolHandler.resolve(workspaceSymbol, monitor));
+	}
+
 	/* (non-Javadoc)
 	 * @see org.eclipse.lsp4j.services.WorkspaceService#didChangeConfiguration(org.eclipse.lsp4j.DidChangeConfigurationParams)
 	 */
@@ -612,7 +642,8 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 			Object result = commandHandler.executeCommand(params, new NullProgressMonitor());
 			return CompletableFuture.completedFuture(result);
 		} else {
-			return computeAsync((monitor) -> {
+			// the commands may run for long, e.g. the builds or the refactorings
+			return computeAsync(RequestPriority.BULK, (monitor) -> {
 				return commandHandler.executeCommand(params, monitor);
 			});
 		}
@@ -663,7 +694,7 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	public CompletableFuture<Hover> hover(HoverParams position) {
 		debugTrace(">> document/hover");
 		HoverHandler handler = new HoverHandler(this.preferenceManager);
-		return computeAsync((monitor) -> handler.hover(position, monitor));
+		return computeAsync(RequestPriority.INTERACTIVE, (monitor) -> handler.hover(position, monitor));
 	}
 
 	/* (non-Javadoc)
@@ -673,7 +704,7 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	public CompletableFuture<SignatureHelp> signatureHelp(SignatureHelpParams position) {
 		debugTrace(">> document/signatureHelp");
 		SignatureHelpHandler handler = new SignatureHelpHandler(preferenceManager);
-		return computeAsync((monitor) -> handler.signatureHelp(position, monitor));
+		return computeAsync(RequestPriority.INTERACTIVE, (monitor) -> handler.signatureHelp(position, monitor));
 	}
 
 	/* (non-Javadoc)
@@ -683,7 +714,7 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	public CompletableFuture<Either<List<? extends Location>, List<? extends LocationLink>>> definition(DefinitionParams position) {
 		debugTrace(">> document/definition");
 		NavigateToDefinitionHandler handler = new NavigateToDefinitionHandler(this.preferenceManager);
-		return computeAsync((monitor) -> {
+		return computeAsync(RequestPriority.INTERACTIVE, (monitor) -> {
 			waitForLifecycleJobs(monitor);
 			return Either.forLeft(handler.definition(position, monitor));
 		});
@@ -693,7 +724,7 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	public CompletableFuture<Either<List<? extends Location>, List<? extends LocationLink>>> declaration(DeclarationParams position) {
 		debugTrace(">> document/declaration");
 		NavigateToDeclarationHandler handler = new NavigateToDeclarationHandler(this.preferenceManager);
-		return computeAsync((monitor) -> {
+		return computeAsync(RequestPriority.INTERACTIVE, (monitor) -> {
 			waitForLifecycleJobs(monitor);
 			return Either.forLeft(handler.declaration(position, monitor));
 		});
@@ -706,7 +737,7 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	public CompletableFuture<Either<List<? extends Location>, List<? extends LocationLink>>> typeDefinition(TypeDefinitionParams position) {
 		debugTrace(">> document/typeDefinition");
 		NavigateToTypeDefinitionHandler handler = new NavigateToTypeDefinitionHandler();
-		return computeAsync((monitor) -> {
+		return computeAsync(RequestPriority.INTERACTIVE, (monitor) -> {
 			waitForLifecycleJobs(monitor);
 			return Either.forLeft((handler.typeDefinition(position, monitor)));
 		});
@@ -719,13 +750,13 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	public CompletableFuture<List<? extends Location>> references(ReferenceParams params) {
 		debugTrace(">> document/references");
 		ReferencesHandler handler = new ReferencesHandler(this.preferenceManager);
-		return computeAsync((monitor) -> handler.findReferences(params, monitor));
+		return computeAsync(RequestPriority.BULK, (monitor) -> handler.findReferences(params, monitor));
 	}
 
 	@Override
 	public CompletableFuture<List<? extends Location>> findLinks(FindLinksParams params) {
 		debugTrace(">> java/findLinks");
-		return computeAsync((monitor) -> FindLinksHandler.findLinks(params.type, params.position, monitor));
+		return computeAsync(RequestPriority.BULK, (monitor) -> FindLinksHandler.findLinks(params.type, params.position, monitor));
 	}
 
 	/* (non-Javadoc)
@@ -734,7 +765,7 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	@Override
 	public CompletableFuture<List<? extends DocumentHighlight>> documentHighlight(DocumentHighlightParams position) {
 		debugTrace(">> document/documentHighlight");
-		return computeAsync((monitor) -> DocumentHighlightHandler.documentHighlight(position, monitor));
+		return computeAsync(RequestPriority.INTERACTIVE, (monitor) -> DocumentHighlightHandler.documentHighlight(position, monitor));
 	}
 
 	/* (non-Javadoc)
@@ -801,10 +832,14 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	public CompletableFuture<List<? extends CodeLens>> codeLens(CodeLensParams params) {
 		debugTrace(">> document/codeLens");
 		CodeLensHandler handler = new CodeLensHandler(preferenceManager);
-		return computeAsync((monitor) -> {
+		String uri = params.getTextDocument().getUri();
+		DocumentMonitor documentMonitor = documentLifeCycleHandler.new DocumentMonitor(uri);
+		return supersedableRequests.track("textDocument/codeLens", uri, computeAsync((monitor) -> {
+			documentMonitor.checkChanged();
 			waitForLifecycleJobs(monitor);
-			return handler.getCodeLensSymbols(params.getTextDocument().getUri(), monitor);
-		});
+			documentMonitor.checkChanged();
+			return handler.getCodeLensSymbols(uri, monitor);
+		}));
 	}
 
 	/* (non-Javadoc)
@@ -814,7 +849,7 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	public CompletableFuture<CodeLens> resolveCodeLens(CodeLens unresolved) {
 		debugTrace(">> codeLens/resolve");
 		CodeLensHandler handler = new CodeLensHandler(preferenceManager);
-		return computeAsync((monitor) -> {
+		return computeAsync(RequestPriority.BULK, (monitor) -> {
 			waitForLifecycleJobs(monitor);
 			return handler.resolve(unresolved, monitor);
 		});
@@ -847,7 +882,7 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	public CompletableFuture<List<? extends TextEdit>> onTypeFormatting(DocumentOnTypeFormattingParams params) {
 		debugTrace(">> document/onTypeFormatting");
 		FormatterHandler handler = new FormatterHandler(preferenceManager);
-		return computeAsync((monitor) -> handler.onTypeFormatting(params, monitor));
+		return computeAsync(RequestPriority.INTERACTIVE, (monitor) -> handler.onTypeFormatting(params, monitor));
 	}
 
 	/* (non-Javadoc)
@@ -857,7 +892,7 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	public CompletableFuture<Either3<Range, PrepareRenameResult, PrepareRenameDefaultBehavior>> prepareRename(PrepareRenameParams params) {
 		debugTrace(">> document/prepareRename");
 		PrepareRenameHandler handler = new PrepareRenameHandler(preferenceManager);
-		return computeAsync((monitor) -> {
+		return computeAsync(RequestPriority.INTERACTIVE, (monitor) -> {
 			waitForLifecycleJobs(monitor);
 			return Either3.forLeft3(handler.prepareRename(params, monitor));
 		});
@@ -870,7 +905,7 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	public CompletableFuture<WorkspaceEdit> rename(RenameParams params) {
 		debugTrace(">> document/rename");
 		RenameHandler handler = new RenameHandler(preferenceManager);
-		return computeAsync((monitor) -> {
+		return computeAsync(RequestPriority.BULK, (monitor) -> {
 			waitForLifecycleJobs(monitor);
 			return handler.rename(params, monitor);
 		});
@@ -891,6 +926,7 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	@Override
 	public void didChange(DidChangeTextDocumentParams params) {
 		debugTrace(">> document/didChange");
+		supersedableRequests.cancel(params.getTextDocument().getUri());
 		documentLifeCycleHandler.didChange(params);
 	}
 
@@ -900,6 +936,8 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	@Override
 	public void didClose(DidCloseTextDocumentParams params) {
 		debugTrace(">> document/didClose");
+		supersedableRequests.cancel(params.getTextDocument().getUri());
+		SemanticTokensHandler.evict(params.getTextDocument().getUri());
 		documentLifeCycleHandler.didClose(params);
 	}
 
@@ -916,6 +954,12 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 		});
 	}
 
+	@Override
+	public CompletableFuture<Map<String, Object>> serverMetrics() {
+		debugTrace(">> java/serverMetrics");
+		return CompletableFuture.completedFuture(ServerMetrics.snapshot());
+	}
+
 	/* (non-Javadoc)
 	 * @see org.eclipse.lsp4j.services.TextDocumentService#willSaveWaitUntil(org.eclipse.lsp4j.WillSaveTextDocumentParams)
 	 */
@@ -938,7 +982,7 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	@Override
 	public CompletableFuture<WorkspaceEdit> willRenameFiles(RenameFilesParams params) {
 		debugTrace(">> workspace/willRenameFiles");
-		return computeAsyncWithClientProgress((monitor) -> {
+		return computeAsyncWithClientProgress(RequestPriority.BULK, (monitor) -> {
 			waitForLifecycleJobs(monitor);
 			return FileEventHandler.handleWillRenameFiles(params, monitor);
 		});
@@ -985,14 +1029,14 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 		boolean rebuild = forceRebuild.isLeft() ? forceRebuild.getLeft() : forceRebuild.getRight()[0];
 		debugTrace(">> java/buildWorkspace (" + (rebuild ? "full)" : "incremental)"));
 		BuildWorkspaceHandler handler = new BuildWorkspaceHandler(pm);
-		return computeAsyncWithClientProgress((monitor) -> handler.buildWorkspace(rebuild, monitor));
+		return computeAsyncWithClientProgress(RequestPriority.BULK, (monitor) -> handler.buildWorkspace(rebuild, monitor));
 	}
 
 	@Override
 	public CompletableFuture<BuildWorkspaceStatus> buildProjects(ProjectBuildParams params) {
 		debugTrace(">> java/buildProjects");
 		BuildWorkspaceHandler handler = new BuildWorkspaceHandler(pm);
-		return computeAsyncWithClientProgress((monitor) -> handler.buildProjects(params, monitor));
+		return computeAsyncWithClientProgress(RequestPriority.BULK, (monitor) -> handler.buildProjects(params, monitor));
 	}
 
 	/* (non-Javadoc)
@@ -1010,7 +1054,7 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	@Override
 	public CompletableFuture<Either<List<? extends Location>, List<? extends LocationLink>>> implementation(ImplementationParams position) {
 		debugTrace(">> document/implementation");
-		return computeAsyncWithClientProgress((monitor) -> {
+		return computeAsyncWithClientProgress(RequestPriority.BULK, (monitor) -> {
 			ImplementationsHandler handler = new ImplementationsHandler(preferenceManager);
 			return Either.forLeft(handler.findImplementations(position, monitor));
 		});
@@ -1022,16 +1066,20 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	@Override
 	public CompletableFuture<List<FoldingRange>> foldingRange(FoldingRangeRequestParams params) {
 		debugTrace(">> document/foldingRange");
-		return computeAsyncWithClientProgress((monitor) -> {
+		String uri = params.getTextDocument().getUri();
+		DocumentMonitor documentMonitor = documentLifeCycleHandler.new DocumentMonitor(uri);
+		return supersedableRequests.track("textDocument/foldingRange", uri, computeAsyncWithClientProgress((monitor) -> {
+			documentMonitor.checkChanged();
 			waitForLifecycleJobs(monitor);
+			documentMonitor.checkChanged();
 			return new FoldingRangeHandler().foldingRange(params, monitor);
-		});
+		}));
 	}
 
 	@Override
 	public CompletableFuture<List<SelectionRange>> selectionRange(SelectionRangeParams params) {
 		debugTrace(">> document/selectionRange");
-		return computeAsyncWithClientProgress((monitor) -> {
+		return computeAsyncWithClientProgress(RequestPriority.INTERACTIVE, (monitor) -> {
 			waitForLifecycleJobs(monitor);
 			return new SelectionRangeHandler().selectionRange(params, monitor);
 		});
@@ -1143,44 +1191,66 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	@Override
 	public CompletableFuture<RefactorWorkspaceEdit> move(MoveParams params) {
 		debugTrace(">> java/move");
-		return computeAsyncWithClientProgress((monitor) -> MoveHandler.move(params, monitor));
+		return computeAsyncWithClientProgress(RequestPriority.BULK, (monitor) -> MoveHandler.move(params, monitor));
 	}
 
 	@Override
 	public CompletableFuture<List<SymbolInformation>> searchSymbols(SearchSymbolParams params) {
 		debugTrace(">> java/searchSymbols");
-		return computeAsyncWithClientProgress((monitor) -> WorkspaceSymbolHandler.search(params.getQuery(), params.maxResults, params.projectName, params.sourceOnly, monitor));
+		return computeAsyncWithClientProgress(RequestPriority.BULK, (monitor) -> WorkspaceSymbolHandler.search(params.getQuery(), params.maxResults, params.projectName, params.sourceOnly, monitor));
 	}
 
 	@Override
 	public CompletableFuture<List<CallHierarchyItem>> prepareCallHierarchy(CallHierarchyPrepareParams params) {
 		debugTrace(">> textDocument/prepareCallHierarchy");
-		return computeAsyncWithClientProgress((monitor) -> new CallHierarchyHandler().prepareCallHierarchy(params, monitor));
+		return computeAsyncWithClientProgress(RequestPriority.BULK, (monitor) -> new CallHierarchyHandler().prepareCallHierarchy(params, monitor));
 	}
 
 	@Override
 	public CompletableFuture<List<CallHierarchyIncomingCall>> callHierarchyIncomingCalls(CallHierarchyIncomingCallsParams params) {
 		debugTrace(">> callHierarchy/incomingCalls");
-		return computeAsyncWithClientProgress((monitor) -> new CallHierarchyHandler().callHierarchyIncomingCalls(params, monitor));
+		return computeAsyncWithClientProgress(RequestPriority.BULK, (monitor) -> new CallHierarchyHandler().callHierarchyIncomingCalls(params, monitor));
 	}
 
 	@Override
 	public CompletableFuture<List<CallHierarchyOutgoingCall>> callHierarchyOutgoingCalls(CallHierarchyOutgoingCallsParams params) {
 		debugTrace(">> callHierarchy/outgoingCalls");
-		return computeAsyncWithClientProgress((monitor) -> new CallHierarchyHandler().callHierarchyOutgoingCalls(params, monitor));
+		return computeAsyncWithClientProgress(RequestPriority.BULK, (monitor) -> new CallHierarchyHandler().callHierarchyOutgoingCalls(params, monitor));
 	}
 
 	@Override
 	public CompletableFuture<SemanticTokens> semanticTokensFull(SemanticTokensParams params) {
 		debugTrace(">> textDocument/semanticTokens/full");
-		return computeAsync(monitor -> SemanticTokensHandler.full(monitor, params,
-			documentLifeCycleHandler.new DocumentMonitor(params.getTextDocument().getUri())));
+		String uri = params.getTextDocument().getUri();
+		DocumentMonitor documentMonitor = documentLifeCycleHandler.new DocumentMonitor(uri);
+		return supersedableRequests.track("textDocument/semanticTokens", uri, computeAsync(monitor -> SemanticTokensHandler.full(monitor, params, documentMonitor)));
+	}
+
+	@Override
+	public CompletableFuture<Either<SemanticTokens, SemanticTokensDelta>> semanticTokensFullDelta(SemanticTokensDeltaParams params) {
+		debugTrace(">> textDocument/semanticTokens/full/delta");
+		String uri = params.getTextDocument().getUri();
+		DocumentMonitor documentMonitor = documentLifeCycleHandler.new DocumentMonitor(uri);
+		return supersedableRequests.track("textDocument/semanticTokens", uri, computeAsync(monitor -> SemanticTokensHandler.fullDelta(monitor, params, documentMonitor)));
+	}
+
+	@Override
+	public CompletableFuture<SemanticTokens> semanticTokensRange(SemanticTokensRangeParams params) {
+		debugTrace(">> textDocument/semanticTokens/range");
+		String uri = params.getTextDocument().getUri();
+		DocumentMonitor documentMonitor = documentLifeCycleHandler.new DocumentMonitor(uri);
+		return supersedableRequests.track("textDocument/semanticTokens/range", uri, params.getRange(), computeAsync(RequestPriority.INTERACTIVE, monitor -> SemanticTokensHandler.range(monitor, params, documentMonitor)));
 	}
 
 	@Override
 	public CompletableFuture<List<InlayHint>> inlayHint(InlayHintParams params) {
 		debugTrace(">> textDocument/inlayHint");
-		return computeAsync(monitor -> new InlayHintsHandler(preferenceManager).inlayHint(params, monitor));
+		String uri = params.getTextDocument().getUri();
+		DocumentMonitor documentMonitor = documentLifeCycleHandler.new DocumentMonitor(uri);
+		return supersedableRequests.track("textDocument/inlayHint", uri, params.getRange(), computeAsync(monitor -> {
+			documentMonitor.checkChanged();
+			return new InlayHintsHandler(preferenceManager).inlayHint(params, monitor);
+		}));
 	}
 
 	@Override
@@ -1192,19 +1262,19 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 	@Override
 	public CompletableFuture<List<TypeHierarchyItem>> prepareTypeHierarchy(TypeHierarchyPrepareParams params) {
 		logInfo(">> textDocument/prepareTypeHierarchy");
-		return computeAsync(monitor -> typeHierarchyHandler.prepareTypeHierarchy(params, monitor));
+		return computeAsync(RequestPriority.BULK, monitor -> typeHierarchyHandler.prepareTypeHierarchy(params, monitor));
 	}
 
 	@Override
 	public CompletableFuture<List<TypeHierarchyItem>> typeHierarchySupertypes(TypeHierarchySupertypesParams params) {
 		logInfo(">> typeHierarchy/supertypes");
-		return computeAsync(monitor -> typeHierarchyHandler.getSupertypeItems(params, monitor));
+		return computeAsync(RequestPriority.BULK, monitor -> typeHierarchyHandler.getSupertypeItems(params, monitor));
 	}
 
 	@Override
 	public CompletableFuture<List<TypeHierarchyItem>> typeHierarchySubtypes(TypeHierarchySubtypesParams params) {
 		logInfo(">> typeHierarchy/subtypes");
-		return computeAsync(monitor -> typeHierarchyHandler.getSubtypeItems(params, monitor));
+		return computeAsync(RequestPriority.BULK, monitor -> typeHierarchyHandler.getSubtypeItems(params, monitor));
 	}
 
 	@Override
@@ -1218,14 +1288,19 @@ public class JDTLanguageServer extends BaseJDTLanguageServer implements Language
 		// FIXME: implement the behavior of this method.
 	}
 	private <R> CompletableFuture<R> computeAsyncWithClientProgress(Function<IProgressMonitor, R> code) {
-		return CompletableFutures.computeAsync((cc) -> {
+		return computeAsyncWithClientProgress(RequestPriority.BACKGROUND, code);
+	}
+
+	private <R> CompletableFuture<R> computeAsyncWithClientProgress(RequestPriority priority, Function<IProgressMonitor, R> code) {
+		return JavaLanguageServerPlugin.getRequestScheduler().computeAsync(priority, (cc) -> {
 			IProgressMonitor monitor = progressReporterManager.getProgressReporter(cc);
 			return code.apply(monitor);
 		});
 	}
 
 	private void waitForLifecycleJobs(IProgressMonitor monitor) {
-		JobHelpers.waitForJobs(DocumentLifeCycleHandler.DOCUMENT_LIFE_CYCLE_JOBS, monitor);
+		// don't hold the slot of the request in its pool while waiting
+		RequestScheduler.managedBlock(() -> JobHelpers.waitForJobs(DocumentLifeCycleHandler.DOCUMENT_LIFE_CYCLE_JOBS, monitor));
 	}
 
 }
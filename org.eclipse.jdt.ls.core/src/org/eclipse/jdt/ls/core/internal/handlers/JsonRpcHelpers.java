@@ -47,7 +47,7 @@ final public class JsonRpcHelpers {
 	public static int toOffset(IOpenable openable, int line, int column) {
 		if (openable != null) {
 			try {
-				return convert(openable, (IDocument document) -> toOffset(document, line, column));
+				return convert(openable, (IBuffer buffer) -> toOffset(buffer, line, column));
 			} catch (JavaModelException e) {
 				JavaLanguageServerPlugin.log(e);
 			}
@@ -66,7 +66,18 @@ final public class JsonRpcHelpers {
 	 */
 	public static int toOffset(IBuffer buffer, int line, int column){
 		if (buffer != null) {
-			return toOffset(toDocument(buffer), line, column);
+			IDocument document = getTrackedDocument(buffer);
+			if (document != null) {
+				return toOffset(document, line, column);
+			}
+			LineIndex lineIndex = LineIndex.of(buffer);
+			if (lineIndex != null) {
+				try {
+					return lineIndex.getLineOffset(line) + column;
+				} catch (BadLocationException e) {
+					JavaLanguageServerPlugin.debugTrace("toOffset: " + e.getMessage());
+				}
+			}
 		}
 		return -1;
 	}
@@ -98,7 +109,22 @@ final public class JsonRpcHelpers {
 	 * @return
 	 */
 	public static int[] toLine(IBuffer buffer, int offset){
-		return toLine(toDocument(buffer), offset);
+		if (buffer == null) {
+			return null;
+		}
+		IDocument document = getTrackedDocument(buffer);
+		if (document != null) {
+			return toLine(document, offset);
+		}
+		LineIndex lineIndex = LineIndex.of(buffer);
+		if (lineIndex != null) {
+			int[] line = lineIndex.toLine(offset);
+			if (line == null) {
+				JavaLanguageServerPlugin.debugTrace("toLine: Offset " + offset + " out of 0.." + lineIndex.getLength());
+			}
+			return line;
+		}
+		return null;
 	}
 
 	/**
@@ -114,7 +140,7 @@ final public class JsonRpcHelpers {
 	 */
 	public static int[] toLine(IOpenable openable, int offset) {
 		try {
-			return convert(openable, (IDocument document) -> toLine(document, offset));
+			return convert(openable, (IBuffer buffer) -> toLine(buffer, offset));
 		} catch (JavaModelException e) {
 			JavaLanguageServerPlugin.log(e);
 		}
@@ -122,7 +148,7 @@ final public class JsonRpcHelpers {
 		return null;
 	}
 
-	private static <T> T convert(IOpenable openable, Function<IDocument, T> consumer) throws JavaModelException {
+	private static <T> T convert(IOpenable openable, Function<IBuffer, T> consumer) throws JavaModelException {
 		Assert.isNotNull(openable, "openable");
 		boolean mustClose = false;
 		try {
@@ -131,7 +157,7 @@ final public class JsonRpcHelpers {
 				mustClose = openable.isOpen();
 			}
 			IBuffer buffer = openable.getBuffer();
-			return consumer.apply(toDocument(buffer));
+			return consumer.apply(buffer);
 		} finally {
 			if (mustClose) {
 				try {
@@ -175,15 +201,29 @@ final public class JsonRpcHelpers {
 		if (buffer == null) {
 			return null;
 		}
+		IDocument document = getTrackedDocument(buffer);
+		if (document != null) {
+			return document;
+		}
+		return new org.eclipse.jdt.internal.core.DocumentAdapter(buffer);
+	}
+
+	/**
+	 * Returns the document backing a buffer, whose lines are tracked as it
+	 * changes. The lines of the other buffers are converted with their
+	 * {@link LineIndex} rather than with a copy of their contents in a new
+	 * document.
+	 *
+	 * @return the document, or <code>null</code> if the buffer isn't backed by
+	 *         a document
+	 */
+	private static IDocument getTrackedDocument(IBuffer buffer) {
 		if (buffer instanceof IDocument doc) {
 			return doc;
 		} else if (buffer instanceof org.eclipse.jdt.ls.core.internal.DocumentAdapter adapter) {
-			IDocument document = adapter.getDocument();
-			if (document != null) {
-				return document;
-			}
+			return adapter.getDocument();
 		}
-		return new org.eclipse.jdt.internal.core.DocumentAdapter(buffer);
+		return null;
 	}
 
 
@@ -0,0 +1,358 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.core.IBuffer;
+import org.eclipse.jdt.core.IBufferChangedListener;
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+
+/**
+ * Line start offsets of a file, computed by a single scan of its contents, so
+ * that offsets can be converted to positions without loading the file in a
+ * buffer or a document.
+ * <p>
+ * Lines are delimited by <code>\n</code>, <code>\r</code> or
+ * <code>\r\n</code>, like in an {@link org.eclipse.jface.text.IDocument}. The
+ * index also records the <code>@</code> characters which are followed by a
+ * name, to locate the annotations of the unresolved type markers.
+ * <p>
+ * The indexes of files are cached as long as their modification stamp doesn't
+ * change, and the indexes of buffers until they change.
+ */
+public final class LineIndex {
+
+	/**
+	 * The maximum number of cached indexes, overridden by the
+	 * <code>jdt.ls.diagnostics.lineIndexCacheSize</code> system property.
+	 */
+	private static final int MAX_CACHED_INDEXES = Integer.getInteger("jdt.ls.diagnostics.lineIndexCacheSize", 2000);
+
+	private static final Map<IPath, LineIndex> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<IPath, LineIndex> eldest) {
+			return size() > MAX_CACHED_INDEXES;
+		}
+	};
+
+	private static final Map<IBuffer, LineIndex> BUFFER_CACHE = new WeakHashMap<>();
+
+	/**
+	 * Counts the changes of the indexed buffers, an index computed while a
+	 * buffer changes isn't cached.
+	 */
+	private static long bufferChanges;
+
+	private static final IBufferChangedListener BUFFER_LISTENER = event -> {
+		synchronized (BUFFER_CACHE) {
+			bufferChanges++;
+			BUFFER_CACHE.remove(event.getBuffer());
+		}
+	};
+
+	private final int[] lineStarts;
+	private final int length;
+	/**
+	 * Pairs of the offset of a <code>@</code>, and of the first non whitespace
+	 * character following it.
+	 */
+	private final int[] annotations;
+	private final long modificationStamp;
+	private final String charset;
+
+	private LineIndex(int[] lineStarts, int length, int[] annotations, long modificationStamp, String charset) {
+		this.lineStarts = lineStarts;
+		this.length = length;
+		this.annotations = annotations;
+		this.modificationStamp = modificationStamp;
+		this.charset = charset;
+	}
+
+	/**
+	 * Returns the index of the current contents of a file.
+	 *
+	 * @param file
+	 *            the file
+	 * @return the line index, or <code>null</code> if the file can't be read
+	 */
+	public static LineIndex of(IFile file) {
+		if (file == null || !file.isAccessible()) {
+			return null;
+		}
+		try {
+			long stamp = file.getModificationStamp();
+			String charset = file.getCharset();
+			IPath path = file.getFullPath();
+			LineIndex index;
+			synchronized (CACHE) {
+				index = CACHE.get(path);
+			}
+			if (index != null && index.modificationStamp == stamp && index.charset.equals(charset)) {
+				return index;
+			}
+			try (InputStream input = file.getContents(true)) {
+				index = scan(new InputStreamReader(input, charset), true, stamp, charset);
+			}
+			synchronized (CACHE) {
+				CACHE.put(path, index);
+			}
+			return index;
+		} catch (CoreException | IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Indexes the given contents.
+	 */
+	public static LineIndex of(CharSequence contents) {
+		try {
+			return scan(new StringReader(contents.toString()), true, 0, "");
+		} catch (IOException e) {
+			// can't happen with a string
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Returns the index of the current contents of a buffer, which, unlike the
+	 * index of a file, includes a leading byte order mark like an
+	 * {@link org.eclipse.jface.text.IDocument} of the buffer would.
+	 *
+	 * @param buffer
+	 *            the buffer
+	 * @return the line index, or <code>null</code> if the buffer has no
+	 *         contents
+	 */
+	public static LineIndex of(IBuffer buffer) {
+		if (buffer == null) {
+			return null;
+		}
+		long changes;
+		synchronized (BUFFER_CACHE) {
+			LineIndex index = BUFFER_CACHE.get(buffer);
+			if (index != null) {
+				return index;
+			}
+			changes = bufferChanges;
+		}
+		// listen before reading the contents, to discard an index of changing contents
+		buffer.addBufferChangedListener(BUFFER_LISTENER);
+		char[] contents = buffer.getCharacters();
+		if (contents == null) {
+			return null;
+		}
+		LineIndex index;
+		try {
+			index = scan(new CharArrayReader(contents), false, 0, "");
+		} catch (IOException e) {
+			// can't happen with an array
+			throw new IllegalStateException(e);
+		}
+		synchronized (BUFFER_CACHE) {
+			if (changes == bufferChanges && !buffer.isClosed()) {
+				BUFFER_CACHE.put(buffer, index);
+			}
+		}
+		return index;
+	}
+
+	private static LineIndex scan(Reader reader, boolean skipByteOrderMark, long stamp, String charset) throws IOException {
+		int[] lineStarts = new int[64];
+		int lines = 1;
+		int[] annotations = new int[8];
+		int annotationsLength = 0;
+		int offset = 0;
+		int at = -1;
+		boolean cr = false;
+		boolean first = true;
+		char[] chunk = new char[8192];
+		int read;
+		while ((read = reader.read(chunk)) > 0) {
+			int i = 0;
+			if (first) {
+				first = false;
+				// a byte order mark isn't part of the text
+				if (skipByteOrderMark && chunk[0] == '\uFEFF') {
+					i = 1;
+				}
+			}
+			for (; i < read; i++, offset++) {
+				char c = chunk[i];
+				if (cr) {
+					cr = false;
+					if (lines == lineStarts.length) {
+						lineStarts = Arrays.copyOf(lineStarts, lines * 2);
+					}
+					if (c == '\n') {
+						lineStarts[lines++] = offset + 1;
+						continue;
+					}
+					lineStarts[lines++] = offset;
+				}
+				if (c == '\r') {
+					cr = true;
+				} else if (c == '\n') {
+					if (lines == lineStarts.length) {
+						lineStarts = Arrays.copyOf(lineStarts, lines * 2);
+					}
+					lineStarts[lines++] = offset + 1;
+				}
+				if (at >= 0 && !Character.isWhitespace(c)) {
+					if (annotationsLength == annotations.length) {
+						annotations = Arrays.copyOf(annotations, annotationsLength * 2);
+					}
+					annotations[annotationsLength++] = at;
+					annotations[annotationsLength++] = offset;
+					at = -1;
+				}
+				if (c == '@') {
+					at = offset;
+				}
+			}
+		}
+		if (cr) {
+			if (lines == lineStarts.length) {
+				lineStarts = Arrays.copyOf(lineStarts, lines + 1);
+			}
+			lineStarts[lines++] = offset;
+		}
+		return new LineIndex(Arrays.copyOf(lineStarts, lines), offset, Arrays.copyOf(annotations, annotationsLength), stamp, charset);
+	}
+
+	/**
+	 * @return the number of characters
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	public int getNumberOfLines() {
+		return lineStarts.length;
+	}
+
+	/**
+	 * @return the offset of the first character of the line
+	 */
+	public int getLineOffset(int line) throws BadLocationException {
+		if (line < 0 || line >= lineStarts.length) {
+			throw new BadLocationException("Line " + line + " out of 0.." + (lineStarts.length - 1));
+		}
+		return lineStarts[line];
+	}
+
+	/**
+	 * @return the line of the offset
+	 */
+	public int getLineOfOffset(int offset) throws BadLocationException {
+		if (offset < 0 || offset > length) {
+			throw new BadLocationException("Offset " + offset + " out of 0.." + length);
+		}
+		int line = Arrays.binarySearch(lineStarts, offset);
+		return line >= 0 ? line : -line - 2;
+	}
+
+	/**
+	 * Converts an offset to a line number and column, like
+	 * {@link JsonRpcHelpers#toLine(org.eclipse.jface.text.IDocument, int)}.
+	 *
+	 * @return the line and the column, or <code>null</code> if the offset is
+	 *         out of the text
+	 */
+	public int[] toLine(int offset) {
+		try {
+			int line = getLineOfOffset(offset);
+			return new int[] { line, offset - lineStarts[line] };
+		} catch (BadLocationException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Converts an offset and a length to a range, like
+	 * {@link org.eclipse.jdt.ls.core.internal.JDTUtils#toRange(org.eclipse.jface.text.IDocument, int, int)}.
+	 */
+	public Range toRange(int offset, int length) {
+		Position start = new Position();
+		Position end = new Position();
+		if (offset > 0 || length > 0) {
+			int[] startLine = toLine(offset);
+			int[] endLine = toLine(offset + length);
+			if (startLine != null) {
+				start.setLine(startLine[0]);
+				start.setCharacter(startLine[1]);
+			}
+			if (endLine != null) {
+				end.setLine(endLine[0]);
+				end.setCharacter(endLine[1]);
+			}
+		}
+		return new Range(start, end);
+	}
+
+	/**
+	 * Finds the <code>@</code> preceding a name, ignoring whitespaces.
+	 *
+	 * @param offset
+	 *            the offset of the name
+	 * @return the offset of the <code>@</code>, or -1 if the name isn't
+	 *         preceded by a <code>@</code>
+	 */
+	public int findAnnotation(int offset) {
+		int low = 0;
+		int high = annotations.length / 2 - 1;
+		int found = -1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			if (annotations[middle * 2] < offset) {
+				found = middle;
+				low = middle + 1;
+			} else {
+				high = middle - 1;
+			}
+		}
+		if (found >= 0 && offset <= annotations[found * 2 + 1]) {
+			return annotations[found * 2];
+		}
+		return -1;
+	}
+
+	/**
+	 * Discards the cached indexes.
+	 */
+	public static void clearCache() {
+		synchronized (CACHE) {
+			CACHE.clear();
+		}
+		synchronized (BUFFER_CACHE) {
+			BUFFER_CACHE.clear();
+		}
+	}
+}
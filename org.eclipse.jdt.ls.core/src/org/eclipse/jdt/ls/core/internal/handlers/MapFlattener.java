@@ -39,6 +39,10 @@ import com.google.gson.reflect.TypeToken;
 @SuppressWarnings("unchecked")
 public final class MapFlattener {
 
+	private static final Gson GSON = new Gson();
+	private static final Type STRING_LIST = new TypeToken<List<String>>() {
+	}.getType();
+
 	private MapFlattener() {
 		//No need for public instanciation
 	}
@@ -67,10 +71,7 @@ public final class MapFlattener {
 				}
 			}
 			try {
-				Gson gson = new Gson();
-				Type type = new TypeToken<List<String>>() {
-				}.getType();
-				List<String> list = gson.fromJson(str, type);
+				List<String> list = GSON.fromJson(str, STRING_LIST);
 				return list;
 			} catch (JsonSyntaxException e) {
 				JavaLanguageServerPlugin.logException(e.getMessage(), e);
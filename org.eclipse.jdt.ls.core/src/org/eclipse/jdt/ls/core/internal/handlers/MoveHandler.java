@@ -93,7 +93,6 @@ import org.eclipse.ltk.core.refactoring.Refactoring;
 import org.eclipse.ltk.core.refactoring.RefactoringStatus;
 import org.eclipse.ltk.core.refactoring.participants.MoveRefactoring;
 
-import com.google.gson.Gson;
 
 public class MoveHandler {
 	public static final String DEFAULT_PACKAGE_DISPLAYNAME = "(default package)";
@@ -274,8 +273,7 @@ public class MoveHandler {
 				if (moveParams.destination instanceof String dest) {
 					targetUri = dest;
 				} else {
-					String json = (moveParams.destination == null ? null : new Gson().toJson(moveParams.destination));
-					PackageNode packageNode = JSONUtility.toLsp4jModel(json, PackageNode.class);
+					PackageNode packageNode = JSONUtility.toLsp4jModel(moveParams.destination, PackageNode.class);
 					if (packageNode == null) {
 						return new RefactorWorkspaceEdit("Invalid destination object: " + moveParams.destination);
 					}
@@ -285,8 +283,7 @@ public class MoveHandler {
 
 				return moveCU(moveParams.sourceUris, targetUri, moveParams.updateReferences, monitor);
 			} else if ("moveInstanceMethod".equalsIgnoreCase(moveParams.moveKind)) {
-				String json = (moveParams.destination == null ? null : new Gson().toJson(moveParams.destination));
-				LspVariableBinding variableBinding = JSONUtility.toLsp4jModel(json, LspVariableBinding.class);
+				LspVariableBinding variableBinding = JSONUtility.toLsp4jModel(moveParams.destination, LspVariableBinding.class);
 				if (variableBinding == null) {
 					return new RefactorWorkspaceEdit("Invalid destination object: " + moveParams.destination);
 				}
@@ -313,8 +310,7 @@ public class MoveHandler {
 			return dest;
 		}
 
-		String json = (destinationObj== null ? null : new Gson().toJson(destinationObj));
-		SymbolInformation destination = JSONUtility.toLsp4jModel(json, SymbolInformation.class);
+		SymbolInformation destination = JSONUtility.toLsp4jModel(destinationObj, SymbolInformation.class);
 		if (destination == null) {
 			throw new IllegalArgumentException("Invalid destination object: " + destinationObj);
 		}
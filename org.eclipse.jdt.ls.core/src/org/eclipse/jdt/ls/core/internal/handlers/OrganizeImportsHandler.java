@@ -48,7 +48,6 @@ import org.eclipse.lsp4j.WorkspaceEdit;
 import org.eclipse.text.edits.MultiTextEdit;
 import org.eclipse.text.edits.TextEdit;
 
-import com.google.gson.Gson;
 
 public final class OrganizeImportsHandler {
 	public static final String CLIENT_COMMAND_ID_CHOOSEIMPORTS = "java.action.organizeImports.chooseImports";
@@ -122,8 +121,7 @@ public final class OrganizeImportsHandler {
 			Object commandResult = JavaLanguageServerPlugin.getPreferencesManager().getClientPreferences().isExecuteClientCommandSupport()
 					? JavaLanguageServerPlugin.getInstance().getClientConnection().executeClientCommand(CLIENT_COMMAND_ID_CHOOSEIMPORTS, documentUri, selections, restoreExistingImports)
 					: null;
-			String json = commandResult == null ? null : new Gson().toJson(commandResult);
-			return JSONUtility.toModel(json, ImportCandidate[].class);
+			return JSONUtility.toModel(commandResult, ImportCandidate[].class);
 		};
 	}
 
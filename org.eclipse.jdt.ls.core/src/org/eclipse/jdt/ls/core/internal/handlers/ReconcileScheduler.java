@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.JavaModelException;
+
+/**
+ * Schedules reconcile operations per compilation unit.
+ * <p>
+ * Operations on the same compilation unit are executed one at a time, in
+ * the order they acquired the unit, while operations on different units may
+ * run in parallel on a bounded pool of worker threads.
+ */
+public class ReconcileScheduler {
+
+	/**
+	 * System property used to override the number of reconcile workers.
+	 */
+	public static final String PARALLELISM_PROPERTY = "jdt.ls.reconcileParallelism";
+
+	// the locks of the units with pending operations, counted and removed within the compute functions of the map
+	private final Map<ICompilationUnit, UnitLock> locks = new ConcurrentHashMap<>();
+	private final int parallelism;
+	private ExecutorService executor;
+
+	public ReconcileScheduler() {
+		this(Integer.getInteger(PARALLELISM_PROPERTY, getDefaultParallelism()));
+	}
+
+	public ReconcileScheduler(int parallelism) {
+		this.parallelism = Math.max(1, parallelism);
+	}
+
+	private static int getDefaultParallelism() {
+		return Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Runs the operation on the given unit, waiting for any other operation on
+	 * the same unit to complete first.
+	 *
+	 * @param unit
+	 *            the compilation unit
+	 * @param operation
+	 *            the operation to run
+	 * @param monitor
+	 *            the progress monitor
+	 * @throws JavaModelException
+	 */
+	public void run(ICompilationUnit unit, UnitOperation operation, IProgressMonitor monitor) throws JavaModelException {
+		UnitLock lock = locks.compute(unit, (k, current) -> {
+			UnitLock acquired = current == null ? new UnitLock() : current;
+			acquired.users++;
+			return acquired;
+		});
+		try {
+			lock.lock();
+			try {
+				operation.run(unit, monitor);
+			} finally {
+				lock.unlock();
+			}
+		} finally {
+			locks.compute(unit, (k, current) -> --current.users == 0 ? null : current);
+		}
+	}
+
+	/**
+	 * Runs the operation on all the given units and waits for completion.
+	 * Independent units are processed in parallel, and each unit is processed
+	 * under its own lock, see {@link #run(ICompilationUnit, UnitOperation, IProgressMonitor)}.
+	 *
+	 * @param units
+	 *            the compilation units, processed in iteration order
+	 * @param operation
+	 *            the operation to run for each unit
+	 * @param monitor
+	 *            the progress monitor, only used for cancellation
+	 * @return <code>false</code> if the monitor was cancelled before all the
+	 *         units were processed, <code>true</code> otherwise
+	 * @throws JavaModelException
+	 *             the first exception thrown by the operation
+	 */
+	public boolean runAll(Collection<ICompilationUnit> units, UnitOperation operation, IProgressMonitor monitor) throws JavaModelException {
+		if (units.isEmpty()) {
+			return true;
+		}
+		if (parallelism == 1 || units.size() == 1) {
+			for (ICompilationUnit unit : units) {
+				if (monitor.isCanceled()) {
+					return false;
+				}
+				run(unit, operation, monitor);
+			}
+			return true;
+		}
+		IProgressMonitor workerMonitor = new NullProgressMonitor() {
+			@Override
+			public boolean isCanceled() {
+				return super.isCanceled() || monitor.isCanceled();
+			}
+		};
+		List<Future<?>> futures = new ArrayList<>(units.size());
+		ExecutorService pool = getExecutor();
+		for (ICompilationUnit unit : units) {
+			futures.add(pool.submit(() -> {
+				if (!workerMonitor.isCanceled()) {
+					run(unit, operation, workerMonitor);
+				}
+				return null;
+			}));
+		}
+		JavaModelException error = null;
+		for (Future<?> future : futures) {
+			try {
+				future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				workerMonitor.setCanceled(true);
+				break;
+			} catch (CancellationException e) {
+				// ignore
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof OperationCanceledException) {
+					workerMonitor.setCanceled(true);
+				} else if (error == null) {
+					if (cause instanceof JavaModelException javaModelException) {
+						error = javaModelException;
+					} else if (cause instanceof RuntimeException runtimeException) {
+						throw runtimeException;
+					} else {
+						throw new IllegalStateException(cause);
+					}
+				}
+			}
+		}
+		if (error != null) {
+			throw error;
+		}
+		return !workerMonitor.isCanceled();
+	}
+
+	public synchronized void shutdown() {
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
+	private synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(parallelism, parallelism, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new ReconcileThreadFactory());
+			pool.allowCoreThreadTimeOut(true);
+			executor = pool;
+		}
+		return executor;
+	}
+
+	/**
+	 * A fair lock, with the number of operations running or waiting on the
+	 * unit, only updated within the compute functions of {@link #locks}.
+	 */
+	private static final class UnitLock extends ReentrantLock {
+		private static final long serialVersionUID = 1L;
+
+		private int users;
+
+		UnitLock() {
+			super(true);
+		}
+	}
+
+	/**
+	 * An operation performed on a single compilation unit.
+	 */
+	@FunctionalInterface
+	public interface UnitOperation {
+		void run(ICompilationUnit unit, IProgressMonitor monitor) throws JavaModelException;
+	}
+
+	private static final class ReconcileThreadFactory implements ThreadFactory {
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "Reconcile Worker-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
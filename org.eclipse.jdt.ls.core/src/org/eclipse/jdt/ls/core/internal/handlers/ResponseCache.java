@@ -0,0 +1,230 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded cache of the responses kept for the resolve requests, keyed by
+ * response id.
+ * <p>
+ * The cache is bounded by the total estimated weight of its values, and the
+ * values not accessed for longer than the time-to-live expire. It is split in
+ * stripes, each one an access ordered map guarded by its own lock, so that
+ * concurrent requests don't contend on a single lock. The ids being
+ * sequential, the responses are spread evenly across the stripes and each
+ * stripe evicts its least recently used responses first.
+ *
+ * @param <V>
+ *            the type of the cached responses
+ */
+public class ResponseCache<V> {
+
+	/**
+	 * The default time-to-live of the responses, in milliseconds, configured
+	 * in seconds by the <code>jdt.ls.responseCache.ttl</code> system property.
+	 */
+	public static final long DEFAULT_TTL = TimeUnit.SECONDS.toMillis(Integer.getInteger("jdt.ls.responseCache.ttl", 300));
+
+	private static final int MAX_STRIPES = 16;
+
+	private final Stripe<V>[] stripes;
+	private final long maxWeight;
+	private final long ttlNanos;
+	private final ToLongFunction<V> weigher;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder expirations = new LongAdder();
+
+	/**
+	 * @param maxWeight
+	 *            the maximum total weight of the cached responses
+	 * @param ttl
+	 *            the time, in milliseconds, a response is kept after its last
+	 *            access; <code>0</code> to keep the responses until they are
+	 *            evicted
+	 * @param weigher
+	 *            estimates the weight of a response, typically its retained
+	 *            size in bytes
+	 */
+	@SuppressWarnings("unchecked")
+	public ResponseCache(long maxWeight, long ttl, ToLongFunction<V> weigher) {
+		this.maxWeight = maxWeight;
+		this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttl);
+		this.weigher = weigher;
+		int count = (int) Math.min(MAX_STRIPES, Long.highestOneBit(Math.max(1, maxWeight)));
+		this.stripes = new Stripe[count];
+		for (int i = 0; i < count; i++) {
+			stripes[i] = new Stripe<>(maxWeight / count);
+		}
+	}
+
+	/**
+	 * @return the response, or <code>null</code> if it isn't cached or has
+	 *         expired
+	 */
+	public V get(long id) {
+		Stripe<V> stripe = stripeFor(id);
+		long now = System.nanoTime();
+		synchronized (stripe) {
+			Node<V> node = stripe.nodes.get(id);
+			if (node != null && isExpired(node, now)) {
+				stripe.remove(id);
+				expirations.increment();
+				node = null;
+			}
+			if (node == null) {
+				misses.increment();
+				return null;
+			}
+			node.accessed = now;
+			hits.increment();
+			return node.value;
+		}
+	}
+
+	/**
+	 * Caches a response, evicting the least recently used responses of its
+	 * stripe over the maximum weight. The latest response is always kept, even
+	 * if it is heavier than the stripe, so that it can be resolved.
+	 */
+	public void put(long id, V value) {
+		Stripe<V> stripe = stripeFor(id);
+		long now = System.nanoTime();
+		Node<V> node = new Node<>(value, Math.max(0, weigher.applyAsLong(value)), now);
+		synchronized (stripe) {
+			stripe.remove(id);
+			stripe.nodes.put(id, node);
+			stripe.weight += node.weight;
+			Iterator<Map.Entry<Long, Node<V>>> iterator = stripe.nodes.entrySet().iterator();
+			while (iterator.hasNext()) {
+				Map.Entry<Long, Node<V>> eldest = iterator.next();
+				if (eldest.getValue() == node) {
+					break;
+				}
+				if (isExpired(eldest.getValue(), now)) {
+					expirations.increment();
+				} else if (stripe.weight > stripe.maxWeight) {
+					evictions.increment();
+				} else {
+					break;
+				}
+				stripe.weight -= eldest.getValue().weight;
+				iterator.remove();
+			}
+		}
+	}
+
+	public void remove(long id) {
+		Stripe<V> stripe = stripeFor(id);
+		synchronized (stripe) {
+			stripe.remove(id);
+		}
+	}
+
+	public void clear() {
+		for (Stripe<V> stripe : stripes) {
+			synchronized (stripe) {
+				stripe.nodes.clear();
+				stripe.weight = 0;
+			}
+		}
+	}
+
+	/**
+	 * @return the number of cached responses, including the expired ones not
+	 *         evicted yet
+	 */
+	public int size() {
+		int size = 0;
+		for (Stripe<V> stripe : stripes) {
+			synchronized (stripe) {
+				size += stripe.nodes.size();
+			}
+		}
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * @return the total weight of the cached responses
+	 */
+	public long weight() {
+		long weight = 0;
+		for (Stripe<V> stripe : stripes) {
+			synchronized (stripe) {
+				weight += stripe.weight;
+			}
+		}
+		return weight;
+	}
+
+	public Map<String, Object> getMetrics() {
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		metrics.put("size", size());
+		metrics.put("weight", weight());
+		metrics.put("maxWeight", maxWeight);
+		metrics.put("hits", hits.sum());
+		metrics.put("misses", misses.sum());
+		metrics.put("evictions", evictions.sum());
+		metrics.put("expirations", expirations.sum());
+		return metrics;
+	}
+
+	private Stripe<V> stripeFor(long id) {
+		return stripes[(int) (id & (stripes.length - 1))];
+	}
+
+	private boolean isExpired(Node<V> node, long now) {
+		return ttlNanos > 0 && now - node.accessed > ttlNanos;
+	}
+
+	private static final class Stripe<V> {
+		private final LinkedHashMap<Long, Node<V>> nodes = new LinkedHashMap<>(16, .75F, true);
+		private final long maxWeight;
+		private long weight;
+
+		private Stripe(long maxWeight) {
+			this.maxWeight = maxWeight;
+		}
+
+		private void remove(long id) {
+			Node<V> node = nodes.remove(id);
+			if (node != null) {
+				weight -= node.weight;
+			}
+		}
+	}
+
+	private static final class Node<V> {
+		private final V value;
+		private final long weight;
+		private long accessed;
+
+		private Node(V value, long weight, long accessed) {
+			this.value = value;
+			this.weight = weight;
+			this.accessed = accessed;
+		}
+	}
+}
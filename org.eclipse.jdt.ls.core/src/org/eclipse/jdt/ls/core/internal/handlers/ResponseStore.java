@@ -13,34 +13,45 @@
 
 package org.eclipse.jdt.ls.core.internal.handlers;
 
-import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
 
 public class ResponseStore<T> {
 	private AtomicLong idSeed = new AtomicLong(0);
-	private Map<Long, ResponseItem<T>> responseCache;
+	private ResponseCache<ResponseItem<T>> responseCache;
 
 	/**
 	 * Unlimited cache.
 	 */
 	public ResponseStore() {
-		this.responseCache = new ConcurrentHashMap<>();
+		this.responseCache = new ResponseCache<>(Long.MAX_VALUE, 0, item -> 1);
 	}
 
 	/**
-	 * Deletes the eldest items if the size of the cache reaches the maximum.
+	 * Deletes the least recently used items if the size of the cache reaches
+	 * the maximum.
 	 */
 	public ResponseStore(int maxSize) {
-		this.responseCache = Collections.synchronizedMap(new LinkedHashMap<Long, ResponseItem<T>>() {
-			@Override
-			protected boolean removeEldestEntry(final Map.Entry eldest) {
-				return maxSize > 0 && size() > maxSize;
-			}
-		});
+		this.responseCache = new ResponseCache<>(maxSize > 0 ? maxSize : Long.MAX_VALUE, 0, item -> 1);
+	}
+
+	/**
+	 * Deletes the least recently used items if the total weight of the cache
+	 * reaches the maximum, and the items not accessed for longer than the
+	 * time-to-live.
+	 *
+	 * @param maxWeight
+	 *            the maximum total weight of the items
+	 * @param ttl
+	 *            the time-to-live of the items, in milliseconds, <code>0</code>
+	 *            for no expiry
+	 * @param weigher
+	 *            estimates the retained size of an item
+	 */
+	public ResponseStore(long maxWeight, long ttl, ToLongFunction<ResponseItem<T>> weigher) {
+		this.responseCache = new ResponseCache<>(maxWeight, ttl, weigher);
 	}
 
 	public ResponseItem<T> createResponse() {
@@ -71,9 +82,14 @@ public class ResponseStore<T> {
 		return responseCache.isEmpty();
 	}
 
+	public Map<String, Object> getMetrics() {
+		return responseCache.getMetrics();
+	}
+
 	public static class ResponseItem<T> {
 		private Long id;
 		private List<T> proposals;
+		private long retainedSize;
 
 		public ResponseItem(Long id) {
 			this.id = id;
@@ -99,5 +115,22 @@ public class ResponseStore<T> {
 		public void setProposals(List<T> proposals) {
 			this.proposals = proposals;
 		}
+
+		/**
+		 * @return the estimated size, in bytes, of the data retained by the
+		 *         proposals besides the proposals themselves, e.g. their AST
+		 */
+		public long getRetainedSize() {
+			return retainedSize;
+		}
+
+		/**
+		 * @param retainedSize
+		 *            the estimated size, in bytes, of the data retained by the
+		 *            proposals besides the proposals themselves
+		 */
+		public void setRetainedSize(long retainedSize) {
+			this.retainedSize = retainedSize;
+		}
 	}
 }
@@ -13,8 +13,14 @@
 
 package org.eclipse.jdt.ls.core.internal.handlers;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -31,17 +37,80 @@ import org.eclipse.jdt.ls.core.internal.handlers.BaseDocumentLifeCycleHandler.Do
 import org.eclipse.jdt.ls.core.internal.semantictokens.SemanticTokensVisitor;
 import org.eclipse.jdt.ls.core.internal.semantictokens.TokenModifier;
 import org.eclipse.jdt.ls.core.internal.semantictokens.TokenType;
+import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4j.SemanticTokens;
+import org.eclipse.lsp4j.SemanticTokensDelta;
+import org.eclipse.lsp4j.SemanticTokensDeltaParams;
+import org.eclipse.lsp4j.SemanticTokensEdit;
 import org.eclipse.lsp4j.SemanticTokensLegend;
 import org.eclipse.lsp4j.SemanticTokensParams;
+import org.eclipse.lsp4j.SemanticTokensRangeParams;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
 
 public class SemanticTokensHandler {
 
+	/**
+	 * The last tokens sent for each document, used to compute the deltas.
+	 */
+	private static final Map<String, CachedTokens> cache = new ConcurrentHashMap<>();
+	private static final AtomicLong resultIds = new AtomicLong();
+
+	private record CachedTokens(String resultId, int[] data) {
+	}
+
 	public static SemanticTokens full(IProgressMonitor monitor, SemanticTokensParams params, DocumentMonitor documentMonitor) {
-		ITypeRoot typeRoot = JDTUtils.resolveTypeRoot(params.getTextDocument().getUri());
+		String uri = params.getTextDocument().getUri();
+		int[] data = computeTokens(uri, null, monitor, documentMonitor);
+		if (data == null) {
+			return new SemanticTokens(Collections.emptyList());
+		}
+		return new SemanticTokens(store(uri, data), toList(data));
+	}
+
+	/**
+	 * Computes the tokens of the whole document, and returns them as edits to
+	 * the previous result if it's still cached.
+	 */
+	public static Either<SemanticTokens, SemanticTokensDelta> fullDelta(IProgressMonitor monitor, SemanticTokensDeltaParams params, DocumentMonitor documentMonitor) {
+		String uri = params.getTextDocument().getUri();
+		CachedTokens previous = cache.get(uri);
+		int[] data = computeTokens(uri, null, monitor, documentMonitor);
+		if (data == null) {
+			return Either.forLeft(new SemanticTokens(Collections.emptyList()));
+		}
+		String resultId = store(uri, data);
+		if (previous == null || !Objects.equals(previous.resultId(), params.getPreviousResultId())) {
+			return Either.forLeft(new SemanticTokens(resultId, toList(data)));
+		}
+		return Either.forRight(new SemanticTokensDelta(computeEdits(previous.data(), data), resultId));
+	}
+
+	/**
+	 * Computes the tokens of the given range only, only visiting the AST nodes
+	 * intersecting it.
+	 */
+	public static SemanticTokens range(IProgressMonitor monitor, SemanticTokensRangeParams params, DocumentMonitor documentMonitor) {
+		int[] data = computeTokens(params.getTextDocument().getUri(), params.getRange(), monitor, documentMonitor);
+		if (data == null) {
+			return new SemanticTokens(Collections.emptyList());
+		}
+		return new SemanticTokens(toList(data));
+	}
+
+	/**
+	 * Discards the cached tokens of the given document.
+	 */
+	public static void evict(String uri) {
+		if (uri != null) {
+			cache.remove(uri);
+		}
+	}
+
+	private static int[] computeTokens(String uri, Range range, IProgressMonitor monitor, DocumentMonitor documentMonitor) {
+		ITypeRoot typeRoot = JDTUtils.resolveTypeRoot(uri);
 		documentMonitor.checkChanged();
 		if (typeRoot == null || monitor.isCanceled()) {
-			return new SemanticTokens(Collections.emptyList());
+			return null;
 		}
 
 		JobHelpers.waitForJobs(DocumentLifeCycleHandler.DOCUMENT_LIFE_CYCLE_JOBS, monitor);
@@ -50,12 +119,61 @@ public class SemanticTokensHandler {
 		CompilationUnit root = getAst(typeRoot, monitor);
 		documentMonitor.checkChanged();
 		if (root == null || monitor.isCanceled()) {
-			return new SemanticTokens(Collections.emptyList());
+			return null;
 		}
 
-		SemanticTokensVisitor collector = new SemanticTokensVisitor(root);
+		SemanticTokensVisitor collector;
+		if (range == null) {
+			collector = new SemanticTokensVisitor(root);
+		} else {
+			int start = root.getPosition(range.getStart().getLine() + 1, range.getStart().getCharacter());
+			int end = root.getPosition(range.getEnd().getLine() + 1, range.getEnd().getCharacter());
+			collector = new SemanticTokensVisitor(root, Math.max(start, 0), end < 0 ? root.getLength() : end);
+		}
 		root.accept(collector);
-		return collector.getSemanticTokens();
+		return collector.getEncodedTokens();
+	}
+
+	private static String store(String uri, int[] data) {
+		String resultId = Long.toString(resultIds.incrementAndGet());
+		cache.put(uri, new CachedTokens(resultId, data));
+		return resultId;
+	}
+
+	/**
+	 * Computes the edits transforming the previous encoded tokens into the
+	 * current ones. The unchanged prefix and suffix are skipped, so that an
+	 * edit in a single place results in a single small edit.
+	 *
+	 * @param previous the previous encoded tokens
+	 * @param current the current encoded tokens
+	 * @return the edits, empty if both arrays are equal
+	 */
+	public static List<SemanticTokensEdit> computeEdits(int[] previous, int[] current) {
+		int prefix = 0;
+		int maxPrefix = Math.min(previous.length, current.length);
+		while (prefix < maxPrefix && previous[prefix] == current[prefix]) {
+			prefix++;
+		}
+		if (prefix == previous.length && prefix == current.length) {
+			return Collections.emptyList();
+		}
+		int suffix = 0;
+		int maxSuffix = maxPrefix - prefix;
+		while (suffix < maxSuffix && previous[previous.length - 1 - suffix] == current[current.length - 1 - suffix]) {
+			suffix++;
+		}
+		int deleteCount = previous.length - prefix - suffix;
+		List<Integer> data = toList(Arrays.copyOfRange(current, prefix, current.length - suffix));
+		return Collections.singletonList(new SemanticTokensEdit(prefix, deleteCount, data));
+	}
+
+	private static List<Integer> toList(int[] data) {
+		List<Integer> list = new ArrayList<>(data.length);
+		for (int value : data) {
+			list.add(value);
+		}
+		return list;
 	}
 
 	public static SemanticTokensLegend legend() {
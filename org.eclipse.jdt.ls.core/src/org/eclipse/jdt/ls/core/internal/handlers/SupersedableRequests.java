@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.jsonrpc.ResponseErrorException;
+import org.eclipse.lsp4j.jsonrpc.messages.ResponseError;
+import org.eclipse.lsp4j.jsonrpc.messages.ResponseErrorCode;
+
+/**
+ * Tracks the in-flight document requests which become obsolete as soon as a
+ * newer request of the same method is received for the same document, or
+ * the document changes, e.g. semantic tokens, inlay hints, code lenses or
+ * folding ranges.
+ * <p>
+ * Superseded requests are answered with the <code>ContentModified</code>
+ * error, as the client didn't cancel them, and their computation is
+ * cancelled, so that they stop before computing results the client will
+ * throw away.
+ */
+public class SupersedableRequests {
+
+	/**
+	 * In-flight requests, keyed by document URI and then by method and range.
+	 */
+	private final Map<String, Map<String, CompletableFuture<?>>> requests = new ConcurrentHashMap<>();
+
+	/**
+	 * Tracks the given request, superseding the previous in-flight request of
+	 * the same method on the same document.
+	 *
+	 * @param method
+	 *            the LSP method of the request
+	 * @param uri
+	 *            the document URI
+	 * @param computation
+	 *            the pending result of the request
+	 * @return the response of the request
+	 */
+	public <T> CompletableFuture<T> track(String method, String uri, CompletableFuture<T> computation) {
+		return track(method, uri, null, computation);
+	}
+
+	/**
+	 * Tracks the given request, superseding the previous in-flight request of
+	 * the same method on the same range of the same document.
+	 *
+	 * @param method
+	 *            the LSP method of the request
+	 * @param uri
+	 *            the document URI
+	 * @param range
+	 *            the range of the request, or <code>null</code> for the whole
+	 *            document
+	 * @param computation
+	 *            the pending result of the request
+	 * @return the response of the request, completed with the result of the
+	 *         computation, or with the <code>ContentModified</code> error once
+	 *         superseded
+	 */
+	public <T> CompletableFuture<T> track(String method, String uri, Range range, CompletableFuture<T> computation) {
+		if (uri == null) {
+			return computation;
+		}
+		String key = range == null ? method : method + '@' + range.getStart().getLine() + ':' + range.getStart().getCharacter() + '-' + range.getEnd().getLine() + ':' + range.getEnd().getCharacter();
+		CompletableFuture<T> response = new CompletableFuture<>();
+		computation.whenComplete((result, error) -> {
+			if (error == null) {
+				response.complete(result);
+			} else {
+				response.completeExceptionally(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+			}
+		});
+		Map<String, CompletableFuture<?>> byMethod = requests.computeIfAbsent(uri, k -> new ConcurrentHashMap<>());
+		CompletableFuture<?> previous = byMethod.put(key, response);
+		if (previous != null) {
+			supersede(previous);
+		}
+		response.whenComplete((result, error) -> {
+			// superseded, or cancelled by the client
+			if (!computation.isDone()) {
+				computation.cancel(true);
+			}
+			requests.computeIfPresent(uri, (k, v) -> {
+				v.remove(key, response);
+				return v.isEmpty() ? null : v;
+			});
+		});
+		return response;
+	}
+
+	/**
+	 * Supersedes all the in-flight requests on the given document. Should be
+	 * called whenever the document version changes.
+	 *
+	 * @param uri
+	 *            the document URI
+	 */
+	public void cancel(String uri) {
+		if (uri == null) {
+			return;
+		}
+		Map<String, CompletableFuture<?>> byMethod = requests.remove(uri);
+		if (byMethod != null) {
+			byMethod.values().forEach(SupersedableRequests::supersede);
+		}
+	}
+
+	private static void supersede(CompletableFuture<?> response) {
+		response.completeExceptionally(new ResponseErrorException(new ResponseError(ResponseErrorCode.ContentModified, "Document changed, request superseded", null)));
+	}
+
+	/**
+	 * @return the number of in-flight requests on the given document
+	 */
+	public int size(String uri) {
+		Map<String, CompletableFuture<?>> byMethod = requests.get(uri);
+		return byMethod == null ? 0 : byMethod.size();
+	}
+}
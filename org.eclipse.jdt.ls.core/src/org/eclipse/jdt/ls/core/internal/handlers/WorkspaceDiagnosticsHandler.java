@@ -72,10 +72,10 @@ import org.eclipse.m2e.core.internal.Messages;
 public final class WorkspaceDiagnosticsHandler implements IResourceChangeListener, IResourceDeltaVisitor {
 
 	public static final String PROJECT_CONFIGURATION_IS_NOT_UP_TO_DATE_WITH_POM_XML = "Project configuration is not up-to-date with pom.xml, requires an update.";
-	private final JavaClientConnection connection;
 	private final ProjectsManager projectsManager;
 	private final boolean isDiagnosticTagSupported;
 	private final DocumentLifeCycleHandler handler;
+	private final DiagnosticsPublisher publisher;
 
 	@Deprecated
 	public WorkspaceDiagnosticsHandler(JavaClientConnection connection, ProjectsManager projectsManager) {
@@ -87,10 +87,10 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 	}
 
 	public WorkspaceDiagnosticsHandler(JavaClientConnection connection, ProjectsManager projectsManager, ClientPreferences prefs, DocumentLifeCycleHandler handler) {
-		this.connection = connection;
 		this.projectsManager = projectsManager;
 		this.isDiagnosticTagSupported = prefs != null ? prefs.isDiagnosticTagSupported() : false;
 		this.handler = handler;
+		this.publisher = new DiagnosticsPublisher(connection);
 	}
 
 	public void addResourceChangeListener() {
@@ -99,6 +99,14 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 
 	public void removeResourceChangeListener() {
 		ResourcesPlugin.getWorkspace().removeResourceChangeListener(this);
+		publisher.dispose();
+	}
+
+	/**
+	 * @return the counters of the diagnostics publisher
+	 */
+	public Map<String, Object> getPublisherMetrics() {
+		return publisher.getMetrics();
 	}
 
 	@Override
@@ -166,8 +174,9 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 			return false;
 		}
 		IFile file = (IFile) resource;
-		IDocument document = null;
+		LineIndex lineIndex = null;
 		IMarker[] markers = null;
+		ICompilationUnit unit = null;
 		// Check if it is a Java ...
 		if (JavaCore.isJavaLikeFileName(file.getName())) {
 			ICompilationUnit cu = (ICompilationUnit) JavaCore.create(file);
@@ -175,12 +184,13 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 			IJavaProject javaProject = cu.getJavaProject();
 			if (javaProject == null || !javaProject.isOnClasspath(cu)) {
 				String uri = JDTUtils.getFileURI(resource);
-				this.connection.publishDiagnostics(new PublishDiagnosticsParams(ResourceUtils.toClientUri(uri), Collections.emptyList()));
+				publisher.publish(new PublishDiagnosticsParams(ResourceUtils.toClientUri(uri), Collections.emptyList()), null);
 				return false;
 			}
 			if (!cu.isWorkingCopy()) {
 				markers = resource.findMarkers(null, false, IResource.DEPTH_ONE);
-				document = JsonRpcHelpers.toDocument(cu.getBuffer());
+				lineIndex = LineIndex.of(file);
+				unit = cu;
 			} else if (handler != null) {
 				handler.triggerValidation(cu);
 			}
@@ -188,11 +198,11 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 		else if (projectsManager.isBuildFile(file)) {
 			//all errors on that build file should be relevant
 			markers = file.findMarkers(null, true, 1);
-			document = JsonRpcHelpers.toDocument(file);
+			lineIndex = LineIndex.of(file);
 		}
-		if (document != null) {
+		if (lineIndex != null) {
 			String uri = JDTUtils.getFileURI(resource);
-			this.connection.publishDiagnostics(new PublishDiagnosticsParams(ResourceUtils.toClientUri(uri), toDiagnosticsArray(document, markers, isDiagnosticTagSupported)));
+			publisher.publish(new PublishDiagnosticsParams(ResourceUtils.toClientUri(uri), toDiagnosticsArray(lineIndex, markers, isDiagnosticTagSupported)), unit);
 		}
 		return false;
 	}
@@ -221,28 +231,27 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 		}
 		List<Diagnostic> diagnostics = toDiagnosticArray(range, projectMarkers, isDiagnosticTagSupported);
 		String clientUri = ResourceUtils.toClientUri(uri);
-		connection.publishDiagnostics(new PublishDiagnosticsParams(clientUri, diagnostics));
+		publisher.publish(new PublishDiagnosticsParams(clientUri, diagnostics), null);
 		if (pom.exists()) {
-			IDocument document = JsonRpcHelpers.toDocument(pom);
-			diagnostics = toDiagnosticsArray(document, pom.findMarkers(null, true, IResource.DEPTH_ZERO), isDiagnosticTagSupported);
+			diagnostics = toDiagnosticsArray(LineIndex.of(pom), pom.findMarkers(null, true, IResource.DEPTH_ZERO), isDiagnosticTagSupported);
 			List<Diagnostic> diagnosicts2 = toDiagnosticArray(range, pomMarkers, isDiagnosticTagSupported);
 			diagnostics.addAll(diagnosicts2);
 			String pomSuffix = clientUri.endsWith("/") ? "pom.xml" : "/pom.xml";
-			connection.publishDiagnostics(new PublishDiagnosticsParams(ResourceUtils.toClientUri(clientUri + pomSuffix), diagnostics));
+			publisher.publish(new PublishDiagnosticsParams(ResourceUtils.toClientUri(clientUri + pomSuffix), diagnostics), null);
 		}
 		if (gradleWrapperProperties.exists()) {
-			IDocument document = JsonRpcHelpers.toDocument(gradleWrapperProperties);
-			diagnostics = toDiagnosticsArray(document, gradleWrapperProperties.findMarkers(null, true, IResource.DEPTH_ZERO), isDiagnosticTagSupported);
+			diagnostics = toDiagnosticsArray(LineIndex.of(gradleWrapperProperties), gradleWrapperProperties.findMarkers(null, true, IResource.DEPTH_ZERO), isDiagnosticTagSupported);
 			List<Diagnostic> diagnosicts2 = toDiagnosticArray(range, gradleMarkers, isDiagnosticTagSupported);
 			diagnostics.addAll(diagnosicts2);
 			String gradleSuffix = clientUri.endsWith("/") ? GradleProjectImporter.GRADLE_WRAPPER_PROPERTIES_DESCRIPTOR : "/" + GradleProjectImporter.GRADLE_WRAPPER_PROPERTIES_DESCRIPTOR;
-			connection.publishDiagnostics(new PublishDiagnosticsParams(ResourceUtils.toClientUri(clientUri + gradleSuffix), diagnostics));
+			publisher.publish(new PublishDiagnosticsParams(ResourceUtils.toClientUri(clientUri + gradleSuffix), diagnostics), null);
 		}
 	}
 
 	public List<IMarker> publishDiagnostics(IProgressMonitor monitor) throws CoreException {
 		List<IMarker> problemMarkers = getProblemMarkers(monitor);
 		publishDiagnostics(problemMarkers);
+		publisher.flush();
 		return problemMarkers;
 	}
 
@@ -310,24 +319,22 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 			if (file == null) {
 				continue;
 			}
-			IDocument document = null;
+			LineIndex lineIndex = null;
+			ICompilationUnit unit = null;
 			String uri = JDTUtils.getFileURI(file);
 			if (JavaCore.isJavaLikeFileName(file.getName())) {
 				ICompilationUnit cu = JDTUtils.resolveCompilationUnit(uri);
 				//ignoring working copies, they're handled in the DocumentLifecycleHandler
 				if (cu != null && !cu.isWorkingCopy()) {
-					try {
-						document = JsonRpcHelpers.toDocument(cu.getBuffer());
-					} catch (JavaModelException e) {
-						JavaLanguageServerPlugin.logException("Failed to publish diagnostics for " + uri, e);
-					}
+					lineIndex = LineIndex.of(file);
+					unit = cu;
 				}
 			} else if (projectsManager.isBuildFile(file)) {
-				document = JsonRpcHelpers.toDocument(file);
+				lineIndex = LineIndex.of(file);
 			}
-			if (document != null) {
-				List<Diagnostic> diagnostics = WorkspaceDiagnosticsHandler.toDiagnosticsArray(document, entry.getValue().toArray(new IMarker[0]), isDiagnosticTagSupported);
-				connection.publishDiagnostics(new PublishDiagnosticsParams(ResourceUtils.toClientUri(uri), diagnostics));
+			if (lineIndex != null) {
+				List<Diagnostic> diagnostics = WorkspaceDiagnosticsHandler.toDiagnosticsArray(lineIndex, entry.getValue().toArray(new IMarker[0]), isDiagnosticTagSupported);
+				publisher.publish(new PublishDiagnosticsParams(ResourceUtils.toClientUri(uri), diagnostics), unit);
 			}
 		}
 	}
@@ -386,8 +393,27 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 	 * @return a list of {@link Diagnostic}s
 	 */
 	public static List<Diagnostic> toDiagnosticsArray(IDocument document, IMarker[] markers, boolean isDiagnosticTagSupported) {
+		return toDiagnosticsArray(MarkerText.of(document), markers, isDiagnosticTagSupported);
+	}
+
+	/**
+	 * Transforms {@link IMarker}s of a file into a list of {@link Diagnostic}s,
+	 * converting their offsets with the {@link LineIndex} of the file rather
+	 * than with a document.
+	 *
+	 * @param lineIndex
+	 *            the line index of the file, <code>null</code> if the file
+	 *            can't be read
+	 * @param markers
+	 * @return a list of {@link Diagnostic}s
+	 */
+	public static List<Diagnostic> toDiagnosticsArray(LineIndex lineIndex, IMarker[] markers, boolean isDiagnosticTagSupported) {
+		return toDiagnosticsArray(MarkerText.of(lineIndex != null ? lineIndex : LineIndex.of("")), markers, isDiagnosticTagSupported);
+	}
+
+	private static List<Diagnostic> toDiagnosticsArray(MarkerText text, IMarker[] markers, boolean isDiagnosticTagSupported) {
 		List<Diagnostic> diagnostics = Stream.of(markers)
-				.filter(WorkspaceDiagnosticsHandler::isInteresting).map(m -> toDiagnostic(document, m, isDiagnosticTagSupported)) //
+				.filter(WorkspaceDiagnosticsHandler::isInteresting).map(m -> toDiagnostic(text, m, isDiagnosticTagSupported)) //
 				.filter(Objects::nonNull) //
 				.collect(Collectors.toCollection(ArrayList::new));
 		return diagnostics;
@@ -403,7 +429,7 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 		});
 	}
 
-	private static Diagnostic toDiagnostic(IDocument document, IMarker marker, boolean isDiagnosticTagSupported) {
+	private static Diagnostic toDiagnostic(MarkerText text, IMarker marker, boolean isDiagnosticTagSupported) {
 		if (marker == null || !marker.exists()) {
 			return null;
 		}
@@ -413,7 +439,7 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 		int problemId = marker.getAttribute(IJavaModelMarker.ID, 0);
 		d.setCode(String.valueOf(problemId));
 		d.setSeverity(convertSeverity(marker.getAttribute(IMarker.SEVERITY, -1)));
-		d.setRange(convertRange(document, marker));
+		d.setRange(convertRange(text, marker));
 		if (isDiagnosticTagSupported) {
 			d.setTags(DiagnosticsHandler.getDiagnosticTag(problemId));
 		}
@@ -424,23 +450,25 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 	 * @param marker
 	 * @return
 	 */
-	private static Range convertRange(IDocument document, IMarker marker) {
+	private static Range convertRange(MarkerText text, IMarker marker) {
 		int line = marker.getAttribute(IMarker.LINE_NUMBER, -1) - 1;
 		if (line < 0) {
 			int end = marker.getAttribute(IMarker.CHAR_END, -1);
 			int start = marker.getAttribute(IMarker.CHAR_START, -1);
 			if (start >= 0 && end >= start) {
 				try {
-					Range range = getAnnotationRange(document, marker);
+					Range range = getAnnotationRange(text, marker);
 					if (range != null) {
 						return range;
 					}
 				} catch (BadLocationException | JavaModelException e) {
 					JavaLanguageServerPlugin.logException(e.getMessage(), e);
 				}
-				int[] startPos = JsonRpcHelpers.toLine(document, start);
-				int[] endPos = JsonRpcHelpers.toLine(document, end);
-				return new Range(new Position(startPos[0], startPos[1]), new Position(endPos[0], endPos[1]));
+				int[] startPos = text.toLine(start);
+				int[] endPos = text.toLine(end);
+				if (startPos != null && endPos != null) {
+					return new Range(new Position(startPos[0], startPos[1]), new Position(endPos[0], endPos[1]));
+				}
 			}
 			return new Range(new Position(0, 0), new Position(0, 0));
 		}
@@ -457,7 +485,7 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 			} else {
 				if (marker.getAttribute(IJavaModelMarker.ID, -1) == IProblem.UndefinedType) {
 					try {
-						Range range = getAnnotationRange(document, marker);
+						Range range = getAnnotationRange(text, marker);
 						if (range != null) {
 							return range;
 						}
@@ -468,7 +496,7 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 
 				int lineOffset = 0;
 				try {
-					lineOffset = document.getLineOffset(line);
+					lineOffset = text.getLineOffset(line);
 				} catch (BadLocationException unlikelyException) {
 					JavaLanguageServerPlugin.logException(unlikelyException.getMessage(), unlikelyException);
 					return new Range(new Position(line, 0), new Position(line, 0));
@@ -484,25 +512,95 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 		return new Range(new Position(line, cStart), new Position(line, cEnd));
 	}
 
-	private static Range getAnnotationRange(IDocument document, IMarker marker) throws BadLocationException, JavaModelException {
+	private static Range getAnnotationRange(MarkerText text, IMarker marker) throws BadLocationException, JavaModelException {
 		if (marker.getAttribute(IJavaModelMarker.ID, -1) == IProblem.UndefinedType) {
 			int end = marker.getAttribute(IMarker.CHAR_END, -1);
 			int start = marker.getAttribute(IMarker.CHAR_START, -1);
 			if (start > 0) {
-				start--;
-				char ch = document.getChar(start);
-				while (Character.isWhitespace(ch)) {
-					start--;
-					ch = document.getChar(start);
-				}
-				if (ch == '@') {
-					return JDTUtils.toRange(document, start, end - start);
+				start = text.findAnnotation(start);
+				if (start >= 0) {
+					return text.toRange(start, end - start);
 				}
 			}
 		}
 		return null;
 	}
 
+	/**
+	 * The text the offsets of the markers refer to, a document or the line
+	 * index of a file.
+	 */
+	private interface MarkerText {
+
+		int getLineOffset(int line) throws BadLocationException;
+
+		int[] toLine(int offset);
+
+		Range toRange(int offset, int length) throws JavaModelException;
+
+		/**
+		 * @return the offset of the <code>@</code> preceding the name at the
+		 *         given offset, or -1 if there is none
+		 */
+		int findAnnotation(int offset) throws BadLocationException;
+
+		static MarkerText of(IDocument document) {
+			return new MarkerText() {
+
+				@Override
+				public int getLineOffset(int line) throws BadLocationException {
+					return document.getLineOffset(line);
+				}
+
+				@Override
+				public int[] toLine(int offset) {
+					return JsonRpcHelpers.toLine(document, offset);
+				}
+
+				@Override
+				public Range toRange(int offset, int length) throws JavaModelException {
+					return JDTUtils.toRange(document, offset, length);
+				}
+
+				@Override
+				public int findAnnotation(int offset) throws BadLocationException {
+					int start = offset - 1;
+					char ch = document.getChar(start);
+					while (Character.isWhitespace(ch)) {
+						start--;
+						ch = document.getChar(start);
+					}
+					return ch == '@' ? start : -1;
+				}
+			};
+		}
+
+		static MarkerText of(LineIndex lineIndex) {
+			return new MarkerText() {
+
+				@Override
+				public int getLineOffset(int line) throws BadLocationException {
+					return lineIndex.getLineOffset(line);
+				}
+
+				@Override
+				public int[] toLine(int offset) {
+					return lineIndex.toLine(offset);
+				}
+
+				@Override
+				public Range toRange(int offset, int length) {
+					return lineIndex.toRange(offset, length);
+				}
+
+				@Override
+				public int findAnnotation(int offset) {
+					return lineIndex.findAnnotation(offset);
+				}
+			};
+		}
+	}
+
 	/**
 	 * @param attribute
 	 * @return
@@ -527,7 +625,7 @@ public final class WorkspaceDiagnosticsHandler implements IResourceChangeListene
 			if (addTrailingSlash && !uri.endsWith("/")) {
 				uri = uri + "/";
 			}
-			this.connection.publishDiagnostics(new PublishDiagnosticsParams(ResourceUtils.toClientUri(uri), Collections.emptyList()));
+			publisher.publish(new PublishDiagnosticsParams(ResourceUtils.toClientUri(uri), Collections.emptyList()), null);
 		}
 	}
 
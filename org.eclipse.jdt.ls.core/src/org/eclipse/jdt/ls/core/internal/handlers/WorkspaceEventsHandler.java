@@ -12,8 +12,13 @@
  *******************************************************************************/
 package org.eclipse.jdt.ls.core.internal.handlers;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Collectors;
 
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IWorkspaceRunnable;
@@ -48,7 +53,8 @@ public class WorkspaceEventsHandler {
 	private final ProjectsManager pm;
 	private final JavaClientConnection connection;
 	private final BaseDocumentLifeCycleHandler handler;
-	private final LinkedBlockingQueue<FileEvent> queue = new LinkedBlockingQueue<>();
+	// the events of each notification
+	private final LinkedBlockingQueue<List<FileEvent>> queue = new LinkedBlockingQueue<>();
 
 	public WorkspaceEventsHandler(ProjectsManager projects, JavaClientConnection connection, BaseDocumentLifeCycleHandler handler) {
 		this.pm = projects;
@@ -57,8 +63,8 @@ public class WorkspaceEventsHandler {
 		Thread eventThread = new Thread(() -> {
 			while(true) {
 				try {
-					FileEvent event = queue.take();
-					handleFileEvent(event);
+					List<FileEvent> events = queue.take();
+					handleFileEvents(events);
 				} catch (InterruptedException e) {
 					break;
 				}
@@ -81,23 +87,35 @@ public class WorkspaceEventsHandler {
 	}
 
 	public void didChangeWatchedFiles(DidChangeWatchedFilesParams param) {
-		param.getChanges().stream().distinct().forEach(event -> {
-			try {
-				queue.put(event);
-			} catch (InterruptedException e) {
-				// do nothing
-			}
-		});
+		try {
+			queue.put(param.getChanges().stream().distinct().collect(Collectors.toList()));
+		} catch (InterruptedException e) {
+			// do nothing
+		}
 	}
 
 	// for test only
 	public void handleFileEvents(FileEvent... fileEvents) {
+		handleFileEvents(Arrays.asList(fileEvents));
+	}
+
+	private void handleFileEvents(List<FileEvent> fileEvents) {
+		List<Map.Entry<String, CHANGE_TYPE>> changes = new ArrayList<>(fileEvents.size());
 		for (FileEvent fileEvent : fileEvents) {
-			handleFileEvent(fileEvent);
+			if (handleFileEvent(fileEvent) && fileEvent.getUri() != null) {
+				changes.add(Map.entry(fileEvent.getUri(), toChangeType(fileEvent.getType())));
+			}
+		}
+		if (!changes.isEmpty()) {
+			// the projects manager handles the changes of a notification together
+			pm.filesChanged(changes);
 		}
 	}
 
-	private void handleFileEvent(FileEvent fileEvent) {
+	/**
+	 * @return whether the projects manager should be notified of the change
+	 */
+	private boolean handleFileEvent(FileEvent fileEvent) {
 		CHANGE_TYPE changeType = toChangeType(fileEvent.getType());
 		if (changeType == CHANGE_TYPE.DELETED) {
 			cleanUpDiagnostics(fileEvent.getUri());
@@ -130,7 +148,7 @@ public class WorkspaceEventsHandler {
 				} catch (CoreException e) {
 					JavaLanguageServerPlugin.logException(e.getMessage(), e);
 				}
-				return;
+				return false;
 			}
 			if (changeType == CHANGE_TYPE.DELETED || changeType == CHANGE_TYPE.CHANGED) {
 				if (unit.equals(CoreASTProvider.getInstance().getActiveJavaElement())) {
@@ -138,7 +156,7 @@ public class WorkspaceEventsHandler {
 				}
 			}
 		}
-		pm.fileChanged(fileEvent.getUri(), changeType);
+		return true;
 	}
 
 	private ICompilationUnit createCompilationUnit(ICompilationUnit unit) {
@@ -13,15 +13,24 @@
 package org.eclipse.jdt.ls.core.internal.handlers;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Path;
 import org.eclipse.jdt.core.Flags;
+import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IOrdinaryClassFile;
+import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.search.IJavaSearchConstants;
 import org.eclipse.jdt.core.search.IJavaSearchScope;
@@ -29,9 +38,10 @@ import org.eclipse.jdt.core.search.MethodNameMatch;
 import org.eclipse.jdt.core.search.MethodNameMatchRequestor;
 import org.eclipse.jdt.core.search.SearchEngine;
 import org.eclipse.jdt.core.search.SearchPattern;
-import org.eclipse.jdt.core.search.TypeNameMatch;
-import org.eclipse.jdt.core.search.TypeNameMatchRequestor;
+import org.eclipse.jdt.internal.core.Openable;
+import org.eclipse.jdt.internal.core.util.HandleFactory;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
+import org.eclipse.jdt.ls.core.internal.JSONUtility;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.ProjectUtils;
 import org.eclipse.jdt.ls.core.internal.preferences.PreferenceManager;
@@ -39,10 +49,16 @@ import org.eclipse.lsp4j.Location;
 import org.eclipse.lsp4j.SymbolInformation;
 import org.eclipse.lsp4j.SymbolKind;
 import org.eclipse.lsp4j.SymbolTag;
+import org.eclipse.lsp4j.WorkspaceSymbol;
+import org.eclipse.lsp4j.WorkspaceSymbolLocation;
 import org.eclipse.lsp4j.WorkspaceSymbolParams;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
 
 public class WorkspaceSymbolHandler {
 
+	private static final String DATA_FIELD_PATH = "path";
+	private static final String DATA_FIELD_CONTAINER_NAME = "containerName";
+
 	public static List<SymbolInformation> search(String query, IProgressMonitor monitor) {
 		return search(query, 0, null, false, monitor);
 	}
@@ -57,48 +73,34 @@ public class WorkspaceSymbolHandler {
 			return new ArrayList<>(symbols);
 		}
 
+		Map<String, Integer> ranks = new HashMap<>();
 		try {
 			monitor.beginTask("Searching the types...", 100);
 			IJavaSearchScope searchScope = createSearchScope(projectName, sourceOnly);
-
-			String tQuery = query.trim();
-			String qualifierName = null;
-			String typeName = tQuery;
-			int qualifierMatchRule = SearchPattern.R_PATTERN_MATCH;
-
-			int qualIndex = tQuery.lastIndexOf('.');
-			if (qualIndex != -1) {
-				qualifierName = tQuery.substring(0, qualIndex);
-				typeName = tQuery.substring(qualIndex + 1);
-				qualifierMatchRule = SearchPattern.R_CAMELCASE_MATCH;
-				if (qualifierName.contains("*") || qualifierName.contains("?")) {
-					qualifierMatchRule = SearchPattern.R_PATTERN_MATCH;
-				}
-			}
-
-			int typeMatchRule = SearchPattern.R_CAMELCASE_MATCH;
-			if (typeName.contains("*") || typeName.contains("?")) {
-				typeMatchRule = SearchPattern.R_PATTERN_MATCH;
-			}
-
+			List<WorkspaceSymbolIndex.Entry> matches = JavaLanguageServerPlugin.getWorkspaceSymbolIndex().search(query.trim(), searchScope, maxResults, monitor);
 
 			PreferenceManager preferenceManager = JavaLanguageServerPlugin.getPreferencesManager();
 
 			SearchEngine engine = new SearchEngine();
 			boolean isSymbolTagSupported = preferenceManager != null && preferenceManager.getClientPreferences().isSymbolTagSupported();
 			WorkspaceSymbolTypeRequestor typeRequestor = new WorkspaceSymbolTypeRequestor(symbols, maxResults, sourceOnly, isSymbolTagSupported, monitor);
-			if (!typeName.isEmpty()) {
-				// search for qualifier = qualifierName, type = typeName
-				engine.searchAllTypeNames(qualifierName == null ? null : qualifierName.toCharArray(), qualifierMatchRule, typeName.toCharArray(), typeMatchRule, IJavaSearchConstants.TYPE, searchScope,typeRequestor , IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH, monitor);
+			HandleFactory factory = new HandleFactory();
+			for (WorkspaceSymbolIndex.Entry entry : matches) {
+				if (monitor.isCanceled()) {
+					break;
+				}
+				ranks.putIfAbsent(entry.getQualifiedName(), ranks.size());
+				IType type = createType(entry.getPath(), entry.getContainerName(), entry.getName(), factory, searchScope);
+				if (type != null) {
+					typeRequestor.accept(entry, type);
+				}
 			}
-			// search for qualifier = qualiferName.typeName, type = null
-			engine.searchAllTypeNames(tQuery.toCharArray(), qualifierMatchRule, null, typeMatchRule, IJavaSearchConstants.TYPE, searchScope, typeRequestor, IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH, monitor);
 
 			if (preferenceManager != null && preferenceManager.getPreferences().isIncludeSourceMethodDeclarations()) {
 				monitor.beginTask("Searching methods...", 100);
 				IJavaSearchScope nonSourceSearchScope = createSearchScope(projectName, true);
 				WorkspaceSymbolMethodRequestor methodRequestor = new WorkspaceSymbolMethodRequestor(symbols, maxResults, isSymbolTagSupported, monitor);
-				engine.searchAllMethodNames(null, SearchPattern.R_PATTERN_MATCH, query.trim().toCharArray(), typeMatchRule, nonSourceSearchScope, methodRequestor, IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH, monitor);
+				engine.searchAllMethodNames(null, SearchPattern.R_PATTERN_MATCH, query.trim().toCharArray(), getMethodMatchRule(query), nonSourceSearchScope, methodRequestor, IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH, monitor);
 			}
 		} catch (Exception e) {
 			if (e instanceof OperationCanceledException) {
@@ -110,7 +112,168 @@ public class WorkspaceSymbolHandler {
 			monitor.done();
 		}
 
-		return new ArrayList<>(symbols);
+		return sort(symbols, ranks);
+	}
+
+	/**
+	 * Searches the types matching the given query, returning workspace symbols
+	 * whose location is only resolved through
+	 * {@link #resolve(WorkspaceSymbol, IProgressMonitor)}.
+	 */
+	public static List<WorkspaceSymbol> searchWorkspaceSymbols(String query, IProgressMonitor monitor) {
+		List<WorkspaceSymbol> symbols = new ArrayList<>();
+		if (StringUtils.isBlank(query)) {
+			return symbols;
+		}
+		Map<String, Integer> ranks = new HashMap<>();
+		PreferenceManager preferenceManager = JavaLanguageServerPlugin.getPreferencesManager();
+		boolean isSymbolTagSupported = preferenceManager != null && preferenceManager.getClientPreferences().isSymbolTagSupported();
+		try {
+			monitor.beginTask("Searching the types...", 100);
+			IJavaSearchScope searchScope = createSearchScope(null, false);
+			List<WorkspaceSymbolIndex.Entry> matches = JavaLanguageServerPlugin.getWorkspaceSymbolIndex().search(query.trim(), searchScope, 0, monitor);
+			// the class files are named by their handles, the other types are only created when the symbols are resolved
+			HandleFactory factory = new HandleFactory();
+			for (WorkspaceSymbolIndex.Entry entry : matches) {
+				if (monitor.isCanceled()) {
+					break;
+				}
+				ranks.putIfAbsent(entry.getQualifiedName(), ranks.size());
+				String uri = toUri(entry, factory, searchScope);
+				if (uri == null) {
+					continue;
+				}
+				WorkspaceSymbol symbol = new WorkspaceSymbol(entry.getName(), mapKind(entry.getModifiers()), Either.forRight(new WorkspaceSymbolLocation(uri)), entry.getContainerName());
+				if (isSymbolTagSupported && Flags.isDeprecated(entry.getModifiers())) {
+					symbol.setTags(List.of(SymbolTag.Deprecated));
+				}
+				symbol.setData(Map.of(DATA_FIELD_PATH, entry.getPath(), DATA_FIELD_CONTAINER_NAME, entry.getContainerName()));
+				symbols.add(symbol);
+			}
+
+			if (preferenceManager != null && preferenceManager.getPreferences().isIncludeSourceMethodDeclarations()) {
+				Set<SymbolInformation> methods = new HashSet<>();
+				IJavaSearchScope nonSourceSearchScope = createSearchScope(null, true);
+				WorkspaceSymbolMethodRequestor methodRequestor = new WorkspaceSymbolMethodRequestor(methods, 0, isSymbolTagSupported, monitor);
+				new SearchEngine().searchAllMethodNames(null, SearchPattern.R_PATTERN_MATCH, query.trim().toCharArray(), getMethodMatchRule(query), nonSourceSearchScope, methodRequestor, IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH, monitor);
+				for (SymbolInformation method : methods) {
+					WorkspaceSymbol symbol = new WorkspaceSymbol(method.getName(), method.getKind(), Either.forLeft(method.getLocation()), method.getContainerName());
+					symbol.setTags(method.getTags());
+					symbols.add(symbol);
+				}
+			}
+		} catch (Exception e) {
+			if (e instanceof OperationCanceledException) {
+				// ignore.
+			} else {
+				JavaLanguageServerPlugin.logException("Problem getting search for" + query, e);
+			}
+		} finally {
+			monitor.done();
+		}
+		symbols.sort(Comparator.comparingInt(symbol -> ranks.getOrDefault(getKey(symbol.getContainerName(), symbol.getName()), Integer.MAX_VALUE)));
+		return symbols;
+	}
+
+	/**
+	 * Resolves the location of a workspace symbol returned by
+	 * {@link #searchWorkspaceSymbols(String, IProgressMonitor)}.
+	 */
+	public static WorkspaceSymbol resolve(WorkspaceSymbol symbol, IProgressMonitor monitor) {
+		if (symbol.getLocation() == null || symbol.getLocation().isLeft()) {
+			return symbol;
+		}
+		@SuppressWarnings("unchecked")
+		Map<String, String> data = symbol.getData() == null ? null : JSONUtility.toModel(symbol.getData(), Map.class);
+		if (data == null || data.get(DATA_FIELD_PATH) == null || data.get(DATA_FIELD_CONTAINER_NAME) == null || monitor.isCanceled()) {
+			return symbol;
+		}
+		IType type;
+		try {
+			type = createType(data.get(DATA_FIELD_PATH), data.get(DATA_FIELD_CONTAINER_NAME), symbol.getName(), new HandleFactory(), createSearchScope(null, false));
+		} catch (JavaModelException e) {
+			JavaLanguageServerPlugin.logException("Unable to determine location for " + symbol.getName(), e);
+			return symbol;
+		}
+		if (type != null && type.exists()) {
+			try {
+				Location location = type.isBinary() ? JDTUtils.toLocation(type.getClassFile()) : JDTUtils.toLocation(type);
+				if (location != null) {
+					symbol.setLocation(Either.forLeft(location));
+				}
+			} catch (JavaModelException e) {
+				JavaLanguageServerPlugin.logException("Unable to determine location for " + symbol.getName(), e);
+			}
+		}
+		return symbol;
+	}
+
+	/**
+	 * Creates the handle of an indexed type, from the path of its document in
+	 * the format of the search engine.
+	 *
+	 * @return the type, or <code>null</code> if its document isn't on the
+	 *         classpath anymore
+	 */
+	private static IType createType(String path, String containerName, String name, HandleFactory factory, IJavaSearchScope scope) {
+		Openable openable = factory.createOpenable(path, scope);
+		if (openable instanceof IOrdinaryClassFile classFile) {
+			return classFile.getType();
+		}
+		if (openable instanceof ICompilationUnit unit) {
+			String packageName = unit.getParent().getElementName();
+			String enclosingTypeNames = packageName.isEmpty() ? containerName : containerName.substring(Math.min(containerName.length(), packageName.length() + 1));
+			IType type = null;
+			if (!enclosingTypeNames.isEmpty()) {
+				for (String enclosingTypeName : enclosingTypeNames.split("\\.")) {
+					type = type == null ? unit.getType(enclosingTypeName) : type.getType(enclosingTypeName);
+				}
+			}
+			return type == null ? unit.getType(name) : type.getType(name);
+		}
+		return null;
+	}
+
+	/**
+	 * @return the uri of the document declaring an indexed type, without
+	 *         creating its handle for the source files
+	 */
+	private static String toUri(WorkspaceSymbolIndex.Entry entry, HandleFactory factory, IJavaSearchScope scope) {
+		String path = entry.getPath();
+		if (path.indexOf(IJavaSearchScope.JAR_FILE_ENTRY_SEPARATOR) == -1) {
+			IFile file = ResourcesPlugin.getWorkspace().getRoot().getFile(new Path(path));
+			return JDTUtils.getFileURI(file);
+		}
+		IType type = createType(path, entry.getContainerName(), entry.getName(), factory, scope);
+		return type == null ? null : JDTUtils.toUri(type.getClassFile());
+	}
+
+	private static int getMethodMatchRule(String query) {
+		String name = query.trim().substring(query.trim().lastIndexOf('.') + 1);
+		return (name.contains("*") || name.contains("?")) ? SearchPattern.R_PATTERN_MATCH : SearchPattern.R_CAMELCASE_MATCH;
+	}
+
+	private static String getKey(String containerName, String name) {
+		return containerName == null || containerName.isEmpty() ? name : containerName + '.' + name;
+	}
+
+	private static List<SymbolInformation> sort(Set<SymbolInformation> symbols, Map<String, Integer> ranks) {
+		List<SymbolInformation> result = new ArrayList<>(symbols);
+		result.sort(Comparator.comparingInt(symbol -> symbol.getKind() == SymbolKind.Method ? Integer.MAX_VALUE : ranks.getOrDefault(getKey(symbol.getContainerName(), symbol.getName()), Integer.MAX_VALUE)));
+		return result;
+	}
+
+	private static SymbolKind mapKind(int flags) {
+		if (Flags.isInterface(flags)) {
+			return SymbolKind.Interface;
+		}
+		if (Flags.isAnnotation(flags)) {
+			return SymbolKind.Property;
+		}
+		if (Flags.isEnum(flags)) {
+			return SymbolKind.Enum;
+		}
+		return SymbolKind.Class;
 	}
 
 	private static IJavaSearchScope createSearchScope(String projectName, boolean sourceOnly) throws JavaModelException {
@@ -142,7 +305,7 @@ public class WorkspaceSymbolHandler {
 		}
 	}
 
-	private static class WorkspaceSymbolTypeRequestor extends TypeNameMatchRequestor {
+	private static class WorkspaceSymbolTypeRequestor {
 		private Set<SymbolInformation> symbols;
 		private int maxResults;
 		private boolean sourceOnly;
@@ -157,8 +320,7 @@ public class WorkspaceSymbolHandler {
 			this.monitor = monitor;
 		}
 
-		@Override
-		public void acceptTypeNameMatch(TypeNameMatch match) {
+		public void accept(WorkspaceSymbolIndex.Entry entry, IType type) {
 			try {
 				if (maxResults > 0 && symbols.size() >= maxResults) {
 					monitor.setCanceled(true);
@@ -166,22 +328,22 @@ public class WorkspaceSymbolHandler {
 				}
 				Location location = null;
 				try {
-					if (!sourceOnly && match.getType().isBinary()) {
-						location = JDTUtils.toLocation(match.getType().getClassFile());
-					} else if (!match.getType().isBinary()) {
-						location = JDTUtils.toLocation(match.getType());
+					if (!sourceOnly && type.isBinary()) {
+						location = JDTUtils.toLocation(type.getClassFile());
+					} else if (!type.isBinary()) {
+						location = JDTUtils.toLocation(type);
 					}
 				} catch (Exception e) {
-					JavaLanguageServerPlugin.logException("Unable to determine location for " + match.getSimpleTypeName(), e);
+					JavaLanguageServerPlugin.logException("Unable to determine location for " + entry.getName(), e);
 					return;
 				}
 
-				if (location != null && match.getSimpleTypeName() != null && !match.getSimpleTypeName().isEmpty()) {
+				if (location != null) {
 					SymbolInformation symbolInformation = new SymbolInformation();
-					symbolInformation.setContainerName(match.getTypeContainerName());
-					symbolInformation.setName(match.getSimpleTypeName());
-					symbolInformation.setKind(mapKind(match));
-					if (Flags.isDeprecated(match.getType().getFlags())) {
+					symbolInformation.setContainerName(entry.getContainerName());
+					symbolInformation.setName(entry.getName());
+					symbolInformation.setKind(mapKind(entry.getModifiers()));
+					if (Flags.isDeprecated(type.getFlags())) {
 						if (isSymbolTagSupported) {
 							symbolInformation.setTags(List.of(SymbolTag.Deprecated));
 						} else {
@@ -195,24 +357,10 @@ public class WorkspaceSymbolHandler {
 					}
 				}
 			} catch (Exception e) {
-				JavaLanguageServerPlugin.logException("Unable to determine location for " + match.getSimpleTypeName(), e);
+				JavaLanguageServerPlugin.logException("Unable to determine location for " + entry.getName(), e);
 				return;
 			}
 		}
-
-		private SymbolKind mapKind(TypeNameMatch match) {
-			int flags = match.getModifiers();
-			if (Flags.isInterface(flags)) {
-				return SymbolKind.Interface;
-			}
-			if (Flags.isAnnotation(flags)) {
-				return SymbolKind.Property;
-			}
-			if (Flags.isEnum(flags)) {
-				return SymbolKind.Enum;
-			}
-			return SymbolKind.Class;
-		}
 	}
 
 	private static class WorkspaceSymbolMethodRequestor extends MethodNameMatchRequestor {
@@ -0,0 +1,565 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.search.TypeNameRequestor;
+import org.eclipse.jdt.ls.core.internal.ProjectUtils;
+
+/**
+ * Resident index of the types of the workspace and of its libraries, used to
+ * answer workspace symbol queries without going through the search engine on
+ * every keystroke.
+ * <p>
+ * The symbols are stored in parallel primitive arrays, their simple names
+ * being packed in a single <code>char[]</code>, while the containers and
+ * document paths are interned. The index is built lazily on the first query,
+ * and kept up to date from the Java element deltas: changed compilation units
+ * are re-indexed on the next query, while classpath changes cause a full
+ * rebuild.
+ * <p>
+ * Matches follow the rules of {@link SearchEngine#searchAllTypeNames}, i.e.
+ * camel case or case insensitive prefix, and wildcard patterns, and are ranked
+ * from the exact matches down to the matches on the container only.
+ */
+public class WorkspaceSymbolIndex implements IElementChangedListener {
+
+	private static final int INITIAL_CAPACITY = 1024;
+	private static final int REMOVED = -1;
+
+	private static final int RANK_EXACT = 0;
+	private static final int RANK_EXACT_IGNORE_CASE = 1;
+	private static final int RANK_CAMEL_CASE_SAME_PARTS = 2;
+	private static final int RANK_PREFIX = 3;
+	private static final int RANK_PREFIX_IGNORE_CASE = 4;
+	private static final int RANK_OTHER = 5;
+	private static final int RANK_CONTAINER = 6;
+
+	private char[] names = new char[INITIAL_CAPACITY * 8];
+	private int namesLength;
+	private int[] nameStarts = new int[INITIAL_CAPACITY];
+	private int[] nameEnds = new int[INITIAL_CAPACITY];
+	private int[] containerIds = new int[INITIAL_CAPACITY];
+	private int[] pathIds = new int[INITIAL_CAPACITY];
+	private int[] modifiers = new int[INITIAL_CAPACITY];
+	private int size;
+	private int removed;
+
+	private final StringTable containers = new StringTable();
+	private final StringTable paths = new StringTable();
+
+	private volatile boolean stale = true;
+	private final Set<ICompilationUnit> dirtyUnits = ConcurrentHashMap.newKeySet();
+	private int builds;
+	private long lastBuildTime;
+
+	public void addElementChangeListener() {
+		JavaCore.addElementChangedListener(this, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+	}
+
+	public void removeElementChangeListener() {
+		JavaCore.removeElementChangedListener(this);
+	}
+
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		if (!stale) {
+			processDelta(event.getDelta());
+		}
+	}
+
+	private void processDelta(IJavaElementDelta delta) {
+		IJavaElement element = delta.getElement();
+		switch (element.getElementType()) {
+			case IJavaElement.JAVA_MODEL:
+				processDeltaChildren(delta);
+				break;
+			case IJavaElement.JAVA_PROJECT:
+				if (delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & (IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED | IJavaElementDelta.F_OPENED | IJavaElementDelta.F_CLOSED)) != 0) {
+					invalidate();
+				} else {
+					processDeltaChildren(delta);
+				}
+				break;
+			case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+				if (delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & (IJavaElementDelta.F_ADDED_TO_CLASSPATH | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH | IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED)) != 0) {
+					invalidate();
+				} else {
+					processDeltaChildren(delta);
+				}
+				break;
+			case IJavaElement.PACKAGE_FRAGMENT:
+				if (delta.getKind() == IJavaElementDelta.REMOVED) {
+					invalidate();
+				} else {
+					processDeltaChildren(delta);
+				}
+				break;
+			case IJavaElement.COMPILATION_UNIT:
+				dirtyUnits.add((ICompilationUnit) element);
+				break;
+			default:
+				break;
+		}
+	}
+
+	private void processDeltaChildren(IJavaElementDelta delta) {
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			if (stale) {
+				return;
+			}
+			processDelta(child);
+		}
+	}
+
+	/**
+	 * Discards the indexed symbols, the index will be rebuilt on the next
+	 * query.
+	 */
+	public void invalidate() {
+		stale = true;
+		dirtyUnits.clear();
+	}
+
+	/**
+	 * Searches the types matching the given query.
+	 *
+	 * @param query
+	 *            the query, a type name, optionally qualified, which can
+	 *            contain camel case or wildcards
+	 * @param scope
+	 *            the scope of the search, or <code>null</code> to search all
+	 *            the indexed types
+	 * @param maxResults
+	 *            the maximum number of results, or 0 for no limit
+	 * @param monitor
+	 *            the progress monitor
+	 * @return the matching types, best matches first
+	 * @throws OperationCanceledException
+	 *             if the monitor is cancelled
+	 */
+	public synchronized List<Entry> search(String query, IJavaSearchScope scope, int maxResults, IProgressMonitor monitor) throws JavaModelException {
+		refresh(monitor);
+		Query q = new Query(query);
+		byte[] pathStates = new byte[paths.size()];
+		long[] matches = new long[64];
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			if ((i & 0x3ff) == 0 && monitor != null && monitor.isCanceled()) {
+				throw new OperationCanceledException();
+			}
+			int pathId = pathIds[i];
+			if (pathId == REMOVED) {
+				continue;
+			}
+			int rank = q.rank(names, nameStarts[i], nameEnds[i], containers.getChars(containerIds[i]));
+			if (rank < 0 || !encloses(scope, pathId, pathStates)) {
+				continue;
+			}
+			if (count == matches.length) {
+				matches = Arrays.copyOf(matches, count * 2);
+			}
+			// rank first, then shorter names first, then index order
+			matches[count++] = ((long) rank << 56) | ((long) Math.min(nameEnds[i] - nameStarts[i], 0xffffff) << 32) | i;
+		}
+		Arrays.sort(matches, 0, count);
+		int limit = maxResults > 0 ? Math.min(maxResults, count) : count;
+		List<Entry> result = new ArrayList<>(limit);
+		for (int j = 0; j < limit; j++) {
+			int i = (int) matches[j];
+			result.add(new Entry(new String(names, nameStarts[i], nameEnds[i] - nameStarts[i]), containers.get(containerIds[i]), paths.get(pathIds[i]), modifiers[i]));
+		}
+		return result;
+	}
+
+	private boolean encloses(IJavaSearchScope scope, int pathId, byte[] pathStates) {
+		if (scope == null) {
+			return true;
+		}
+		if (pathStates[pathId] == 0) {
+			pathStates[pathId] = scope.encloses(paths.get(pathId)) ? (byte) 1 : (byte) 2;
+		}
+		return pathStates[pathId] == 1;
+	}
+
+	private void refresh(IProgressMonitor monitor) throws JavaModelException {
+		if (stale) {
+			rebuild(monitor);
+			return;
+		}
+		for (Iterator<ICompilationUnit> iterator = dirtyUnits.iterator(); iterator.hasNext();) {
+			ICompilationUnit unit = iterator.next();
+			iterator.remove();
+			reindex(unit);
+		}
+		if (removed > INITIAL_CAPACITY && removed > size / 2) {
+			compact();
+		}
+	}
+
+	private void rebuild(IProgressMonitor monitor) throws JavaModelException {
+		long start = System.currentTimeMillis();
+		clear();
+		stale = false;
+		dirtyUnits.clear();
+		int includeMask = IJavaSearchScope.SOURCES | IJavaSearchScope.APPLICATION_LIBRARIES | IJavaSearchScope.SYSTEM_LIBRARIES | IJavaSearchScope.REFERENCED_PROJECTS;
+		IJavaSearchScope scope = SearchEngine.createJavaSearchScope(ProjectUtils.getJavaProjects(), includeMask);
+		TypeNameRequestor requestor = new TypeNameRequestor() {
+			@Override
+			public void acceptType(int flags, char[] packageName, char[] simpleTypeName, char[][] enclosingTypeNames, String path) {
+				add(flags, toContainerName(packageName, enclosingTypeNames), simpleTypeName, path);
+			}
+		};
+		try {
+			new SearchEngine().searchAllTypeNames(null, SearchPattern.R_PATTERN_MATCH, null, SearchPattern.R_PATTERN_MATCH, IJavaSearchConstants.TYPE, scope, requestor, IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH, monitor);
+		} catch (JavaModelException | OperationCanceledException e) {
+			stale = true;
+			throw e;
+		}
+		builds++;
+		lastBuildTime = System.currentTimeMillis() - start;
+	}
+
+	private void reindex(ICompilationUnit unit) throws JavaModelException {
+		String path = unit.getPath().toString();
+		int pathId = paths.indexOf(path);
+		if (pathId != -1) {
+			for (int i = 0; i < size; i++) {
+				if (pathIds[i] == pathId) {
+					pathIds[i] = REMOVED;
+					removed++;
+				}
+			}
+		}
+		ICompilationUnit primary = unit.getPrimary();
+		if (!primary.exists()) {
+			return;
+		}
+		String packageName = primary.getParent().getElementName();
+		for (IType type : primary.getAllTypes()) {
+			String qualifiedName = type.getTypeQualifiedName('.');
+			int index = qualifiedName.lastIndexOf('.');
+			String enclosingTypeNames = index == -1 ? "" : qualifiedName.substring(0, index);
+			String containerName = packageName.isEmpty() ? enclosingTypeNames : enclosingTypeNames.isEmpty() ? packageName : packageName + '.' + enclosingTypeNames;
+			add(type.getFlags(), containerName, type.getElementName().toCharArray(), path);
+		}
+	}
+
+	private void add(int flags, String containerName, char[] simpleTypeName, String path) {
+		if (simpleTypeName == null || simpleTypeName.length == 0) {
+			return;
+		}
+		if (size == pathIds.length) {
+			int capacity = size * 2;
+			nameStarts = Arrays.copyOf(nameStarts, capacity);
+			nameEnds = Arrays.copyOf(nameEnds, capacity);
+			containerIds = Arrays.copyOf(containerIds, capacity);
+			pathIds = Arrays.copyOf(pathIds, capacity);
+			modifiers = Arrays.copyOf(modifiers, capacity);
+		}
+		if (namesLength + simpleTypeName.length > names.length) {
+			names = Arrays.copyOf(names, Math.max(names.length * 2, namesLength + simpleTypeName.length));
+		}
+		System.arraycopy(simpleTypeName, 0, names, namesLength, simpleTypeName.length);
+		nameStarts[size] = namesLength;
+		namesLength += simpleTypeName.length;
+		nameEnds[size] = namesLength;
+		containerIds[size] = containers.intern(containerName);
+		pathIds[size] = paths.intern(path);
+		modifiers[size] = flags;
+		size++;
+	}
+
+	/**
+	 * Drops the removed symbols from the arrays.
+	 */
+	private void compact() {
+		char[] newNames = new char[Math.max(INITIAL_CAPACITY, namesLength)];
+		int newNamesLength = 0;
+		int j = 0;
+		for (int i = 0; i < size; i++) {
+			if (pathIds[i] == REMOVED) {
+				continue;
+			}
+			int length = nameEnds[i] - nameStarts[i];
+			System.arraycopy(names, nameStarts[i], newNames, newNamesLength, length);
+			nameStarts[j] = newNamesLength;
+			newNamesLength += length;
+			nameEnds[j] = newNamesLength;
+			containerIds[j] = containerIds[i];
+			pathIds[j] = pathIds[i];
+			modifiers[j] = modifiers[i];
+			j++;
+		}
+		names = newNames;
+		namesLength = newNamesLength;
+		size = j;
+		removed = 0;
+	}
+
+	private void clear() {
+		names = new char[INITIAL_CAPACITY * 8];
+		namesLength = 0;
+		nameStarts = new int[INITIAL_CAPACITY];
+		nameEnds = new int[INITIAL_CAPACITY];
+		containerIds = new int[INITIAL_CAPACITY];
+		pathIds = new int[INITIAL_CAPACITY];
+		modifiers = new int[INITIAL_CAPACITY];
+		size = 0;
+		removed = 0;
+		containers.clear();
+		paths.clear();
+	}
+
+	static String toContainerName(char[] packageName, char[][] enclosingTypeNames) {
+		if (enclosingTypeNames == null || enclosingTypeNames.length == 0) {
+			return new String(packageName);
+		}
+		char[] enclosing = CharOperation.concatWith(enclosingTypeNames, '.');
+		return packageName.length == 0 ? new String(enclosing) : new String(CharOperation.concat(packageName, enclosing, '.'));
+	}
+
+	/**
+	 * @return the number of indexed symbols, documents and name characters
+	 */
+	public synchronized Map<String, Object> getMetrics() {
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		metrics.put("symbols", size - removed);
+		metrics.put("removed", removed);
+		metrics.put("documents", paths.size());
+		metrics.put("containers", containers.size());
+		metrics.put("nameChars", namesLength);
+		metrics.put("stale", stale);
+		metrics.put("builds", builds);
+		metrics.put("lastBuildTime", lastBuildTime);
+		return metrics;
+	}
+
+	/**
+	 * A type returned by {@link WorkspaceSymbolIndex#search}.
+	 */
+	public static final class Entry {
+		private final String name;
+		private final String containerName;
+		private final String path;
+		private final int modifiers;
+
+		Entry(String name, String containerName, String path, int modifiers) {
+			this.name = name;
+			this.containerName = containerName;
+			this.path = path;
+			this.modifiers = modifiers;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return the package name, followed by the enclosing type names
+		 */
+		public String getContainerName() {
+			return containerName;
+		}
+
+		/**
+		 * @return the path of the document declaring the type, in the format
+		 *         of {@link IJavaSearchScope#encloses(String)}
+		 */
+		public String getPath() {
+			return path;
+		}
+
+		public int getModifiers() {
+			return modifiers;
+		}
+
+		/**
+		 * @return the qualified name of the type, using '.' as the enclosing
+		 *         type separator
+		 */
+		public String getQualifiedName() {
+			return containerName.isEmpty() ? name : containerName + '.' + name;
+		}
+	}
+
+	/**
+	 * A query, parsed the same way as the workspace symbol search used to: a
+	 * type matches if its qualifier and simple name match the respective parts
+	 * of the query, or if its container matches the whole query.
+	 */
+	static final class Query {
+		private final char[] query;
+		private final char[] qualifier;
+		private final int qualifierRule;
+		private final char[] typeName;
+		private final int typeRule;
+
+		Query(String query) {
+			String qualifierName = null;
+			String simpleName = query;
+			int rule = SearchPattern.R_PATTERN_MATCH;
+			int qualIndex = query.lastIndexOf('.');
+			if (qualIndex != -1) {
+				qualifierName = query.substring(0, qualIndex);
+				simpleName = query.substring(qualIndex + 1);
+				rule = isPattern(qualifierName) ? SearchPattern.R_PATTERN_MATCH : SearchPattern.R_CAMELCASE_MATCH;
+			}
+			this.qualifierRule = rule;
+			this.qualifier = toPattern(qualifierName, rule);
+			this.typeRule = isPattern(simpleName) ? SearchPattern.R_PATTERN_MATCH : SearchPattern.R_CAMELCASE_MATCH;
+			this.typeName = simpleName.isEmpty() ? null : toPattern(simpleName, typeRule);
+			this.query = toPattern(query, rule);
+		}
+
+		/**
+		 * @return the rank of the given type, lower is better, or -1 if it
+		 *         doesn't match
+		 */
+		int rank(char[] names, int start, int end, char[] container) {
+			if (typeName != null && (qualifier == null || matches(qualifier, qualifierRule, container, 0, container.length))) {
+				int rank = rankName(names, start, end);
+				if (rank >= 0) {
+					return rank;
+				}
+			}
+			return matches(query, qualifierRule, container, 0, container.length) ? RANK_CONTAINER : -1;
+		}
+
+		private int rankName(char[] name, int start, int end) {
+			if (typeRule == SearchPattern.R_PATTERN_MATCH) {
+				return CharOperation.match(typeName, 0, typeName.length, name, start, end, false) ? RANK_OTHER : -1;
+			}
+			int length = end - start;
+			boolean prefix = prefixEquals(typeName, name, start, end, true);
+			if (prefix && typeName.length == length) {
+				return RANK_EXACT;
+			}
+			boolean prefixIgnoreCase = prefix || prefixEquals(typeName, name, start, end, false);
+			if (prefixIgnoreCase && typeName.length == length) {
+				return RANK_EXACT_IGNORE_CASE;
+			}
+			if (CharOperation.camelCaseMatch(typeName, 0, typeName.length, name, start, end, true)) {
+				return RANK_CAMEL_CASE_SAME_PARTS;
+			}
+			if (prefix) {
+				return RANK_PREFIX;
+			}
+			if (prefixIgnoreCase) {
+				return RANK_PREFIX_IGNORE_CASE;
+			}
+			return CharOperation.camelCaseMatch(typeName, 0, typeName.length, name, start, end) ? RANK_OTHER : -1;
+		}
+
+		private static boolean matches(char[] pattern, int rule, char[] name, int start, int end) {
+			if (rule == SearchPattern.R_PATTERN_MATCH) {
+				return CharOperation.match(pattern, 0, pattern.length, name, start, end, false);
+			}
+			return prefixEquals(pattern, name, start, end, false) || CharOperation.camelCaseMatch(pattern, 0, pattern.length, name, start, end);
+		}
+
+		private static boolean prefixEquals(char[] prefix, char[] name, int start, int end, boolean caseSensitive) {
+			if (prefix.length > end - start) {
+				return false;
+			}
+			for (int i = 0; i < prefix.length; i++) {
+				char c = name[start + i];
+				if (prefix[i] != c && (caseSensitive || Character.toLowerCase(prefix[i]) != Character.toLowerCase(c))) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static boolean isPattern(String name) {
+			return name.indexOf('*') != -1 || name.indexOf('?') != -1;
+		}
+
+		/**
+		 * Case insensitive pattern matching expects lower case patterns.
+		 */
+		private static char[] toPattern(String name, int rule) {
+			if (name == null) {
+				return null;
+			}
+			char[] pattern = name.toCharArray();
+			return rule == SearchPattern.R_PATTERN_MATCH ? CharOperation.toLowerCase(pattern) : pattern;
+		}
+	}
+
+	/**
+	 * Interned strings, addressed by index.
+	 */
+	private static final class StringTable {
+		private final Map<String, Integer> indexes = new HashMap<>();
+		private final List<String> strings = new ArrayList<>();
+		private final List<char[]> chars = new ArrayList<>();
+
+		int intern(String value) {
+			Integer index = indexes.get(value);
+			if (index == null) {
+				index = strings.size();
+				indexes.put(value, index);
+				strings.add(value);
+				chars.add(value.toCharArray());
+			}
+			return index;
+		}
+
+		int indexOf(String value) {
+			return indexes.getOrDefault(value, -1);
+		}
+
+		String get(int index) {
+			return strings.get(index);
+		}
+
+		char[] getChars(int index) {
+			return chars.get(index);
+		}
+
+		int size() {
+			return strings.size();
+		}
+
+		void clear() {
+			indexes.clear();
+			strings.clear();
+			chars.clear();
+		}
+	}
+}
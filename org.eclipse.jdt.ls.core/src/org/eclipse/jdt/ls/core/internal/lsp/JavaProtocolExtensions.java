@@ -13,6 +13,7 @@
 package org.eclipse.jdt.ls.core.internal.lsp;
 
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.jdt.ls.core.internal.BuildWorkspaceStatus;
@@ -149,4 +150,10 @@ public interface JavaProtocolExtensions {
 
 	@JsonNotification
 	void validateDocument(ValidateDocumentParams params);
+
+	/**
+	 * Request a snapshot of the server's runtime metrics
+	 */
+	@JsonRequest
+	CompletableFuture<Map<String, Object>> serverMetrics();
 }
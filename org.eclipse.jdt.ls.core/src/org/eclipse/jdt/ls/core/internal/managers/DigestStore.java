@@ -12,19 +12,28 @@
  *******************************************************************************/
 package org.eclipse.jdt.ls.core.internal.managers;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
@@ -36,19 +45,42 @@ import org.eclipse.jdt.ls.core.internal.StatusFactory;
  *         This class handles digests for build files. It serves to prevent
  *         unnecessary updating of maven/gradle, etc. info on workspace
  *         projects.
+ *
+ *         The digests are persisted as (path, size, modification time,
+ *         digest) records appended to a memory-mapped file, so that an update
+ *         only writes the changed records. Files whose size and modification
+ *         time are unchanged are not hashed again. Superseded records are
+ *         dropped by compacting the file once they outnumber the live ones.
  */
 public class DigestStore {
-	private Map<String, String> fileDigests;
-	private File stateFile;
 
 	private static final String SERIALIZATION_FILE_NAME = ".file-digests";
+	private static final String STORE_FILE_NAME = ".file-digests.db";
+
+	private static final int MAGIC = 0x4A444753; // JDGS
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 8;
+	private static final int INITIAL_CAPACITY = 64 * 1024;
+	private static final int MIN_RECORDS_BEFORE_COMPACTION = 64;
+	private static final int BUFFER_SIZE = 8192;
+
+	private final Map<String, Digest> fileDigests = new HashMap<>();
+	private final File storeFile;
+	private FileChannel channel;
+	private MappedByteBuffer buffer;
+	private int records;
 
 	public DigestStore(File stateLocation) {
-		this.stateFile = new File(stateLocation, SERIALIZATION_FILE_NAME);
-		if (stateFile.isFile()) {
-			fileDigests = deserializeFileDigests();
-		} else {
-			fileDigests = new HashMap<>();
+		this.storeFile = new File(stateLocation, STORE_FILE_NAME);
+		try {
+			open();
+			File legacyFile = new File(stateLocation, SERIALIZATION_FILE_NAME);
+			if (legacyFile.isFile()) {
+				migrate(legacyFile);
+			}
+		} catch (IOException e) {
+			JavaLanguageServerPlugin.logException("Exception occured while opening the file digests, digests won't be persisted", e);
+			close();
 		}
 	}
 
@@ -63,45 +95,268 @@ public class DigestStore {
 	 *             if a digest cannot be computed
 	 */
 	public boolean updateDigest(Path p) throws CoreException {
+		return update(p);
+	}
+
+	/**
+	 * Updates the digests for the given paths, flushing the store once.
+	 *
+	 * @param paths
+	 *            Paths to the files in questions
+	 * @return the paths of the files considered changed
+	 * @throws CoreException
+	 *             if a digest cannot be computed
+	 */
+	public Set<Path> updateDigests(Collection<Path> paths) throws CoreException {
+		Set<Path> changed = new LinkedHashSet<>();
 		try {
-			String digest = computeDigest(p);
-			synchronized (fileDigests) {
-				if (!digest.equals(fileDigests.get(p.toString()))) {
-					fileDigests.put(p.toString(), digest);
-					serializeFileDigests();
-					return true;
-				} else {
-					return false;
+			for (Path p : paths) {
+				if (update(p)) {
+					changed.add(p);
 				}
 			}
+		} finally {
+			flush();
+		}
+		return changed;
+	}
+
+	private boolean update(Path p) throws CoreException {
+		String key = p.toString();
+		try {
+			BasicFileAttributes attributes = Files.readAttributes(p, BasicFileAttributes.class);
+			long size = attributes.size();
+			long modified = attributes.lastModifiedTime().toMillis();
+			Digest previous;
+			synchronized (fileDigests) {
+				previous = fileDigests.get(key);
+			}
+			if (previous != null && previous.size == size && previous.modified == modified) {
+				return false;
+			}
+			Digest digest = new Digest(size, modified, computeDigest(p));
+			synchronized (fileDigests) {
+				previous = fileDigests.put(key, digest);
+				append(key, digest);
+				return previous == null || !MessageDigest.isEqual(previous.digest, digest.digest);
+			}
 		} catch (NoSuchAlgorithmException | IOException e) {
 			throw new CoreException(StatusFactory.newErrorStatus("Exception updating digest for " + p, e));
 		}
+	}
 
+	/**
+	 * Forces the pending updates to the storage device.
+	 */
+	public void flush() {
+		synchronized (fileDigests) {
+			if (buffer != null) {
+				buffer.force();
+			}
+		}
 	}
 
-	private void serializeFileDigests() {
-		try (ObjectOutputStream outStream = new ObjectOutputStream(new FileOutputStream(stateFile))) {
-			outStream.writeObject(fileDigests);
-		} catch (IOException e) {
-			JavaLanguageServerPlugin.logException("Exception occured while serialization of file digests", e);
+	public void close() {
+		synchronized (fileDigests) {
+			if (buffer != null) {
+				buffer.force();
+				buffer = null;
+			}
+			if (channel != null) {
+				try {
+					channel.close();
+				} catch (IOException e) {
+					// ignore
+				}
+				channel = null;
+			}
+		}
+	}
+
+	/**
+	 * @return the number of persisted records, including the superseded ones
+	 */
+	int getRecordCount() {
+		synchronized (fileDigests) {
+			return records;
+		}
+	}
+
+	private void open() throws IOException {
+		channel = FileChannel.open(storeFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		long fileSize = channel.size();
+		buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(fileSize, INITIAL_CAPACITY));
+		if (fileSize < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+			reset();
+			return;
+		}
+		buffer.position(HEADER_SIZE);
+		try {
+			while (buffer.remaining() >= Integer.BYTES) {
+				int start = buffer.position();
+				int length = buffer.getInt();
+				if (length <= 0 || length > buffer.remaining()) {
+					// end of the records, or a record truncated by a crash
+					buffer.position(start);
+					break;
+				}
+				byte[] path = new byte[buffer.getShort() & 0xffff];
+				buffer.get(path);
+				long size = buffer.getLong();
+				long modified = buffer.getLong();
+				byte[] digest = new byte[buffer.get() & 0xff];
+				buffer.get(digest);
+				buffer.position(start + Integer.BYTES + length);
+				fileDigests.put(new String(path, StandardCharsets.UTF_8), new Digest(size, modified, digest));
+				records++;
+			}
+		} catch (BufferUnderflowException | IllegalArgumentException e) {
+			JavaLanguageServerPlugin.logException("Corrupted file digests, resetting them", e);
+			fileDigests.clear();
+			reset();
 		}
 	}
 
+	/**
+	 * Imports the digests of the serialized map used by the previous versions.
+	 * Sizes and modification times are unknown, so the files are hashed again
+	 * on their next update.
+	 */
 	@SuppressWarnings("unchecked")
-	private Map<String, String> deserializeFileDigests() {
-		try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(stateFile))) {
-			return (Map<String, String>) ois.readObject();
-		} catch (IOException | ClassNotFoundException e) {
+	private void migrate(File legacyFile) {
+		try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(legacyFile))) {
+			Map<String, String> legacyDigests = (Map<String, String>) ois.readObject();
+			legacyDigests.forEach((path, digest) -> {
+				if (!fileDigests.containsKey(path)) {
+					Digest d = new Digest(-1, -1, parseLegacyDigest(digest));
+					fileDigests.put(path, d);
+					append(path, d);
+				}
+			});
+			flush();
+		} catch (IOException | ClassNotFoundException | RuntimeException e) {
 			JavaLanguageServerPlugin.logException("Exception occured while deserialization of file digests", e);
-			return new HashMap<>();
 		}
+		try {
+			Files.deleteIfExists(legacyFile.toPath());
+		} catch (IOException e) {
+			JavaLanguageServerPlugin.logException("Exception occured while deleting " + legacyFile, e);
+		}
+	}
+
+	/**
+	 * Parses a digest formatted with {@link java.util.Arrays#toString(byte[])}.
+	 */
+	static byte[] parseLegacyDigest(String digest) {
+		String content = digest.substring(1, digest.length() - 1);
+		if (content.isBlank()) {
+			return new byte[0];
+		}
+		String[] values = content.split(", ");
+		byte[] bytes = new byte[values.length];
+		for (int i = 0; i < values.length; i++) {
+			bytes[i] = Byte.parseByte(values[i]);
+		}
+		return bytes;
 	}
 
-	private String computeDigest(Path path) throws IOException, NoSuchAlgorithmException {
-		byte[] fileBytes = Files.readAllBytes(path);
-		byte[] digest = MessageDigest.getInstance("MD5").digest(fileBytes);
-		return Arrays.toString(digest);
+	private void append(String path, Digest digest) {
+		if (buffer == null) {
+			return;
+		}
+		try {
+			if (records >= MIN_RECORDS_BEFORE_COMPACTION && records >= 2 * fileDigests.size()) {
+				compact();
+			} else {
+				write(encode(path, digest));
+				records++;
+			}
+		} catch (IOException e) {
+			JavaLanguageServerPlugin.logException("Exception occured while writing the file digests, digests won't be persisted", e);
+			close();
+		}
 	}
 
+	/**
+	 * Rewrites the live records in place.
+	 */
+	private void compact() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for (Map.Entry<String, Digest> entry : fileDigests.entrySet()) {
+			out.write(encode(entry.getKey(), entry.getValue()));
+		}
+		reset();
+		write(out.toByteArray());
+		records = fileDigests.size();
+	}
+
+	private void reset() {
+		buffer.putInt(0, MAGIC);
+		buffer.putInt(4, VERSION);
+		buffer.position(HEADER_SIZE);
+		terminate();
+		records = 0;
+	}
+
+	private void write(byte[] bytes) throws IOException {
+		if (buffer.remaining() < bytes.length + Integer.BYTES) {
+			int position = buffer.position();
+			long capacity = Math.max(2L * buffer.capacity(), (long) position + bytes.length + Integer.BYTES);
+			if (capacity > Integer.MAX_VALUE) {
+				throw new IOException("File digests too large");
+			}
+			buffer.force();
+			buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+			buffer.position(position);
+		}
+		buffer.put(bytes);
+		terminate();
+	}
+
+	/**
+	 * Marks the end of the records, without moving the position.
+	 */
+	private void terminate() {
+		if (buffer.remaining() >= Integer.BYTES) {
+			buffer.putInt(buffer.position(), 0);
+		}
+	}
+
+	private static byte[] encode(String path, Digest digest) throws IOException {
+		byte[] pathBytes = path.getBytes(StandardCharsets.UTF_8);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(Short.BYTES + pathBytes.length + 2 * Long.BYTES + 1 + digest.digest.length);
+		out.writeShort(pathBytes.length);
+		out.write(pathBytes);
+		out.writeLong(digest.size);
+		out.writeLong(digest.modified);
+		out.writeByte(digest.digest.length);
+		out.write(digest.digest);
+		return bytes.toByteArray();
+	}
+
+	private byte[] computeDigest(Path path) throws IOException, NoSuchAlgorithmException {
+		MessageDigest md = MessageDigest.getInstance("MD5");
+		byte[] bytes = new byte[BUFFER_SIZE];
+		try (InputStream in = Files.newInputStream(path)) {
+			int read;
+			while ((read = in.read(bytes)) != -1) {
+				md.update(bytes, 0, read);
+			}
+		}
+		return md.digest();
+	}
+
+	private static final class Digest {
+		private final long size;
+		private final long modified;
+		private final byte[] digest;
+
+		private Digest(long size, long modified, byte[] digest) {
+			this.size = size;
+			this.modified = modified;
+			this.digest = digest;
+		}
+	}
 }
@@ -13,6 +13,7 @@
 package org.eclipse.jdt.ls.core.internal.managers;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -98,14 +99,15 @@ public class GradleBuildSupport implements IBuildSupport {
 				BuildConfiguration buildConfiguration = GradleProjectImporter.getBuildConfiguration(Paths.get(projectPath));
 				gradleBuild = GradleCore.getWorkspace().createBuild(buildConfiguration);
 			}
-			File buildFile = project.getFile(GradleProjectImporter.BUILD_GRADLE_DESCRIPTOR).getLocation().toFile();
-			File settingsFile = project.getFile(GradleProjectImporter.SETTINGS_GRADLE_DESCRIPTOR).getLocation().toFile();
-			File buildKtsFile = project.getFile(GradleProjectImporter.BUILD_GRADLE_KTS_DESCRIPTOR).getLocation().toFile();
-			File settingsKtsFile = project.getFile(GradleProjectImporter.SETTINGS_GRADLE_KTS_DESCRIPTOR).getLocation().toFile();
-			boolean shouldUpdate = (buildFile.exists() && JavaLanguageServerPlugin.getDigestStore().updateDigest(buildFile.toPath()))
-					|| (settingsFile.exists() && JavaLanguageServerPlugin.getDigestStore().updateDigest(settingsFile.toPath()))
-					|| (buildKtsFile.exists() && JavaLanguageServerPlugin.getDigestStore().updateDigest(buildKtsFile.toPath()))
-					|| (settingsKtsFile.exists() && JavaLanguageServerPlugin.getDigestStore().updateDigest(settingsKtsFile.toPath()));
+			List<Path> buildFiles = new ArrayList<>();
+			for (String descriptor : new String[] { GradleProjectImporter.BUILD_GRADLE_DESCRIPTOR, GradleProjectImporter.SETTINGS_GRADLE_DESCRIPTOR, GradleProjectImporter.BUILD_GRADLE_KTS_DESCRIPTOR,
+					GradleProjectImporter.SETTINGS_GRADLE_KTS_DESCRIPTOR }) {
+				File buildFile = project.getFile(descriptor).getLocation().toFile();
+				if (buildFile.exists()) {
+					buildFiles.add(buildFile.toPath());
+				}
+			}
+			boolean shouldUpdate = !JavaLanguageServerPlugin.getDigestStore().updateDigests(buildFiles).isEmpty();
 			if (isRoot || shouldUpdate) {
 				gradleBuild.synchronize(monitor);
 				syncAnnotationProcessingConfiguration(gradleBuild, monitor);
@@ -229,26 +229,28 @@ public class GradleProjectImporter extends AbstractProjectImporter {
 			checkWrapperChecksum(directory);
 		}
 		// store the digest for the imported gradle projects.
+		List<Path> buildFiles = new ArrayList<>();
 		ProjectUtils.getGradleProjects().forEach(project -> {
 			File buildFile = project.getFile(BUILD_GRADLE_DESCRIPTOR).getLocation().toFile();
 			File settingsFile = project.getFile(SETTINGS_GRADLE_DESCRIPTOR).getLocation().toFile();
 			File buildKtsFile = project.getFile(BUILD_GRADLE_KTS_DESCRIPTOR).getLocation().toFile();
 			File settingsKtsFile = project.getFile(SETTINGS_GRADLE_KTS_DESCRIPTOR).getLocation().toFile();
-			try {
-				if (buildFile.exists()) {
-					JavaLanguageServerPlugin.getDigestStore().updateDigest(buildFile.toPath());
-				} else if (buildKtsFile.exists()) {
-					JavaLanguageServerPlugin.getDigestStore().updateDigest(buildKtsFile.toPath());
-				}
-				if (settingsFile.exists()) {
-					JavaLanguageServerPlugin.getDigestStore().updateDigest(settingsFile.toPath());
-				} else if (settingsKtsFile.exists()) {
-					JavaLanguageServerPlugin.getDigestStore().updateDigest(settingsKtsFile.toPath());
-				}
-			} catch (CoreException e) {
-				JavaLanguageServerPlugin.logException("Failed to update digest for gradle build file", e);
+			if (buildFile.exists()) {
+				buildFiles.add(buildFile.toPath());
+			} else if (buildKtsFile.exists()) {
+				buildFiles.add(buildKtsFile.toPath());
+			}
+			if (settingsFile.exists()) {
+				buildFiles.add(settingsFile.toPath());
+			} else if (settingsKtsFile.exists()) {
+				buildFiles.add(settingsKtsFile.toPath());
 			}
 		});
+		try {
+			JavaLanguageServerPlugin.getDigestStore().updateDigests(buildFiles);
+		} catch (CoreException e) {
+			JavaLanguageServerPlugin.logException("Failed to update digest for gradle build file", e);
+		}
 		for (IProject gradleProject : ProjectUtils.getGradleProjects()) {
 			gradleProject.deleteMarkers(COMPATIBILITY_MARKER_ID, true, IResource.DEPTH_ZERO);
 			gradleProject.deleteMarkers(GRADLE_UPGRADE_WRAPPER_MARKER_ID, true, IResource.DEPTH_INFINITE);
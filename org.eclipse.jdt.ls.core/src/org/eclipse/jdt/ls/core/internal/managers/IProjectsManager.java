@@ -15,6 +15,7 @@ package org.eclipse.jdt.ls.core.internal.managers;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.eclipse.core.resources.IProject;
@@ -90,6 +91,15 @@ public interface IProjectsManager {
 	 */
 	void fileChanged(String uriString, CHANGE_TYPE changeType);
 
+	/**
+	 * Handle the file change events of a notification, in order.
+	 */
+	default void filesChanged(List<Map.Entry<String, CHANGE_TYPE>> changes) {
+		for (Map.Entry<String, CHANGE_TYPE> change : changes) {
+			fileChanged(change.getKey(), change.getValue());
+		}
+	}
+
 	/**
 	 * Unregister listeners.
 	 */
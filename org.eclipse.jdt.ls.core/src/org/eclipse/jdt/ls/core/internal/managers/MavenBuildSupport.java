@@ -76,7 +76,7 @@ public class MavenBuildSupport implements IBuildSupport {
 			return;
 		}
 		Path pomPath = project.getFile("pom.xml").getLocation().toFile().toPath();
-		if (digestStore.updateDigest(pomPath) || force) {
+		if (!digestStore.updateDigests(List.of(pomPath)).isEmpty() || force) {
 			JavaLanguageServerPlugin.debugTrace("Starting Maven update for " + project.getName());
 			boolean updateSnapshots = JavaLanguageServerPlugin.getPreferencesManager() == null ? false : JavaLanguageServerPlugin.getPreferencesManager().getPreferences().isMavenUpdateSnapshots();
 			if (shouldCollectProjects()) {
@@ -172,6 +172,7 @@ public class MavenProjectImporter extends AbstractProjectImporter {
 		Collection<MavenProjectInfo> toImport = new LinkedHashSet<>();
 		long lastWorkspaceStateSaved = getLastWorkspaceStateModified();
 		Set<String> artifactIds = new LinkedHashSet<>();
+		List<java.nio.file.Path> pomFiles = new ArrayList<>();
 		//Separate existing projects from new ones
 		for (MavenProjectInfo projectInfo : files) {
 			File pom = projectInfo.getPomFile();
@@ -187,7 +188,7 @@ public class MavenProjectImporter extends AbstractProjectImporter {
 				}
 			}
 			if (container == null) {
-				digestStore.updateDigest(pom.toPath());
+				pomFiles.add(pom.toPath());
 				toImport.add(projectInfo);
 				artifactIds.add(projectInfo.getModel().getArtifactId());
 			} else {
@@ -197,7 +198,7 @@ public class MavenProjectImporter extends AbstractProjectImporter {
 					projects.add(container.getProject());
 				} else if (project != null) {
 					//Project doesn't have the Maven nature, so we (re)import it
-					digestStore.updateDigest(pom.toPath());
+					pomFiles.add(pom.toPath());
 					// need to delete project due to m2e failing to create if linked and not the same name
 					project.delete(IProject.FORCE | IProject.NEVER_DELETE_PROJECT_CONTENT, subMonitor.split(5));
 					toImport.add(projectInfo);
@@ -206,6 +207,7 @@ public class MavenProjectImporter extends AbstractProjectImporter {
 			}
 
 		}
+		digestStore.updateDigests(pomFiles);
 		if (!toImport.isEmpty()) {
 			ProjectImportConfiguration importConfig = new ProjectImportConfiguration();
 			if (toImport.size() > artifactIds.size()) {
@@ -79,6 +79,7 @@ import org.eclipse.jdt.ls.core.internal.IConstants;
 import org.eclipse.jdt.ls.core.internal.IProjectImporter;
 import org.eclipse.jdt.ls.core.internal.JDTEnvironmentUtils;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
+import org.eclipse.jdt.ls.core.internal.JavaClientConnection;
 import org.eclipse.jdt.ls.core.internal.JavaClientConnection.JavaLanguageClient;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.JobHelpers;
@@ -859,6 +860,8 @@ public abstract class ProjectsManager implements ISaveParticipant, IProjectsMana
 		private void clearDiagnostics(IProject project) throws CoreException {
 			IMarker[] markers = project.findMarkers(null, true, IResource.DEPTH_INFINITE);
 			Set<String> uris = new HashSet<>();
+			// the connection keeps track of the published diagnostics
+			JavaClientConnection connection = JavaLanguageServerPlugin.getInstance().getClientConnection();
 			for (IMarker marker : markers) {
 				URI locationURI = marker.getResource().getLocationURI();
 				if (locationURI != null) {
@@ -872,7 +875,11 @@ public abstract class ProjectsManager implements ISaveParticipant, IProjectsMana
 			}
 			for (String uri : uris) {
 				PublishDiagnosticsParams diagnostics = new PublishDiagnosticsParams(ResourceUtils.toClientUri(uri), Collections.emptyList());
-				client.publishDiagnostics(diagnostics);
+				if (connection != null) {
+					connection.publishDiagnostics(diagnostics);
+				} else {
+					client.publishDiagnostics(diagnostics);
+				}
 			}
 		}
 	}
@@ -29,6 +29,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Hashtable;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -180,6 +181,47 @@ public class StandardProjectsManager extends ProjectsManager {
 		if (uriString == null) {
 			return;
 		}
+		filesChanged(List.of(entry(uriString, changeType)));
+	}
+
+	@Override
+	public void filesChanged(List<Map.Entry<String, CHANGE_TYPE>> changes) {
+		// the uris of the changed build files, whose digests are updated at once
+		Map<java.nio.file.Path, String> buildFiles = new LinkedHashMap<>();
+		for (Map.Entry<String, CHANGE_TYPE> change : changes) {
+			IResource buildFile = handleFileChange(change.getKey(), change.getValue());
+			if (buildFile != null && buildFile.getLocation() != null) {
+				buildFiles.putIfAbsent(buildFile.getLocation().toFile().toPath(), change.getKey());
+			}
+		}
+		if (buildFiles.isEmpty()) {
+			return;
+		}
+		Set<java.nio.file.Path> changed;
+		try {
+			changed = JavaLanguageServerPlugin.getDigestStore().updateDigests(buildFiles.keySet());
+		} catch (CoreException e) {
+			JavaLanguageServerPlugin.logException("Problem refreshing workspace", e);
+			return;
+		}
+		for (java.nio.file.Path path : changed) {
+			String uriString = buildFiles.get(path);
+			IResource resource = JDTUtils.getFileOrFolder(uriString);
+			try {
+				if (resource != null) {
+					buildFileChanged(resource, uriString);
+				}
+			} catch (CoreException e) {
+				JavaLanguageServerPlugin.logException("Problem refreshing workspace", e);
+			}
+		}
+	}
+
+	/**
+	 * @return the build file requiring a configuration update if its contents
+	 *         changed, or <code>null</code>
+	 */
+	private IResource handleFileChange(String uriString, CHANGE_TYPE changeType) {
 		boolean configureNeeded = false;
 		String formatterUrl = preferenceManager.getPreferences().getFormatterUrl();
 		if (formatterUrl != null && JavaLanguageServerPlugin.getInstance().getProtocol() != null) {
@@ -222,7 +264,7 @@ public class StandardProjectsManager extends ProjectsManager {
 		}
 		IResource resource = JDTUtils.getFileOrFolder(uriString);
 		if (resource == null) {
-			return;
+			return null;
 		}
 		try {
 			IProject project = resource.getProject();
@@ -231,44 +273,48 @@ public class StandardProjectsManager extends ProjectsManager {
 				IBuildSupport buildSupport = bs.get();
 
 				if (JDTUtils.isExcludedFile(buildSupport.getExcludedFilePatterns(), uriString)) {
-					return;
+					return null;
 				}
 
-				boolean requireConfigurationUpdate = buildSupport.fileChanged(resource, changeType, new NullProgressMonitor()) &&
-						JavaLanguageServerPlugin.getDigestStore().updateDigest(resource.getLocation().toFile().toPath());
-				if (requireConfigurationUpdate) {
-					FeatureStatus status = preferenceManager.getPreferences().getUpdateBuildConfigurationStatus();
-					switch (status) {
-						case automatic:
-							if (ProjectUtils.isGradleProject(project)) {
-								// The sync task is handled by Buildship when sync.auto is turned on,
-								// except for the annotation processing configuration updating.
-								// See https://github.com/redhat-developer/vscode-java/issues/2673
-								GradleBuildSupport.syncAnnotationProcessingConfiguration(project, new NullProgressMonitor());
-								return;
-							}
-							updateProject(project, true);
-							break;
-						case disabled:
-							appendBuildFileMarker(resource);
-							break;
-						default:
-							if (client != null) {
-								String cmd = "java.projectConfiguration.status";
-								TextDocumentIdentifier uri = new TextDocumentIdentifier(uriString);
-								ActionableNotification updateProjectConfigurationNotification = new ActionableNotification().withSeverity(MessageType.Info)
-										.withMessage("A build file was modified. Do you want to synchronize the Java classpath/configuration?").withCommands(asList(new Command("Yes", cmd, asList(uri, FeatureStatus.interactive)),
-												new Command("Always", cmd, asList(uri, FeatureStatus.automatic)), new Command("Never", cmd, asList(uri, FeatureStatus.disabled))));
-								client.sendActionableNotification(updateProjectConfigurationNotification);
-							}
-							appendBuildFileMarker(resource);
-							break;
-					}
+				if (buildSupport.fileChanged(resource, changeType, new NullProgressMonitor())) {
+					return resource;
 				}
 			}
 		} catch (CoreException e) {
 			JavaLanguageServerPlugin.logException("Problem refreshing workspace", e);
 		}
+		return null;
+	}
+
+	private void buildFileChanged(IResource resource, String uriString) throws CoreException {
+		IProject project = resource.getProject();
+		FeatureStatus status = preferenceManager.getPreferences().getUpdateBuildConfigurationStatus();
+		switch (status) {
+			case automatic:
+				if (ProjectUtils.isGradleProject(project)) {
+					// The sync task is handled by Buildship when sync.auto is turned on,
+					// except for the annotation processing configuration updating.
+					// See https://github.com/redhat-developer/vscode-java/issues/2673
+					GradleBuildSupport.syncAnnotationProcessingConfiguration(project, new NullProgressMonitor());
+					return;
+				}
+				updateProject(project, true);
+				break;
+			case disabled:
+				appendBuildFileMarker(resource);
+				break;
+			default:
+				if (client != null) {
+					String cmd = "java.projectConfiguration.status";
+					TextDocumentIdentifier uri = new TextDocumentIdentifier(uriString);
+					ActionableNotification updateProjectConfigurationNotification = new ActionableNotification().withSeverity(MessageType.Info)
+							.withMessage("A build file was modified. Do you want to synchronize the Java classpath/configuration?").withCommands(asList(new Command("Yes", cmd, asList(uri, FeatureStatus.interactive)),
+									new Command("Always", cmd, asList(uri, FeatureStatus.automatic)), new Command("Never", cmd, asList(uri, FeatureStatus.disabled))));
+					client.sendActionableNotification(updateProjectConfigurationNotification);
+				}
+				appendBuildFileMarker(resource);
+				break;
+		}
 	}
 
 	private void appendBuildFileMarker(IResource resource) throws CoreException {
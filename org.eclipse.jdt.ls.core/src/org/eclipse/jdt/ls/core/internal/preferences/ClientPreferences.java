@@ -117,6 +117,16 @@ public class ClientPreferences {
 		return v3supported && capabilities.getWorkspace() != null && isDynamicRegistrationSupported(capabilities.getWorkspace().getSymbol());
 	}
 
+	public boolean isWorkspaceSymbolResolveSupported() {
+		//@formatter:off
+		return v3supported && capabilities.getWorkspace() != null
+			&& capabilities.getWorkspace().getSymbol() != null
+			&& capabilities.getWorkspace().getSymbol().getResolveSupport() != null
+			&& capabilities.getWorkspace().getSymbol().getResolveSupport().getProperties() != null
+			&& capabilities.getWorkspace().getSymbol().getResolveSupport().getProperties().contains("location");
+		//@formatter:on
+	}
+
 	public boolean isWorkspaceChangeWatchedFilesDynamicRegistered() {
 		return v3supported && capabilities.getWorkspace() != null && isDynamicRegistrationSupported(capabilities.getWorkspace().getDidChangeWatchedFiles());
 	}
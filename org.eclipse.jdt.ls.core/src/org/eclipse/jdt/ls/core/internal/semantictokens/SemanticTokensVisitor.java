@@ -14,6 +14,7 @@
 package org.eclipse.jdt.ls.core.internal.semantictokens;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.eclipse.jdt.core.IJavaProject;
@@ -63,12 +64,28 @@ public class SemanticTokensVisitor extends ASTVisitor {
 	private CompilationUnit cu;
 	private final IScanner scanner;
 	private List<SemanticToken> tokens;
+	private final int rangeStart;
+	private final int rangeEnd;
 
 	public SemanticTokensVisitor(CompilationUnit cu) {
+		this(cu, 0, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Creates a visitor which only descends into the nodes intersecting the
+	 * given range, and only collects the tokens within that range.
+	 *
+	 * @param cu the compilation unit
+	 * @param rangeStart the start offset of the range (inclusive)
+	 * @param rangeEnd the end offset of the range (exclusive)
+	 */
+	public SemanticTokensVisitor(CompilationUnit cu, int rangeStart, int rangeEnd) {
 		super(true);
 		this.cu = cu;
 		this.scanner = createScanner(cu);
 		this.tokens = new ArrayList<>();
+		this.rangeStart = rangeStart;
+		this.rangeEnd = rangeEnd;
 	}
 
 	private class SemanticToken {
@@ -101,13 +118,26 @@ public class SemanticTokensVisitor extends ASTVisitor {
 		}
 	}
 
+	private boolean isRangeLimited() {
+		return rangeStart > 0 || rangeEnd != Integer.MAX_VALUE;
+	}
+
 	public SemanticTokens getSemanticTokens() {
-		return new SemanticTokens(encodedTokens());
+		int[] encoded = getEncodedTokens();
+		List<Integer> data = new ArrayList<>(encoded.length);
+		for (int value : encoded) {
+			data.add(value);
+		}
+		return new SemanticTokens(data);
 	}
 
-	private List<Integer> encodedTokens() {
+	/**
+	 * @return the collected tokens, encoded as specified by the LSP
+	 */
+	public int[] getEncodedTokens() {
 		int numTokens = tokens.size();
-		List<Integer> data = new ArrayList<>(numTokens * 5);
+		int[] data = new int[numTokens * 5];
+		int size = 0;
 		int currentLine = 0;
 		int currentColumn = 0;
 		for (int i = 0; i < numTokens; i++) {
@@ -126,14 +156,14 @@ public class SemanticTokensVisitor extends ASTVisitor {
 				int tokenTypeIndex = token.getTokenType().ordinal();
 				int tokenModifiers = token.getTokenModifiers();
 
-				data.add(deltaLine);
-				data.add(deltaColumn);
-				data.add(token.getLength());
-				data.add(tokenTypeIndex);
-				data.add(tokenModifiers);
+				data[size++] = deltaLine;
+				data[size++] = deltaColumn;
+				data[size++] = token.getLength();
+				data[size++] = tokenTypeIndex;
+				data[size++] = tokenModifiers;
 			}
 		}
-		return data;
+		return size == data.length ? data : Arrays.copyOf(data, size);
 	}
 
 	/**
@@ -155,11 +185,14 @@ public class SemanticTokensVisitor extends ASTVisitor {
 	 * @param tokenType The type of the semantic token.
 	 * @param modifiers The bitwise OR of the semantic token modifiers, see {@link TokenModifier#bitmask}.
 	 *
-	 * @apiNote This method is order-dependent because of {@link #encodedTokens()}.
+	 * @apiNote This method is order-dependent because of {@link #getEncodedTokens()}.
 	 * If semantic tokens are not added in the order they appear in the document,
 	 * the encoding algorithm might discard them.
 	 */
 	private void addToken(int offset, int length, TokenType tokenType, int modifiers) {
+		if (isRangeLimited() && (offset + length <= rangeStart || offset >= rangeEnd)) {
+			return;
+		}
 		tokens.add(new SemanticToken(offset, length, tokenType, modifiers | staticModifiers));
 	}
 
@@ -171,7 +204,7 @@ public class SemanticTokensVisitor extends ASTVisitor {
 	 * @param tokenType The type of the semantic token.
 	 * @param modifiers The bitwise OR of the semantic token modifiers, see {@link TokenModifier#bitmask}.
 	 *
-	 * @apiNote This method is order-dependent because of {@link #encodedTokens()}.
+	 * @apiNote This method is order-dependent because of {@link #getEncodedTokens()}.
 	 * If semantic tokens are not added in the order they appear in the document,
 	 * the encoding algorithm might discard them.
 	 */
@@ -186,7 +219,7 @@ public class SemanticTokensVisitor extends ASTVisitor {
 	 * @param node The AST node representing the location of the semantic token.
 	 * @param tokenType The type of the semantic token.
 	 *
-	 * @apiNote This method is order-dependent because of {@link #encodedTokens()}.
+	 * @apiNote This method is order-dependent because of {@link #getEncodedTokens()}.
 	 * If semantic tokens are not added in the order they appear in the document,
 	 * the encoding algorithm might discard them.
 	 */
@@ -194,6 +227,16 @@ public class SemanticTokensVisitor extends ASTVisitor {
 		addToken(node, tokenType, 0);
 	}
 
+	@Override
+	public boolean preVisit2(ASTNode node) {
+		// skip the subtrees outside of the requested range
+		if (!isRangeLimited()) {
+			return true;
+		}
+		int start = node.getStartPosition();
+		return start < 0 || (start < rangeEnd && start + node.getLength() >= rangeStart);
+	}
+
 	@Override
 	public boolean visit(TypeLiteral node) {
 		acceptNode(node.getType());
@@ -89,7 +89,10 @@ import org.eclipse.lsp4j.LocationLink;
 import org.eclipse.lsp4j.SelectionRange;
 import org.eclipse.lsp4j.SelectionRangeParams;
 import org.eclipse.lsp4j.SemanticTokens;
+import org.eclipse.lsp4j.SemanticTokensDelta;
+import org.eclipse.lsp4j.SemanticTokensDeltaParams;
 import org.eclipse.lsp4j.SemanticTokensParams;
+import org.eclipse.lsp4j.SemanticTokensRangeParams;
 import org.eclipse.lsp4j.SetTraceParams;
 import org.eclipse.lsp4j.SymbolInformation;
 import org.eclipse.lsp4j.TextDocumentIdentifier;
@@ -114,6 +117,9 @@ public class SyntaxLanguageServer extends BaseJDTLanguageServer implements Langu
 		@Override
 		protected IStatus run(IProgressMonitor monitor) {
 			try {
+				if (documentLifeCycleHandler != null) {
+					documentLifeCycleHandler.shutdown();
+				}
 				ResourcesPlugin.getWorkspace().save(true, monitor);
 			} catch (CoreException e) {
 				logException(e.getMessage(), e);
@@ -300,6 +306,7 @@ public class SyntaxLanguageServer extends BaseJDTLanguageServer implements Langu
 	@Override
 	public void didClose(DidCloseTextDocumentParams params) {
 		logInfo(">> document/didClose");
+		SemanticTokensHandler.evict(params.getTextDocument().getUri());
 		documentLifeCycleHandler.didClose(params);
 	}
 
@@ -458,6 +465,20 @@ public class SyntaxLanguageServer extends BaseJDTLanguageServer implements Langu
 			documentLifeCycleHandler.new DocumentMonitor(params.getTextDocument().getUri())));
 	}
 
+	@Override
+	public CompletableFuture<Either<SemanticTokens, SemanticTokensDelta>> semanticTokensFullDelta(SemanticTokensDeltaParams params) {
+		logInfo(">> textDocument/semanticTokens/full/delta");
+		return computeAsync(monitor -> SemanticTokensHandler.fullDelta(monitor, params,
+			documentLifeCycleHandler.new DocumentMonitor(params.getTextDocument().getUri())));
+	}
+
+	@Override
+	public CompletableFuture<SemanticTokens> semanticTokensRange(SemanticTokensRangeParams params) {
+		logInfo(">> textDocument/semanticTokens/range");
+		return computeAsync(monitor -> SemanticTokensHandler.range(monitor, params,
+			documentLifeCycleHandler.new DocumentMonitor(params.getTextDocument().getUri())));
+	}
+
 	@Override
 	public CompletableFuture<List<? extends DocumentHighlight>> documentHighlight(DocumentHighlightParams position) {
 		logInfo(">> document/documentHighlight");
@@ -27,7 +27,7 @@ public class JDTLSFilesystemActivator implements BundleActivator {
 	private static final String JAVA_LS_PLUGIN_ID = "org.eclipse.jdt.ls.core";
 	private static final String JAVA_RESOURCE_FILTERS = "java.project.resourceFilters";
 	private static final String JAVA_RESOURCE_FILTERS_DEFAULT = "node_modules::\\.git";
-	private List<Pattern> resourcePatterns; 
+	private volatile List<Pattern> resourcePatterns;
 	private String resourceFilters;
 	private static JDTLSFilesystemActivator instance;
 
@@ -62,14 +62,16 @@ public class JDTLSFilesystemActivator implements BundleActivator {
 	}
 
 	protected void setResourcePatterns() {
-		resourcePatterns = new ArrayList<>();
+		List<Pattern> patterns = new ArrayList<>();
 		for (String element : resourceFilters.split("::")) {
 			Pattern pattern = Pattern.compile(element);
-			resourcePatterns.add(pattern);
+			patterns.add(pattern);
 		}
+		resourcePatterns = patterns;
 	}
 
 	public void stop(BundleContext bundleContext) throws Exception {
+		ProjectLocationIndex.getInstance().dispose();
 		JDTLSFilesystemActivator.context = null;
 	}
 
@@ -14,6 +14,7 @@
 package org.eclipse.jdt.ls.core.internal.filesystem;
 
 import java.io.File;
+import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.Set;
@@ -21,6 +22,7 @@ import java.util.Set;
 import org.eclipse.core.filesystem.IFileStore;
 import org.eclipse.core.internal.filesystem.local.LocalFile;
 import org.eclipse.core.internal.preferences.EclipsePreferences;
+import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.Path;
@@ -54,7 +56,8 @@ public class JLSFile extends LocalFile {
         if (JLSFsUtils.isExcluded(filePath)) {
             return childNames;
         }
-        String projectName = JLSFsUtils.getProjectNameIfLocationIsProjectRoot(filePath);
+        // the projects created by the current operation are indexed when their metadata files are created
+        String projectName = JLSFsUtils.getProjectNameIfLocationIsProjectRoot(filePath, false);
         if (projectName == null) {
             return childNames;
         }
@@ -105,4 +108,41 @@ public class JLSFile extends LocalFile {
 
         return new JLSFile(fullPath.toFile());
     }
+
+    @Override
+    public void delete(int options, IProgressMonitor monitor) throws CoreException {
+        try {
+            super.delete(options, monitor);
+        } finally {
+            JLSFsUtils.clearExistenceCache();
+        }
+    }
+
+    @Override
+    public OutputStream openOutputStream(int options, IProgressMonitor monitor) throws CoreException {
+        try {
+            return super.openOutputStream(options, monitor);
+        } finally {
+            // the file is created when the stream is opened
+            JLSFsUtils.clearExistenceCache();
+        }
+    }
+
+    @Override
+    public IFileStore mkdir(int options, IProgressMonitor monitor) throws CoreException {
+        try {
+            return super.mkdir(options, monitor);
+        } finally {
+            JLSFsUtils.clearExistenceCache();
+        }
+    }
+
+    @Override
+    public void move(IFileStore destination, int options, IProgressMonitor monitor) throws CoreException {
+        try {
+            super.move(destination, options, monitor);
+        } finally {
+            JLSFsUtils.clearExistenceCache();
+        }
+    }
 }
@@ -15,14 +15,15 @@ package org.eclipse.jdt.ls.core.internal.filesystem;
 
 import java.util.Arrays;
 import java.util.HashSet;
-import java.util.Objects;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
 
 import org.eclipse.core.internal.preferences.EclipsePreferences;
-import org.eclipse.core.resources.IContainer;
-import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IProjectDescription;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.IPath;
@@ -53,6 +54,19 @@ public class JLSFsUtils {
         FACTORY_PATH
     ));
 
+    /**
+     * How long, in milliseconds, the existence of the metadata files at the
+     * project roots is cached, overridden by the
+     * <code>jdt.ls.filesystem.existenceCacheTtl</code> system property.
+     */
+    private static final long EXISTENCE_TTL = Long.getLong("jdt.ls.filesystem.existenceCacheTtl", 1000);
+
+    private static final int MAX_CACHED_ENTRIES = 4096;
+
+    private static final Map<IPath, Existence> existenceCache = new ConcurrentHashMap<>();
+
+    private static volatile ResourceFilter resourceFilter;
+
     /**
      * Determine whether the resource should be stored in workspace's metadata folder.
      * <p>
@@ -77,16 +91,47 @@ public class JLSFsUtils {
         }
 
         // do not redirect if the file already exists on disk
-        if (location.toFile().exists()) {
+        if (exists(location)) {
             return false;
         } else if (location.lastSegment().endsWith(EclipsePreferences.PREFS_FILE_EXTENSION)) {
             location = location.removeLastSegments(1);
-            return !location.toFile().exists();
+            return !exists(location);
         }
 
         return true;
     }
 
+    /**
+     * Check whether the file exists on disk. The result is cached for a short
+     * time, since the same metadata files are looked up for every resource of
+     * a project while it is refreshed.
+     * @param location file location.
+     * @return whether the file exists.
+     */
+    private static boolean exists(IPath location) {
+        long now = System.currentTimeMillis();
+        Existence existence = existenceCache.get(location);
+        if (existence != null && existence.expires > now) {
+            return existence.exists;
+        }
+        boolean exists = location.toFile().exists();
+        if (existenceCache.size() >= MAX_CACHED_ENTRIES) {
+            existenceCache.clear();
+        }
+        existenceCache.put(location, new Existence(exists, now + EXISTENCE_TTL));
+        return exists;
+    }
+
+    /**
+     * Discard the cached existence of the metadata files, after files were
+     * created or deleted.
+     */
+    static void clearExistenceCache() {
+        if (!existenceCache.isEmpty()) {
+            existenceCache.clear();
+        }
+    }
+
     /**
      * Check whether the given location points to a metadata file.
      * @param location file location.
@@ -118,13 +163,16 @@ public class JLSFsUtils {
      * @return whether the given location is excluded.
      */
     public static boolean isExcluded(IPath path) {
-        if (path != null && JDTLSFilesystemActivator.getResourcePatterns() != null) {
+        List<Pattern> patterns = JDTLSFilesystemActivator.getResourcePatterns();
+        if (path != null && patterns != null) {
+            ResourceFilter filter = resourceFilter;
+            if (filter == null || filter.patterns != patterns) {
+                filter = new ResourceFilter(patterns);
+                resourceFilter = filter;
+            }
             for (String segment : path.segments()) {
-                for (Pattern pattern : JDTLSFilesystemActivator.getResourcePatterns()) {
-                    Matcher m = pattern.matcher(segment);
-                    if (m.matches()) {
-                        return true;
-                    }
+                if (filter.matches(segment)) {
+                    return true;
                 }
             }
             return false;
@@ -152,14 +200,20 @@ public class JLSFsUtils {
      * @return The project name
      */
     static String getProjectNameIfLocationIsProjectRoot(IPath location) {
-        IProject[] projects = ResourcesPlugin.getWorkspace().getRoot().getProjects(IContainer.INCLUDE_HIDDEN);
-        for (IProject project : projects) {
-            IPath projectLocation = project.getLocation();
-            if (Objects.equals(projectLocation, location)) {
-                return project.getName();
-            }
-        }
-        return null;
+        return getProjectNameIfLocationIsProjectRoot(location, true);
+    }
+
+    /**
+     * Get the project name if the given path is a project root, or <code>null</code> if
+     * no project root can match the path.
+     * @param location the location path.
+     * @param indexNewProjects whether to look for the projects created during the
+     *        current workspace operation, which are only indexed once their metadata
+     *        files are accessed otherwise.
+     * @return The project name
+     */
+    static String getProjectNameIfLocationIsProjectRoot(IPath location, boolean indexNewProjects) {
+        return ProjectLocationIndex.getInstance().getProjectName(location, indexNewProjects);
     }
 
     /**
@@ -196,4 +250,57 @@ public class JLSFsUtils {
         }
         return Boolean.parseBoolean(property);
     }
+
+    private static final class Existence {
+        private final boolean exists;
+        private final long expires;
+
+        private Existence(boolean exists, long expires) {
+            this.exists = exists;
+            this.expires = expires;
+        }
+    }
+
+    /**
+     * Matches the path segments against the resource filters, compiled into a
+     * single alternation, and remembers the result of each segment since the
+     * same names are met over and over in a tree.
+     */
+    private static final class ResourceFilter {
+        private final List<Pattern> patterns;
+        private final Pattern pattern;
+        private final Map<String, Boolean> segments = new ConcurrentHashMap<>();
+
+        private ResourceFilter(List<Pattern> patterns) {
+            this.patterns = patterns;
+            this.pattern = combine(patterns);
+        }
+
+        /**
+         * @return the alternation of the patterns, or <code>null</code> when
+         *         they can't be combined since their groups would be renumbered
+         */
+        private static Pattern combine(List<Pattern> patterns) {
+            if (patterns.stream().anyMatch(p -> p.pattern().matches("(?s).*\\\\(\\d|k<).*"))) {
+                return null;
+            }
+            try {
+                return Pattern.compile(patterns.stream().map(p -> "(?:" + p.pattern() + ")").collect(Collectors.joining("|")));
+            } catch (PatternSyntaxException e) {
+                return null;
+            }
+        }
+
+        private boolean matches(String segment) {
+            Boolean matches = segments.get(segment);
+            if (matches == null) {
+                matches = pattern != null ? pattern.matcher(segment).matches() : patterns.stream().anyMatch(p -> p.matcher(segment).matches());
+                if (segments.size() >= MAX_CACHED_ENTRIES) {
+                    segments.clear();
+                }
+                segments.put(segment, matches);
+            }
+            return matches;
+        }
+    }
 }
@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jdt.ls.core.internal.filesystem;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+
+/**
+ * Index of the project locations, so that the file system finds the project
+ * of a location without computing the location of every project of the
+ * workspace.
+ * <p>
+ * The index is rebuilt after the projects are added, removed or moved. Since
+ * the change events are only sent at the end of the workspace operations, a
+ * project created during the current operation is indexed when its metadata
+ * files are first accessed, see {@link #getProjectName(IPath, boolean)}.
+ */
+final class ProjectLocationIndex implements IResourceChangeListener {
+
+	private static final ProjectLocationIndex INSTANCE = new ProjectLocationIndex();
+
+	private static final int PROJECT_CHANGES = IResourceDelta.OPEN | IResourceDelta.DESCRIPTION | IResourceDelta.MOVED_FROM | IResourceDelta.MOVED_TO | IResourceDelta.LOCAL_CHANGED;
+
+	private final Map<IPath, String> projectNames = new HashMap<>();
+	private final Map<String, IPath> locations = new HashMap<>();
+	private boolean stale = true;
+	private IWorkspace workspace;
+
+	private ProjectLocationIndex() {
+	}
+
+	static ProjectLocationIndex getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Returns the name of the project located at the given location.
+	 *
+	 * @param location
+	 *            the location
+	 * @param indexNewProjects
+	 *            whether to look for the projects created since the index was
+	 *            last updated when the location isn't indexed, which costs the
+	 *            enumeration of the projects
+	 * @return the project name, or <code>null</code> if the location isn't the
+	 *         location of a project
+	 */
+	synchronized String getProjectName(IPath location, boolean indexNewProjects) {
+		if (location == null) {
+			return null;
+		}
+		IWorkspaceRoot root = getWorkspaceRoot();
+		if (stale) {
+			projectNames.clear();
+			locations.clear();
+			indexProjects(root);
+			stale = false;
+		}
+		String name = projectNames.get(location);
+		if (name != null) {
+			IProject project = root.getProject(name);
+			IPath projectLocation = project.exists() ? project.getLocation() : null;
+			if (Objects.equals(location, projectLocation)) {
+				return name;
+			}
+			// the project was deleted or moved during the current operation
+			projectNames.remove(location);
+			locations.remove(name);
+			if (projectLocation != null) {
+				index(name, projectLocation);
+			}
+		}
+		if (indexNewProjects && indexProjects(root)) {
+			return projectNames.get(location);
+		}
+		return null;
+	}
+
+	/**
+	 * Indexes the projects which aren't indexed yet.
+	 *
+	 * @return whether some projects were indexed
+	 */
+	private boolean indexProjects(IWorkspaceRoot root) {
+		boolean indexed = false;
+		for (IProject project : root.getProjects(IContainer.INCLUDE_HIDDEN)) {
+			String name = project.getName();
+			if (!locations.containsKey(name)) {
+				IPath location = project.getLocation();
+				if (location != null) {
+					index(name, location);
+					indexed = true;
+				}
+			}
+		}
+		return indexed;
+	}
+
+	private void index(String name, IPath location) {
+		locations.put(name, location);
+		projectNames.put(location, name);
+	}
+
+	private IWorkspaceRoot getWorkspaceRoot() {
+		IWorkspace current = ResourcesPlugin.getWorkspace();
+		if (workspace != current) {
+			if (workspace != null) {
+				workspace.removeResourceChangeListener(this);
+			}
+			workspace = current;
+			workspace.addResourceChangeListener(this, IResourceChangeEvent.POST_CHANGE);
+			stale = true;
+		}
+		return workspace.getRoot();
+	}
+
+	@Override
+	public void resourceChanged(IResourceChangeEvent event) {
+		IResourceDelta delta = event.getDelta();
+		if (delta == null) {
+			return;
+		}
+		for (IResourceDelta projectDelta : delta.getAffectedChildren(IResourceDelta.ADDED | IResourceDelta.REMOVED | IResourceDelta.CHANGED, IContainer.INCLUDE_HIDDEN)) {
+			if (projectDelta.getKind() != IResourceDelta.CHANGED || (projectDelta.getFlags() & PROJECT_CHANGES) != 0) {
+				invalidate();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Discards the index, which is rebuilt on the next lookup.
+	 */
+	synchronized void invalidate() {
+		stale = true;
+	}
+
+	synchronized void dispose() {
+		if (workspace != null) {
+			workspace.removeResourceChangeListener(this);
+			workspace = null;
+		}
+		projectNames.clear();
+		locations.clear();
+		stale = true;
+	}
+}
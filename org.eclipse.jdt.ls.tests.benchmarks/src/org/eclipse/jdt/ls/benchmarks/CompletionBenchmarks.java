@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.ls.core.internal.handlers.CompletionHandler;
+import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.CompletionList;
+import org.eclipse.lsp4j.CompletionParams;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Completion of the members of a workspace type, and of the types matching a
+ * prefix, which searches the index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CompletionBenchmarks {
+
+	private CompletionParams memberParams;
+	private CompletionParams typeParams;
+	private CompletionHandler handler;
+
+	@Setup
+	public void setup(WorkspaceState state) throws Exception {
+		TextDocumentIdentifier document = new TextDocumentIdentifier(state.targetUri());
+		memberParams = new CompletionParams(document, state.workspace.getPositionAfter(state.target(), "dependency."));
+		typeParams = new CompletionParams(document, state.workspace.getPositionAfter(state.target(), "transform(Fun"));
+		handler = new CompletionHandler(state.preferenceManager);
+	}
+
+	@Benchmark
+	public Either<List<CompletionItem>, CompletionList> memberCompletion(WorkspaceState state) {
+		return handler.completion(memberParams, state.monitor);
+	}
+
+	@Benchmark
+	public Either<List<CompletionItem>, CompletionList> typeCompletion(WorkspaceState state) {
+		return handler.completion(typeParams, state.monitor);
+	}
+}
@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.benchmarks;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.lsp4j.DidChangeTextDocumentParams;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+import org.eclipse.lsp4j.VersionedTextDocumentIdentifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A keystroke in the editor: an incremental <code>didChange</code>, followed
+ * by the reconcile of the document and the publication of its diagnostics.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DocumentLifeCycleBenchmarks {
+
+	private Range range;
+	private int version = 1;
+
+	@Setup
+	public void setup(WorkspaceState state) throws Exception {
+		// the digit of "int result = 0;"
+		Position position = state.workspace.getPositionAfter(state.target(), "int result = ");
+		range = new Range(position, new Position(position.getLine(), position.getCharacter() + 1));
+	}
+
+	@Benchmark
+	public IStatus didChange(WorkspaceState state) throws Exception {
+		String uri = state.targetUri();
+		version++;
+		TextDocumentContentChangeEvent change = new TextDocumentContentChangeEvent(range, String.valueOf(version % 10));
+		state.lifeCycleHandler.didChange(new DidChangeTextDocumentParams(new VersionedTextDocumentIdentifier(uri, version), Collections.singletonList(change)));
+		return state.lifeCycleHandler.validateDocument(uri, false, state.monitor);
+	}
+}
@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.ls.core.internal.handlers.FormatterHandler;
+import org.eclipse.lsp4j.DocumentFormattingParams;
+import org.eclipse.lsp4j.DocumentRangeFormattingParams;
+import org.eclipse.lsp4j.FormattingOptions;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.TextEdit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Whole document and range formatting. The options differ from the generated
+ * sources, so that every request computes edits.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FormatterBenchmarks {
+
+	private DocumentFormattingParams formattingParams;
+	private DocumentRangeFormattingParams rangeFormattingParams;
+	private FormatterHandler handler;
+
+	@Setup
+	public void setup(WorkspaceState state) throws Exception {
+		TextDocumentIdentifier document = new TextDocumentIdentifier(state.targetUri());
+		FormattingOptions options = new FormattingOptions(2, true);
+		formattingParams = new DocumentFormattingParams(document, options);
+		Position start = state.workspace.getPositionAfter(state.target(), "public int compute");
+		Position end = state.workspace.getPositionAfter(state.target(), "return result;");
+		rangeFormattingParams = new DocumentRangeFormattingParams(document, options, new Range(new Position(start.getLine(), 0), end));
+		handler = new FormatterHandler(state.preferenceManager);
+	}
+
+	@Benchmark
+	public List<? extends TextEdit> formatting(WorkspaceState state) {
+		return handler.formatting(formattingParams, state.monitor);
+	}
+
+	@Benchmark
+	public List<? extends TextEdit> rangeFormatting(WorkspaceState state) {
+		return handler.rangeFormatting(rangeFormattingParams, state.monitor);
+	}
+}
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.benchmarks;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.ls.core.internal.JSONUtility;
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.jsonrpc.json.MessageJsonHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+
+/**
+ * Conversions of the JSON data of the requests to model objects, as done when
+ * resolving code lenses, completion items and command arguments. The
+ * <code>legacy</code> benchmarks create the {@link Gson} instances per call,
+ * like {@link JSONUtility} used to, for comparison of the allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JsonBenchmarks {
+
+	private JsonArray codeLensData;
+	private JsonElement completionData;
+	private Object destination;
+
+	@Setup
+	public void setup() {
+		Gson gson = new Gson();
+		codeLensData = new JsonArray();
+		codeLensData.add("file:///project/src/org/sample/Foo.java");
+		codeLensData.add(gson.toJsonTree(new Position(42, 17)));
+		codeLensData.add("references");
+		Map<String, String> data = new HashMap<>();
+		data.put("rid", "12");
+		data.put("pid", "3");
+		data.put("uri", "file:///project/src/org/sample/Foo.java");
+		completionData = gson.toJsonTree(data);
+		Location location = new Location("file:///project/src/org/sample/Foo.java", new Range(new Position(1, 2), new Position(1, 10)));
+		// command arguments are decoded as maps
+		destination = JSONUtility.toModel(gson.toJsonTree(location), Object.class);
+	}
+
+	@Benchmark
+	public Object codeLensData() {
+		String uri = JSONUtility.toModel(codeLensData.get(0), String.class);
+		Position position = JSONUtility.toModel(codeLensData.get(1), Position.class);
+		String type = JSONUtility.toModel(codeLensData.get(2), String.class);
+		return List.of(uri, position, type);
+	}
+
+	@Benchmark
+	public Object codeLensDataLegacy() {
+		String uri = new Gson().fromJson(codeLensData.get(0), String.class);
+		Position position = new Gson().fromJson(codeLensData.get(1), Position.class);
+		String type = new Gson().fromJson(codeLensData.get(2), String.class);
+		return List.of(uri, position, type);
+	}
+
+	@Benchmark
+	public Map<?, ?> completionData() {
+		return JSONUtility.toModel(completionData, Map.class);
+	}
+
+	@Benchmark
+	public Map<?, ?> completionDataLegacy() {
+		return new Gson().fromJson(completionData, Map.class);
+	}
+
+	@Benchmark
+	public Location commandArgument() {
+		return JSONUtility.toLsp4jModel(destination, Location.class);
+	}
+
+	@Benchmark
+	public Location commandArgumentLegacy() {
+		String json = new Gson().toJson(destination);
+		return new MessageJsonHandler(new HashMap<>()).getGson().fromJson(json, Location.class);
+	}
+}
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.ls.core.internal.handlers.DocumentSymbolHandler;
+import org.eclipse.jdt.ls.core.internal.handlers.FoldingRangeHandler;
+import org.eclipse.jdt.ls.core.internal.handlers.HoverHandler;
+import org.eclipse.jdt.ls.core.internal.handlers.SemanticTokensHandler;
+import org.eclipse.lsp4j.DocumentSymbol;
+import org.eclipse.lsp4j.DocumentSymbolParams;
+import org.eclipse.lsp4j.FoldingRange;
+import org.eclipse.lsp4j.FoldingRangeRequestParams;
+import org.eclipse.lsp4j.Hover;
+import org.eclipse.lsp4j.SemanticTokens;
+import org.eclipse.lsp4j.SemanticTokensParams;
+import org.eclipse.lsp4j.SymbolInformation;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.TextDocumentPositionParams;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Requests sent by the editor when a document is displayed: hover, document
+ * symbols, folding ranges and semantic tokens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class NavigationBenchmarks {
+
+	private TextDocumentIdentifier document;
+	private TextDocumentPositionParams hoverParams;
+
+	@Setup
+	public void setup(WorkspaceState state) throws Exception {
+		document = new TextDocumentIdentifier(state.targetUri());
+		// a method of the JDK, with its javadoc
+		hoverParams = new TextDocumentPositionParams(document, state.workspace.getPositionAfter(state.target(), "names.g"));
+	}
+
+	@Benchmark
+	public Hover hover(WorkspaceState state) {
+		return new HoverHandler(state.preferenceManager).hover(hoverParams, state.monitor);
+	}
+
+	@Benchmark
+	public List<Either<SymbolInformation, DocumentSymbol>> documentSymbol(WorkspaceState state) {
+		DocumentSymbolParams params = new DocumentSymbolParams(document);
+		return new DocumentSymbolHandler(state.preferenceManager).documentSymbol(params, state.monitor);
+	}
+
+	@Benchmark
+	public List<FoldingRange> foldingRange(WorkspaceState state) {
+		return new FoldingRangeHandler().foldingRange(new FoldingRangeRequestParams(document), state.monitor);
+	}
+
+	@Benchmark
+	public SemanticTokens semanticTokensFull(WorkspaceState state) {
+		return SemanticTokensHandler.full(state.monitor, new SemanticTokensParams(document), state.lifeCycleHandler.new DocumentMonitor(document.getUri()));
+	}
+}
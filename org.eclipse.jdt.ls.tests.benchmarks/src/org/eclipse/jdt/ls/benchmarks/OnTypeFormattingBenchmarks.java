@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.ls.core.internal.JDTUtils;
+import org.eclipse.jdt.ls.core.internal.handlers.FormatterHandler;
+import org.eclipse.lsp4j.DidCloseTextDocumentParams;
+import org.eclipse.lsp4j.DidOpenTextDocumentParams;
+import org.eclipse.lsp4j.DocumentOnTypeFormattingParams;
+import org.eclipse.lsp4j.DocumentRangeFormattingParams;
+import org.eclipse.lsp4j.FormattingOptions;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.TextDocumentItem;
+import org.eclipse.lsp4j.TextEdit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * On type formatting in the middle of a large document, which should take
+ * about the same time whatever the size of the document. The range formatting
+ * of the same line is measured for comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class OnTypeFormattingBenchmarks {
+
+	private static final String TYPE_NAME = "LargeType";
+
+	/**
+	 * The number of lines of the document.
+	 */
+	@Param({ "1000", "10000" })
+	public int lines;
+
+	private ICompilationUnit unit;
+	private DocumentOnTypeFormattingParams newLineParams;
+	private DocumentOnTypeFormattingParams closingBraceParams;
+	private DocumentRangeFormattingParams rangeFormattingParams;
+	private FormatterHandler handler;
+
+	@Setup
+	public void setup(WorkspaceState state) throws Exception {
+		String source = SyntheticWorkspace.generateLarge(TYPE_NAME, lines);
+		unit = state.workspace.createUnit(TYPE_NAME, source, state.monitor);
+		String uri = JDTUtils.toURI(unit);
+		state.lifeCycleHandler.didOpen(new DidOpenTextDocumentParams(new TextDocumentItem(uri, "java", 1, source)));
+		state.preferenceManager.getPreferences().setJavaFormatOnTypeEnabled(true);
+
+		// the unformatted statement and the end of the method in the middle of the document
+		int method = source.indexOf("public int compute" + (lines / 18) + "(");
+		int statementEnd = source.indexOf("int result=total;", method) + "int result=total;".length();
+		int methodEnd = source.indexOf("\n\t}\n", statementEnd) + 1;
+		Position statementPosition = JDTUtils.toRange(unit, statementEnd, 0).getStart();
+		Position closingBracePosition = JDTUtils.toRange(unit, methodEnd, 0).getStart();
+
+		TextDocumentIdentifier document = new TextDocumentIdentifier(uri);
+		FormattingOptions options = new FormattingOptions(4, false);
+		newLineParams = new DocumentOnTypeFormattingParams(document, options, new Position(statementPosition.getLine() + 1, 0), "\n");
+		closingBraceParams = new DocumentOnTypeFormattingParams(document, options, new Position(closingBracePosition.getLine(), 2), "}");
+		rangeFormattingParams = new DocumentRangeFormattingParams(document, options, new Range(new Position(statementPosition.getLine(), 0), statementPosition));
+		handler = new FormatterHandler(state.preferenceManager);
+	}
+
+	@TearDown
+	public void tearDown(WorkspaceState state) throws Exception {
+		state.lifeCycleHandler.didClose(new DidCloseTextDocumentParams(new TextDocumentIdentifier(JDTUtils.toURI(unit))));
+		if (unit.getResource().exists()) {
+			unit.getResource().delete(true, state.monitor);
+		}
+	}
+
+	@Benchmark
+	public List<? extends TextEdit> onTypeNewLine(WorkspaceState state) {
+		return handler.onTypeFormatting(newLineParams, state.monitor);
+	}
+
+	@Benchmark
+	public List<? extends TextEdit> onTypeClosingBrace(WorkspaceState state) {
+		return handler.onTypeFormatting(closingBraceParams, state.monitor);
+	}
+
+	@Benchmark
+	public List<? extends TextEdit> rangeFormatting(WorkspaceState state) {
+		return handler.rangeFormatting(rangeFormattingParams, state.monitor);
+	}
+}
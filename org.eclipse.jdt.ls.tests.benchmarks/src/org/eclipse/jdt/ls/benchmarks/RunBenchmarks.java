@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.benchmarks;
+
+import static org.junit.Assert.assertFalse;
+
+import java.util.Collection;
+
+import org.junit.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks inside the test application, where the workspace and
+ * the language server bundles are available.
+ * <p>
+ * The benchmarks aren't forked, JMH can't start the OSGi runtime in a new JVM.
+ * The GC profiler reports the allocation rate next to the latency.
+ * <ul>
+ * <li><code>jdt.ls.benchmarks.include</code>: regular expression selecting
+ * the benchmarks, all by default</li>
+ * <li><code>jdt.ls.benchmarks.size</code>: number of compilation units of the
+ * synthetic workspace, 100 by default</li>
+ * <li><code>jdt.ls.benchmarks.result</code>: JSON file the results are
+ * written to</li>
+ * </ul>
+ */
+public class RunBenchmarks {
+
+	@Test
+	public void runBenchmarks() throws Exception {
+		OptionsBuilder builder = new OptionsBuilder();
+		builder.include(System.getProperty("jdt.ls.benchmarks.include", ".*Benchmarks"))
+				.param("size", System.getProperty("jdt.ls.benchmarks.size", "100"))
+				.forks(0)
+				.addProfiler(GCProfiler.class)
+				.shouldFailOnError(true);
+		String result = System.getProperty("jdt.ls.benchmarks.result");
+		if (result != null && !result.isBlank()) {
+			builder.result(result).resultFormat(ResultFormatType.JSON);
+		}
+		Options options = builder.build();
+		Collection<RunResult> results = new Runner(options).run();
+		assertFalse("No benchmark matches " + options.getIncludes(), results.isEmpty());
+	}
+}
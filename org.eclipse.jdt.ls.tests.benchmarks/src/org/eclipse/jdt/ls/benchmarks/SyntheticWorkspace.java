@@ -0,0 +1,236 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.ls.core.internal.JDTUtils;
+import org.eclipse.jdt.ls.core.internal.JobHelpers;
+import org.eclipse.jdt.ls.core.internal.managers.ProjectsManager;
+import org.eclipse.lsp4j.Position;
+
+/**
+ * A generated Java project of a configurable number of compilation units.
+ * <p>
+ * Each unit declares fields, methods with javadoc, lambdas, an enum and a
+ * nested class, and references the previous unit, so that the search,
+ * completion and navigation requests have cross-unit work to do.
+ */
+public final class SyntheticWorkspace {
+
+	public static final String PROJECT_NAME = "synthetic";
+	public static final String PACKAGE_PREFIX = "bench.p";
+	public static final String TYPE_PREFIX = "Type";
+	private static final int TYPES_PER_PACKAGE = 20;
+
+	private final IJavaProject javaProject;
+	private final List<ICompilationUnit> units;
+	private final File location;
+
+	private SyntheticWorkspace(IJavaProject javaProject, List<ICompilationUnit> units, File location) {
+		this.javaProject = javaProject;
+		this.units = units;
+		this.location = location;
+	}
+
+	/**
+	 * Generates the project and waits until it is built and indexed.
+	 *
+	 * @param size
+	 *            the number of compilation units
+	 */
+	public static SyntheticWorkspace create(int size, IProgressMonitor monitor) throws Exception {
+		IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject(PROJECT_NAME);
+		if (project.exists()) {
+			project.delete(true, true, monitor);
+		}
+		File location = Files.createTempDirectory("jdtls-benchmarks").toFile();
+		ProjectsManager.createJavaProject(project, new Path(location.getAbsolutePath()).append(PROJECT_NAME), "src", "bin", monitor);
+		IFolder src = project.getFolder("src");
+		List<ICompilationUnit> units = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			IFolder folder = src.getFolder(getPackageName(i).replace('.', '/'));
+			JDTUtils.createFolders(folder, monitor);
+			IFile file = folder.getFile(TYPE_PREFIX + i + ".java");
+			byte[] contents = generate(i).getBytes(StandardCharsets.UTF_8);
+			file.create(new ByteArrayInputStream(contents), true, monitor);
+			units.add(JavaCore.createCompilationUnitFrom(file));
+		}
+		JobHelpers.waitForJobsToComplete(monitor);
+		JobHelpers.waitUntilIndexesReady();
+		return new SyntheticWorkspace(JavaCore.create(project), units, location);
+	}
+
+	/**
+	 * Creates a compilation unit next to the generated ones, in the
+	 * <code>bench.extra</code> package.
+	 */
+	public ICompilationUnit createUnit(String typeName, String source, IProgressMonitor monitor) throws CoreException {
+		IFolder folder = javaProject.getProject().getFolder("src/bench/extra");
+		JDTUtils.createFolders(folder, monitor);
+		IFile file = folder.getFile(typeName + ".java");
+		file.create(new ByteArrayInputStream(source.getBytes(StandardCharsets.UTF_8)), true, monitor);
+		return JavaCore.createCompilationUnitFrom(file);
+	}
+
+	public static String getPackageName(int index) {
+		return PACKAGE_PREFIX + (index / TYPES_PER_PACKAGE);
+	}
+
+	/**
+	 * @return the source of the unit at the given index
+	 */
+	public static String generate(int index) {
+		String dependency = index == 0 ? TYPE_PREFIX + index : getPackageName(index - 1) + '.' + TYPE_PREFIX + (index - 1);
+		// @formatter:off
+		return "package " + getPackageName(index) + ";\n"
+				+ "\n"
+				+ "import java.util.ArrayList;\n"
+				+ "import java.util.HashMap;\n"
+				+ "import java.util.List;\n"
+				+ "import java.util.Map;\n"
+				+ "import java.util.function.Function;\n"
+				+ "\n"
+				+ "/**\n"
+				+ " * Synthetic type " + index + ", depends on {@link " + dependency + "}.\n"
+				+ " */\n"
+				+ "public class " + TYPE_PREFIX + index + " {\n"
+				+ "\n"
+				+ "	private final List<String> names = new ArrayList<>();\n"
+				+ "	private final Map<String, Integer> counts = new HashMap<>();\n"
+				+ "	private " + dependency + " dependency;\n"
+				+ "\n"
+				+ "	/**\n"
+				+ "	 * Returns the name at the given index.\n"
+				+ "	 *\n"
+				+ "	 * @param index the index of the name\n"
+				+ "	 * @return the name\n"
+				+ "	 */\n"
+				+ "	public String getName" + index + "(int index) {\n"
+				+ "		return names.get(index);\n"
+				+ "	}\n"
+				+ "\n"
+				+ "	public int compute" + index + "(int value) {\n"
+				+ "		int result = 0;\n"
+				+ "		for (int i = 0; i < value; i++) {\n"
+				+ "			if (i % 2 == 0) {\n"
+				+ "				result += i;\n"
+				+ "			} else {\n"
+				+ "				result -= counts.getOrDefault(names.get(i % names.size()), 0);\n"
+				+ "			}\n"
+				+ "		}\n"
+				+ "		return result;\n"
+				+ "	}\n"
+				+ "\n"
+				+ "	public List<String> transform(Function<String, String> mapper) {\n"
+				+ "		List<String> result = new ArrayList<>();\n"
+				+ "		for (String name : names) {\n"
+				+ "			result.add(mapper.apply(name));\n"
+				+ "		}\n"
+				+ "		return result;\n"
+				+ "	}\n"
+				+ "\n"
+				+ "	public void process() {\n"
+				+ "		String description = dependency.toString();\n"
+				+ "		names.stream().filter(name -> !name.equals(description)).map(String::toUpperCase).forEach(System.out::println);\n"
+				+ "	}\n"
+				+ "\n"
+				+ "	public enum Kind {\n"
+				+ "		FIRST, SECOND, THIRD\n"
+				+ "	}\n"
+				+ "\n"
+				+ "	public static class Inner" + index + " implements Runnable {\n"
+				+ "		@Override\n"
+				+ "		public void run() {\n"
+				+ "			new " + TYPE_PREFIX + index + "().process();\n"
+				+ "		}\n"
+				+ "	}\n"
+				+ "}\n";
+		// @formatter:on
+	}
+
+	/**
+	 * @return the source of a type of about the given number of lines, made of
+	 *         <code>compute&lt;i&gt;</code> methods whose
+	 *         <code>int result=total;</code> statement isn't formatted
+	 */
+	public static String generateLarge(String typeName, int lines) {
+		StringBuilder source = new StringBuilder();
+		source.append("package bench.extra;\n\npublic class ").append(typeName).append(" {\n");
+		for (int i = 0; i * 9 < lines; i++) {
+			// @formatter:off
+			source.append("\n")
+					.append("	public int compute").append(i).append("(int value) {\n")
+					.append("		int total = value * ").append(i).append(";\n")
+					.append("		int result=total;\n")
+					.append("		for (int i = 0; i < value; i++) {\n")
+					.append("			result += i;\n")
+					.append("		}\n")
+					.append("		return result;\n")
+					.append("	}\n");
+			// @formatter:on
+		}
+		return source.append("}\n").toString();
+	}
+
+	public IJavaProject getJavaProject() {
+		return javaProject;
+	}
+
+	public int size() {
+		return units.size();
+	}
+
+	public ICompilationUnit getUnit(int index) {
+		return units.get(index);
+	}
+
+	public String getUri(int index) {
+		return JDTUtils.toURI(units.get(index));
+	}
+
+	/**
+	 * @return the position following the first occurrence of the snippet in
+	 *         the unit
+	 */
+	public Position getPositionAfter(int index, String snippet) throws JavaModelException {
+		ICompilationUnit unit = units.get(index);
+		int offset = unit.getSource().indexOf(snippet);
+		if (offset < 0) {
+			throw new IllegalArgumentException(snippet + " not found in " + unit.getElementName());
+		}
+		return JDTUtils.toRange(unit, offset + snippet.length(), 0).getStart();
+	}
+
+	public void dispose(IProgressMonitor monitor) throws CoreException {
+		javaProject.getProject().delete(true, true, monitor);
+		FileUtils.deleteQuietly(location);
+	}
+}
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.ls.core.internal.JavaClientConnection;
+import org.eclipse.jdt.ls.core.internal.JavaClientConnection.JavaLanguageClient;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+import org.eclipse.jdt.ls.core.internal.handlers.DocumentLifeCycleHandler;
+import org.eclipse.jdt.ls.core.internal.managers.StandardProjectsManager;
+import org.eclipse.jdt.ls.core.internal.preferences.PreferenceManager;
+import org.eclipse.jdt.ls.core.internal.preferences.Preferences;
+import org.eclipse.jdt.ls.core.internal.preferences.StandardPreferenceManager;
+import org.eclipse.lsp4j.ClientCapabilities;
+import org.eclipse.lsp4j.DidCloseTextDocumentParams;
+import org.eclipse.lsp4j.DidOpenTextDocumentParams;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.TextDocumentItem;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Synthetic workspace shared by the benchmarks of a trial, along with the
+ * preferences and the document life cycle the handlers depend on.
+ */
+@State(Scope.Benchmark)
+public class WorkspaceState {
+
+	/**
+	 * The number of compilation units, overridden by the
+	 * <code>jdt.ls.benchmarks.size</code> system property.
+	 */
+	@Param("100")
+	public int size;
+
+	public final IProgressMonitor monitor = new NullProgressMonitor();
+	public SyntheticWorkspace workspace;
+	public PreferenceManager preferenceManager;
+	public DocumentLifeCycleHandler lifeCycleHandler;
+	private PreferenceManager oldPreferenceManager;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		StandardPreferenceManager.initialize();
+		preferenceManager = new StandardPreferenceManager();
+		preferenceManager.update(new Preferences());
+		preferenceManager.updateClientPrefences(new ClientCapabilities(), new HashMap<>());
+		oldPreferenceManager = JavaLanguageServerPlugin.getPreferencesManager();
+		JavaLanguageServerPlugin.setPreferencesManager(preferenceManager);
+		workspace = SyntheticWorkspace.create(size, monitor);
+		JavaLanguageClient client = (JavaLanguageClient) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] { JavaLanguageClient.class }, (proxy, method, args) -> null);
+		lifeCycleHandler = new DocumentLifeCycleHandler(new JavaClientConnection(client), preferenceManager, new StandardProjectsManager(preferenceManager), false);
+		// the requests are sent to a document opened in the editor
+		lifeCycleHandler.didOpen(new DidOpenTextDocumentParams(new TextDocumentItem(targetUri(), "java", 1, workspace.getUnit(target()).getSource())));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		lifeCycleHandler.didClose(new DidCloseTextDocumentParams(new TextDocumentIdentifier(targetUri())));
+		workspace.dispose(monitor);
+		JavaLanguageServerPlugin.setPreferencesManager(oldPreferenceManager);
+	}
+
+	/**
+	 * @return the index of the unit the document requests are sent to, in the
+	 *         middle of the dependency chain
+	 */
+	public int target() {
+		return workspace.size() / 2;
+	}
+
+	public String targetUri() {
+		return workspace.getUri(target());
+	}
+}
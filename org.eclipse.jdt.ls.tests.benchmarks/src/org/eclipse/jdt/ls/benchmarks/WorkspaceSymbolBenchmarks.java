@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.ls.core.internal.handlers.WorkspaceSymbolHandler;
+import org.eclipse.lsp4j.SymbolInformation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Workspace symbol queries, as typed in the "Go to symbol in workspace"
+ * picker.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class WorkspaceSymbolBenchmarks {
+
+	@Benchmark
+	public List<SymbolInformation> prefix(WorkspaceState state) {
+		return WorkspaceSymbolHandler.search(SyntheticWorkspace.TYPE_PREFIX + "1", state.monitor);
+	}
+
+	@Benchmark
+	public List<SymbolInformation> camelCase(WorkspaceState state) {
+		return WorkspaceSymbolHandler.search("ArLi", state.monitor);
+	}
+
+	@Benchmark
+	public List<SymbolInformation> qualified(WorkspaceState state) {
+		return WorkspaceSymbolHandler.search(SyntheticWorkspace.getPackageName(state.target()) + '.' + SyntheticWorkspace.TYPE_PREFIX, state.monitor);
+	}
+}
@@ -12,11 +12,29 @@
  *******************************************************************************/
 package org.eclipse.jdt.ls.core.internal;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.Pipe;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
+import org.eclipse.jdt.ls.core.internal.ConnectionStreamFactory.ChannelInputStream;
+import org.eclipse.jdt.ls.core.internal.ConnectionStreamFactory.ChannelOutputStream;
 import org.eclipse.jdt.ls.core.internal.ConnectionStreamFactory.SocketStreamProvider;
 import org.eclipse.jdt.ls.core.internal.ConnectionStreamFactory.StdIOStreamProvider;
 import org.eclipse.jdt.ls.core.internal.ConnectionStreamFactory.StreamProvider;
+import org.eclipse.lsp4j.jsonrpc.json.MessageJsonHandler;
+import org.eclipse.lsp4j.jsonrpc.json.StreamMessageConsumer;
+import org.eclipse.lsp4j.jsonrpc.json.StreamMessageProducer;
+import org.eclipse.lsp4j.jsonrpc.messages.Message;
+import org.eclipse.lsp4j.jsonrpc.messages.NotificationMessage;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -49,6 +67,103 @@ public class ConnectionStreamFactoryTest {
 		Assert.assertTrue(tested.getInputStream().available() == 0);
 	}
 
+	@Test
+	public void testChannelStreamsRoundTrip() throws Exception {
+		Pipe pipe = Pipe.open();
+		MessageJsonHandler handler = new MessageJsonHandler(Collections.emptyMap());
+		StreamMessageConsumer consumer = new StreamMessageConsumer(new ChannelOutputStream(pipe.sink()), handler);
+		List<Message> received = new ArrayList<>();
+		StreamMessageProducer producer = new StreamMessageProducer(new ChannelInputStream(pipe.source()), handler);
+		Thread reader = new Thread(() -> producer.listen(message -> {
+			received.add(message);
+			if (received.size() == 2) {
+				producer.close();
+			}
+		}));
+		reader.start();
+		NotificationMessage small = new NotificationMessage();
+		small.setMethod("small");
+		consumer.consume(small);
+		NotificationMessage large = new NotificationMessage();
+		large.setMethod("large");
+		// larger than the read buffer, read straight into the content array
+		large.setParams("x".repeat(200_000));
+		consumer.consume(large);
+		reader.join(10_000);
+		pipe.sink().close();
+		Assert.assertEquals(2, received.size());
+		Assert.assertEquals("small", ((NotificationMessage) received.get(0)).getMethod());
+		Assert.assertEquals("large", ((NotificationMessage) received.get(1)).getMethod());
+	}
+
+	@Test
+	public void testHeaderAndContentGathered() throws IOException {
+		List<Integer> writes = new ArrayList<>();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		GatheringByteChannel channel = new GatheringByteChannel() {
+			@Override
+			public int write(ByteBuffer src) throws IOException {
+				return (int) write(new ByteBuffer[] { src }, 0, 1);
+			}
+
+			@Override
+			public long write(ByteBuffer[] srcs) throws IOException {
+				return write(srcs, 0, srcs.length);
+			}
+
+			@Override
+			public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+				writes.add(length);
+				long n = 0;
+				for (int i = offset; i < offset + length; i++) {
+					while (srcs[i].hasRemaining()) {
+						bytes.write(srcs[i].get());
+						n++;
+					}
+				}
+				return n;
+			}
+
+			@Override
+			public boolean isOpen() {
+				return true;
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+		ChannelOutputStream output = new ChannelOutputStream(channel);
+		String header = "Content-Length: 2\r\n\r\n";
+		output.write(header.getBytes(StandardCharsets.US_ASCII));
+		Assert.assertTrue(writes.isEmpty());
+		output.write("{}".getBytes(StandardCharsets.US_ASCII));
+		output.flush();
+		Assert.assertEquals(List.of(2), writes);
+		Assert.assertEquals(header + "{}", bytes.toString(StandardCharsets.US_ASCII));
+		// a lone header is written on flush
+		output.write(header.getBytes(StandardCharsets.US_ASCII));
+		output.flush();
+		Assert.assertEquals(List.of(2, 1), writes);
+	}
+
+	@Test
+	public void testChannelInputStreamReads() throws IOException {
+		byte[] data = new byte[100_000];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) i;
+		}
+		InputStream input = new ChannelInputStream(Channels.newChannel(new ByteArrayInputStream(data)));
+		Assert.assertEquals(0, input.read());
+		Assert.assertEquals(1, input.read());
+		byte[] rest = input.readAllBytes();
+		Assert.assertEquals(data.length - 2, rest.length);
+		Assert.assertEquals((byte) 2, rest[0]);
+		Assert.assertEquals(data[data.length - 1], rest[rest.length - 1]);
+		Assert.assertEquals(-1, input.read());
+		Assert.assertEquals(0, input.available());
+	}
+
 	private void checkStreamProvider(Class<? extends StreamProvider> providerClass){
 		ConnectionStreamFactory tested = new ConnectionStreamFactory(null);
 		StreamProvider provider = tested.getSelectedStream();
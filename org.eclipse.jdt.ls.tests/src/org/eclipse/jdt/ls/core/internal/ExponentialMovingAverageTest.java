@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jdt.ls.core.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class ExponentialMovingAverageTest {
+
+	@Test
+	public void testUpdate() {
+		ExponentialMovingAverage average = new ExponentialMovingAverage(0.5, 400);
+
+		// initialize to 400 at first
+		assertEquals(400, average.getValue());
+		assertEquals(0, average.getSamples());
+
+		average.update(200);
+		// the first input value takes over the initial value
+		assertEquals(200, average.getValue());
+
+		average.update(100);
+		// 200 + 0.5 * (100 - 200)
+		assertEquals(150, average.getValue());
+		assertEquals(2, average.getSamples());
+	}
+
+	@Test
+	public void testForgetsOldSamples() {
+		ExponentialMovingAverage average = new ExponentialMovingAverage(0.3, 0);
+		for (int i = 0; i < 1000; i++) {
+			average.update(1000);
+		}
+		for (int i = 0; i < 20; i++) {
+			average.update(10);
+		}
+		// a cumulative average would still be above 900 here
+		assertEquals(10, average.getValue());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidAlpha() {
+		new ExponentialMovingAverage(0, 0);
+	}
+}
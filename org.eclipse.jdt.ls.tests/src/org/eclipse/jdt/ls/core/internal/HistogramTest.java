@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class HistogramTest {
+
+	@Test
+	public void testEmpty() {
+		Histogram histogram = new Histogram();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getValueAtPercentile(99));
+	}
+
+	@Test
+	public void testPercentiles() {
+		Histogram histogram = new Histogram();
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(i);
+		}
+		assertEquals(1000, histogram.getCount());
+		assertEquals(1000, histogram.getMax());
+		assertWithinError(500, histogram.getValueAtPercentile(50));
+		assertWithinError(900, histogram.getValueAtPercentile(90));
+		assertWithinError(990, histogram.getValueAtPercentile(99));
+		assertEquals(1000, histogram.getValueAtPercentile(100));
+		assertEquals(500L, histogram.toMap().get("mean"));
+	}
+
+	@Test
+	public void testSmallValuesAreExact() {
+		Histogram histogram = new Histogram();
+		histogram.record(-5);
+		histogram.record(3);
+		histogram.record(12);
+		assertEquals(0, histogram.getValueAtPercentile(30));
+		assertEquals(3, histogram.getValueAtPercentile(50));
+		assertEquals(12, histogram.getValueAtPercentile(100));
+	}
+
+	@Test
+	public void testBuckets() {
+		long previous = -1;
+		for (long value : new long[] { 0, 1, 7, 8, 15, 16, 17, 100, 1_000, 123_456_789, Long.MAX_VALUE }) {
+			int index = Histogram.getIndex(value);
+			assertTrue(value + " above the upper bound of its bucket", value <= Histogram.getUpperBound(index));
+			assertTrue(Histogram.getUpperBound(index) > previous);
+			previous = value;
+		}
+	}
+
+	private static void assertWithinError(long expected, long actual) {
+		assertTrue(expected + " <= " + actual, expected <= actual);
+		assertTrue(actual + " more than 12.5% above " + expected, actual <= expected * 1.125);
+	}
+}
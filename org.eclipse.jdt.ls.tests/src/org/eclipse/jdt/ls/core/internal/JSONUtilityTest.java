@@ -17,11 +17,14 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 
+import org.eclipse.lsp4j.Location;
 import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
 import org.junit.Test;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
 
 /**
  * JSONUtilityTest
@@ -54,4 +57,28 @@ public class JSONUtilityTest {
 		assertNull(JSONUtility.toModel(null, Object.class));
 	}
 
+	@Test
+	public void testMapToObject() {
+		Gson gson = new Gson();
+		Object map = JSONUtility.toModel(gson.toJsonTree(new Position(5, 5)), Object.class);
+		assertEquals(new Position(5, 5), JSONUtility.toModel(map, Position.class));
+		assertNull(JSONUtility.toModel(map, Integer.class));
+	}
+
+	@Test
+	public void testLsp4jModel() {
+		Location location = new Location("file:///Foo.java", new Range(new Position(1, 2), new Position(3, 4)));
+		JsonElement element = new Gson().toJsonTree(location);
+		assertEquals(location, JSONUtility.toLsp4jModel(element, Location.class));
+		assertEquals(location, JSONUtility.toLsp4jModel(element.toString(), Location.class));
+		assertEquals(location, JSONUtility.toLsp4jModel(JSONUtility.toModel(element, Object.class), Location.class));
+	}
+
+	@Test
+	public void testPrimitives() {
+		assertEquals(Integer.valueOf(3), JSONUtility.toModel(new JsonPrimitive(3), Integer.class));
+		assertEquals(Integer.valueOf(3), JSONUtility.toModel(new JsonPrimitive(3), int.class));
+		assertEquals("foo", JSONUtility.toModel(new JsonPrimitive("foo"), String.class));
+	}
+
 }
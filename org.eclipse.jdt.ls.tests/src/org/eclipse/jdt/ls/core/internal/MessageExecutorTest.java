@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class MessageExecutorTest {
+
+	private MessageExecutor executor;
+
+	@After
+	public void tearDown() {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testBoundedExecutorQueuesOverflow() throws Exception {
+		executor = MessageExecutor.create(MessageExecutor.BOUNDED, 2, 4);
+		CountDownLatch release = new CountDownLatch(1);
+		Runnable blocked = () -> {
+			try {
+				release.await(30, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				// done
+			}
+		};
+		executor.execute(blocked);
+		executor.execute(blocked);
+		// never run by the caller, which would ignore its time limit
+		Thread caller = Thread.currentThread();
+		Future<Thread> overflow = executor.submit(() -> Thread.currentThread());
+		Map<String, Object> metrics = executor.getMetrics();
+		assertEquals(2, metrics.get("poolSize"));
+		assertEquals(1, metrics.get("queued"));
+		assertFalse(overflow.isDone());
+		release.countDown();
+		assertNotEquals(caller, overflow.get(10, TimeUnit.SECONDS));
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+		assertEquals(2, executor.getLargestPoolSize());
+	}
+
+	@Test
+	public void testBoundedExecutorBurst() throws Exception {
+		executor = MessageExecutor.create(MessageExecutor.BOUNDED, 4, 8);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			futures.add(executor.submit(() -> {
+				try {
+					Thread.sleep(1);
+				} catch (InterruptedException e) {
+					// done
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get(10, TimeUnit.SECONDS);
+		}
+		Map<String, Object> metrics = executor.getMetrics();
+		// the burst neither starts a thread per task nor grows the queue
+		assertTrue(metrics.toString(), executor.getLargestPoolSize() <= 4);
+		assertTrue(metrics.toString(), (Long) metrics.get("callerRuns") > 0);
+	}
+
+	@Test
+	public void testCachedExecutorIsNotBounded() throws Exception {
+		executor = MessageExecutor.create(MessageExecutor.CACHED, 2, 4);
+		assertEquals(MessageExecutor.CACHED, executor.getKind());
+		CountDownLatch release = new CountDownLatch(1);
+		for (int i = 0; i < 4; i++) {
+			executor.execute(() -> {
+				try {
+					release.await(30, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					// done
+				}
+			});
+		}
+		assertEquals(4, executor.getMetrics().get("poolSize"));
+		release.countDown();
+	}
+
+	@Test
+	public void testThreadNames() throws Exception {
+		executor = MessageExecutor.create();
+		assertEquals(MessageExecutor.BOUNDED, executor.getKind());
+		String name = executor.submit(() -> Thread.currentThread().getName()).get(10, TimeUnit.SECONDS);
+		assertTrue(name, name.startsWith("JDTLS Message-"));
+	}
+
+	@Test
+	public void testUnknownKind() {
+		executor = MessageExecutor.create("unknown", 2, 4);
+		assertEquals(MessageExecutor.BOUNDED, executor.getKind());
+	}
+
+	@Test
+	public void testVirtualThreads() throws Exception {
+		executor = MessageExecutor.create(MessageExecutor.VIRTUAL, 2, 4);
+		// falls back to a bounded executor on Java 17
+		assertTrue(executor.getKind(), MessageExecutor.VIRTUAL.equals(executor.getKind()) || MessageExecutor.BOUNDED.equals(executor.getKind()));
+		String name = executor.submit(() -> Thread.currentThread().getName()).get(10, TimeUnit.SECONDS);
+		assertTrue(name, name.startsWith("JDTLS Message-"));
+	}
+}
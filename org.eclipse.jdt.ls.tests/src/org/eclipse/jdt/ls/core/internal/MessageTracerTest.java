@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.lsp4j.jsonrpc.MessageConsumer;
+import org.eclipse.lsp4j.jsonrpc.json.MessageJsonHandler;
+import org.eclipse.lsp4j.jsonrpc.json.StreamMessageConsumer;
+import org.eclipse.lsp4j.jsonrpc.messages.CancelParams;
+import org.eclipse.lsp4j.jsonrpc.messages.NotificationMessage;
+import org.eclipse.lsp4j.jsonrpc.messages.RequestMessage;
+import org.eclipse.lsp4j.jsonrpc.messages.ResponseMessage;
+import org.junit.After;
+import org.junit.Test;
+
+public class MessageTracerTest {
+
+	private RequestScheduler scheduler = new RequestScheduler(false);
+
+	@After
+	public void tearDown() {
+		scheduler.shutdown();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testRequestHistograms() throws Exception {
+		MessageTracer tracer = new MessageTracer();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		MessageConsumer outgoing = tracer.apply(new StreamMessageConsumer(tracer.countOutput(bytes), new MessageJsonHandler(Collections.emptyMap())));
+		CompletableFuture<?>[] result = new CompletableFuture<?>[1];
+		MessageConsumer incoming = tracer.apply(message -> {
+			result[0] = scheduler.computeAsync(RequestPriority.INTERACTIVE, cc -> "hover");
+		});
+
+		InputStream input = tracer.countInput(new ByteArrayInputStream(new byte[100]));
+		input.read(new byte[100]);
+		RequestMessage request = new RequestMessage();
+		request.setId("1");
+		request.setMethod("textDocument/hover");
+		incoming.consume(request);
+		assertEquals("hover", result[0].get(10, TimeUnit.SECONDS));
+		ResponseMessage response = new ResponseMessage();
+		response.setId("1");
+		response.setResult("hover");
+		outgoing.consume(response);
+
+		Map<String, Object> hover = (Map<String, Object>) tracer.getMetrics().get("textDocument/hover");
+		assertNotNull(hover);
+		for (String name : new String[] { "dispatch", "queue", "execution", "latency", "serialization" }) {
+			assertEquals(name, 1L, ((Map<String, Object>) hover.get(name)).get("count"));
+		}
+		assertEquals(100L, ((Map<String, Object>) hover.get("payloadBytes")).get("max"));
+		assertEquals((long) bytes.size(), ((Map<String, Object>) hover.get("responseBytes")).get("max"));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testCancelledRequest() throws Exception {
+		MessageTracer tracer = new MessageTracer();
+		MessageConsumer outgoing = tracer.apply(new StreamMessageConsumer(tracer.countOutput(new ByteArrayOutputStream()), new MessageJsonHandler(Collections.emptyMap())));
+		MessageConsumer incoming = tracer.apply(message -> {
+		});
+		RequestMessage request = new RequestMessage();
+		request.setId("1");
+		request.setMethod("textDocument/completion");
+		incoming.consume(request);
+		NotificationMessage cancel = new NotificationMessage();
+		cancel.setMethod("$/cancelRequest");
+		CancelParams params = new CancelParams();
+		params.setId("1");
+		cancel.setParams(params);
+		incoming.consume(cancel);
+		ResponseMessage response = new ResponseMessage();
+		response.setId("1");
+		response.setResult("cancelled");
+		outgoing.consume(response);
+
+		Map<String, Object> completion = (Map<String, Object>) tracer.getMetrics().get("textDocument/completion");
+		assertTrue(completion.containsKey("dispatch"));
+		assertFalse(completion.containsKey("latency"));
+	}
+
+	@Test
+	public void testCountOutputWritesWholeArrays() throws Exception {
+		int[] singleBytes = new int[1];
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		// like a transport stream that only writes whole arrays efficiently
+		OutputStream transport = new OutputStream() {
+			@Override
+			public void write(int b) {
+				singleBytes[0]++;
+				bytes.write(b);
+			}
+
+			@Override
+			public void write(byte[] b) {
+				bytes.writeBytes(b);
+			}
+		};
+		OutputStream output = new MessageTracer().countOutput(transport);
+		output.write("Content-Length: 2\r\n\r\n{}".getBytes(StandardCharsets.UTF_8));
+		assertEquals(0, singleBytes[0]);
+		assertEquals("Content-Length: 2\r\n\r\n{}", bytes.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testNotificationHistograms() throws Exception {
+		MessageTracer tracer = new MessageTracer();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		MessageConsumer outgoing = tracer.apply(new StreamMessageConsumer(tracer.countOutput(bytes), new MessageJsonHandler(Collections.emptyMap())));
+		MessageConsumer incoming = tracer.apply(message -> {
+		});
+		NotificationMessage didChange = new NotificationMessage();
+		didChange.setMethod("textDocument/didChange");
+		incoming.consume(didChange);
+		NotificationMessage diagnostics = new NotificationMessage();
+		diagnostics.setMethod("textDocument/publishDiagnostics");
+		outgoing.consume(diagnostics);
+		assertTrue(new String(bytes.toByteArray(), StandardCharsets.UTF_8).contains("publishDiagnostics"));
+
+		Map<String, Object> metrics = tracer.getMetrics();
+		Map<String, Object> incomingStats = (Map<String, Object>) metrics.get("textDocument/didChange");
+		assertTrue(incomingStats.containsKey("dispatch"));
+		assertFalse(incomingStats.containsKey("latency"));
+		Map<String, Object> outgoingStats = (Map<String, Object>) metrics.get("textDocument/publishDiagnostics");
+		assertTrue(outgoingStats.containsKey("serialization"));
+		assertEquals((long) bytes.size(), ((Map<String, Object>) outgoingStats.get("payloadBytes")).get("max"));
+	}
+}
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class RequestSchedulerTest {
+
+	private RequestScheduler scheduler = new RequestScheduler(false);
+
+	@After
+	public void tearDown() {
+		scheduler.shutdown();
+	}
+
+	@Test
+	public void testBulkRequestsDoNotStarveInteractiveRequests() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		List<CompletableFuture<Boolean>> searches = new ArrayList<>();
+		for (int i = 0; i < 64; i++) {
+			searches.add(scheduler.computeAsync(RequestPriority.BULK, cc -> {
+				try {
+					return release.await(30, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					return false;
+				}
+			}));
+		}
+		assertTrue(scheduler.getQueueDepth(RequestPriority.BULK) > 0);
+		CompletableFuture<String> hover = scheduler.computeAsync(RequestPriority.INTERACTIVE, cc -> "hover");
+		assertEquals("hover", hover.get(10, TimeUnit.SECONDS));
+		release.countDown();
+		for (CompletableFuture<Boolean> search : searches) {
+			assertTrue(search.get(30, TimeUnit.SECONDS));
+		}
+	}
+
+	@Test
+	public void testBlockedRequestsReleaseTheirSlot() throws Exception {
+		int maxThreads = (Integer) ((Map<?, ?>) scheduler.getMetrics().get(RequestPriority.BULK.getId())).get("maxThreads");
+		CountDownLatch release = new CountDownLatch(1);
+		List<CompletableFuture<Boolean>> waits = new ArrayList<>();
+		for (int i = 0; i < maxThreads; i++) {
+			waits.add(scheduler.computeAsync(RequestPriority.BULK, cc -> {
+				boolean[] released = new boolean[1];
+				RequestScheduler.managedBlock(() -> {
+					try {
+						released[0] = release.await(30, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						released[0] = false;
+					}
+				});
+				return released[0];
+			}));
+		}
+		CompletableFuture<String> search = scheduler.computeAsync(RequestPriority.BULK, cc -> "search");
+		assertEquals("search", search.get(10, TimeUnit.SECONDS));
+		release.countDown();
+		for (CompletableFuture<Boolean> wait : waits) {
+			assertTrue(wait.get(30, TimeUnit.SECONDS));
+		}
+		Map<?, ?> pool = (Map<?, ?>) scheduler.getMetrics().get(RequestPriority.BULK.getId());
+		assertEquals(maxThreads, pool.get("maxThreads"));
+		assertEquals(0, pool.get("blocked"));
+	}
+
+	@Test
+	public void testCancellation() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch cancelled = new CountDownLatch(1);
+		CompletableFuture<Object> future = scheduler.computeAsync(RequestPriority.BACKGROUND, cc -> {
+			started.countDown();
+			while (true) {
+				try {
+					cc.checkCanceled();
+					Thread.sleep(5);
+				} catch (InterruptedException e) {
+					return null;
+				} catch (RuntimeException e) {
+					cancelled.countDown();
+					throw e;
+				}
+			}
+		});
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+		future.cancel(true);
+		assertTrue(cancelled.await(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testMetrics() {
+		Map<String, Object> metrics = scheduler.getMetrics();
+		assertFalse(scheduler.isUsingVirtualThreads());
+		assertEquals(Boolean.FALSE, metrics.get("virtualThreads"));
+		for (RequestPriority priority : RequestPriority.values()) {
+			Map<?, ?> pool = (Map<?, ?>) metrics.get(priority.getId());
+			assertNotNull(pool);
+			assertTrue((Integer) pool.get("maxThreads") >= 1);
+			assertEquals(0, pool.get("queued"));
+		}
+	}
+}
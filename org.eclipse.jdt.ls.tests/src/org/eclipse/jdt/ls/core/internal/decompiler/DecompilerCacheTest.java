@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.decompiler;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jdt.ls.core.internal.DecompilerResult;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DecompilerCacheTest {
+
+	private static final byte[] BYTECODE = new byte[] { (byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE, 0, 0, 0, 61 };
+
+	private Path directory;
+	private DecompilerCache cache;
+
+	@Before
+	public void setup() throws Exception {
+		directory = Files.createTempDirectory("decompiler-cache");
+		cache = new DecompilerCache(directory, 1024, TimeUnit.DAYS.toMillis(30));
+	}
+
+	@After
+	public void tearDown() {
+		FileUtils.deleteQuietly(directory.toFile());
+	}
+
+	@Test
+	public void testDigest() {
+		String digest = DecompilerCache.digest(DecompilerType.FERNFLOWER, "1.0", BYTECODE);
+		assertEquals(digest, DecompilerCache.digest(DecompilerType.FERNFLOWER, "1.0", BYTECODE.clone()));
+		assertNotEquals(digest, DecompilerCache.digest(DecompilerType.FERNFLOWER, "1.1", BYTECODE));
+		assertNotEquals(digest, DecompilerCache.digest(DecompilerType.FERNFLOWER, "1.0", new byte[] { 1 }));
+		assertNull(DecompilerCache.digest(DecompilerType.FERNFLOWER, "1.0", (byte[]) null));
+	}
+
+	@Test
+	public void testDigestOfNestedClasses() {
+		String digest = DecompilerCache.digest(DecompilerType.FERNFLOWER, "1.0", BYTECODE);
+		assertEquals(digest, DecompilerCache.digest(DecompilerType.FERNFLOWER, "1.0", List.of(BYTECODE)));
+		String nested = DecompilerCache.digest(DecompilerType.FERNFLOWER, "1.0", List.of(BYTECODE, new byte[] { 1 }));
+		assertNotEquals(digest, nested);
+		assertNotEquals(nested, DecompilerCache.digest(DecompilerType.FERNFLOWER, "1.0", List.of(BYTECODE, new byte[] { 2 })));
+		assertNull(DecompilerCache.digest(DecompilerType.FERNFLOWER, "1.0", Arrays.asList(BYTECODE, null)));
+	}
+
+	@Test
+	public void testDiskRoundTrip() {
+		String digest = DecompilerCache.digest(DecompilerType.FERNFLOWER, "1.0", BYTECODE);
+		assertNull(cache.load(digest));
+
+		DecompilerResult result = new DecompilerResult("class Foo {\n  // \u00e9\n}", new int[] { 1, 2 }, null);
+		cache.store(digest, result);
+
+		// a new instance, as another workspace would
+		DecompilerResult loaded = new DecompilerCache(directory, 1024, TimeUnit.DAYS.toMillis(30)).load(digest);
+		assertNotNull(loaded);
+		assertEquals(result.getContent(), loaded.getContent());
+		assertArrayEquals(result.getOriginalLineMappings(), loaded.getOriginalLineMappings());
+		assertNull(loaded.getDecompiledLineMappings());
+		try (Stream<Path> files = Files.walk(directory)) {
+			assertTrue(files.noneMatch(file -> file.toString().endsWith(".tmp")));
+		} catch (Exception e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	@Test
+	public void testCorruptedEntry() throws Exception {
+		String digest = DecompilerCache.digest(DecompilerType.FERNFLOWER, "1.0", BYTECODE);
+		cache.store(digest, new DecompilerResult("class Foo {}"));
+		Path entry = directory.resolve(digest.substring(0, 2)).resolve(digest + ".gz");
+		assertTrue(Files.exists(entry));
+		Files.write(entry, new byte[] { 1, 2, 3 });
+
+		assertNull(cache.load(digest));
+		assertFalse(Files.exists(entry));
+		assertEquals(1L, cache.getMetrics().get("diskErrors"));
+	}
+
+	@Test
+	public void testMemoryEviction() {
+		DecompilerResult first = new DecompilerResult("a".repeat(200));
+		DecompilerResult second = new DecompilerResult("b".repeat(200));
+		DecompilerResult third = new DecompilerResult("c".repeat(200));
+		cache.put("first", first);
+		cache.put("second", second);
+		assertSame(first, cache.get("first"));
+
+		// 3 * 400 bytes exceed the limit, evicts the least recently used
+		cache.put("third", third);
+		assertSame(first, cache.get("first"));
+		assertNull(cache.get("second"));
+		assertSame(third, cache.get("third"));
+
+		cache.put("huge", new DecompilerResult("d".repeat(1024)));
+		assertNull(cache.get("huge"));
+		assertSame(first, cache.get("first"));
+	}
+
+	@Test
+	public void testPrune() throws Exception {
+		String used = DecompilerCache.digest(DecompilerType.FERNFLOWER, "1.0", BYTECODE);
+		String unused = DecompilerCache.digest(DecompilerType.FERNFLOWER, "0.9", BYTECODE);
+		cache.store(used, new DecompilerResult("class Foo {}"));
+		cache.store(unused, new DecompilerResult("class Foo {}"));
+		Path unusedEntry = directory.resolve(unused.substring(0, 2)).resolve(unused + ".gz");
+		Files.setLastModifiedTime(unusedEntry, FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(31)));
+
+		cache.prune();
+		assertFalse(Files.exists(unusedEntry));
+		assertNotNull(cache.load(used));
+	}
+}
@@ -13,15 +13,31 @@
 
 package org.eclipse.jdt.ls.core.internal.filesystem;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.file.Files;
+
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IProjectDescription;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
 import org.junit.After;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class JLSFsUtilsTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	@Test
 	public void testGeneratesMetadataFilesAtProjectRoot() {
 		System.setProperty(JLSFsUtils.GENERATES_METADATA_FILES_AT_PROJECT_ROOT, "true");
@@ -45,6 +61,60 @@ public class JLSFsUtilsTest {
 		assertTrue(JLSFsUtils.isExcluded(path));
 	}
 
+	@Test
+	public void testExcludedSegments() {
+		for (int i = 0; i < 2; i++) {
+			assertTrue(JLSFsUtils.isExcluded(new Path("/project/.git/objects")));
+			assertTrue(JLSFsUtils.isExcluded(new Path("/project/web/node_modules/lib")));
+			assertFalse(JLSFsUtils.isExcluded(new Path("/project/src/main/java")));
+			assertFalse(JLSFsUtils.isExcluded(new Path("/project/.gitignore")));
+		}
+	}
+
+	@Test
+	public void testProjectNameIfLocationIsProjectRoot() throws Exception {
+		IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		IPath location = Path.fromOSString(folder.newFolder("indexed").getAbsolutePath());
+		IProject project = workspace.getRoot().getProject("jlsfs-indexed");
+		IProjectDescription description = workspace.newProjectDescription(project.getName());
+		description.setLocation(location);
+		workspace.run(monitor -> {
+			project.create(description, monitor);
+			// not notified yet
+			assertEquals(project.getName(), JLSFsUtils.getProjectNameIfLocationIsProjectRoot(location));
+		}, null);
+		try {
+			assertEquals(project.getName(), JLSFsUtils.getProjectNameIfLocationIsProjectRoot(location, false));
+			assertNull(JLSFsUtils.getProjectNameIfLocationIsProjectRoot(location.append("src"), false));
+		} finally {
+			project.delete(false, true, null);
+		}
+		assertNull(JLSFsUtils.getProjectNameIfLocationIsProjectRoot(location, false));
+	}
+
+	@Test
+	public void testMetadataExistence() throws Exception {
+		System.setProperty(JLSFsUtils.GENERATES_METADATA_FILES_AT_PROJECT_ROOT, "false");
+		File root = folder.newFolder("metadata");
+		IPath classpath = Path.fromOSString(root.getAbsolutePath()).append(".classpath");
+		assertTrue(JLSFsUtils.shouldStoreInMetadataArea(classpath));
+		Files.createFile(classpath.toFile().toPath());
+		JLSFsUtils.clearExistenceCache();
+		assertFalse(JLSFsUtils.shouldStoreInMetadataArea(classpath));
+	}
+
+	@Test
+	public void testMetadataExistenceAfterOutputStream() throws Exception {
+		System.setProperty(JLSFsUtils.GENERATES_METADATA_FILES_AT_PROJECT_ROOT, "false");
+		File root = folder.newFolder("written");
+		IPath classpath = Path.fromOSString(root.getAbsolutePath()).append(".classpath");
+		assertTrue(JLSFsUtils.shouldStoreInMetadataArea(classpath));
+		try (OutputStream out = new JLSFile(classpath.toFile()).openOutputStream(EFS.NONE, null)) {
+			out.write(new byte[] { '<', '/', '>' });
+		}
+		assertFalse(JLSFsUtils.shouldStoreInMetadataArea(classpath));
+	}
+
 	@After
 	public void cleanUp() throws Exception {
 		System.clearProperty(JLSFsUtils.GENERATES_METADATA_FILES_AT_PROJECT_ROOT);
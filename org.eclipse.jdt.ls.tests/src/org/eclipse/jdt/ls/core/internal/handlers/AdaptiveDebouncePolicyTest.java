@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class AdaptiveDebouncePolicyTest {
+
+	@Test
+	public void testInitialDelay() {
+		AdaptiveDebouncePolicy policy = new AdaptiveDebouncePolicy(400, 0, 400);
+		assertEquals(400, policy.getDelay(100));
+		assertEquals(400, policy.getDelay(1_000_000));
+	}
+
+	@Test
+	public void testDelayPerBucket() {
+		AdaptiveDebouncePolicy policy = new AdaptiveDebouncePolicy(400, 0, 2000);
+		policy.update(1_000, 10);
+		policy.update(500_000, 1000);
+		// small documents only depend on the cost of small documents
+		assertEquals(15, policy.getDelay(2_000));
+		assertEquals(1500, policy.getDelay(300_000));
+		// buckets without samples keep the initial value
+		assertEquals(600, policy.getDelay(20_000));
+	}
+
+	@Test
+	public void testDelayIsClamped() {
+		AdaptiveDebouncePolicy policy = new AdaptiveDebouncePolicy(400, 400, 2000);
+		policy.update(1_000, 1);
+		policy.update(500_000, 10_000);
+		assertEquals(400, policy.getDelay(1_000));
+		assertEquals(2000, policy.getDelay(500_000));
+	}
+
+	@Test
+	public void testBuckets() {
+		assertEquals(0, AdaptiveDebouncePolicy.getBucket(0));
+		assertEquals(0, AdaptiveDebouncePolicy.getBucket(9_999));
+		assertEquals(1, AdaptiveDebouncePolicy.getBucket(10_000));
+		assertEquals(AdaptiveDebouncePolicy.BUCKET_BOUNDS.length, AdaptiveDebouncePolicy.getBucket(Integer.MAX_VALUE));
+	}
+
+	@Test
+	public void testMetrics() {
+		AdaptiveDebouncePolicy policy = new AdaptiveDebouncePolicy(400, 0, 400);
+		policy.update(1_000, 100);
+		assertEquals(150L, policy.getDelay(1_000));
+		Map<String, Object> metrics = policy.getMetrics();
+		assertEquals(150L, metrics.get("lastDelay"));
+		List<?> buckets = (List<?>) metrics.get("buckets");
+		assertEquals(AdaptiveDebouncePolicy.BUCKET_BOUNDS.length + 1, buckets.size());
+		Map<?, ?> first = (Map<?, ?>) buckets.get(0);
+		assertEquals(100L, first.get("averageCost"));
+		assertEquals(1L, first.get("samples"));
+		assertTrue(((Map<?, ?>) buckets.get(buckets.size() - 1)).containsKey("maxLength"));
+	}
+}
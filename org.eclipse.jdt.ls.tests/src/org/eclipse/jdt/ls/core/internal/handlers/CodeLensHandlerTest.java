@@ -28,7 +28,12 @@ import java.util.Collections;
 import java.util.List;
 
 import org.eclipse.core.resources.IProject;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.ls.core.internal.ClassFileUtil;
+import org.eclipse.jdt.ls.core.internal.JDTUtils;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.ResourceUtils;
 import org.eclipse.jdt.ls.core.internal.WorkspaceHelper;
 import org.eclipse.jdt.ls.core.internal.managers.AbstractProjectsManagerBasedTest;
@@ -412,6 +417,65 @@ public class CodeLensHandlerTest extends AbstractProjectsManagerBasedTest {
 		assertEquals("0 references", cl.getCommand().getTitle());
 	}
 
+	@Test
+	public void testResolveReferencesInBatch() throws Exception {
+		IPackageFragment pack = JavaCore.create(project).getPackageFragmentRoot(project.getFolder("src")).createPackageFragment("lens", true, monitor);
+		//@formatter:off
+		ICompilationUnit target = pack.createCompilationUnit("Target.java", "package lens;\n" +
+				"public class Target {\n" +
+				"	public Target() {\n" +
+				"	}\n" +
+				"	public Target(int i) {\n" +
+				"		this();\n" +
+				"	}\n" +
+				"	public void foo() {\n" +
+				"	}\n" +
+				"	public void foo(int i) {\n" +
+				"		foo();\n" +
+				"	}\n" +
+				"	public int bar(int i) {\n" +
+				"		return i;\n" +
+				"	}\n" +
+				"}\n", true, monitor);
+		String client = "package lens;\n" +
+				"public class Client {\n" +
+				"	void run(Target t) {\n" +
+				"		new Target(1).foo();\n" +
+				"		t.foo(t.bar(3));\n" +
+				"		int i = t.bar(2);\n" +
+				"		Target.class.getName();\n" +
+				"	}\n" +
+				"}\n";
+		//@formatter:on
+		pack.createCompilationUnit("Client.java", client, true, monitor);
+		waitForBackgroundJobs();
+
+		List<CodeLens> symbols = handler.getCodeLensSymbols(JDTUtils.toURI(target), monitor);
+		assertEquals("Found " + symbols, 6, symbols.size());
+		CodeLensReferenceCounter counter = JavaLanguageServerPlugin.getCodeLensReferenceCounter();
+		long batches = (Long) counter.getMetrics().get("batches");
+		// Target(), Target(int), foo(), foo(int), bar(int), Target
+		assertEquals("1 reference", resolveTitle("src/lens/Target.java", symbols.get(0)));
+		assertEquals("1 reference", resolveTitle("src/lens/Target.java", symbols.get(1)));
+		assertEquals("2 references", resolveTitle("src/lens/Target.java", symbols.get(2)));
+		assertEquals("1 reference", resolveTitle("src/lens/Target.java", symbols.get(3)));
+		assertEquals("2 references", resolveTitle("src/lens/Target.java", symbols.get(4)));
+		assertEquals("3 references", resolveTitle("src/lens/Target.java", symbols.get(5)));
+		assertEquals(batches + 1, counter.getMetrics().get("batches"));
+
+		// changing a document invalidates the counts
+		pack.createCompilationUnit("Client.java", client.replace("		int i = t.bar(2);\n", ""), true, monitor);
+		waitForBackgroundJobs();
+		assertEquals("1 reference", resolveTitle("src/lens/Target.java", symbols.get(4)));
+		assertEquals(batches + 2, counter.getMetrics().get("batches"));
+	}
+
+	private String resolveTitle(String file, CodeLens symbol) {
+		Range range = symbol.getRange();
+		CodeLens lens = getParams(createCodeLensRequest(file, range.getStart().getLine(), range.getStart().getCharacter(), range.getEnd().getCharacter()));
+		return handler.resolve(lens, monitor).getCommand().getTitle();
+	}
+
 	String createCodeLensSymbolsRequest(String file) {
 		URI uri = project.getFile(file).getRawLocationURI();
 		return createCodeLensSymbolRequest(uri);
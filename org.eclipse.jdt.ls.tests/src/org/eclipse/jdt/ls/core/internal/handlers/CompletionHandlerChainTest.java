@@ -2,6 +2,7 @@ package org.eclipse.jdt.ls.core.internal.handlers;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
@@ -12,6 +13,7 @@ import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.manipulation.CoreASTProvider;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaClientConnection;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 import org.eclipse.jdt.ls.core.internal.JsonMessageHelper;
 import org.eclipse.jdt.ls.core.internal.preferences.Preferences;
 import org.eclipse.lsp4j.CompletionItem;
@@ -267,4 +269,55 @@ public class CompletionHandlerChainTest extends AbstractCompilationUnitBasedTest
 		completionItems = list.getItems().stream().filter(i -> i.getLabel().contains("newObject")).collect(Collectors.toList());
 		assertEquals("emptyList completion count [type]", 0, completionItems.size());
 	}
+
+	@Test
+	public void testChainCompletionsSkipEntrypointsNotReachingExpectedType() throws Exception {
+		//@formatter:off
+		getWorkingCopy("src/java/ChainHolder.java", """
+				package java;
+				public class ChainHolder {
+					public ChainMiddle middle() {
+						return new ChainMiddle();
+					}
+				}
+				""");
+		getWorkingCopy("src/java/ChainMiddle.java", """
+				package java;
+				public class ChainMiddle {
+					public ChainTarget target() {
+						return new ChainTarget();
+					}
+				}
+				""");
+		getWorkingCopy("src/java/ChainTarget.java", """
+				package java;
+				public class ChainTarget {
+				}
+				""");
+		getWorkingCopy("src/java/ChainUnrelated.java", """
+				package java;
+				public class ChainUnrelated {
+					public ChainUnrelated next() {
+						return this;
+					}
+				}
+				""");
+		ICompilationUnit unit = getWorkingCopy(
+				"src/java/Foo.java",
+				"""
+					package java;
+					public class Foo {
+					    public static void boo(ChainUnrelated unrelated, ChainHolder holder) {
+							ChainTarget target =
+					    }
+					}
+					""");
+		//@formatter:on
+		long pruned = (Long) JavaLanguageServerPlugin.getChainTypeGraph().getMetrics().get("prunedEntrypoints");
+		CompletionList list = requestCompletions(unit, "target =");
+		List<CompletionItem> completionItems = list.getItems().stream().filter(i -> i.getLabel().equals("target()")).collect(Collectors.toList());
+		assertEquals("target completion count", 1, completionItems.size());
+		assertEquals("Completion getTextEditText", "holder.middle().target()", completionItems.get(0).getTextEditText());
+		assertTrue("unrelated entry point pruned", (Long) JavaLanguageServerPlugin.getChainTypeGraph().getMetrics().get("prunedEntrypoints") > pruned);
+	}
 }
@@ -15,6 +15,7 @@ package org.eclipse.jdt.ls.core.internal.handlers;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 import static org.eclipse.jdt.ls.core.internal.Lsp4jAssertions.assertPosition;
 import static org.eclipse.jdt.ls.core.internal.Lsp4jAssertions.assertTextEdit;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -135,6 +136,7 @@ public class CompletionHandlerTest extends AbstractCompilationUnitBasedTest {
 	@After
 	public void tearDown() throws Exception {
 		javaClient.disconnect();
+		JavaLanguageServerPlugin.getCompletionSessions().clear();
 	}
 
 	@Test
@@ -275,6 +277,64 @@ public class CompletionHandlerTest extends AbstractCompilationUnitBasedTest {
 		}
 	}
 
+	@Test
+	public void testCompletion_continuedIdentifier() throws Exception {
+		ICompilationUnit unit = getWorkingCopy(
+			"src/java/Foo.java",
+			"public class Foo {\n"+
+				"	void foo() {\n"+
+				"		Obje\n"+
+				"	}\n"+
+				"}\n");
+		CompletionList list = requestCompletions(unit, "Obje");
+		assertFalse("No proposals were found", list.getItems().isEmpty());
+		Map<String, String> data = JSONUtility.toModel(list.getItems().get(0).getData(), Map.class);
+		CompletionResponse response = CompletionResponses.get(Long.parseLong(data.get("rid")));
+		int[] replaceEnds = response.getProposals().stream().mapToInt(CompletionProposal::getReplaceEnd).toArray();
+		int offset = unit.getSource().indexOf("Obje") + 4;
+		unit.getBuffer().replace(offset, 0, "c");
+		long reused = (Long) JavaLanguageServerPlugin.getCompletionSessions().getMetrics().get("reused");
+		CompletionList continued = requestCompletions(unit, "Objec");
+		assertEquals(reused + 1, JavaLanguageServerPlugin.getCompletionSessions().getMetrics().get("reused"));
+		// the proposals of the previous response are left unchanged
+		assertArrayEquals(replaceEnds, response.getProposals().stream().mapToInt(CompletionProposal::getReplaceEnd).toArray());
+
+		JavaLanguageServerPlugin.getCompletionSessions().clear();
+		CompletionList computed = requestCompletions(unit, "Objec");
+		assertEquals(reused + 1, JavaLanguageServerPlugin.getCompletionSessions().getMetrics().get("reused"));
+		assertEquals(computed.getItems().size(), continued.getItems().size());
+		for (int i = 0; i < computed.getItems().size(); i++) {
+			CompletionItem expected = computed.getItems().get(i);
+			CompletionItem actual = continued.getItems().get(i);
+			assertEquals(expected.getLabel(), actual.getLabel());
+			assertEquals(expected.getSortText(), actual.getSortText());
+			assertEquals(expected.getTextEdit(), actual.getTextEdit());
+		}
+	}
+
+	@Test
+	public void testCompletion_continuedIdentifierAfterOtherUnitChanged() throws Exception {
+		ICompilationUnit unit = getWorkingCopy(
+			"src/java/Foo.java",
+			"public class Foo {\n"+
+				"	void foo() {\n"+
+				"		Obje\n"+
+				"	}\n"+
+				"}\n");
+		requestCompletions(unit, "Obje");
+		ICompilationUnit other = getWorkingCopy("src/java/Objective.java", "public class Objective {}\n");
+		try {
+			int offset = unit.getSource().indexOf("Obje") + 4;
+			unit.getBuffer().replace(offset, 0, "c");
+			long reused = (Long) JavaLanguageServerPlugin.getCompletionSessions().getMetrics().get("reused");
+			CompletionList list = requestCompletions(unit, "Objec");
+			assertEquals(reused, JavaLanguageServerPlugin.getCompletionSessions().getMetrics().get("reused"));
+			assertTrue(list.getItems().stream().anyMatch(item -> item.getLabel().startsWith("Objective")));
+		} finally {
+			other.discardWorkingCopy();
+		}
+	}
+
 	@Test
 	public void testCompletion_dataFieldURI() throws Exception {
 		ICompilationUnit unit = getWorkingCopy(
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.ls.core.internal.JavaClientConnection;
+import org.eclipse.jdt.ls.core.internal.JavaClientConnection.JavaLanguageClient;
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.PublishDiagnosticsParams;
+import org.eclipse.lsp4j.Range;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DiagnosticsPublisherTest {
+
+	private JavaLanguageClient client;
+	private JavaClientConnection connection;
+
+	@Before
+	public void setup() {
+		client = mock(JavaLanguageClient.class);
+		connection = new JavaClientConnection(client);
+	}
+
+	@After
+	public void tearDown() {
+		connection.disconnect();
+	}
+
+	@Test
+	public void testCoalesce() {
+		DiagnosticsPublisher publisher = new DiagnosticsPublisher(connection, 60_000, 100);
+		PublishDiagnosticsParams first = diagnostics("file:///A.java", "first");
+		PublishDiagnosticsParams second = diagnostics("file:///A.java", "second");
+		publisher.publish(first, null);
+		publisher.publish(second, null);
+		publisher.flush();
+		publisher.dispose();
+		verify(client, never()).publishDiagnostics(first);
+		verify(client).publishDiagnostics(second);
+		Map<String, Object> metrics = publisher.getMetrics();
+		assertEquals(2L, metrics.get("queued"));
+		assertEquals(1L, metrics.get("coalesced"));
+		assertEquals(1L, metrics.get("published"));
+	}
+
+	@Test
+	public void testSkipUnchanged() {
+		DiagnosticsPublisher publisher = new DiagnosticsPublisher(connection, 60_000, 100);
+		publisher.publish(diagnostics("file:///A.java", "error"), null);
+		publisher.flush();
+		publisher.publish(diagnostics("file:///A.java", "error"), null);
+		publisher.flush();
+		verify(client, times(1)).publishDiagnostics(diagnostics("file:///A.java", "error"));
+		// diagnostics published by other components are taken into account
+		connection.publishDiagnostics(new PublishDiagnosticsParams("file:///A.java", Collections.emptyList()));
+		publisher.publish(diagnostics("file:///A.java", "error"), null);
+		publisher.flush();
+		publisher.dispose();
+		verify(client, times(2)).publishDiagnostics(diagnostics("file:///A.java", "error"));
+		assertEquals(1L, publisher.getMetrics().get("unchanged"));
+	}
+
+	@Test
+	public void testForgetCleared() {
+		DiagnosticsPublisher publisher = new DiagnosticsPublisher(connection, 60_000, 100);
+		publisher.publish(diagnostics("file:///A.java", "error"), null);
+		publisher.flush();
+		// the diagnostics of a closed or deleted document are cleared
+		publisher.publish(new PublishDiagnosticsParams("file:///A.java", Collections.emptyList()), null);
+		publisher.flush();
+		publisher.publish(diagnostics("file:///A.java", "error"), null);
+		publisher.flush();
+		publisher.dispose();
+		verify(client, times(2)).publishDiagnostics(diagnostics("file:///A.java", "error"));
+		verify(client).publishDiagnostics(new PublishDiagnosticsParams("file:///A.java", Collections.emptyList()));
+		assertEquals(0L, publisher.getMetrics().get("unchanged"));
+	}
+
+	@Test
+	public void testBatches() throws Exception {
+		DiagnosticsPublisher publisher = new DiagnosticsPublisher(connection, 10, 2);
+		for (int i = 0; i < 5; i++) {
+			publisher.publish(diagnostics("file:///A" + i + ".java", "error"), null);
+		}
+		Job.getJobManager().join(DiagnosticsPublisher.PUBLISH_JOBS, new NullProgressMonitor());
+		for (int i = 0; i < 5; i++) {
+			verify(client).publishDiagnostics(diagnostics("file:///A" + i + ".java", "error"));
+		}
+		Map<String, Object> metrics = publisher.getMetrics();
+		assertEquals(5L, metrics.get("published"));
+		assertTrue(metrics.toString(), (Long) metrics.get("batches") >= 3);
+	}
+
+	private static PublishDiagnosticsParams diagnostics(String uri, String message) {
+		Diagnostic diagnostic = new Diagnostic(new Range(new Position(0, 0), new Position(0, 1)), message);
+		return new PublishDiagnosticsParams(uri, List.of(diagnostic));
+	}
+}
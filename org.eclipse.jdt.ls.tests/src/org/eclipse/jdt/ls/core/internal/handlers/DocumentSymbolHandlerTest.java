@@ -16,6 +16,7 @@ import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.when;
@@ -36,8 +37,11 @@ import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.ls.core.internal.ClassFileUtil;
+import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.WorkspaceHelper;
 import org.eclipse.jdt.ls.core.internal.managers.AbstractProjectsManagerBasedTest;
 import org.eclipse.lsp4j.DocumentSymbol;
@@ -240,6 +244,30 @@ public class DocumentSymbolHandlerTest extends AbstractProjectsManagerBasedTest
 		assertFalse(method.isPresent());
 	}
 
+	@Test
+	public void testCachedSymbols() throws Exception {
+		ICompilationUnit unit = JavaCore.create(project).findType("java.Foo").getCompilationUnit();
+		DocumentSymbolParams params = new DocumentSymbolParams(new TextDocumentIdentifier(JDTUtils.toURI(unit)));
+		when(preferenceManager.getClientPreferences().isHierarchicalDocumentSymbolSupported()).thenReturn(true);
+		DocumentSymbolHandler handler = new DocumentSymbolHandler(preferenceManager);
+		List<Either<SymbolInformation, DocumentSymbol>> symbols = handler.documentSymbol(params, monitor);
+		assertSame(symbols, handler.documentSymbol(params, monitor));
+
+		unit.becomeWorkingCopy(monitor);
+		try {
+			String source = unit.getSource();
+			int end = source.lastIndexOf('}');
+			unit.getBuffer().setContents(source.substring(0, end) + "\tpublic void added() {}\n" + source.substring(end));
+			unit.reconcile(ICompilationUnit.NO_AST, false, null, monitor);
+			List<Either<SymbolInformation, DocumentSymbol>> changed = handler.documentSymbol(params, monitor);
+			assertNotSame(symbols, changed);
+			List<DocumentSymbol> hierarchicalSymbols = changed.stream().map(Either::getRight).collect(toList());
+			assertHasHierarchicalSymbol("added() : void", "Foo", SymbolKind.Method, hierarchicalSymbols);
+		} finally {
+			unit.discardWorkingCopy();
+		}
+	}
+
 	@Test
 	public void testDecompiledSource() throws Exception {
 		importProjects("eclipse/reference");
@@ -709,6 +709,69 @@ public class FormatterHandlerTest extends AbstractCompilationUnitBasedTest {
 		assertEquals(expectedText, newText);
 	}
 
+	@Test // typing ; in a method should only format the statement within that method
+	public void testFormattingOnTypeInMethod() throws Exception {
+		ICompilationUnit unit = getWorkingCopy("src/org/sample/Baz.java",
+		//@formatter:off
+			  "package org.sample;\n"
+			+ "\n"
+			+ "    public      class     Baz {  \n"
+			+ "String          name       ;\n"
+			+ "void foo() {\n"
+			+ "int    i   =   0   ;\n"//typed ; here
+			+ "}\n"
+			+ "void bar() {}\n"
+			+ "}\n"
+		//@formatter:on
+		);
+
+		String uri = JDTUtils.toURI(unit);
+		TextDocumentIdentifier textDocument = new TextDocumentIdentifier(uri);
+		FormattingOptions options = new FormattingOptions(4, true);// ident == 4 spaces
+
+		DocumentOnTypeFormattingParams params = new DocumentOnTypeFormattingParams(textDocument, options, new Position(5, 20), ";");
+
+		preferences.setJavaFormatOnTypeEnabled(true);
+		List<? extends TextEdit> edits = server.onTypeFormatting(params).get();
+		assertNotNull(edits);
+
+		//@formatter:off
+		String expectedText =
+			  "package org.sample;\n"
+			+ "\n"
+			+ "    public      class     Baz {  \n"//this part won't be formatted
+			+ "String          name       ;\n"
+			+ "void foo() {\n"
+			+ "            int i = 0;\n"
+			+ "}\n"
+			+ "void bar() {}\n"
+			+ "}\n";
+		//@formatter:on
+
+		String newText = TextEditUtil.apply(unit, edits);
+		assertEquals(expectedText, newText);
+	}
+
+	@Test
+	public void testFormattingReusesCodeFormatter() throws Exception {
+		ICompilationUnit unit = getWorkingCopy("src/org/sample/Baz.java",
+		//@formatter:off
+			"package org.sample   ;\n\n" +
+			"      public class Baz {  String name;}\n"
+		//@formatter:on
+		);
+
+		String uri = JDTUtils.toURI(unit);
+		TextDocumentIdentifier textDocument = new TextDocumentIdentifier(uri);
+		DocumentFormattingParams params = new DocumentFormattingParams(textDocument, new FormattingOptions(4, false));// ident == tab
+
+		List<? extends TextEdit> edits = server.formatting(params).get();
+		assertNotNull(edits);
+		long reused = (Long) CodeFormatterPool.getMetrics().get("reused");
+		assertEquals(edits, server.formatting(params).get());
+		assertTrue((Long) CodeFormatterPool.getMetrics().get("reused") > reused);
+	}
+
 	@Test
 	public void testDisableFormattingOnType() throws Exception {
 		//@formatter:off
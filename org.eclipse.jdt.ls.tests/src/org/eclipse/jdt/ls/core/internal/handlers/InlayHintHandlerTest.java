@@ -25,6 +25,7 @@ import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.manipulation.CoreASTProvider;
 import org.eclipse.jdt.ls.core.internal.WorkspaceHelper;
 import org.eclipse.lsp4j.InlayHint;
 import org.eclipse.lsp4j.InlayHintParams;
@@ -507,4 +508,70 @@ public class InlayHintHandlerTest extends AbstractCompilationUnitBasedTest {
 		assertEquals(5, inlayHints.get(0).getPosition().getLine());
 		assertEquals(16, inlayHints.get(0).getPosition().getCharacter());
 	}
+
+	@Test
+	public void testRangeInsideNestedNodes() throws JavaModelException {
+		preferences.setInlayHintsParameterMode(InlayHintsParameterMode.LITERALS);
+		ICompilationUnit unit = getWorkingCopy(
+			"src/Foo.java",
+			"public class Foo {\n" +
+			"	void foo(int i) {}\n" +
+			"	void bar() {\n" +
+			"		foo(1);\n" +
+			"		Runnable r = () -> {\n" +
+			"			foo(2);\n" +
+			"		};\n" +
+			"		foo(3);\n" +
+			"	}\n" +
+			"}\n"
+		);
+		InlayHintsHandler handler = new InlayHintsHandler(preferenceManager);
+		InlayHintParams params = new InlayHintParams();
+		params.setTextDocument(new TextDocumentIdentifier(unit.getResource().getLocationURI().toString()));
+		params.setRange(new Range(new Position(5, 0), new Position(5, 10)));
+		List<InlayHint> inlayHints = handler.inlayHint(params, new NullProgressMonitor());
+		assertEquals(1, inlayHints.size());
+		assertEquals("i:", inlayHints.get(0).getLabel().getLeft());
+		assertEquals(5, inlayHints.get(0).getPosition().getLine());
+		assertEquals(7, inlayHints.get(0).getPosition().getCharacter());
+	}
+
+	@Test
+	public void testCachedHints() throws JavaModelException {
+		preferences.setInlayHintsParameterMode(InlayHintsParameterMode.LITERALS);
+		ICompilationUnit unit = getWorkingCopy(
+			"src/Foo.java",
+			"public class Foo {\n" +
+			"	void foo(int i) {}\n" +
+			"	void bar(int i) {\n" +
+			"		foo(123);\n" +
+			"		foo(i + 1);\n" +
+			"	}\n" +
+			"}\n"
+		);
+		InlayHintsHandler handler = new InlayHintsHandler(preferenceManager);
+		InlayHintParams params = new InlayHintParams();
+		params.setTextDocument(new TextDocumentIdentifier(unit.getResource().getLocationURI().toString()));
+		params.setRange(new Range(new Position(0, 0), new Position(6, 0)));
+		List<InlayHint> inlayHints = handler.inlayHint(params, new NullProgressMonitor());
+		assertEquals(1, inlayHints.size());
+		assertEquals(inlayHints, handler.inlayHint(params, new NullProgressMonitor()));
+
+		// the cached hints don't survive a change of the preferences
+		preferences.setInlayHintsParameterMode(InlayHintsParameterMode.ALL);
+		assertEquals(2, handler.inlayHint(params, new NullProgressMonitor()).size());
+
+		// nor a change of the document
+		unit.getBuffer().setContents(
+			"public class Foo {\n" +
+			"	void foo(int i) {}\n" +
+			"	void bar(int i) {\n" +
+			"		foo(123);\n" +
+			"	}\n" +
+			"}\n"
+		);
+		unit.makeConsistent(null);
+		CoreASTProvider.getInstance().disposeAST();
+		assertEquals(1, handler.inlayHint(params, new NullProgressMonitor()).size());
+	}
 }
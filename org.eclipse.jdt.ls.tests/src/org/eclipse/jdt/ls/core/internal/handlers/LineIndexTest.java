@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.eclipse.jdt.core.IBuffer;
+import org.eclipse.jdt.internal.core.Buffer;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.junit.Test;
+
+public class LineIndexTest {
+
+	@Test
+	public void testLineDelimiters() throws Exception {
+		String text = "a\nbc\r\n\rdef\r";
+		LineIndex index = LineIndex.of(text);
+		IDocument document = new Document(text);
+		assertEquals(document.getNumberOfLines(), index.getNumberOfLines());
+		for (int line = 0; line < document.getNumberOfLines(); line++) {
+			assertEquals(document.getLineOffset(line), index.getLineOffset(line));
+		}
+		for (int offset = 0; offset <= text.length(); offset++) {
+			assertArrayEquals("offset " + offset, JsonRpcHelpers.toLine(document, offset), index.toLine(offset));
+		}
+		assertNull(index.toLine(text.length() + 1));
+		assertEquals(text.length(), index.getLength());
+	}
+
+	@Test(expected = BadLocationException.class)
+	public void testLineOutOfText() throws Exception {
+		LineIndex.of("a\nb").getLineOffset(2);
+	}
+
+	@Test
+	public void testLongText() throws Exception {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 10000; i++) {
+			text.append("line ").append(i).append(i % 2 == 0 ? "\n" : "\r\n");
+		}
+		LineIndex index = LineIndex.of(text);
+		IDocument document = new Document(text.toString());
+		assertEquals(document.getNumberOfLines(), index.getNumberOfLines());
+		assertEquals(document.getLineOffset(9999), index.getLineOffset(9999));
+		int offset = document.getLineOffset(5000) + 3;
+		assertArrayEquals(new int[] { 5000, 3 }, index.toLine(offset));
+	}
+
+	@Test
+	public void testByteOrderMark() throws Exception {
+		LineIndex index = LineIndex.of("\uFEFFa\nb");
+		assertEquals(3, index.getLength());
+		assertEquals(2, index.getLineOffset(1));
+	}
+
+	@Test
+	public void testFindAnnotation() {
+		String text = "@Foo class A {\n\t@ \n Bar int b; /** @param */ int c; }";
+		LineIndex index = LineIndex.of(text);
+		assertEquals(0, index.findAnnotation(text.indexOf("Foo")));
+		assertEquals(text.indexOf("@ "), index.findAnnotation(text.indexOf("Bar")));
+		assertEquals(-1, index.findAnnotation(text.indexOf("class")));
+		assertEquals(-1, index.findAnnotation(text.indexOf("int b")));
+		assertEquals(-1, index.findAnnotation(0));
+	}
+
+	@Test
+	public void testBufferIndex() throws Exception {
+		IBuffer buffer = new Buffer(null, null, false) {
+		};
+		buffer.setContents("\uFEFFa\nbc\r\n");
+		LineIndex index = LineIndex.of(buffer);
+		assertSame(index, LineIndex.of(buffer));
+		IDocument document = new Document(buffer.getContents());
+		for (int offset = 0; offset <= buffer.getLength(); offset++) {
+			assertArrayEquals("offset " + offset, JsonRpcHelpers.toLine(document, offset), JsonRpcHelpers.toLine(buffer, offset));
+		}
+		assertEquals(document.getLineOffset(1) + 1, JsonRpcHelpers.toOffset(buffer, 1, 1));
+		assertEquals(-1, JsonRpcHelpers.toOffset(buffer, 5, 0));
+
+		// the index is discarded when the buffer changes
+		buffer.replace(0, 0, "\n");
+		assertArrayEquals(new int[] { 2, 0 }, JsonRpcHelpers.toLine(buffer, 4));
+		assertEquals(4, JsonRpcHelpers.toOffset(buffer, 2, 0));
+	}
+}
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.junit.After;
+import org.junit.Test;
+
+public class ReconcileSchedulerTest {
+
+	private ReconcileScheduler scheduler = new ReconcileScheduler(4);
+
+	@After
+	public void tearDown() {
+		scheduler.shutdown();
+	}
+
+	@Test
+	public void testIndependentUnitsRunInParallel() throws Exception {
+		ICompilationUnit unit1 = mock(ICompilationUnit.class);
+		ICompilationUnit unit2 = mock(ICompilationUnit.class);
+		CountDownLatch latch = new CountDownLatch(2);
+		// each operation waits for the other one, which would time out if they ran sequentially
+		boolean completed = scheduler.runAll(Arrays.asList(unit1, unit2), (unit, monitor) -> {
+			latch.countDown();
+			try {
+				assertTrue(latch.await(10, TimeUnit.SECONDS));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}, new NullProgressMonitor());
+		assertTrue(completed);
+		assertEquals(0, latch.getCount());
+	}
+
+	@Test
+	public void testSameUnitIsExclusive() throws Exception {
+		ICompilationUnit unit = mock(ICompilationUnit.class);
+		List<ICompilationUnit> units = Arrays.asList(unit, mock(ICompilationUnit.class));
+		Map<ICompilationUnit, AtomicInteger> running = new ConcurrentHashMap<>();
+		AtomicInteger maxRunning = new AtomicInteger();
+		ReconcileScheduler.UnitOperation operation = (cu, monitor) -> {
+			AtomicInteger counter = running.computeIfAbsent(cu, k -> new AtomicInteger());
+			maxRunning.accumulateAndGet(counter.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(5);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			counter.decrementAndGet();
+		};
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(() -> {
+				try {
+					for (int j = 0; j < 10; j++) {
+						scheduler.runAll(units, operation, new NullProgressMonitor());
+					}
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(1, maxRunning.get());
+	}
+
+	@Test
+	public void testCancellation() throws Exception {
+		ICompilationUnit unit1 = mock(ICompilationUnit.class);
+		ICompilationUnit unit2 = mock(ICompilationUnit.class);
+		NullProgressMonitor monitor = new NullProgressMonitor();
+		monitor.setCanceled(true);
+		AtomicInteger count = new AtomicInteger();
+		boolean completed = scheduler.runAll(Arrays.asList(unit1, unit2), (unit, progress) -> count.incrementAndGet(), monitor);
+		assertFalse(completed);
+		assertEquals(0, count.get());
+	}
+}
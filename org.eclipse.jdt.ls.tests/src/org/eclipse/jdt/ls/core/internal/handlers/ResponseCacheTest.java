@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class ResponseCacheTest {
+
+	@Test
+	public void testWeightEviction() {
+		// a single stripe
+		ResponseCache<String> cache = new ResponseCache<>(1, 0, String::length);
+		cache.put(0, "a");
+		cache.put(1, "b");
+		assertNull(cache.get(0));
+		assertEquals("b", cache.get(1));
+
+		// 8 stripes of weight 1, the latest response is always kept
+		ResponseCache<String> weighted = new ResponseCache<>(10, 0, String::length);
+		weighted.put(0, "aaaa");
+		assertEquals("aaaa", weighted.get(0));
+		weighted.put(8, "bb");
+		assertNull(weighted.get(0));
+		assertEquals("bb", weighted.get(8));
+		assertEquals(2L, weighted.weight());
+		assertEquals(1L, weighted.getMetrics().get("evictions"));
+	}
+
+	@Test
+	public void testLeastRecentlyUsedFirst() {
+		ResponseCache<String> store = new ResponseCache<>(1, 0, String::length);
+		store.put(0, "");
+		store.put(1, "");
+		store.put(2, "a");
+		assertEquals("", store.get(0));
+		store.put(3, "b");
+		// 2 is the least recently used weighted response
+		assertNull(store.get(2));
+		assertEquals("", store.get(0));
+		assertEquals("b", store.get(3));
+	}
+
+	@Test
+	public void testExpiry() throws Exception {
+		ResponseCache<String> cache = new ResponseCache<>(Long.MAX_VALUE, 50, value -> 1);
+		cache.put(0, "a");
+		cache.put(1, "b");
+		assertEquals("a", cache.get(0));
+		TimeUnit.MILLISECONDS.sleep(100);
+		assertNull(cache.get(0));
+		cache.put(2, "c");
+		assertEquals("c", cache.get(2));
+		// expired responses are dropped from the stripes being written
+		Map<String, Object> metrics = cache.getMetrics();
+		assertTrue((Long) metrics.get("expirations") >= 1);
+		assertEquals(1L, metrics.get("misses"));
+	}
+
+	@Test
+	public void testRemoveAndClear() {
+		ResponseCache<String> cache = new ResponseCache<>(100, 0, String::length);
+		for (int i = 0; i < 10; i++) {
+			cache.put(i, "response" + i);
+		}
+		assertEquals(10, cache.size());
+		cache.remove(3);
+		assertNull(cache.get(3));
+		assertEquals(9, cache.size());
+		assertEquals(9L * "responseN".length(), cache.weight());
+		cache.clear();
+		assertTrue(cache.isEmpty());
+		assertEquals(0L, cache.weight());
+	}
+}
@@ -35,10 +35,17 @@ import org.eclipse.jdt.ls.core.internal.WorkspaceHelper;
 import org.eclipse.jdt.ls.core.internal.correction.TestOptions;
 import org.eclipse.jdt.ls.core.internal.handlers.BaseDocumentLifeCycleHandler.DocumentMonitor;
 import org.eclipse.jdt.ls.core.internal.managers.AbstractProjectsManagerBasedTest;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4j.SemanticTokens;
+import org.eclipse.lsp4j.SemanticTokensDelta;
+import org.eclipse.lsp4j.SemanticTokensDeltaParams;
+import org.eclipse.lsp4j.SemanticTokensEdit;
 import org.eclipse.lsp4j.SemanticTokensLegend;
 import org.eclipse.lsp4j.SemanticTokensParams;
+import org.eclipse.lsp4j.SemanticTokensRangeParams;
 import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -481,6 +488,51 @@ public class SemanticTokensHandlerTest extends AbstractProjectsManagerBasedTest
 		.endAssertion();
 	}
 
+	@Test
+	public void testSemanticTokens_Delta() {
+		String uri = getURI("Methods.java");
+		SemanticTokens full = SemanticTokensHandler.full(new NullProgressMonitor(), new SemanticTokensParams(new TextDocumentIdentifier(uri)), mock(DocumentMonitor.class));
+		assertNotNull(full.getResultId());
+		Either<SemanticTokens, SemanticTokensDelta> delta = SemanticTokensHandler.fullDelta(new NullProgressMonitor(), new SemanticTokensDeltaParams(new TextDocumentIdentifier(uri), full.getResultId()), mock(DocumentMonitor.class));
+		assertTrue(delta.isRight());
+		assertTrue(delta.getRight().getEdits().isEmpty());
+		assertFalse(full.getResultId().equals(delta.getRight().getResultId()));
+
+		Either<SemanticTokens, SemanticTokensDelta> unknown = SemanticTokensHandler.fullDelta(new NullProgressMonitor(), new SemanticTokensDeltaParams(new TextDocumentIdentifier(uri), "unknown"), mock(DocumentMonitor.class));
+		assertTrue(unknown.isLeft());
+		assertEquals(full.getData(), unknown.getLeft().getData());
+		SemanticTokensHandler.evict(uri);
+	}
+
+	@Test
+	public void testSemanticTokens_Range() {
+		String uri = getURI("Methods.java");
+		SemanticTokens full = SemanticTokensHandler.full(new NullProgressMonitor(), new SemanticTokensParams(new TextDocumentIdentifier(uri)), mock(DocumentMonitor.class));
+		Range range = new Range(new Position(0, 0), new Position(10000, 0));
+		SemanticTokens ranged = SemanticTokensHandler.range(new NullProgressMonitor(), new SemanticTokensRangeParams(new TextDocumentIdentifier(uri), range), mock(DocumentMonitor.class));
+		assertEquals(full.getData(), ranged.getData());
+		SemanticTokens empty = SemanticTokensHandler.range(new NullProgressMonitor(), new SemanticTokensRangeParams(new TextDocumentIdentifier(uri), new Range(new Position(0, 0), new Position(0, 0))), mock(DocumentMonitor.class));
+		assertTrue(empty.getData().size() < full.getData().size());
+		SemanticTokensHandler.evict(uri);
+	}
+
+	@Test
+	public void testComputeEdits() {
+		assertTrue(SemanticTokensHandler.computeEdits(new int[] { 1, 2, 3 }, new int[] { 1, 2, 3 }).isEmpty());
+
+		List<SemanticTokensEdit> edits = SemanticTokensHandler.computeEdits(new int[] { 1, 2, 3, 4, 5 }, new int[] { 1, 2, 9, 9, 4, 5 });
+		assertEquals(1, edits.size());
+		assertEquals(2, edits.get(0).getStart());
+		assertEquals(1, edits.get(0).getDeleteCount());
+		assertEquals(Arrays.asList(9, 9), edits.get(0).getData());
+
+		edits = SemanticTokensHandler.computeEdits(new int[] { 1, 2, 3, 4, 5 }, new int[] { 1, 5 });
+		assertEquals(1, edits.size());
+		assertEquals(1, edits.get(0).getStart());
+		assertEquals(3, edits.get(0).getDeleteCount());
+		assertTrue(edits.get(0).getData().isEmpty());
+	}
+
 	private String getURI(String compilationUnitName) {
 		return JDTUtils.toURI(fooPackage.getCompilationUnit(compilationUnitName));
 	}
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.jsonrpc.ResponseErrorException;
+import org.eclipse.lsp4j.jsonrpc.messages.ResponseErrorCode;
+import org.junit.Test;
+
+public class SupersedableRequestsTest {
+
+	private static final String URI = "file:///Foo.java";
+	private static final String OTHER_URI = "file:///Bar.java";
+
+	private SupersedableRequests requests = new SupersedableRequests();
+
+	@Test
+	public void testNewerRequestSupersedesOlder() throws Exception {
+		CompletableFuture<String> firstComputation = new CompletableFuture<>();
+		CompletableFuture<String> first = requests.track("textDocument/semanticTokens", URI, firstComputation);
+		CompletableFuture<String> second = requests.track("textDocument/semanticTokens", URI, new CompletableFuture<>());
+		assertContentModified(first);
+		assertTrue(firstComputation.isCancelled());
+		assertFalse(second.isDone());
+		assertEquals(1, requests.size(URI));
+	}
+
+	@Test
+	public void testDifferentMethodsAndDocumentsAreIndependent() {
+		CompletableFuture<String> tokens = requests.track("textDocument/semanticTokens", URI, new CompletableFuture<>());
+		CompletableFuture<String> hints = requests.track("textDocument/inlayHint", URI, new CompletableFuture<>());
+		CompletableFuture<String> otherTokens = requests.track("textDocument/semanticTokens", OTHER_URI, new CompletableFuture<>());
+		assertFalse(tokens.isDone());
+		assertFalse(hints.isDone());
+		assertFalse(otherTokens.isDone());
+		assertEquals(2, requests.size(URI));
+		assertEquals(1, requests.size(OTHER_URI));
+	}
+
+	@Test
+	public void testDifferentRangesAreIndependent() throws Exception {
+		Range top = new Range(new Position(0, 0), new Position(40, 0));
+		Range bottom = new Range(new Position(40, 0), new Position(80, 0));
+		CompletableFuture<String> topHints = requests.track("textDocument/inlayHint", URI, top, new CompletableFuture<>());
+		CompletableFuture<String> bottomHints = requests.track("textDocument/inlayHint", URI, bottom, new CompletableFuture<>());
+		assertFalse(topHints.isDone());
+		assertFalse(bottomHints.isDone());
+		assertEquals(2, requests.size(URI));
+		requests.track("textDocument/inlayHint", URI, new Range(new Position(0, 0), new Position(40, 0)), new CompletableFuture<>());
+		assertContentModified(topHints);
+		assertFalse(bottomHints.isDone());
+	}
+
+	@Test
+	public void testDocumentChangeCancelsRequests() throws Exception {
+		CompletableFuture<String> tokensComputation = new CompletableFuture<>();
+		CompletableFuture<String> tokens = requests.track("textDocument/semanticTokens", URI, tokensComputation);
+		CompletableFuture<String> lenses = requests.track("textDocument/codeLens", URI, new CompletableFuture<>());
+		CompletableFuture<String> otherTokens = requests.track("textDocument/semanticTokens", OTHER_URI, new CompletableFuture<>());
+		requests.cancel(URI);
+		assertContentModified(tokens);
+		assertContentModified(lenses);
+		assertTrue(tokensComputation.isCancelled());
+		assertFalse(otherTokens.isDone());
+		assertEquals(0, requests.size(URI));
+	}
+
+	@Test
+	public void testClientCancellationCancelsComputation() {
+		CompletableFuture<String> computation = new CompletableFuture<>();
+		CompletableFuture<String> tokens = requests.track("textDocument/semanticTokens", URI, computation);
+		tokens.cancel(true);
+		assertTrue(computation.isCancelled());
+		assertEquals(0, requests.size(URI));
+	}
+
+	@Test
+	public void testCompletedRequestsAreReleased() throws Exception {
+		CompletableFuture<String> computation = new CompletableFuture<>();
+		CompletableFuture<String> tokens = requests.track("textDocument/semanticTokens", URI, computation);
+		computation.complete("done");
+		assertEquals("done", tokens.get());
+		assertEquals(0, requests.size(URI));
+		requests.cancel(URI);
+		assertFalse(tokens.isCompletedExceptionally());
+	}
+
+	private static void assertContentModified(CompletableFuture<?> response) throws InterruptedException {
+		assertFalse(response.isCancelled());
+		try {
+			response.get();
+			fail("The request should be superseded");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof ResponseErrorException);
+			assertEquals(ResponseErrorCode.ContentModified.getValue(), ((ResponseErrorException) e.getCause()).getResponseError().getCode());
+		}
+	}
+}
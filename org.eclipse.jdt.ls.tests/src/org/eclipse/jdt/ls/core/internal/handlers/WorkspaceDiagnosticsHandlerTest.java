@@ -15,6 +15,8 @@ package org.eclipse.jdt.ls.core.internal.handlers;
 import static org.eclipse.jdt.ls.core.internal.WorkspaceHelper.getProject;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.atLeastOnce;
@@ -24,6 +26,7 @@ import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -415,6 +418,7 @@ public class WorkspaceDiagnosticsHandlerTest extends AbstractProjectsManagerBase
 		ResourceUtils.setContent(pom, ResourceUtils.getContent(pom).replaceAll("1.7", "1.8"));
 
 		ResourcesPlugin.getWorkspace().build(IncrementalProjectBuilder.FULL_BUILD, monitor);
+		waitForBackgroundJobs();
 		assertNoErrors(project);
 		List<IMarker> warnings = ResourceUtils.getWarningMarkers(project);
 
@@ -457,6 +461,23 @@ public class WorkspaceDiagnosticsHandlerTest extends AbstractProjectsManagerBase
 		assertEquals(4, diagnostic.getRange().getStart().getCharacter());
 	}
 
+	@Test
+	public void testLineIndexMatchesDocument() throws Exception {
+		importProjects("maven/salut4");
+		IProject proj = WorkspaceHelper.getProject("salut4");
+		IJavaProject javaProject = JavaCore.create(proj);
+		ICompilationUnit unit = javaProject.findType("org.sample.MyTest").getCompilationUnit();
+		IFile file = (IFile) unit.getUnderlyingResource();
+		IMarker[] markers = file.findMarkers(IJavaModelMarker.JAVA_MODEL_PROBLEM_MARKER, false, IResource.DEPTH_ZERO);
+		List<Diagnostic> expected = WorkspaceDiagnosticsHandler.toDiagnosticsArray(new Document(unit.getSource()), markers, false);
+		LineIndex lineIndex = LineIndex.of(file);
+		assertEquals(expected, WorkspaceDiagnosticsHandler.toDiagnosticsArray(lineIndex, markers, false));
+		// the index is cached until the file changes
+		assertSame(lineIndex, LineIndex.of(file));
+		file.setContents(new ByteArrayInputStream(unit.getSource().getBytes(file.getCharset())), true, false, null);
+		assertNotSame(lineIndex, LineIndex.of(file));
+	}
+
 	@Test
 	public void testMissingDependencies() throws Exception {
 		importProjects("maven/salut");
@@ -488,6 +509,7 @@ public class WorkspaceDiagnosticsHandlerTest extends AbstractProjectsManagerBase
 		captor = ArgumentCaptor.forClass(PublishDiagnosticsParams.class);
 		BuildWorkspaceHandler bwh = new BuildWorkspaceHandler(projectsManager);
 		bwh.buildWorkspace(true, new NullProgressMonitor());
+		waitForBackgroundJobs();
 		verify(connection, atLeastOnce()).publishDiagnostics(captor.capture());
 		allCalls = captor.getAllValues();
 		Collections.reverse(allCalls);
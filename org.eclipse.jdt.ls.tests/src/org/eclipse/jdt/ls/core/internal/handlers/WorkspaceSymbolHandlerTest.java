@@ -32,6 +32,7 @@ import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4j.SymbolInformation;
 import org.eclipse.lsp4j.SymbolKind;
 import org.eclipse.lsp4j.SymbolTag;
+import org.eclipse.lsp4j.WorkspaceSymbol;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -108,6 +109,21 @@ public class WorkspaceSymbolHandlerTest extends AbstractProjectsManagerBasedTest
 		}
 	}
 
+	@Test
+	public void testWorkspaceSymbolResolve() {
+		List<WorkspaceSymbol> results = WorkspaceSymbolHandler.searchWorkspaceSymbols("Baz", monitor);
+		assertEquals("Unexpected results", 2, results.size());
+		Range defaultRange = JDTUtils.newRange();
+		for (WorkspaceSymbol symbol : results) {
+			assertTrue(symbol.getName().startsWith("Baz"));
+			assertTrue("Location shouldn't be resolved yet", symbol.getLocation().isRight());
+			assertTrue("Unexpected uri " + symbol.getLocation().getRight().getUri(), symbol.getLocation().getRight().getUri().startsWith("file://"));
+			WorkspaceSymbol resolved = WorkspaceSymbolHandler.resolve(symbol, monitor);
+			assertTrue("Location should be resolved", resolved.getLocation().isLeft());
+			assertNotEquals("Range should not equal the default range", defaultRange, resolved.getLocation().getLeft().getRange());
+		}
+	}
+
 	@Test
 	public void testProjectSearch() {
 		String query = "IFoo";
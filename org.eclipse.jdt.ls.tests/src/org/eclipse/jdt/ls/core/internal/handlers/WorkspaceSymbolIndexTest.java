@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.handlers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.ls.core.internal.WorkspaceHelper;
+import org.eclipse.jdt.ls.core.internal.managers.AbstractProjectsManagerBasedTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class WorkspaceSymbolIndexTest extends AbstractProjectsManagerBasedTest {
+
+	private WorkspaceSymbolIndex index;
+	private IJavaProject javaProject;
+
+	@Before
+	public void setup() throws Exception {
+		importProjects("eclipse/hello");
+		javaProject = JavaCore.create(WorkspaceHelper.getProject("hello"));
+		index = new WorkspaceSymbolIndex();
+		index.addElementChangeListener();
+	}
+
+	@After
+	public void tearDown() {
+		index.removeElementChangeListener();
+	}
+
+	@Test
+	public void testExactMatchesFirst() throws Exception {
+		List<WorkspaceSymbolIndex.Entry> results = index.search("Foo", null, 0, monitor);
+		assertTrue(results.size() > 2);
+		assertEquals("Foo", results.get(0).getName());
+		boolean exact = true;
+		for (WorkspaceSymbolIndex.Entry entry : results) {
+			if (!"Foo".equals(entry.getName())) {
+				exact = false;
+			} else {
+				assertTrue("Exact match ranked after " + entry.getQualifiedName(), exact);
+			}
+		}
+	}
+
+	@Test
+	public void testMaxResults() throws Exception {
+		List<WorkspaceSymbolIndex.Entry> results = index.search("Foo", null, 2, monitor);
+		assertEquals(2, results.size());
+	}
+
+	@Test
+	public void testQualifiedQuery() throws Exception {
+		List<WorkspaceSymbolIndex.Entry> results = index.search("org.sample.Foo", null, 0, monitor);
+		assertEquals("org.sample.Foo", results.get(0).getQualifiedName());
+		assertTrue(results.stream().allMatch(entry -> entry.getContainerName().startsWith("org.sample")));
+	}
+
+	@Test
+	public void testCamelCaseQuery() throws Exception {
+		List<WorkspaceSymbolIndex.Entry> results = index.search("CHGH", null, 0, monitor);
+		assertTrue(results.stream().anyMatch(entry -> "CallHierarchyGH2771".equals(entry.getName())));
+	}
+
+	@Test
+	public void testUpdatedFromDeltas() throws Exception {
+		assertTrue(index.search("Zork", null, 0, monitor).isEmpty());
+
+		IPackageFragmentRoot root = javaProject.getPackageFragmentRoot(javaProject.getProject().getFolder("src"));
+		IPackageFragment pack = root.createPackageFragment("mypack", true, null);
+		// @formatter:off
+		String contents = "package mypack;\n" +
+						"public class Zork {\n" +
+						"	public interface ZorkInner {}\n" +
+						"}\n";
+		// @formatter:on
+		ICompilationUnit unit = pack.createCompilationUnit("Zork.java", contents, true, null);
+
+		List<WorkspaceSymbolIndex.Entry> results = index.search("Zork", null, 0, monitor);
+		assertEquals(2, results.size());
+		assertEquals("mypack.Zork", results.get(0).getQualifiedName());
+		assertEquals("mypack.Zork.ZorkInner", results.get(1).getQualifiedName());
+
+		unit.delete(true, null);
+		assertTrue(index.search("Zork", null, 0, monitor).isEmpty());
+	}
+}
@@ -77,6 +77,7 @@ import org.eclipse.jdt.ls.core.internal.ResourceUtils;
 import org.eclipse.jdt.ls.core.internal.SimpleLogListener;
 import org.eclipse.jdt.ls.core.internal.WorkspaceHelper;
 import org.eclipse.jdt.ls.core.internal.handlers.BundleUtils;
+import org.eclipse.jdt.ls.core.internal.handlers.DiagnosticsPublisher;
 import org.eclipse.jdt.ls.core.internal.handlers.ProgressReporterManager;
 import org.eclipse.jdt.ls.core.internal.preferences.ClientPreferences;
 import org.eclipse.jdt.ls.core.internal.preferences.PreferenceManager;
@@ -257,6 +258,7 @@ public abstract class AbstractProjectsManagerBasedTest {
 	protected void waitForBackgroundJobs() throws Exception {
 		JobHelpers.waitForJobsToComplete(monitor);
 		Job.getJobManager().join(CorePlugin.GRADLE_JOB_FAMILY, monitor);
+		Job.getJobManager().join(DiagnosticsPublisher.PUBLISH_JOBS, monitor);
 		JobHelpers.waitUntilIndexesReady();
 	}
 
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Red Hat Inc. and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Red Hat Inc. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ls.core.internal.managers;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DigestStoreTest {
+
+	private File stateLocation;
+	private DigestStore store;
+
+	@Before
+	public void setup() throws Exception {
+		stateLocation = Files.createTempDirectory("digest-store").toFile();
+		store = new DigestStore(stateLocation);
+	}
+
+	@After
+	public void tearDown() {
+		store.close();
+		FileUtils.deleteQuietly(stateLocation);
+	}
+
+	@Test
+	public void testUpdateDigest() throws Exception {
+		Path pom = write("pom.xml", "<project/>");
+		assertTrue(store.updateDigest(pom));
+		assertFalse(store.updateDigest(pom));
+
+		// same content, touched
+		Files.setLastModifiedTime(pom, FileTime.fromMillis(Files.getLastModifiedTime(pom).toMillis() + 2000));
+		assertFalse(store.updateDigest(pom));
+
+		Files.writeString(pom, "<project><modules/></project>");
+		assertTrue(store.updateDigest(pom));
+		assertFalse(store.updateDigest(pom));
+	}
+
+	@Test
+	public void testDigestsArePersisted() throws Exception {
+		Path pom = write("pom.xml", "<project/>");
+		Path gradle = write("build.gradle", "apply plugin: 'java'");
+		assertTrue(store.updateDigest(pom));
+		assertTrue(store.updateDigest(gradle));
+		store.close();
+
+		store = new DigestStore(stateLocation);
+		assertFalse(store.updateDigest(pom));
+		assertFalse(store.updateDigest(gradle));
+		Files.writeString(gradle, "apply plugin: 'java-library'");
+		assertTrue(store.updateDigest(gradle));
+	}
+
+	@Test
+	public void testBatchUpdateAndCompaction() throws Exception {
+		List<Path> poms = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			poms.add(write("pom" + i + ".xml", "<project>" + i + "</project>"));
+		}
+		assertEquals(poms.size(), store.updateDigests(poms).size());
+		for (int round = 0; round < 3; round++) {
+			for (int i = 0; i < poms.size(); i += 2) {
+				Files.writeString(poms.get(i), "<project>" + i + "-" + round + "</project>");
+				// the rounds write contents of the same size, make sure the modification time differs
+				Files.setLastModifiedTime(poms.get(i), FileTime.fromMillis(Files.getLastModifiedTime(poms.get(i)).toMillis() + (round + 1) * 10_000L));
+			}
+			Set<Path> changed = store.updateDigests(poms);
+			assertEquals(poms.size() / 2, changed.size());
+			assertTrue(changed.contains(poms.get(0)));
+			assertFalse(changed.contains(poms.get(1)));
+		}
+		store.close();
+
+		store = new DigestStore(stateLocation);
+		assertTrue(store.updateDigests(poms).isEmpty());
+		// superseded records have been dropped
+		assertTrue(store.getRecordCount() < 2 * poms.size());
+	}
+
+	@Test
+	public void testMigrateLegacyDigests() throws Exception {
+		Path pom = write("pom.xml", "<project/>");
+		Path gradle = write("build.gradle", "apply plugin: 'java'");
+		Map<String, String> legacy = new HashMap<>();
+		legacy.put(pom.toString(), Arrays.toString(MessageDigest.getInstance("MD5").digest(Files.readAllBytes(pom))));
+		legacy.put(gradle.toString(), Arrays.toString(new byte[] { 1, 2, 3 }));
+		store.close();
+		File legacyFile = new File(stateLocation, ".file-digests");
+		try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(legacyFile))) {
+			out.writeObject(legacy);
+		}
+
+		store = new DigestStore(stateLocation);
+		assertFalse(legacyFile.exists());
+		assertFalse(store.updateDigest(pom));
+		assertTrue(store.updateDigest(gradle));
+	}
+
+	@Test
+	public void testParseLegacyDigest() {
+		byte[] digest = new byte[] { -128, 0, 127, 42 };
+		assertArrayEquals(digest, DigestStore.parseLegacyDigest(Arrays.toString(digest)));
+		assertArrayEquals(new byte[0], DigestStore.parseLegacyDigest("[]"));
+	}
+
+	private Path write(String name, String content) throws Exception {
+		Path path = stateLocation.toPath().resolve(name);
+		Files.writeString(path, content);
+		return path;
+	}
+}